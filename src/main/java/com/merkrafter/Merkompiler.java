@@ -6,12 +6,25 @@ import com.merkrafter.config.ErrorCode;
 import com.merkrafter.lexing.Scanner;
 import com.merkrafter.lexing.TokenType;
 import com.merkrafter.parsing.Parser;
+import com.merkrafter.parsing.Recognizer;
+import com.merkrafter.representation.ClassDescription;
+import com.merkrafter.representation.ProcedureIndex;
+import com.merkrafter.representation.ProcedureIndexFile;
 import com.merkrafter.representation.ast.AbstractSyntaxTree;
 import com.merkrafter.representation.ast.ClassNode;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.PrintStream;
 import java.io.PrintWriter;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import net.sourceforge.argparse4j.inf.ArgumentParserException;
 import org.jetbrains.annotations.NotNull;
 
@@ -22,8 +35,8 @@ public class Merkompiler {
   @NotNull public static final String VERSION = "v0.4.0";
 
   /**
-   * The main function of this compiler reads in the filename and handles other possible command
-   * line options. It then runs the compiler on the input file.
+   * The main function of this compiler reads in the filenames and handles other possible command
+   * line options. It then runs the compiler on the input files.
    */
   public static void main(String[] args) {
     // to change the arguments in IntelliJ, press Alt+Shift+F10
@@ -36,6 +49,9 @@ public class Merkompiler {
     } catch (FileNotFoundException e) {
       System.err.println(e.getMessage());
       System.exit(ErrorCode.FILE_NOT_FOUND.id);
+    } catch (IOException e) {
+      System.err.println(e.getMessage());
+      System.exit(ErrorCode.IO_ERROR.id);
     }
   }
 
@@ -45,21 +61,13 @@ public class Merkompiler {
    *
    * @param config configuration data for this program call
    * @throws FileNotFoundException if the input or output file could not be found
+   * @throws IOException if a procedure index could not be read or written
    */
-  static void run(@NotNull final Config config) throws FileNotFoundException {
+  static void run(@NotNull final Config config) throws IOException {
     if (config.isVerbose()) {
       System.out.println(config);
     }
 
-    final File inputFile = new File(config.getInputFile());
-    final Input input = new Input(inputFile.getAbsolutePath());
-    final Scanner scanner = new Scanner(input);
-    if (config.isVerbose()) {
-      scanner.setFilename(inputFile.getAbsolutePath());
-    } else {
-      scanner.setFilename(inputFile.getName());
-    }
-
     PrintStream out = System.out; // write to stdout by default
 
     // write to output file if given
@@ -68,27 +76,184 @@ public class Merkompiler {
     }
 
     if (config.getStage() == CompilerStage.SCANNING) {
-      // only print the tokens if the processing should stop after scanning
-      do {
-        scanner.processToken();
-        out.println(scanner.getSym());
-      } while (scanner.getSym().getType() != TokenType.EOF);
+      for (final String inputFile : config.getInputFiles()) {
+        final Scanner scanner = createScanner(inputFile, config);
+        // only print the tokens if the processing should stop after scanning
+        do {
+          scanner.processToken();
+          out.println(scanner.getSym());
+        } while (scanner.getSym().getType() != TokenType.EOF);
+      }
+    } else if (config.getStage() == CompilerStage.SYNTAX_CHECKING) {
+      for (final String inputFile : config.getInputFiles()) {
+        final Recognizer recognizer = new Recognizer(createScanner(inputFile, config));
+        if (!recognizer.recognize()) {
+          System.err.println(recognizer.getError());
+        }
+      }
     } else if (config.getStage() == CompilerStage.PARSING) {
-      final Parser parser = new Parser(scanner);
-      final AbstractSyntaxTree abstractSyntaxTree = parser.parse();
-      int numErrors = 0;
-      for (final String errMsg : abstractSyntaxTree.getAllErrors()) {
-        numErrors++;
-        System.err.println(errMsg);
+      final Set<AbstractSyntaxTree> unlinked = Collections.newSetFromMap(new IdentityHashMap<>());
+      final List<AbstractSyntaxTree> trees = parseAndLink(config, unlinked);
+      final List<ClassDescription> classes = new ArrayList<>(trees.size());
+      // only needed if the procedures should be checked in parallel
+      final ForkJoinPool checkPool =
+          config.getThreads() > 1 ? new ForkJoinPool(config.getThreads()) : null;
+      try {
+        for (int i = 0; i < trees.size(); i++) {
+          final AbstractSyntaxTree abstractSyntaxTree = trees.get(i);
+          // calls that could not be linked have no type, hence checking would report only
+          // follow-up errors of the calls that were reported already
+          if (unlinked.contains(abstractSyntaxTree)) {
+            continue;
+          }
+          final List<String> errors =
+              checkPool != null && abstractSyntaxTree instanceof ClassNode
+                  ? ((ClassNode) abstractSyntaxTree).getAllErrors(checkPool)
+                  : abstractSyntaxTree.getAllErrors();
+          int numErrors = 0;
+          for (final String errMsg : errors) {
+            numErrors++;
+            System.err.println(errMsg);
+          }
+          if (numErrors == 0 && abstractSyntaxTree instanceof ClassNode) {
+            final ClassNode classNode = (ClassNode) abstractSyntaxTree;
+            classes.add(classNode.getClassDescription());
+            classNode.resolveVariables();
+            if (config.isGraphical()) {
+              final PrintWriter dotFileWriter =
+                  new PrintWriter(config.getInputFiles().get(i) + ".dot");
+              dotFileWriter.print(classNode.getDotRepresentation());
+              dotFileWriter.close();
+            }
+          }
+        }
+      } finally {
+        // also release the threads if a dot file could not be written
+        if (checkPool != null) {
+          checkPool.shutdown();
+        }
       }
-      if (config.isGraphical() && numErrors == 0 && abstractSyntaxTree instanceof ClassNode) {
-        final PrintWriter dotFileWriter = new PrintWriter(config.getInputFile() + ".dot");
-        dotFileWriter.print(((ClassNode) abstractSyntaxTree).getDotRepresentation());
-        dotFileWriter.close();
+      // only export the procedures if all files could be compiled
+      if (config.getIndexFile() != null && classes.size() == trees.size()) {
+        ProcedureIndexFile.write(Paths.get(config.getIndexFile()), classes);
       }
     }
     if (out != System.out) {
       out.close();
     }
   }
+
+  /**
+   * Parses all input files in parallel and registers the procedures of each class in a global
+   * index as soon as the class is parsed. After all files are parsed, the calls of each class are
+   * linked in parallel, first against the class itself, then against the index and finally against
+   * the procedure indexes of the libraries. As the index is a concurrent map, neither phase needs a
+   * global lock. Each class numbers its nodes after it was linked.
+   *
+   * @param config configuration data for this program call
+   * @param unlinked receives the classes with calls that could not be linked
+   * @return the syntax trees in the order of the input files
+   * @throws FileNotFoundException if one of the input files could not be found
+   * @throws IOException if one of the libraries could not be read
+   */
+  @NotNull
+  private static List<AbstractSyntaxTree> parseAndLink(
+      @NotNull final Config config, @NotNull final Set<AbstractSyntaxTree> unlinked)
+      throws IOException {
+    final List<String> inputFiles = config.getInputFiles();
+    final List<ProcedureIndexFile> libraries = new ArrayList<>(config.getLibraries().size());
+    for (final String library : config.getLibraries()) {
+      libraries.add(ProcedureIndexFile.open(Paths.get(library)));
+    }
+    final ProcedureIndex procedureIndex = new ProcedureIndex(libraries);
+    final ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    final List<ForkJoinTask<Object>> parseTasks = new ArrayList<>(inputFiles.size());
+    for (final String inputFile : inputFiles) {
+      parseTasks.add(
+          pool.submit(
+              () -> {
+                try {
+                  final Parser parser =
+                      new Parser(
+                          createScanner(inputFile, config),
+                          config.getParsingMode(),
+                          config.isSharingExpressions());
+                  final AbstractSyntaxTree abstractSyntaxTree = parser.parse();
+                  if (abstractSyntaxTree instanceof ClassNode) {
+                    procedureIndex.register(
+                        ((ClassNode) abstractSyntaxTree).getClassDescription());
+                  }
+                  return abstractSyntaxTree;
+                } catch (FileNotFoundException e) {
+                  return e;
+                }
+              }));
+    }
+    // wait for all files before linking, as any of them may declare a called procedure
+    final List<AbstractSyntaxTree> trees = new ArrayList<>(inputFiles.size());
+    for (final ForkJoinTask<Object> task : parseTasks) {
+      final Object result = task.join();
+      if (result instanceof FileNotFoundException) {
+        throw (FileNotFoundException) result;
+      }
+      trees.add((AbstractSyntaxTree) result);
+    }
+    for (final String errMsg : procedureIndex.getDiagnostics()) {
+      System.err.println(errMsg);
+    }
+
+    final List<ClassNode> classNodes = new ArrayList<>(trees.size());
+    final List<ForkJoinTask<List<String>>> linkTasks = new ArrayList<>(trees.size());
+    for (final AbstractSyntaxTree abstractSyntaxTree : trees) {
+      if (abstractSyntaxTree instanceof ClassNode) {
+        classNodes.add((ClassNode) abstractSyntaxTree);
+        linkTasks.add(
+            pool.submit(
+                () -> {
+                  final ClassNode classNode = (ClassNode) abstractSyntaxTree;
+                  // a class with a syntax error in a lazy body only reports that error
+                  if (classNode.getSyntaxError() != null) {
+                    return Collections.<String>emptyList();
+                  }
+                  final List<String> diagnostics = classNode.resolveProcedureCalls(procedureIndex);
+                  // no node is replaced after linking, hence the numbering is final
+                  classNode.numberNodes();
+                  return diagnostics;
+                }));
+      }
+    }
+    // report the calls that could not be linked in the order of the input files
+    for (int i = 0; i < linkTasks.size(); i++) {
+      final List<String> diagnostics = linkTasks.get(i).join();
+      if (!diagnostics.isEmpty()) {
+        unlinked.add(classNodes.get(i));
+      }
+      for (final String errMsg : diagnostics) {
+        System.err.println(errMsg);
+      }
+    }
+    return trees;
+  }
+
+  /**
+   * Creates a scanner for the given file that reports positions with the file name.
+   *
+   * @param inputFile the path of the file to scan
+   * @param config configuration data for this program call
+   * @return a scanner at the start of the file
+   * @throws FileNotFoundException if the input file could not be found
+   */
+  @NotNull
+  private static Scanner createScanner(
+      @NotNull final String inputFile, @NotNull final Config config) throws FileNotFoundException {
+    final File file = new File(inputFile);
+    final Scanner scanner = new Scanner(new Input(file.getAbsolutePath()));
+    if (config.isVerbose()) {
+      scanner.setFilename(file.getAbsolutePath());
+    } else {
+      scanner.setFilename(file.getName());
+    }
+    return scanner;
+  }
 }
@@ -14,6 +14,11 @@ public enum CompilerStage {
   // ==============================================================
   /** Only scan the input and output tokens. */
   SCANNING,
+  /**
+   * Scan the input and check whether it is grammatical, but do not build an AST or symbol tables.
+   * Only the first syntax error is reported.
+   */
+  SYNTAX_CHECKING,
   /** Scan and parse the input and output whether this was successful. */
   PARSING;
 
@@ -1,6 +1,9 @@
 package com.merkrafter.config;
 
 import com.merkrafter.Merkompiler;
+import com.merkrafter.parsing.ParsingMode;
+import java.util.Collections;
+import java.util.List;
 import net.sourceforge.argparse4j.ArgumentParsers;
 import net.sourceforge.argparse4j.impl.Arguments;
 import net.sourceforge.argparse4j.inf.ArgumentParser;
@@ -19,32 +22,58 @@ import org.jetbrains.annotations.Nullable;
 public class Config {
   // ATTRIBUTES
   // ==============================================================
-  @NotNull private final String inputFile;
+  @NotNull private final List<String> inputFiles;
   @Nullable private final String outputFile;
   private final boolean verbose;
   @Nullable private final CompilerStage stage;
   private final boolean graphical;
+  @NotNull private final ParsingMode parsingMode;
+  /** where to write the procedure index of the input files; null if it should not be written */
+  @Nullable private final String indexFile;
+  /** procedure indexes of classes that are called but not compiled */
+  @NotNull private final List<String> libraries;
+  /** how many threads check the procedures of a class */
+  private final int threads;
+  /** whether structurally equal expressions of a method body share their nodes */
+  private final boolean shareExpressions;
 
   // CONSTRUCTORS
   // ==============================================================
   private Config(
-      @NotNull final String inputFile,
+      @NotNull final List<String> inputFiles,
       @Nullable final String outputFile,
       boolean verbose,
       @Nullable final CompilerStage stage,
-      final boolean graphical) {
-    this.inputFile = inputFile;
+      final boolean graphical,
+      @NotNull final ParsingMode parsingMode,
+      @Nullable final String indexFile,
+      @NotNull final List<String> libraries,
+      final int threads,
+      final boolean shareExpressions) {
+    this.inputFiles = inputFiles;
     this.outputFile = outputFile;
     this.verbose = verbose;
     this.stage = stage;
     this.graphical = graphical;
+    this.parsingMode = parsingMode;
+    this.indexFile = indexFile;
+    this.libraries = libraries;
+    this.threads = threads;
+    this.shareExpressions = shareExpressions;
   }
 
   // GETTER
   // ==============================================================
+  /** @return the first input file */
   @NotNull
   public String getInputFile() {
-    return inputFile;
+    return inputFiles.get(0);
+  }
+
+  /** @return all input files in the order they were given; contains at least one file */
+  @NotNull
+  public List<String> getInputFiles() {
+    return Collections.unmodifiableList(inputFiles);
   }
 
   @Nullable
@@ -65,6 +94,30 @@ public class Config {
     return graphical;
   }
 
+  @NotNull
+  public ParsingMode getParsingMode() {
+    return parsingMode;
+  }
+
+  @Nullable
+  public String getIndexFile() {
+    return indexFile;
+  }
+
+  @NotNull
+  public List<String> getLibraries() {
+    return Collections.unmodifiableList(libraries);
+  }
+
+  /** @return the maximum number of threads that check the procedures of a class; at least 1 */
+  public int getThreads() {
+    return threads;
+  }
+
+  public boolean isSharingExpressions() {
+    return shareExpressions;
+  }
+
   // METHODS
   // ==============================================================
   // public methods
@@ -84,7 +137,14 @@ public class Config {
             .defaultHelp(true)
             .description("Compiles JavaSST files");
     parser.version("${prog} " + Merkompiler.VERSION);
-    parser.addArgument("INPUT").required(true).type(String.class).help("JavaSST source code file");
+    parser
+        .addArgument("INPUT")
+        .required(true)
+        .nargs("+")
+        .type(String.class)
+        .help(
+            "JavaSST source code file(s); calls to procedures of other classes are linked if"
+                + " multiple files are given");
     parser
         .addArgument("-v", "--verbose")
         .action(Arguments.storeTrue())
@@ -110,28 +170,88 @@ public class Config {
         .addArgument("-g", "--graphical")
         .action(Arguments.storeTrue())
         .help("output a .dot file showing the abstract syntax tree of the specified source file");
+    parser
+        .addArgument("--parsing-mode")
+        .type(Arguments.caseInsensitiveEnumType(ParsingMode.class))
+        .dest("parsingMode")
+        .setDefault(ParsingMode.SEQUENTIAL)
+        .help(
+            "how method bodies are parsed; parallel parses them on all available cores, lazy"
+                + " parses them only when they are needed");
+    parser
+        .addArgument("--write-index")
+        .type(String.class)
+        .metavar("INDEX")
+        .dest("indexFile")
+        .help(
+            "after a successful compilation, write the procedure signatures of the input files to"
+                + " INDEX, so that other programs can call them without parsing them again");
+    parser
+        .addArgument("-L", "--library")
+        .type(String.class)
+        .metavar("INDEX")
+        .action(Arguments.append())
+        .dest("libraries")
+        .help("link calls to procedures in the given index; can be given multiple times");
+    parser
+        .addArgument("-j", "--threads")
+        .type(Integer.class)
+        .choices(Arguments.range(1, Integer.MAX_VALUE))
+        .metavar("N")
+        .setDefault(1)
+        .help("check the procedures of each class on up to N threads");
+    parser
+        .addArgument("--share-expressions")
+        .action(Arguments.storeTrue())
+        .dest("shareExpressions")
+        .help(
+            "represent equal expressions within a method body by the same nodes to save memory;"
+                + " errors in them are reported once, at their first occurrence");
 
     // parse the arguments
     Namespace namespace;
     namespace = parser.parseArgs(args);
 
     // build Config instance
-    String inputFileName = null;
+    List<String> inputFileNames = null;
     String outputFileName = null;
     boolean verbose = false;
     CompilerStage stage = CompilerStage.latest();
     boolean graphical = false;
+    ParsingMode parsingMode = ParsingMode.SEQUENTIAL;
+    String indexFile = null;
+    List<String> libraries = null;
+    int threads = 1;
+    boolean shareExpressions = false;
 
     if (namespace != null) {
-      inputFileName = namespace.getString("INPUT");
+      inputFileNames = namespace.getList("INPUT");
       outputFileName = namespace.getString("output");
       verbose = namespace.getBoolean("verbose");
       stage = namespace.get("compilerStage");
       graphical = namespace.get("graphical");
+      parsingMode = namespace.get("parsingMode");
+      indexFile = namespace.getString("indexFile");
+      libraries = namespace.getList("libraries");
+      threads = namespace.getInt("threads");
+      shareExpressions = namespace.getBoolean("shareExpressions");
     }
 
-    assert inputFileName != null; // because it is required and thus handled by Argparse
-    return new Config(inputFileName, outputFileName, verbose, stage, graphical);
+    assert inputFileNames != null; // because it is required and thus handled by Argparse
+    if (libraries == null) { // the append action does not create a list if it is not used
+      libraries = Collections.emptyList();
+    }
+    return new Config(
+        inputFileNames,
+        outputFileName,
+        verbose,
+        stage,
+        graphical,
+        parsingMode,
+        indexFile,
+        libraries,
+        threads,
+        shareExpressions);
   }
 
   /**
@@ -150,7 +270,17 @@ public class Config {
   @Override
   public String toString() {
     return String.format(
-        "Config(INPUT=%s, OUTPUT=%s, verbose=%b, stage=%s, graphical=%b)",
-        inputFile, outputFile, verbose, stage, graphical);
+        "Config(INPUT=%s, OUTPUT=%s, verbose=%b, stage=%s, graphical=%b, parsingMode=%s,"
+            + " index=%s, libraries=%s, threads=%d, shareExpressions=%b)",
+        String.join(" ", inputFiles),
+        outputFile,
+        verbose,
+        stage,
+        graphical,
+        parsingMode,
+        indexFile,
+        libraries,
+        threads,
+        shareExpressions);
   }
 }
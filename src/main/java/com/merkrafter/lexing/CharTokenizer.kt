@@ -139,7 +139,7 @@ class CharTokenizer(input: Sequence<Char>, private val filename: String = "") :
         return if (keyword != null) {
             KeywordToken(keyword, filename, startingLine, startingColumn)
         } else {
-            IdentToken(ident.toString(), filename, startingLine, startingColumn)
+            IdentToken(StringInterner.intern(ident), filename, startingLine, startingColumn)
         }
     }
 
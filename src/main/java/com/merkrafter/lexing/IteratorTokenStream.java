@@ -0,0 +1,61 @@
+package com.merkrafter.lexing;
+
+import java.util.Iterator;
+import org.jetbrains.annotations.NotNull;
+
+/****
+ * This class turns an iterator of tokens, a CharTokenizer for instance, into a TokenStream.
+ * As such iterators do not need to emit an EOF token themselves, one is appended after the last
+ * token, located at the position of that last token.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+public class IteratorTokenStream implements TokenStream {
+  // ATTRIBUTES
+  // ==============================================================
+  @NotNull private final Iterator<Token> tokens;
+  /** This field stores the token that was read last. */
+  @NotNull private Token sym;
+
+  // CONSTRUCTORS
+  // ==============================================================
+
+  /****
+   * Creates a new IteratorTokenStream that reads the given tokens.
+   ***************************************************************/
+  public IteratorTokenStream(@NotNull final Iterator<Token> tokens) {
+    this.tokens = tokens;
+    sym = new OtherToken("start", "", 0, -1);
+  }
+
+  // GETTER
+  // ==============================================================
+
+  @NotNull
+  @Override
+  public Token getSym() {
+    return sym;
+  }
+
+  // METHODS
+  // ==============================================================
+  // public methods
+  // --------------------------------------------------------------
+
+  /** Reads the next token from the iterator or creates an EOF token if it has no more tokens. */
+  @Override
+  public void processToken() {
+    if (sym.getType() == TokenType.EOF) {
+      return;
+    }
+    if (tokens.hasNext()) {
+      sym = tokens.next();
+    } else {
+      final Position position = sym.getPosition();
+      sym =
+          new Token(
+              TokenType.EOF, position.getFilename(), position.getLine(), position.getColumn());
+    }
+  }
+}
@@ -29,6 +29,15 @@ public class OtherToken extends Token {
     this.string = string;
   }
 
+  // GETTER
+  // ==============================================================
+
+  /** @return the string that could not be recognized as another token */
+  @NotNull
+  public String getString() {
+    return string;
+  }
+
   // METHODS
   // ==============================================================
   // public methods
@@ -12,7 +12,7 @@ import org.jetbrains.annotations.Nullable;
  *
  * @author merkrafter
  ***************************************************************/
-public class Scanner {
+public class Scanner implements TokenStream {
   // ATTRIBUTES
   // ==============================================================
   /** This is the character input stream that this Scanner tokenizes. */
@@ -58,6 +58,7 @@ public class Scanner {
   // GETTER
   // ==============================================================
   @NotNull
+  @Override
   public Token getSym() {
     return sym;
   }
@@ -103,6 +104,7 @@ public class Scanner {
    * sets the id and num fields if appropriate. After sym is TokenType.EOF, this Scanner is done
    * processing the iterator.
    */
+  @Override
   public void processToken() {
     if (charBuffer != null) {
       ch = charBuffer;
@@ -414,7 +416,7 @@ public class Scanner {
       // id is not a keyword
       sym =
           new IdentToken(
-              id.toString(),
+              StringInterner.intern(id),
               sym.getPosition().getFilename(),
               sym.getPosition().getLine(),
               sym.getPosition().getColumn());
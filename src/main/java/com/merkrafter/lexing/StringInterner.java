@@ -0,0 +1,76 @@
+package com.merkrafter.lexing;
+
+import org.jetbrains.annotations.NotNull;
+
+/****
+ * This class shares the Strings of identifiers between all lexers of a process. Names like
+ * <code>x</code> or <code>result</code> appear in most files, and if they are interned, all tokens,
+ * nodes and descriptions with such a name refer to the same String, which saves memory when many
+ * files are compiled in one JVM and makes most calls of equals end at the reference comparison.
+ * <p>
+ * The Strings are stored in a fixed-size table that is indexed by their hashes. A String replaces
+ * any other String in its slot, hence the memory used is bounded and rarely used names are evicted
+ * over time. Names whose hashes collide evict each other, and a name that was evicted is interned
+ * as a new copy later on. Therefore, equal names are usually, but not always identical: equals is
+ * fast in the common case, but comparing names by reference is not a valid equality check.
+ * <p>
+ * The table is read and written without any locks. This is safe, as a slot holds either null or a
+ * String whose characters are visible to every thread: the array that holds them is a final field
+ * of String, and the Java memory model guarantees that final fields are seen initialized after
+ * construction even without synchronization. String also caches its hash in a field that is not
+ * final. A thread may see that cache as 0, but then it only computes the same hash again. Two
+ * threads that intern the same new name at once may create two copies; one of them wins the slot.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+public final class StringInterner {
+  // CONSTANTS
+  // ==============================================================
+  /** the number of slots; must be a power of two */
+  private static final int CAPACITY = 1 << 14;
+
+  /** names longer than this are not interned, as they are unlikely to repeat */
+  private static final int MAX_LENGTH = 64;
+
+  // ATTRIBUTES
+  // ==============================================================
+  @NotNull private static final String[] table = new String[CAPACITY];
+
+  // CONSTRUCTORS
+  // ==============================================================
+
+  private StringInterner() {}
+
+  // METHODS
+  // ==============================================================
+  // public methods
+  // --------------------------------------------------------------
+
+  /**
+   * Returns a String with the given characters. If an equal String was interned recently, that one
+   * is returned and no String is created.
+   *
+   * @param chars the characters of an identifier, for instance from a StringBuilder
+   * @return a String that is equal to chars
+   */
+  @NotNull
+  public static String intern(@NotNull final CharSequence chars) {
+    final int length = chars.length();
+    if (length > MAX_LENGTH) {
+      return chars.toString();
+    }
+    int hash = 0; // the same as String.hashCode
+    for (int i = 0; i < length; i++) {
+      hash = 31 * hash + chars.charAt(i);
+    }
+    final int slot = (hash ^ (hash >>> 16)) & (CAPACITY - 1);
+    final String stored = table[slot];
+    if (stored != null && stored.contentEquals(chars)) {
+      return stored;
+    }
+    final String string = chars.toString();
+    table[slot] = string;
+    return string;
+  }
+}
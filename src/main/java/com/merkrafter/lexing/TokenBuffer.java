@@ -0,0 +1,274 @@
+package com.merkrafter.lexing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import org.jetbrains.annotations.NotNull;
+
+/****
+ * This class stores all tokens of an input so that they can be accessed in any order.
+ * When it is created, it also finds out which curly braces belong together. This allows parsers to
+ * skip whole blocks without looking at their contents.
+ * <p>
+ * The tokens are not kept as objects but as a few primitive arrays. Identifiers, other strings and
+ * filenames are stored only once per buffer and referenced by index. Token objects are created
+ * again when they are accessed via get(int). As a TokenBuffer can not be modified after its
+ * creation, it can be shared between threads and reused for several parser runs.
+ * <p>
+ * The last token of a TokenBuffer is always a TokenType.EOF token.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+public class TokenBuffer {
+  // CONSTANTS
+  // ==============================================================
+  private static final TokenType[] TOKEN_TYPES = TokenType.values();
+  private static final Keyword[] KEYWORDS = Keyword.values();
+  private static final int INITIAL_CAPACITY = 64;
+
+  // ATTRIBUTES
+  // ==============================================================
+  /** number of tokens in this buffer */
+  private int size;
+  /** the ordinal of the TokenType of each token */
+  @NotNull private byte[] types;
+  /** the line of each token; lines beyond Integer.MAX_VALUE are not supported */
+  @NotNull private int[] lines;
+
+  @NotNull private int[] columns;
+  /** the index of the filename of each token inside the strings array */
+  @NotNull private int[] filenames;
+  /**
+   * Depends on the type of the token: the index of the identifier or string inside the strings
+   * array, the index of the number inside the numbers array or the ordinal of the keyword.
+   */
+  @NotNull private int[] payloads;
+  /** all distinct identifiers, strings and filenames of the tokens */
+  @NotNull private final List<String> strings;
+
+  @NotNull private long[] numbers;
+  private int numberCount;
+  /** Stores the index of the matching brace for each brace token and -1 for all other tokens. */
+  @NotNull private final int[] matchingBraces;
+
+  // CONSTRUCTORS
+  // ==============================================================
+
+  /****
+   * Creates a new TokenBuffer from the given tokens. If the list does not end with an EOF token,
+   * one is appended.
+   ***************************************************************/
+  public TokenBuffer(@NotNull final List<Token> tokens) {
+    this(tokens.iterator());
+  }
+
+  /****
+   * Creates a new TokenBuffer from the tokens of the given iterator. If they do not end with an
+   * EOF token, one is appended.
+   ***************************************************************/
+  private TokenBuffer(@NotNull final Iterator<Token> tokens) {
+    types = new byte[INITIAL_CAPACITY];
+    lines = new int[INITIAL_CAPACITY];
+    columns = new int[INITIAL_CAPACITY];
+    filenames = new int[INITIAL_CAPACITY];
+    payloads = new int[INITIAL_CAPACITY];
+    strings = new ArrayList<>();
+    numbers = new long[INITIAL_CAPACITY];
+
+    final Map<String, Integer> stringIndices = new HashMap<>();
+    while (tokens.hasNext()) {
+      append(tokens.next(), stringIndices);
+    }
+    if (size == 0 || getType(size - 1) != TokenType.EOF) {
+      append(new Token(TokenType.EOF, "", 0, 0), stringIndices);
+    }
+    trimToSize();
+    this.matchingBraces = findMatchingBraces();
+  }
+
+  /**
+   * Reads all tokens from the given stream until it reaches the end of its input and stores them
+   * in a new TokenBuffer.
+   *
+   * @param tokenStream a stream that did not process any tokens yet
+   * @return a TokenBuffer containing all tokens of the stream
+   */
+  @NotNull
+  public static TokenBuffer fromTokenStream(@NotNull final TokenStream tokenStream) {
+    return new TokenBuffer(
+        new Iterator<Token>() {
+          private boolean done = false;
+
+          @Override
+          public boolean hasNext() {
+            return !done;
+          }
+
+          @Override
+          public Token next() {
+            if (done) {
+              throw new NoSuchElementException();
+            }
+            tokenStream.processToken();
+            final Token token = tokenStream.getSym();
+            done = token.getType() == TokenType.EOF;
+            return token;
+          }
+        });
+  }
+
+  // GETTER
+  // ==============================================================
+
+  /** @return the number of tokens in this buffer, including the final EOF token */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Creates the token at the given index. Each call returns a new object, hence callers that need
+   * the same token multiple times should keep it.
+   *
+   * @return the token at the given index
+   */
+  @NotNull
+  public Token get(final int index) {
+    checkIndex(index);
+    final TokenType type = TOKEN_TYPES[types[index]];
+    final String filename = strings.get(filenames[index]);
+    final long line = lines[index];
+    final int column = columns[index];
+    switch (type) {
+      case IDENT:
+        return new IdentToken(strings.get(payloads[index]), filename, line, column);
+      case NUMBER:
+        return new NumberToken(numbers[payloads[index]], filename, line, column);
+      case KEYWORD:
+        return new KeywordToken(KEYWORDS[payloads[index]], filename, line, column);
+      case OTHER:
+        return new OtherToken(strings.get(payloads[index]), filename, line, column);
+      default:
+        return new Token(type, filename, line, column);
+    }
+  }
+
+  /** @return the type of the token at the given index without creating the token */
+  @NotNull
+  public TokenType getType(final int index) {
+    checkIndex(index);
+    return TOKEN_TYPES[types[index]];
+  }
+
+  /**
+   * Returns the index of the brace that belongs to the brace at the given index. If the token at
+   * the given index is not a brace or there is no matching brace, -1 is returned.
+   *
+   * @param index the index of an opening or closing brace
+   * @return the index of the matching brace or -1
+   */
+  public int getMatchingBrace(final int index) {
+    checkIndex(index);
+    return matchingBraces[index];
+  }
+
+  // METHODS
+  // ==============================================================
+  // private methods
+  // --------------------------------------------------------------
+
+  /** Stores the given token at the end of the arrays and grows them if necessary. */
+  private void append(@NotNull final Token token, @NotNull final Map<String, Integer> stringIndices) {
+    if (size == types.length) {
+      final int capacity = size * 2;
+      types = Arrays.copyOf(types, capacity);
+      lines = Arrays.copyOf(lines, capacity);
+      columns = Arrays.copyOf(columns, capacity);
+      filenames = Arrays.copyOf(filenames, capacity);
+      payloads = Arrays.copyOf(payloads, capacity);
+    }
+    final Position position = token.getPosition();
+    types[size] = (byte) token.getType().ordinal();
+    lines[size] = (int) position.getLine();
+    columns[size] = position.getColumn();
+    filenames[size] = indexOf(position.getFilename(), stringIndices);
+    if (token instanceof IdentToken) {
+      payloads[size] = indexOf(((IdentToken) token).getIdent(), stringIndices);
+    } else if (token instanceof OtherToken) {
+      payloads[size] = indexOf(((OtherToken) token).getString(), stringIndices);
+    } else if (token instanceof KeywordToken) {
+      payloads[size] = ((KeywordToken) token).getKeyword().ordinal();
+    } else if (token instanceof NumberToken) {
+      payloads[size] = addNumber(((NumberToken) token).getNumber());
+    } else if (token.getType() == TokenType.IDENT || token.getType() == TokenType.OTHER) {
+      // tokens that were created without a payload
+      payloads[size] = indexOf("", stringIndices);
+    } else if (token.getType() == TokenType.NUMBER) {
+      payloads[size] = addNumber(0);
+    }
+    size++;
+  }
+
+  /** @return the index of the given number inside the numbers array */
+  private int addNumber(final long number) {
+    if (numberCount == numbers.length) {
+      numbers = Arrays.copyOf(numbers, numberCount * 2);
+    }
+    numbers[numberCount] = number;
+    return numberCount++;
+  }
+
+  /** @return the index of the given string inside the strings list; it is added if necessary */
+  private int indexOf(@NotNull final String string, @NotNull final Map<String, Integer> indices) {
+    Integer index = indices.get(string);
+    if (index == null) {
+      index = strings.size();
+      strings.add(string);
+      indices.put(string, index);
+    }
+    return index;
+  }
+
+  /** Releases the unused capacity of the arrays. */
+  private void trimToSize() {
+    types = Arrays.copyOf(types, size);
+    lines = Arrays.copyOf(lines, size);
+    columns = Arrays.copyOf(columns, size);
+    filenames = Arrays.copyOf(filenames, size);
+    payloads = Arrays.copyOf(payloads, size);
+    numbers = Arrays.copyOf(numbers, numberCount);
+    ((ArrayList<String>) strings).trimToSize();
+  }
+
+  private void checkIndex(final int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+  }
+
+  /**
+   * Finds all pairs of matching braces in a single pass over the tokens. Braces that are not
+   * closed or opened properly are not matched to anything.
+   */
+  @NotNull
+  private int[] findMatchingBraces() {
+    final int[] matchingBraces = new int[size];
+    final int[] openBraces = new int[size]; // used as a stack
+    int depth = 0;
+    for (int i = 0; i < size; i++) {
+      matchingBraces[i] = -1;
+      if (types[i] == TokenType.L_BRACE.ordinal()) {
+        openBraces[depth++] = i;
+      } else if (types[i] == TokenType.R_BRACE.ordinal() && depth > 0) {
+        final int opening = openBraces[--depth];
+        matchingBraces[opening] = i;
+        matchingBraces[i] = opening;
+      }
+    }
+    return matchingBraces;
+  }
+}
@@ -0,0 +1,103 @@
+package com.merkrafter.lexing;
+
+import org.jetbrains.annotations.NotNull;
+
+/****
+ * This TokenStream replays a range of tokens from a TokenBuffer. After the end of the range, it
+ * emits EOF tokens.
+ * <p>
+ * Several instances of this class can work on the same TokenBuffer at the same time.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+public class TokenBufferStream implements TokenStream {
+  // ATTRIBUTES
+  // ==============================================================
+  @NotNull private final TokenBuffer buffer;
+  /** index of the first token after the range this stream replays */
+  private final int end;
+  /** This token is emitted after the end of the range. */
+  @NotNull private final Token eof;
+  /** index of the current token */
+  private int index;
+  /** the token at the current index; it is created once per index */
+  @NotNull private Token sym;
+
+  // CONSTRUCTORS
+  // ==============================================================
+
+  /****
+   * Creates a new TokenBufferStream that replays all tokens of the given buffer.
+   ***************************************************************/
+  public TokenBufferStream(@NotNull final TokenBuffer buffer) {
+    this(buffer, 0, buffer.size());
+  }
+
+  /****
+   * Creates a new TokenBufferStream that replays the tokens of the given buffer from start
+   * (inclusive) to end (exclusive).
+   ***************************************************************/
+  public TokenBufferStream(@NotNull final TokenBuffer buffer, final int start, final int end) {
+    this.buffer = buffer;
+    this.end = end;
+    index = start - 1; // one step before the first token, just like a new Scanner
+    if (end == buffer.size()) {
+      eof = buffer.get(end - 1);
+    } else {
+      final Position lastPosition = buffer.get(end - 1).getPosition();
+      eof =
+          new Token(
+              TokenType.EOF,
+              lastPosition.getFilename(),
+              lastPosition.getLine(),
+              lastPosition.getColumn());
+    }
+    sym = new OtherToken("start", "", 0, -1);
+  }
+
+  // GETTER
+  // ==============================================================
+
+  /** @return the token at the current index or an EOF token if the end of the range is reached */
+  @NotNull
+  @Override
+  public Token getSym() {
+    return sym;
+  }
+
+  /** @return the buffer this stream replays */
+  @NotNull
+  public TokenBuffer getBuffer() {
+    return buffer;
+  }
+
+  /** @return the index of the current token inside the buffer */
+  public int getIndex() {
+    return index;
+  }
+
+  // METHODS
+  // ==============================================================
+  // public methods
+  // --------------------------------------------------------------
+
+  /** Advances to the next token of the range. */
+  @Override
+  public void processToken() {
+    if (index < end) {
+      skipTo(index + 1);
+    }
+  }
+
+  /**
+   * Continues replaying at the given index. The token at that index is the current token
+   * afterwards.
+   *
+   * @param index an index inside the replayed range
+   */
+  public void skipTo(final int index) {
+    this.index = index;
+    sym = index >= end ? eof : buffer.get(index);
+  }
+}
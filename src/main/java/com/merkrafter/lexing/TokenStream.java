@@ -0,0 +1,28 @@
+package com.merkrafter.lexing;
+
+import org.jetbrains.annotations.NotNull;
+
+/****
+ * This interface describes a source of tokens that is read from front to back.
+ * Call processToken() to advance to the next token and getSym() to access it afterwards. Once the
+ * end of the input is reached, getSym() returns TokenType.EOF tokens.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+public interface TokenStream {
+  // GETTER
+  // ==============================================================
+
+  /** @return the current token */
+  @NotNull
+  Token getSym();
+
+  // METHODS
+  // ==============================================================
+  // public methods
+  // --------------------------------------------------------------
+
+  /** Advances to the next token. After getSym() returned an EOF token, this does nothing. */
+  void processToken();
+}
@@ -0,0 +1,399 @@
+package com.merkrafter.parsing;
+
+import com.merkrafter.lexing.Position;
+import com.merkrafter.representation.*;
+import com.merkrafter.representation.ast.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/****
+ * This ParseListener builds the abstract syntax tree from the events of a Parser. It creates the
+ * nodes, descriptions and symbol tables of a class; the nodes of expressions are created by an
+ * ExpressionFactory, a new one for each method body. The Parser uses it to return trees, but it
+ * can receive the events of a Recognizer as well:
+ * <pre>
+ *   final AstBuilder builder = new AstBuilder();
+ *   new Recognizer(scanner, builder).recognize();
+ *   final AbstractSyntaxTree ast = builder.getAbstractSyntaxTree();
+ * </pre>
+ * <p>
+ * References to unknown variables become ErrorNodes inside of the tree. Duplicate declarations
+ * are rejected by throwing a ParserException. If there is an error, the whole tree is an
+ * ErrorNode.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+public class AstBuilder implements ParseListener {
+  // ATTRIBUTES
+  // ==============================================================
+  /** the innermost scope at the current event */
+  @NotNull private SymbolTable symbolTable;
+  /** the scope that encloses the current method */
+  @Nullable private SymbolTable enclosingScope;
+
+  @Nullable private ClassDescription classDescription;
+  @Nullable private Position classPosition;
+
+  // the head of the current method; the description is created after its parameters are known
+  @Nullable private Type methodType;
+  @Nullable private String methodName;
+  @Nullable private Position methodPosition;
+  @NotNull private final List<VariableDescription> parameters;
+  @Nullable private ActualProcedureDescription procedureDescription;
+
+  /** Whether structurally equal expressions within a method body share their nodes. */
+  private final boolean shareExpressions;
+  /** creates the nodes of expressions; a new one is used for each method body */
+  @NotNull private ExpressionFactory factory;
+
+  /** operands that were not used by an operation or statement yet */
+  @NotNull private final Deque<Expression> expressions;
+  /**
+   * the blocks that are currently open; the innermost one is on top and the bottom one collects
+   * the statements outside of methods
+   */
+  @NotNull private final Deque<Block> openBlocks;
+  /** blocks that were closed but not used by their if or while statement yet */
+  @NotNull private final Deque<Statement> closedBlocks;
+  /** the positions of the if and while statements that are currently open */
+  @NotNull private final Deque<Position> positions;
+
+  /** the error that stopped the Parser */
+  @Nullable private String error;
+
+  // CONSTRUCTORS
+  // ==============================================================
+
+  /****
+   * Creates a new AstBuilder that is ready to receive the events of a single class.
+   ***************************************************************/
+  public AstBuilder() {
+    this(false);
+  }
+
+  /****
+   * Creates a new AstBuilder that is ready to receive the events of a single class. If
+   * shareExpressions is set, structurally equal expressions within a method body are represented
+   * by the same nodes; see ExpressionFactory.
+   ***************************************************************/
+  public AstBuilder(final boolean shareExpressions) {
+    this(new SymbolTable(), shareExpressions);
+  }
+
+  /****
+   * Creates a new AstBuilder that declares everything in the given scope. The statements that
+   * are reported outside of methods are available from getStatements(), which is used for method
+   * bodies that are built on their own.
+   ***************************************************************/
+  AstBuilder(@NotNull final SymbolTable scope, final boolean shareExpressions) {
+    symbolTable = scope;
+    parameters = new ArrayList<>();
+    this.shareExpressions = shareExpressions;
+    factory = new ExpressionFactory(shareExpressions);
+    expressions = new ArrayDeque<>();
+    openBlocks = new ArrayDeque<>();
+    openBlocks.push(new Block());
+    closedBlocks = new ArrayDeque<>();
+    positions = new ArrayDeque<>();
+  }
+
+  // GETTER
+  // ==============================================================
+
+  /**
+   * Returns the tree that was built from the events received so far. It should be called after
+   * the Parser is done.
+   *
+   * @return a ClassNode or an ErrorNode if the class could not be built
+   */
+  @NotNull
+  public AbstractSyntaxTree getAbstractSyntaxTree() {
+    if (error != null) {
+      return new ErrorNode(error);
+    }
+    if (classDescription == null || classPosition == null) {
+      return new ErrorNode("No class was found");
+    }
+    return new ClassNode(classDescription, classPosition);
+  }
+
+  /** @return the statements that were reported outside of methods or null if there are none */
+  @Nullable
+  Statement getStatements() {
+    return StatementSequence.of(openBlocks.getLast().statements);
+  }
+
+  /** @return the last expression that was not used by an operation or statement yet */
+  @Nullable
+  Expression getExpression() {
+    return expressions.peek();
+  }
+
+  // METHODS
+  // ==============================================================
+  // declarations
+  // --------------------------------------------------------------
+
+  @Override
+  public void enterClass(@NotNull final String name, @NotNull final Position position) {
+    classDescription = new ClassDescription(name, symbolTable);
+    classPosition = position;
+    symbolTable = classDescription.getSymbolTable();
+  }
+
+  @Override
+  public void finalDeclaration(
+      @NotNull final Type type, @NotNull final String name, @NotNull final Position position)
+      throws ParserException {
+    insertVariable(new VariableDescription(name, type, expressions.pop(), true), position);
+  }
+
+  @Override
+  public void variableDeclaration(
+      @NotNull final Type type, @NotNull final String name, @NotNull final Position position)
+      throws ParserException {
+    insertVariable(
+        new VariableDescription(name, type, type.getDefaultValue(), false), position);
+  }
+
+  @Override
+  public void enterMethod(
+      @NotNull final Type returnType, @NotNull final String name, @NotNull final Position position) {
+    methodType = returnType;
+    methodName = name;
+    methodPosition = position;
+    parameters.clear();
+  }
+
+  @Override
+  public void parameter(
+      @NotNull final Type type, @NotNull final String name, @NotNull final Position position) {
+    // assumes that variables can only be integers
+    parameters.add(new VariableDescription(name, type, 0, false));
+  }
+
+  @Override
+  public void enterMethodBody() throws ParserException {
+    assert methodType != null && methodName != null && methodPosition != null;
+    final ActualProcedureDescription procedure =
+        new ActualProcedureDescription(
+            methodType, methodName, new ArrayList<>(parameters), symbolTable, methodPosition);
+    for (final VariableDescription parameter : procedure.getParamList()) {
+      if (!procedure.getSymbols().insert(parameter)) {
+        throw new ParserException(
+            String.format(
+                "Formal parameter %s was declared multiple times in procedure %s",
+                parameter.getName(), procedure.getName()),
+            methodPosition);
+      }
+    }
+    procedureDescription = procedure;
+    enclosingScope = symbolTable;
+    symbolTable = procedure.getSymbols();
+    openBlocks.push(new Block());
+    // expressions are only shared within a method body
+    factory = new ExpressionFactory(shareExpressions);
+  }
+
+  @Override
+  public void exitMethod() throws ParserException {
+    final Statement statements = StatementSequence.of(openBlocks.pop().statements);
+    final ActualProcedureDescription procedure = leaveMethod();
+    procedure.setEntrypoint(statements);
+    declareProcedure(procedure);
+  }
+
+  /**
+   * Leaves the current method without a body and without declaring it. This allows the Parser to
+   * build the body later on.
+   *
+   * @return the procedure of the method
+   */
+  @NotNull
+  ActualProcedureDescription skipMethodBody() {
+    openBlocks.pop();
+    return leaveMethod();
+  }
+
+  /**
+   * Declares the procedure in the current scope.
+   *
+   * @throws ParserException if the procedure was declared before
+   */
+  void declareProcedure(@NotNull final ActualProcedureDescription procedure)
+      throws ParserException {
+    if (!symbolTable.insert(procedure)) {
+      throw new ParserException(
+          String.format("Procedure %s was declared multiple times", procedure.getName()),
+          procedure.getPosition());
+    }
+  }
+
+  // statements
+  // --------------------------------------------------------------
+
+  @Override
+  public void assignment(@NotNull final String variable, @NotNull final Position position) {
+    final Expression value = expressions.pop();
+    final VariableDescription var = findVariable(variable);
+    if (var == null) {
+      addStatement(new ErrorNode(unknownVariable(variable, position)));
+    } else {
+      addStatement(new AssignmentNode(new VariableAccessNode(var, position), value));
+    }
+  }
+
+  @Override
+  public void procedureCallStatement(
+      @NotNull final String name, final int arguments, @NotNull final Position position) {
+    addStatement(createProcedureCall(name, arguments, position));
+  }
+
+  @Override
+  public void enterIf(@NotNull final Position position) {
+    positions.push(position);
+  }
+
+  @Override
+  public void exitIf() {
+    final Statement elseBranch = closedBlocks.pop();
+    final Statement ifBranch = closedBlocks.pop();
+    final IfNode ifNode = new IfNode(expressions.pop(), ifBranch, positions.pop());
+    addStatement(new IfElseNode(ifNode, elseBranch));
+  }
+
+  @Override
+  public void enterWhile(@NotNull final Position position) {
+    positions.push(position);
+  }
+
+  @Override
+  public void exitWhile() {
+    final Statement loopBody = closedBlocks.pop();
+    addStatement(new WhileNode(expressions.pop(), loopBody, positions.pop()));
+  }
+
+  @Override
+  public void enterBlock() {
+    openBlocks.push(new Block());
+  }
+
+  @Override
+  public void exitBlock() {
+    final Statement block = StatementSequence.of(openBlocks.pop().statements);
+    assert block != null; // the grammar requires at least one statement
+    closedBlocks.push(block);
+  }
+
+  @Override
+  public void returnStatement(final boolean hasValue, @NotNull final Position position) {
+    addStatement(hasValue ? new ReturnNode(expressions.pop(), position) : new ReturnNode(position));
+  }
+
+  // expressions
+  // --------------------------------------------------------------
+
+  @Override
+  public void number(final long value, @NotNull final Position position) {
+    expressions.push(factory.constant(Type.INT, value, position));
+  }
+
+  @Override
+  public void variable(@NotNull final String name, @NotNull final Position position) {
+    final VariableDescription var = findVariable(name);
+    if (var == null) {
+      expressions.push(new ErrorNode(unknownVariable(name, position)));
+    } else {
+      expressions.push(factory.variableAccess(var, position));
+    }
+  }
+
+  @Override
+  public void procedureCall(
+      @NotNull final String name, final int arguments, @NotNull final Position position) {
+    expressions.push(createProcedureCall(name, arguments, position));
+  }
+
+  @Override
+  public void binaryOperation(@NotNull final BinaryOperationNodeType type) {
+    final Expression rightOperand = expressions.pop();
+    final Expression leftOperand = expressions.pop();
+    expressions.push(factory.binaryOperation(leftOperand, type, rightOperand));
+  }
+
+  // errors
+  // --------------------------------------------------------------
+
+  @Override
+  public void syntaxError(@NotNull final String message, @NotNull final Position position) {
+    error = message;
+  }
+
+  // private methods
+  // --------------------------------------------------------------
+
+  private void insertVariable(
+      @NotNull final VariableDescription var, @NotNull final Position position)
+      throws ParserException {
+    if (!symbolTable.insert(var)) {
+      throw new ParserException(
+          String.format(
+              "Variable %s was declared multiple times", new IdentNode(var.getName(), position)),
+          position);
+    }
+  }
+
+  /** Returns to the scope that encloses the current method. */
+  @NotNull
+  private ActualProcedureDescription leaveMethod() {
+    final ActualProcedureDescription procedure = procedureDescription;
+    assert procedure != null && enclosingScope != null;
+    symbolTable = enclosingScope;
+    enclosingScope = null;
+    procedureDescription = null;
+    return procedure;
+  }
+
+  @Nullable
+  private VariableDescription findVariable(@NotNull final String name) {
+    return symbolTable.findVariable(name);
+  }
+
+  @NotNull
+  private static String unknownVariable(
+      @NotNull final String name, @NotNull final Position position) {
+    return String.format("Reference to unknown variable %s", new IdentNode(name, position));
+  }
+
+  /** Creates a call from the given number of arguments on top of the expression stack. */
+  @NotNull
+  private ProcedureCallNode createProcedureCall(
+      @NotNull final String name, final int arguments, @NotNull final Position position) {
+    final Expression[] args = new Expression[arguments];
+    for (int i = arguments - 1; i >= 0; i--) {
+      args[i] = expressions.pop();
+    }
+    final ParameterListNode parameters = new ParameterListNode(Arrays.asList(args));
+    return new ProcedureCallNode(
+        new ProcedureDescriptionProxy(name, parameters, symbolTable, position),
+        parameters,
+        position);
+  }
+
+  private void addStatement(@NotNull final Statement statement) {
+    final Block block = openBlocks.peek();
+    assert block != null;
+    block.statements.add(statement);
+  }
+
+  /** The statements of a method body or of a block inside of an if or while statement. */
+  private static class Block {
+    @NotNull private final List<Statement> statements = new ArrayList<>();
+  }
+}
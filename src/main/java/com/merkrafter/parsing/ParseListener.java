@@ -0,0 +1,106 @@
+package com.merkrafter.parsing;
+
+import com.merkrafter.lexing.Position;
+import com.merkrafter.representation.Type;
+import com.merkrafter.representation.ast.BinaryOperationNodeType;
+import org.jetbrains.annotations.NotNull;
+
+/****
+ * This interface receives the events a Parser emits while it reads a program.
+ * Constructs that contain statements are framed by enter and exit events. Everything else is
+ * reported by a single event after its parts were reported, hence expressions arrive in postfix
+ * order: the operands of a binary operation and the arguments of a procedure call come before
+ * the operation or call itself.
+ * <p>
+ * An event is emitted only after the construct is certain, so consumers do not need to undo
+ * anything. Declaration events may throw a ParserException to reject the declaration, which stops
+ * the Parser like a syntax error does. Either way, syntaxError is the last event then.
+ * <p>
+ * All methods do nothing by default, hence implementations only need to override the events they
+ * are interested in.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+public interface ParseListener {
+  // METHODS
+  // ==============================================================
+  // declarations
+  // --------------------------------------------------------------
+
+  default void enterClass(@NotNull final String name, @NotNull final Position position) {}
+
+  default void exitClass() {}
+
+  /** Follows the events of the value expression. */
+  default void finalDeclaration(
+      @NotNull final Type type, @NotNull final String name, @NotNull final Position position)
+      throws ParserException {}
+
+  /** Is emitted for variables of the class as well as for local variables of methods. */
+  default void variableDeclaration(
+      @NotNull final Type type, @NotNull final String name, @NotNull final Position position)
+      throws ParserException {}
+
+  default void enterMethod(
+      @NotNull final Type returnType, @NotNull final String name, @NotNull final Position position) {}
+
+  default void parameter(
+      @NotNull final Type type, @NotNull final String name, @NotNull final Position position) {}
+
+  /** Is emitted after the last parameter of the current method. */
+  default void enterMethodBody() throws ParserException {}
+
+  default void exitMethod() throws ParserException {}
+
+  // statements
+  // --------------------------------------------------------------
+
+  /** Follows the events of the assigned expression. */
+  default void assignment(@NotNull final String variable, @NotNull final Position position) {}
+
+  /** Follows the events of all arguments. */
+  default void procedureCallStatement(
+      @NotNull final String name, final int arguments, @NotNull final Position position) {}
+
+  /**
+   * Starts an if statement. The condition, an if block and an else block follow before
+   * exitIf.
+   */
+  default void enterIf(@NotNull final Position position) {}
+
+  default void exitIf() {}
+
+  /** Starts a while statement. The condition and a block follow before exitWhile. */
+  default void enterWhile(@NotNull final Position position) {}
+
+  default void exitWhile() {}
+
+  /** Starts a sequence of statements inside of an if or while statement. */
+  default void enterBlock() {}
+
+  default void exitBlock() {}
+
+  /** Follows the events of the returned expression if there is one. */
+  default void returnStatement(final boolean hasValue, @NotNull final Position position) {}
+
+  // expressions
+  // --------------------------------------------------------------
+
+  default void number(final long value, @NotNull final Position position) {}
+
+  default void variable(@NotNull final String name, @NotNull final Position position) {}
+
+  /** Follows the events of all arguments. */
+  default void procedureCall(
+      @NotNull final String name, final int arguments, @NotNull final Position position) {}
+
+  /** Follows the events of both operands. */
+  default void binaryOperation(@NotNull final BinaryOperationNodeType type) {}
+
+  // errors
+  // --------------------------------------------------------------
+
+  /** Is emitted for the error that stopped the Parser. No other events follow. */
+  default void syntaxError(@NotNull final String message, @NotNull final Position position) {}
+}
@@ -3,44 +3,126 @@ package com.merkrafter.parsing;
 import static com.merkrafter.lexing.TokenType.*;
 
 import com.merkrafter.lexing.*;
-import com.merkrafter.representation.*;
-import com.merkrafter.representation.ast.*;
-import java.util.LinkedList;
+import com.merkrafter.representation.ActualProcedureDescription;
+import com.merkrafter.representation.Type;
+import com.merkrafter.representation.ast.AbstractSyntaxTree;
+import com.merkrafter.representation.ast.BinaryOperationNodeType;
+import com.merkrafter.representation.ast.ErrorNode;
+import com.merkrafter.representation.ast.Statement;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 /****
  * This class can be used to parse tokens.
  * To start parsing, call the parse() method which triggers a recursive descent.
+ * <p>
+ * The grammar is read with a single token of lookahead. Once the first token of a construct was
+ * seen, the construct must be complete; the Parser never backtracks and stops at the first error.
+ * Everything it reads is reported to a ParseListener immediately. Usually, this is an AstBuilder
+ * that builds the tree which parse() returns. The Recognizer uses a listener that ignores all
+ * events instead, hence both accept and reject exactly the same inputs.
+ * <p>
+ * If the parsing mode is not sequential, method bodies are skipped and built by own Parsers later
+ * on. The listener does not receive any events from these bodies, hence other modes are only
+ * available if the Parser builds a tree.
  *
  * @since v0.2.0
  * @author merkrafter
  ***************************************************************/
 public class Parser {
+  // CONSTANTS
+  // ==============================================================
+  private static final String ERROR_TEMPLATE = "%s was found, but %s was expected.";
+
   // ATTRIBUTES
   // ==============================================================
-  /** The scanner that provides the tokens for this parser */
-  @NotNull private final Scanner scanner;
+  /** The stream that provides the tokens for this parser */
+  @NotNull private final TokenStream tokenStream;
+
+  /** This listener receives all events. */
+  @NotNull private final ParseListener listener;
+
+  /** Builds the tree that parse() returns; null if the events are for another listener only. */
+  @Nullable private final AstBuilder builder;
+
+  /** Determines how method bodies are parsed. */
+  @NotNull private final ParsingMode mode;
 
-  /** The base symbol table that encloses all others. */
-  @NotNull private SymbolTable symbolTable;
+  /** Method bodies that were skipped and still need to be parsed, in declaration order. */
+  @NotNull private final List<DeferredMethodBody> deferredMethodBodies;
+
+  /** Whether structurally equal expressions within a method body share their nodes. */
+  private final boolean shareExpressions;
 
   // CONSTRUCTORS
   // ==============================================================
 
   /****
-   * Creates a new Parser based on a scanner that provides tokens.
+   * Creates a new Parser based on a stream that provides tokens, a Scanner for instance.
    ***************************************************************/
-  public Parser(@NotNull final Scanner scanner) {
-    this(scanner, null);
+  public Parser(@NotNull final TokenStream tokenStream) {
+    this(tokenStream, ParsingMode.SEQUENTIAL);
+  }
+
+  /****
+   * Creates a new Parser based on a stream that provides tokens. The mode determines how
+   * method bodies are parsed.
+   ***************************************************************/
+  public Parser(@NotNull final TokenStream tokenStream, @NotNull final ParsingMode mode) {
+    this(tokenStream, mode, false);
+  }
+
+  /****
+   * Creates a new Parser based on a stream that provides tokens. The mode determines how
+   * method bodies are parsed. If shareExpressions is set, structurally equal expressions
+   * within a method body are represented by the same nodes; see ExpressionFactory.
+   ***************************************************************/
+  public Parser(
+      @NotNull final TokenStream tokenStream,
+      @NotNull final ParsingMode mode,
+      final boolean shareExpressions) {
+    this(tokenStream, new AstBuilder(shareExpressions), mode, shareExpressions);
+  }
+
+  private Parser(
+      @NotNull final TokenStream tokenStream,
+      @NotNull final AstBuilder builder,
+      @NotNull final ParsingMode mode,
+      final boolean shareExpressions) {
+    this(tokenStream, builder, builder, mode, shareExpressions);
+  }
+
+  /**
+   * Creates a new Parser that reports everything it reads to the given listener. It reads method
+   * bodies sequentially and does not build a tree unless the listener does. This is used by the
+   * Recognizer and for testing purposes.
+   */
+  Parser(@NotNull final TokenStream tokenStream, @NotNull final ParseListener listener) {
+    this(tokenStream, listener, null, ParsingMode.SEQUENTIAL, false);
   }
 
-  /** Creates a new Parser with a set of global variables. Can be used for testing purposes. */
-  Parser(@NotNull final Scanner scanner, @Nullable final SymbolTable globalVariables) {
-    this.scanner = scanner;
-    this.scanner.processToken();
-    symbolTable = new SymbolTable(globalVariables);
+  private Parser(
+      @NotNull final TokenStream tokenStream,
+      @NotNull final ParseListener listener,
+      @Nullable final AstBuilder builder,
+      @NotNull final ParsingMode mode,
+      final boolean shareExpressions) {
+    if (mode == ParsingMode.SEQUENTIAL || tokenStream instanceof TokenBufferStream) {
+      this.tokenStream = tokenStream;
+    } else {
+      // skipping method bodies requires knowing where they end before parsing them
+      this.tokenStream = new TokenBufferStream(TokenBuffer.fromTokenStream(tokenStream));
+    }
+    this.tokenStream.processToken();
+    this.listener = listener;
+    this.builder = builder;
+    this.mode = mode;
+    deferredMethodBodies = new ArrayList<>();
+    this.shareExpressions = shareExpressions;
   }
 
   // METHODS
@@ -51,932 +133,601 @@ public class Parser {
   /**
    * Parses the tokens given by the underlying token iterator.
    *
-   * @return the AST of the program
+   * @return the AST of the program or an ErrorNode with the first error
+   * @throws IllegalStateException if this Parser was created for a listener
    */
   @NotNull
   public AbstractSyntaxTree parse() {
-    final AbstractSyntaxTree ast = parseClass();
-    if (ast instanceof ErrorNode) {
-      return ast;
+    if (builder == null) {
+      throw new IllegalStateException("This parser reports to a listener instead of building");
     }
-
-    final Token sym = scanner.getSym();
-    if (sym.getType() != EOF) {
-      return new ErrorNode(generateErrorMessage("<EOF>"));
+    try {
+      parseProgram();
+    } catch (@NotNull final ParserException e) {
+      return new ErrorNode(e.getMessage(), e.getPosition());
     }
-
-    return ast;
+    return builder.getAbstractSyntaxTree();
   }
 
-  @NotNull
-  AbstractSyntaxTree parseClass() {
-    final Token sym = scanner.getSym();
-    if (!(sym instanceof KeywordToken && ((KeywordToken) sym).getKeyword() == Keyword.CLASS)) {
-      return new ErrorNode(generateErrorMessage("'class' keyword"));
-    }
-    scanner.processToken();
-    final Position position = sym.getPosition();
-
-    final IdentNode identifier = parseIdentifier();
-    if (identifier == null) {
-      return new ErrorNode(generateErrorMessage("class name"));
-    }
-
-    final ClassDescription clazz = new ClassDescription(identifier.getIdentifier(), symbolTable);
-
-    final SymbolTable prevSymbolTable = symbolTable;
-    symbolTable = clazz.getSymbolTable();
+  // package-private methods
+  // --------------------------------------------------------------
+  // All of the following methods throw a ParserException at the first error they find.
 
-    // reads all methods and variables into the symbol table
-    final boolean success;
+  /** program = class EOF. The error is reported to the listener before it is thrown. */
+  void parseProgram() throws ParserException {
     try {
-      success = parseClassBody();
+      parseClass();
+      expect(EOF, "<EOF>");
     } catch (@NotNull final ParserException e) {
-      return new ErrorNode(e.getMessage());
-    }
-
-    // do not return immediately in case of errors, because the symbol table scope must be reset
-    symbolTable = prevSymbolTable;
-    if (success) {
-      return new ClassNode(clazz, position);
-    } else {
-      return new ErrorNode("Error while parsing the class body");
+      listener.syntaxError(e.getMessage(), e.getPosition());
+      throw e;
     }
   }
 
-  boolean parseClassBody() throws ParserException {
-    if (scanner.getSym().getType() == L_BRACE) {
-      scanner.processToken();
-      if (parseDeclarations()) {
-        if (scanner.getSym().getType() == R_BRACE) {
-          scanner.processToken();
-          return true;
-        }
-      }
-    }
-    return false;
+  /** class = "class" ident class_body. */
+  void parseClass() throws ParserException {
+    final Position position = expectKeyword(Keyword.CLASS, "'class' keyword").getPosition();
+    final Token identifier = expect(IDENT, "class name");
+    listener.enterClass(getIdentifier(identifier), position);
+    parseClassBody();
+    listener.exitClass();
   }
 
-  boolean parseDeclarations() throws ParserException {
-    // final declaration
-    while (parseFinalDeclaration())
-      ;
-    // type declaration
-    while (parseLocalDeclaration())
-      ;
-    // method declaration
-    while (parseMethodDeclaration())
-      ;
-    return true;
+  /** class_body = "{" declarations "}". */
+  void parseClassBody() throws ParserException {
+    expect(L_BRACE, "'{'");
+    parseDeclarations();
+    expect(R_BRACE, "'}'");
   }
 
-  /**
-   * Tries to parse a final declaration and returns whether the next tokens match the grammar:
-   * final_declaration = final type ident "=" expression ";".
-   *
-   * <p>If this succeeds, the variable is pushed into the symbol table.
-   *
-   * @return whether the next tokens represent a final declaration
-   */
-  // this method is final because it is not an official rule of the grammar but only a helper
-  private boolean parseFinalDeclaration() throws ParserException {
-    final Token sym = scanner.getSym();
-    if (!(sym instanceof KeywordToken && ((KeywordToken) sym).getKeyword() == Keyword.FINAL)) {
-      return false;
+  /** declarations = {final_declaration} {local_declaration} {method_declaration}. */
+  void parseDeclarations() throws ParserException {
+    while (isKeyword(Keyword.FINAL)) {
+      parseFinalDeclaration();
     }
-    scanner.processToken();
-
-    final Type type = parseType();
-    if (type == null) {
-      return false;
-    }
-    final IdentNode identifier = parseIdentifier();
-    if (identifier == null) {
-      return false;
+    while (isKeyword(Keyword.INT)) {
+      parseLocalDeclaration();
     }
-    if (scanner.getSym().getType() != ASSIGN) {
-      return false;
-    }
-    scanner.processToken();
-    final Expression value = parseExpression();
-
-    if (scanner.getSym().getType() != SEMICOLON) {
-      return false;
+    while (isKeyword(Keyword.PUBLIC)) {
+      parseMethodDeclaration();
     }
-    scanner.processToken();
+    parseDeferredMethodBodies();
+  }
 
-    final VariableDescription var =
-        new VariableDescription(identifier.getIdentifier(), type, value, true);
-    final boolean wasInserted = symbolTable.insert(var);
-    if (!wasInserted) {
-      throw new ParserException(
-          String.format("Variable %s was declared multiple times", identifier));
-    }
+  /** final_declaration = "final" type ident "=" expression ";". */
+  void parseFinalDeclaration() throws ParserException {
+    expectKeyword(Keyword.FINAL, "'final' keyword");
+    final Type type = parseType();
+    final Token identifier = parseIdentifier();
+    expect(ASSIGN, "'='");
+    parseExpression();
+    expect(SEMICOLON, "';'");
+    listener.finalDeclaration(type, getIdentifier(identifier), identifier.getPosition());
+  }
 
-    return true;
+  /** local_declaration = type ident ";". */
+  void parseLocalDeclaration() throws ParserException {
+    final Type type = parseType();
+    final Token identifier = parseIdentifier();
+    expect(SEMICOLON, "';'");
+    listener.variableDeclaration(type, getIdentifier(identifier), identifier.getPosition());
   }
 
   /**
-   * Tries to parse a method declaration. In case of success, the method is stored in the symbol
-   * table as well as all variables that are declared in that method.
-   *
-   * @return whether the method could be parsed completely and was stored in the symbol table
+   * method_declaration = method_head method_body. If the mode allows it, the body is skipped and
+   * built later on.
    */
-  boolean parseMethodDeclaration() throws ParserException {
-    // get procedure prototype
-    final ActualProcedureDescription procedureDescription = parseMethodHead();
-    if (procedureDescription == null) {
-      return false;
-    }
-
-    // set a new scope of the symbol table
-    final SymbolTable prevSymbolTable = symbolTable;
-    symbolTable = procedureDescription.getSymbols();
-    for (final VariableDescription varDesc : procedureDescription.getParamList()) {
-      final boolean wasInserted = symbolTable.insert(varDesc);
-      if (!wasInserted) {
-        throw new ParserException(
-            String.format(
-                "Formal parameter %s was declared multiple times in procedure %s",
-                varDesc.getName(), procedureDescription.getName()));
+  void parseMethodDeclaration() throws ParserException {
+    final int bodyEnd;
+    try {
+      parseMethodHead();
+      bodyEnd = findSkippableBodyEnd();
+      if (bodyEnd < 0) {
+        // bodies that were skipped before must be handled first to keep the order of errors
+        parseDeferredMethodBodies();
       }
+      listener.enterMethodBody();
+    } catch (@NotNull final ParserException e) {
+      // errors in bodies that were skipped before come first, as in sequential mode
+      parseDeferredMethodBodies();
+      throw e;
     }
-
-    final Statement statements = parseMethodBody();
-    procedureDescription.setEntrypoint(statements);
-
-    // set the symbol table back to the previous scope
-    symbolTable = prevSymbolTable;
-
-    if (statements instanceof ErrorNode) {
-      throw new ParserException(statements.toString());
-    }
-
-    final boolean wasInserted = symbolTable.insert(procedureDescription);
-    if (!wasInserted) {
-      throw new ParserException(
-          String.format(
-              "Procedure %s was declared multiple times", procedureDescription.getName()));
+    if (bodyEnd >= 0) {
+      skipMethodBody(bodyEnd);
+      return;
     }
-
-    return true;
+    parseMethodBody();
+    listener.exitMethod();
   }
 
-  /**
-   * Tries to parse a method head.
-   *
-   * @return procedureDescription or null if an error occurred
-   */
-  @Nullable
-  ActualProcedureDescription parseMethodHead() {
-    final Token sym = scanner.getSym();
-    if (!(sym instanceof KeywordToken
-        && ((KeywordToken) scanner.getSym()).getKeyword() == Keyword.PUBLIC)) {
-      return null;
-    }
-    scanner.processToken();
-    final Position position = sym.getPosition();
-
+  /** method_head = "public" method_type ident formal_parameters. */
+  void parseMethodHead() throws ParserException {
+    final Position position = expectKeyword(Keyword.PUBLIC, "'public' keyword").getPosition();
     final Type type = parseMethodType();
-    if (type == null) {
-      return null;
-    }
-
-    final IdentNode identifier = parseIdentifier();
-    if (identifier == null) {
-      return null;
-    }
-
-    final List<VariableDescription> formalParameters = parseFormalParameters();
-    if (formalParameters == null) {
-      return null;
-    }
-    return new ActualProcedureDescription(
-        type, identifier.getIdentifier(), formalParameters, symbolTable, position);
+    final Token identifier = expect(IDENT, "method name");
+    listener.enterMethod(type, getIdentifier(identifier), position);
+    parseFormalParameters();
   }
 
-  /**
-   * Tries to parse a method type. Methods in JavaSST can only return INT or VOID.
-   *
-   * @return type of a method or null if no applicable type was found
-   */
-  @Nullable
-  Type parseMethodType() {
-    final Token sym = scanner.getSym();
-    if (!(sym instanceof KeywordToken)) {
-      return null;
-    }
-    scanner.processToken();
-
-    switch (((KeywordToken) sym).getKeyword()) {
-      case VOID:
-        return Type.VOID;
-      case INT:
-        return Type.INT;
-      default:
-        return null;
+  /** method_type = "void" | type. */
+  @NotNull
+  Type parseMethodType() throws ParserException {
+    if (isKeyword(Keyword.VOID)) {
+      tokenStream.processToken();
+      return Type.VOID;
     }
+    if (isKeyword(Keyword.INT)) {
+      tokenStream.processToken();
+      return Type.INT;
+    }
+    throw error("method type");
   }
 
-  /**
-   * Tries to parse formal parameters.
-   *
-   * @return list of variable descriptions found or null if an error occurred
-   */
-  @Nullable
-  List<VariableDescription> parseFormalParameters() {
-    Token sym = scanner.getSym();
-    if (sym.getType() != L_PAREN) {
-      return null;
-    }
-    scanner.processToken();
-
-    final List<VariableDescription> formalParameters = new LinkedList<>();
-    VariableDescription var = parseFpSection();
-    // having no variableDescription is okay, but the closing paren must still be validated
-    if (var != null) {
-      formalParameters.add(var);
-      while (scanner.getSym().getType() == COMMA) {
-        scanner.processToken();
-
-        var = parseFpSection();
-        if (var == null) {
-          // after a comma, var must not be null
-          return null;
-        }
-        formalParameters.add(var);
+  /** formal_parameters = "(" [fp_section {"," fp_section}] ")". */
+  void parseFormalParameters() throws ParserException {
+    expect(L_PAREN, "'('");
+    if (isKeyword(Keyword.INT)) {
+      parseFpSection();
+      while (tokenStream.getSym().getType() == COMMA) {
+        tokenStream.processToken();
+        parseFpSection();
       }
     }
-
-    sym = scanner.getSym();
-    if (sym.getType() != R_PAREN) {
-      return null;
-    }
-    scanner.processToken();
-
-    return formalParameters;
+    expect(R_PAREN, "')'");
   }
 
-  /**
-   * Tries to parse an fp_section.
-   *
-   * @return a variable description for the formal parameter or null if an error occurs
-   */
-  @Nullable
-  VariableDescription parseFpSection() {
+  /** fp_section = type ident. */
+  void parseFpSection() throws ParserException {
     final Type type = parseType();
-    if (type == null) {
-      return null;
-    }
+    final Token identifier = parseIdentifier();
+    listener.parameter(type, getIdentifier(identifier), identifier.getPosition());
+  }
 
-    final IdentNode identifier = parseIdentifier();
-    if (identifier == null) {
-      return null;
+  /** method_body = "{" {local_declaration} statement_sequence "}". */
+  void parseMethodBody() throws ParserException {
+    expect(L_BRACE, "{");
+    while (isKeyword(Keyword.INT)) {
+      parseLocalDeclaration();
     }
+    parseStatementSequence();
+    expect(R_BRACE, "}");
+  }
 
-    // assumes that variables can only be integers
-    return new VariableDescription(identifier.getIdentifier(), type, 0, false);
+  /** statement_sequence = statement {statement}. */
+  void parseStatementSequence() throws ParserException {
+    if (!startsStatement()) {
+      throw error("statement");
+    }
+    do {
+      parseStatement();
+    } while (startsStatement());
   }
 
   /**
-   * Tries to parse a method body.
-   *
-   * @return whether this operation was successful
+   * statement = assignment | procedure_call | if_statement | while_statement | return_statement.
    */
-  @NotNull
-  Statement parseMethodBody() throws ParserException {
-    Token sym = scanner.getSym();
-    if (sym.getType() != L_BRACE) {
-      return new ErrorNode(generateErrorMessage("{"));
+  void parseStatement() throws ParserException {
+    if (tokenStream.getSym().getType() == IDENT) {
+      parseAssignmentOrProcedureCall();
+    } else if (isKeyword(Keyword.IF)) {
+      parseIfStatement();
+    } else if (isKeyword(Keyword.WHILE)) {
+      parseWhileStatement();
+    } else if (isKeyword(Keyword.RETURN)) {
+      parseReturnStatement();
+    } else {
+      throw error("statement");
     }
-    scanner.processToken();
-
-    // only iterate through them; they're stored in the symbolTable
-    while (parseLocalDeclaration())
-      ;
-
-    final Statement statements = parseStatementSequence();
+  }
 
-    sym = scanner.getSym();
-    if (sym.getType() != R_BRACE) {
-      return new ErrorNode(generateErrorMessage("}"));
-    }
-    scanner.processToken();
+  /** type = "int". */
+  @NotNull
+  Type parseType() throws ParserException {
+    expectKeyword(Keyword.INT, "type");
+    return Type.INT;
+  }
 
-    return statements;
+  /** assignment = ident "=" expression ";". */
+  void parseAssignment() throws ParserException {
+    parseAssignedValue(parseIdentifier());
   }
 
   /**
-   * Tries to parse a local declaration and returns whether the next 3 tokens match the grammar:
-   * local_declaration = type ident ";".
-   *
-   * <p>If this succeeds, the variable is pushed into the symbol table.
-   *
-   * @return whether the next tokens represent a local declaration
+   * if_statement = "if" "(" expression ")" "{" statement_sequence "}" "else" "{"
+   * statement_sequence "}".
    */
-  boolean parseLocalDeclaration() throws ParserException {
-    final Type type = parseType();
-    if (type == null) {
-      return false;
-    }
-    final IdentNode identifier = parseIdentifier();
-    if (identifier == null) {
-      return false;
-    }
-    if (scanner.getSym().getType() != SEMICOLON) { // no need to store this in a variable
-      return false;
-    }
-    scanner.processToken();
-
-    final VariableDescription var =
-        new VariableDescription(identifier.getIdentifier(), type, type.getDefaultValue(), false);
-    final boolean wasInserted = symbolTable.insert(var);
-    if (!wasInserted) {
-      throw new ParserException(
-          String.format("Variable %s was declared multiple times", identifier));
-    }
-    return true;
+  void parseIfStatement() throws ParserException {
+    listener.enterIf(expectKeyword(Keyword.IF, "'if' keyword").getPosition());
+    parseCondition();
+    parseBlock();
+    expectKeyword(Keyword.ELSE, "'else' keyword");
+    parseBlock();
+    listener.exitIf();
   }
 
-  @NotNull
-  Statement parseStatementSequence() {
-    final Statement headNode = parseStatement();
-    if (headNode instanceof ErrorNode) {
-      return headNode;
-    }
-    Statement last = headNode;
-    Statement current = parseStatement();
-    while (!(current instanceof ErrorNode)) {
-      last.setNext(current);
-      last = current;
-      current = parseStatement();
-    }
-    return headNode;
+  /** while_statement = "while" "(" expression ")" "{" statement_sequence "}". */
+  void parseWhileStatement() throws ParserException {
+    listener.enterWhile(expectKeyword(Keyword.WHILE, "'while' keyword").getPosition());
+    parseCondition();
+    parseBlock();
+    listener.exitWhile();
   }
 
-  /**
-   * Tries to parse a statement according to the grammar: statement = assignment | procedure_call |
-   * if_statement | while_statement | return_statement. It then returns a node that represents this
-   * statement. Returns an error node if a syntax error occurs.
-   *
-   * @return ASTBaseNode representing this statement or ErrorNode
-   */
-  @NotNull
-  Statement parseStatement() {
-    // factoring of
-    // statement = ident '=' expression ';' | ident actual_parameters ';'
-    //             ^ assignment               ^ procedure call
-    Statement node = parseStatementForAssignmentOrProcedureCall();
-    if (!(node instanceof ErrorNode)) {
-      return node;
-    }
-    node = parseIfStatement();
-    if (!(node instanceof ErrorNode)) {
-      return node;
-    }
-    node = parseWhileStatement();
-    if (!(node instanceof ErrorNode)) {
-      return node;
-    }
-    node = parseReturnStatement();
-    if (!(node instanceof ErrorNode)) {
-      return node;
+  /** return_statement = "return" [simple_expression] ";". */
+  void parseReturnStatement() throws ParserException {
+    final Position position = expectKeyword(Keyword.RETURN, "'return' keyword").getPosition();
+    final boolean hasValue = tokenStream.getSym().getType() != SEMICOLON;
+    if (hasValue) {
+      parseSimpleExpression();
     }
-    return new ErrorNode(generateErrorMessage("statement"));
+    expect(SEMICOLON, "';'");
+    listener.returnStatement(hasValue, position);
   }
 
   /**
-   * This method is a helper for differentiating between assignments or procedure calls. It is
-   * needed because both start with an IDENT token.
+   * actual_parameters = "(" [expression {"," expression}] ")".
    *
-   * @return AssignmentNode, ProcedureCallNode, or ErrorNode
+   * @return the number of parameters
    */
-  @NotNull
-  private Statement parseStatementForAssignmentOrProcedureCall() {
-    final IdentNode identifier = parseIdentifier();
-    if (identifier == null) {
-      // both an assignment and a procedure call need an identifier first
-      return new ErrorNode(generateErrorMessage("identifier"));
-    }
-
-    // try parsing an assignment
-    final Expression expression = parseAssignmentWithoutIdent();
-    if (!(expression instanceof ErrorNode)) {
-      final VariableDescription var =
-          (VariableDescription) symbolTable.find(identifier.getIdentifier(), (Type[]) null);
-      if (var == null) {
-        return new ErrorNode(String.format("Reference to unknown variable %s", identifier));
+  int parseActualParameters() throws ParserException {
+    expect(L_PAREN, "'('");
+    int arguments = 0;
+    if (startsExpression()) {
+      parseExpression();
+      arguments++;
+      while (tokenStream.getSym().getType() == COMMA) {
+        tokenStream.processToken();
+        parseExpression();
+        arguments++;
       }
-      final VariableAccessNode varNode = new VariableAccessNode(var, identifier.getPosition());
-      return new AssignmentNode(varNode, expression);
-    }
-
-    // begin parsing a procedure call
-    final ParameterListNode parameters = parseActualParameters();
-    if (parameters == null) {
-      return new ErrorNode(generateErrorMessage("parameter list"));
     }
-    final Token sym = scanner.getSym();
-    if (sym.getType() != SEMICOLON) {
-      return new ErrorNode(generateErrorMessage("';'"));
-    }
-    // this actually is a procedure call
-    scanner.processToken();
-
-    return new ProcedureCallNode(
-        new ProcedureDescriptionProxy(
-            identifier.getIdentifier(), parameters, symbolTable, identifier.getPosition()),
-        parameters,
-        identifier.getPosition());
+    expect(R_PAREN, "')'");
+    return arguments;
   }
 
   /**
-   * Checks whether the next token is a Keyword token that represents an integer and returns the
-   * type if this is the case. If the token is not a Keyword token, null is returned.
-   *
-   * @return the type of a KeywordToken
+   * expression = simple_expression [("==" | "<" | "<=" | ">" | ">=") simple_expression].
    */
-  @Nullable
-  Type parseType() {
-    final Token sym = scanner.getSym();
-    if (sym instanceof KeywordToken && ((KeywordToken) sym).getKeyword() == Keyword.INT) {
-      scanner.processToken();
-      return Type.INT;
+  void parseExpression() throws ParserException {
+    parseSimpleExpression();
+    final BinaryOperationNodeType operation;
+    switch (tokenStream.getSym().getType()) {
+      case EQUAL:
+        operation = BinaryOperationNodeType.EQUAL;
+        break;
+      case LOWER:
+        operation = BinaryOperationNodeType.LOWER;
+        break;
+      case LOWER_EQUAL:
+        operation = BinaryOperationNodeType.LOWER_EQUAL;
+        break;
+      case GREATER:
+        operation = BinaryOperationNodeType.GREATER;
+        break;
+      case GREATER_EQUAL:
+        operation = BinaryOperationNodeType.GREATER_EQUAL;
+        break;
+      default:
+        return;
     }
-    return null;
+    tokenStream.processToken();
+    parseSimpleExpression();
+    listener.binaryOperation(operation);
   }
 
-  /**
-   * Tries to parse an assignment statement according to the grammar: assignment = ident "="
-   * expression ";". It then returns an AssignmentNode that represents this assignment statement.
-   * Returns an error node if a syntax error occurs.
-   *
-   * @return AssignmentNode representing this assignment statement or ErrorNode
-   */
-  @NotNull
-  AbstractSyntaxTree parseAssignment() {
-    final IdentNode identifier = parseIdentifier();
-    if (identifier == null) {
-      return new ErrorNode(generateErrorMessage("identifier"));
-    }
-    final VariableDescription var =
-        (VariableDescription) symbolTable.find(identifier.getIdentifier(), (Type[]) null);
-    if (var == null) {
-      return new ErrorNode(String.format("Reference to unknown variable %s", identifier));
+  /** simple_expression = term {("+" | "-") term}. */
+  void parseSimpleExpression() throws ParserException {
+    parseTerm();
+    while (true) {
+      final BinaryOperationNodeType operation;
+      if (tokenStream.getSym().getType() == PLUS) {
+        operation = BinaryOperationNodeType.PLUS;
+      } else if (tokenStream.getSym().getType() == MINUS) {
+        operation = BinaryOperationNodeType.MINUS;
+      } else {
+        return;
+      }
+      tokenStream.processToken();
+      parseTerm();
+      listener.binaryOperation(operation);
     }
-    return new AssignmentNode(
-        new VariableAccessNode(var, identifier.getPosition()), parseAssignmentWithoutIdent());
   }
 
-  /**
-   * This method is a helper for parsing assignments that assumes that the token stream was already
-   * checked for an identifier. It is needed to distinguish assignments and intern procedure calls
-   * who both start with an IDENT.
-   *
-   * @return the expression that will be assigned to a variable
-   */
-  @NotNull
-  private Expression parseAssignmentWithoutIdent() {
-    Token sym = scanner.getSym();
-    if (sym.getType() != ASSIGN) {
-      return new ErrorNode(generateErrorMessage("'='"));
+  /** term = factor {("*" | "/") factor}. */
+  void parseTerm() throws ParserException {
+    parseFactor();
+    while (true) {
+      final BinaryOperationNodeType operation;
+      if (tokenStream.getSym().getType() == TIMES) {
+        operation = BinaryOperationNodeType.TIMES;
+      } else if (tokenStream.getSym().getType() == DIVIDE) {
+        operation = BinaryOperationNodeType.DIVIDE;
+      } else {
+        return;
+      }
+      tokenStream.processToken();
+      parseFactor();
+      listener.binaryOperation(operation);
     }
-    scanner.processToken();
+  }
 
-    final Expression expression = parseExpression();
-    if (expression instanceof ErrorNode) {
-      return expression;
-    }
-    sym = scanner.getSym();
-    if (sym.getType() != SEMICOLON) {
-      return new ErrorNode(generateErrorMessage("';'"));
+  /** factor = ident | intern_procedure_call | number | "(" expression ")". */
+  void parseFactor() throws ParserException {
+    final Token sym = tokenStream.getSym();
+    switch (sym.getType()) {
+      case IDENT:
+        tokenStream.processToken();
+        if (tokenStream.getSym().getType() == L_PAREN) {
+          final int arguments = parseActualParameters();
+          listener.procedureCall(getIdentifier(sym), arguments, sym.getPosition());
+        } else {
+          listener.variable(getIdentifier(sym), sym.getPosition());
+        }
+        break;
+      case NUMBER:
+        parseNumber();
+        break;
+      case L_PAREN:
+        tokenStream.processToken();
+        parseExpression();
+        expect(R_PAREN, "')'");
+        break;
+      default:
+        throw error("expression");
     }
-    scanner.processToken();
+  }
 
-    return expression;
+  /** Reads a single number literal. */
+  void parseNumber() throws ParserException {
+    final Token sym = expect(NUMBER, "number literal");
+    listener.number(
+        sym instanceof NumberToken ? ((NumberToken) sym).getNumber() : 0, sym.getPosition());
   }
 
   /**
-   * Tries to parse an if statement according to the grammar: if_statement = "if" "(" expression ")"
-   * "{" statement_sequence "}" "else" "{"statement_sequence "}". It then returns an IfElseNode that
-   * represents this if statement. Returns an error node if a syntax error occurs.
+   * Reads a single identifier. It does not emit an event as it does not know enough context; this
+   * could be a declaration, a variable or a procedure, for instance.
    *
-   * @return IfElseNode representing this if statement or ErrorNode
+   * @return the IDENT token
    */
   @NotNull
-  Statement parseIfStatement() {
-    // if keyword
-    Token sym = scanner.getSym();
-    if (!(sym instanceof KeywordToken && ((KeywordToken) sym).getKeyword() == Keyword.IF)) {
-      return new ErrorNode(generateErrorMessage("'if' keyword"));
-    }
-    scanner.processToken();
-
-    final Position positionOfIfKeyword = sym.getPosition();
-
-    sym = scanner.getSym();
-    if (sym.getType() != L_PAREN) {
-      return new ErrorNode(generateErrorMessage("'('"));
-    }
-    scanner.processToken();
-
-    // condition
-    final Expression condition = parseExpression();
-    if (condition instanceof ErrorNode) {
-      return (ErrorNode) condition;
-    }
-    if (scanner.getSym().getType() != R_PAREN) {
-      return new ErrorNode(generateErrorMessage("')'"));
-    }
-    scanner.processToken();
-
-    // if-associated block:
-    if (scanner.getSym().getType() != L_BRACE) {
-      return new ErrorNode(generateErrorMessage("'{'"));
-    }
-    scanner.processToken();
+  Token parseIdentifier() throws ParserException {
+    return expect(IDENT, "identifier");
+  }
 
-    final Statement ifBranch = parseStatementSequence();
-    if (ifBranch instanceof ErrorNode) {
-      return new ErrorNode(generateErrorMessage("statement(s)"));
-      // return ifBranch;
-    }
-    if (scanner.getSym().getType() != R_BRACE) {
-      return new ErrorNode(generateErrorMessage("'}'"));
-    }
-    scanner.processToken();
+  // private methods
+  // --------------------------------------------------------------
 
-    sym = scanner.getSym();
-    if (!(sym instanceof KeywordToken
-        && ((KeywordToken) scanner.getSym()).getKeyword() == Keyword.ELSE)) {
-      return new ErrorNode(generateErrorMessage("'else' keyword"));
-    }
-    scanner.processToken();
+  /**
+   * assignment = ident "=" expression ";" and procedure_call = ident actual_parameters ";". Both
+   * start with an identifier, hence they are distinguished by the token after it.
+   */
+  private void parseAssignmentOrProcedureCall() throws ParserException {
+    final Token identifier = parseIdentifier();
+    if (tokenStream.getSym().getType() == ASSIGN) {
+      parseAssignedValue(identifier);
+      return;
+    }
+    if (tokenStream.getSym().getType() != L_PAREN) {
+      throw error("'=' or parameter list");
+    }
+    final int arguments = parseActualParameters();
+    expect(SEMICOLON, "';'");
+    listener.procedureCallStatement(
+        getIdentifier(identifier), arguments, identifier.getPosition());
+  }
 
-    // else-associated block
-    if (scanner.getSym().getType() != L_BRACE) {
-      return new ErrorNode(generateErrorMessage("'{'"));
-    }
-    scanner.processToken();
+  /** Parses the rest of an assignment to the variable with the given identifier. */
+  private void parseAssignedValue(@NotNull final Token identifier) throws ParserException {
+    expect(ASSIGN, "'='");
+    parseExpression();
+    expect(SEMICOLON, "';'");
+    listener.assignment(getIdentifier(identifier), identifier.getPosition());
+  }
 
-    final Statement elseBranch = parseStatementSequence();
-    if (elseBranch instanceof ErrorNode) {
-      return new ErrorNode(generateErrorMessage("statement(s)"));
-    }
-    if (scanner.getSym().getType() != R_BRACE) {
-      return new ErrorNode(generateErrorMessage("'}'"));
-    }
-    scanner.processToken();
+  /** "(" expression ")" as used by if and while statements. */
+  private void parseCondition() throws ParserException {
+    expect(L_PAREN, "'('");
+    parseExpression();
+    expect(R_PAREN, "')'");
+  }
 
-    final IfNode ifNode = new IfNode(condition, ifBranch, positionOfIfKeyword);
-    return new IfElseNode(ifNode, elseBranch);
+  /** "{" statement_sequence "}" as used by if and while statements. */
+  private void parseBlock() throws ParserException {
+    expect(L_BRACE, "'{'");
+    listener.enterBlock();
+    parseStatementSequence();
+    expect(R_BRACE, "'}'");
+    listener.exitBlock();
   }
 
   /**
-   * Tries to parse a while statement according to the grammar: while_statement = "while" "("
-   * expression ")" "{" statement_sequence "}". It then returns a WhileNode that represents this
-   * while statement. Returns an error node if a syntax error occurs.
+   * Finds the end of the method body that starts at the current token if it can be skipped. This
+   * is only possible if the mode allows it and the body is enclosed in matching braces.
    *
-   * @return WhileNode representing this while statement or ErrorNode
+   * @return the index of the closing brace of the body or -1 if it can not be skipped
    */
-  @NotNull
-  Statement parseWhileStatement() {
-    Token sym = scanner.getSym();
-
-    // while keyword
-    if (!(sym instanceof KeywordToken && ((KeywordToken) sym).getKeyword() == Keyword.WHILE)) {
-      return new ErrorNode(generateErrorMessage("'while' keyword"));
-    }
-    scanner.processToken();
-    final Position position = sym.getPosition();
-
-    sym = scanner.getSym();
-    if (sym.getType() != L_PAREN) {
-      return new ErrorNode(generateErrorMessage("'('"));
-    }
-    scanner.processToken();
-
-    // condition
-    final Expression condition = parseExpression();
-    if (condition instanceof ErrorNode) {
-      return (ErrorNode) condition;
+  private int findSkippableBodyEnd() {
+    if (mode == ParsingMode.SEQUENTIAL || tokenStream.getSym().getType() != L_BRACE) {
+      return -1;
     }
-    sym = scanner.getSym();
-    if (sym.getType() != R_PAREN) {
-      return new ErrorNode(generateErrorMessage("')'"));
-    }
-    scanner.processToken();
-
-    sym = scanner.getSym();
-    if (sym.getType() != L_BRACE) {
-      return new ErrorNode(generateErrorMessage("'{'"));
-    }
-    scanner.processToken();
-
-    // associated block
-    final Statement statements = parseStatementSequence();
-    if (statements instanceof ErrorNode) {
-      return new ErrorNode(generateErrorMessage("statement(s)"));
-    }
-    if (scanner.getSym().getType() != R_BRACE) {
-      return new ErrorNode(generateErrorMessage("'}'"));
-    }
-    scanner.processToken();
-
-    return new WhileNode(condition, statements, position);
+    final TokenBufferStream bufferStream = (TokenBufferStream) tokenStream;
+    return bufferStream.getBuffer().getMatchingBrace(bufferStream.getIndex());
   }
 
   /**
-   * Tries to parse a return statement according to the grammar: return_statement = "return" [
-   * simple_expression ] ";". It then returns a ReturnNode. Returns an error node if a syntax error
-   * occurs.
+   * Skips the body of the current method and remembers its position so that it can be parsed
+   * later on. In lazy mode, the procedure is declared right away and parses its body on first
+   * use.
    *
-   * @return ReturnNode representing this return statement or ErrorNode
+   * @param end the index of the closing brace of the body
+   * @throws ParserException if the procedure is lazy and was declared before
    */
-  @NotNull
-  Statement parseReturnStatement() {
-    Token sym = scanner.getSym();
-    if (!(sym instanceof KeywordToken && ((KeywordToken) sym).getKeyword() == Keyword.RETURN)) {
-      return new ErrorNode(generateErrorMessage("'return' keyword"));
-    }
-    scanner.processToken();
-    final Position position = sym.getPosition();
-
-    if (scanner.getSym().getType() == SEMICOLON) {
-      // there is no simple expression in between
-      scanner.processToken();
-      return new ReturnNode(position);
-    }
-
-    final Expression expression = parseSimpleExpression();
-    if (expression instanceof ErrorNode) {
-      return (ErrorNode) expression;
-    }
-
-    // before doing something with the expression the terminal semicolon must be validated
-    sym = scanner.getSym();
-    if (sym.getType() != SEMICOLON) {
-      return new ErrorNode(generateErrorMessage("';'"));
+  private void skipMethodBody(final int end) throws ParserException {
+    assert builder != null;
+    final TokenBufferStream bufferStream = (TokenBufferStream) tokenStream;
+    final ActualProcedureDescription procedureDescription = builder.skipMethodBody();
+    final DeferredMethodBody body =
+        new DeferredMethodBody(procedureDescription, bufferStream.getIndex(), end + 1);
+    bufferStream.skipTo(end + 1);
+
+    if (mode == ParsingMode.LAZY) {
+      final TokenBuffer buffer = bufferStream.getBuffer();
+      procedureDescription.setEntrypoint(() -> body.parse(buffer, shareExpressions));
+      builder.declareProcedure(procedureDescription);
+    } else {
+      deferredMethodBodies.add(body);
     }
-    scanner.processToken();
-
-    return new ReturnNode(expression, position);
   }
 
   /**
-   * Tries to parse actual parameters according to the grammar: actual_parameters = "(" [expression
-   * {"," expression}] ")". It then returns the list of trees that represent the expressions used as
-   * parameters. Returns null if a syntax error occurs.
+   * Parses all method bodies that were skipped so far on a ForkJoinPool. Afterwards, the results
+   * are stored in declaration order, hence the outcome does not depend on the scheduling.
    *
-   * @return list of actual parameters
+   * @throws ParserException if one of the bodies contains errors or a procedure was declared
+   *     multiple times
    */
-  @Nullable
-  ParameterListNode parseActualParameters() {
-    if (scanner.getSym().getType() != L_PAREN) {
-      return null; // TODO return an error node later on
-    }
-    scanner.processToken();
-
-    final List<Expression> paramList = new LinkedList<>();
-
-    Expression node = parseExpression();
-    // it is okay if no expression comes here
-    // but it is still necessary to check for the right paren afterwards
-    if (!(node instanceof ErrorNode)) {
-      paramList.add(node);
-
-      while (scanner.getSym().getType() == COMMA) {
-        scanner.processToken();
-
-        node = parseExpression();
-        if (node instanceof ErrorNode) {
-          return null; // TODO return the error node
-        }
-        paramList.add(node);
+  private void parseDeferredMethodBodies() throws ParserException {
+    if (deferredMethodBodies.isEmpty()) {
+      return;
+    }
+    assert builder != null;
+    final TokenBuffer buffer = ((TokenBufferStream) tokenStream).getBuffer();
+    final ForkJoinPool pool = ForkJoinPool.commonPool();
+    final List<ForkJoinTask<Statement>> tasks = new ArrayList<>(deferredMethodBodies.size());
+    for (final DeferredMethodBody body : deferredMethodBodies) {
+      tasks.add(pool.submit(() -> body.parse(buffer, shareExpressions)));
+    }
+    // wait for all tasks before declaring anything, as they read the current symbol table
+    final List<Statement> results = new ArrayList<>(tasks.size());
+    for (final ForkJoinTask<Statement> task : tasks) {
+      results.add(task.join());
+    }
+
+    final List<DeferredMethodBody> bodies = new ArrayList<>(deferredMethodBodies);
+    deferredMethodBodies.clear();
+    for (int i = 0; i < bodies.size(); i++) {
+      final DeferredMethodBody body = bodies.get(i);
+      body.procedureDescription.setEntrypoint(results.get(i));
+      if (body.error != null) {
+        throw body.error;
       }
+      builder.declareProcedure(body.procedureDescription);
     }
+  }
 
-    if (scanner.getSym().getType() != R_PAREN) {
-      return null; // TODO return an error node later on
-    }
-    scanner.processToken();
-    return new ParameterListNode(paramList);
+  private boolean startsStatement() {
+    return tokenStream.getSym().getType() == IDENT
+        || isKeyword(Keyword.IF)
+        || isKeyword(Keyword.WHILE)
+        || isKeyword(Keyword.RETURN);
   }
 
-  /**
-   * Tries to parse an expression according to the grammar: expression = simple_expression [("==" |
-   * "<" | "<=" | ">" | ">=") simple_expression]. This method then returns the subtree representing
-   * this expression.
-   *
-   * @return syntax tree for this expression
-   */
-  @NotNull
-  Expression parseExpression() {
-    Expression node = parseSimpleExpression();
-    final Token sym = scanner.getSym();
-    switch (sym.getType()) {
-      case EQUAL:
-        scanner.processToken();
-        node =
-            new BinaryOperationNode(node, BinaryOperationNodeType.EQUAL, parseSimpleExpression());
-        break;
-      case LOWER:
-        scanner.processToken();
-        node =
-            new BinaryOperationNode(node, BinaryOperationNodeType.LOWER, parseSimpleExpression());
-        break;
-      case LOWER_EQUAL:
-        scanner.processToken();
-        node =
-            new BinaryOperationNode(
-                node, BinaryOperationNodeType.LOWER_EQUAL, parseSimpleExpression());
-        break;
-      case GREATER:
-        scanner.processToken();
-        node =
-            new BinaryOperationNode(node, BinaryOperationNodeType.GREATER, parseSimpleExpression());
-        break;
-      case GREATER_EQUAL:
-        scanner.processToken();
-        node =
-            new BinaryOperationNode(
-                node, BinaryOperationNodeType.GREATER_EQUAL, parseSimpleExpression());
-        break;
-    }
+  private boolean startsExpression() {
+    final TokenType type = tokenStream.getSym().getType();
+    return type == IDENT || type == NUMBER || type == L_PAREN;
+  }
 
-    return node;
+  private boolean isKeyword(@NotNull final Keyword keyword) {
+    final Token sym = tokenStream.getSym();
+    return sym instanceof KeywordToken && ((KeywordToken) sym).getKeyword() == keyword;
   }
 
-  /**
-   * Tries to parse a simple expression according to the grammar: simple_expression = term {("+" |
-   * "-" ) term}. This method then returns the subtree representing this simple expression
-   *
-   * @return syntax tree for this simple expression
-   */
+  /** @return the name of the given IDENT token */
   @NotNull
-  Expression parseSimpleExpression() {
-    Expression node = parseTerm();
-    while (!(node instanceof ErrorNode)) {
-      final Token sym = scanner.getSym();
-      if (sym.getType() == PLUS) {
-        scanner.processToken();
-        node = new BinaryOperationNode(node, BinaryOperationNodeType.PLUS, parseTerm());
-      } else if (sym.getType() == MINUS) {
-        scanner.processToken();
-        node = new BinaryOperationNode(node, BinaryOperationNodeType.MINUS, parseTerm());
-      } else {
-        // this means that at least one term could be found which is valid for this grammar
-        break;
-      }
-    }
-    return node;
+  private static String getIdentifier(@NotNull final Token identifier) {
+    return identifier instanceof IdentToken ? ((IdentToken) identifier).getIdent() : "";
   }
 
   /**
-   * Tries to parse a term according to the grammar: term = factor {("*" | "/" ) factor}. This
-   * method then returns the AST for this term.
+   * Skips the current token if it has the given type.
    *
-   * @return syntax tree for this term
+   * @return the skipped token
+   * @throws ParserException if the current token has another type
    */
   @NotNull
-  Expression parseTerm() {
-    Expression node = parseFactor();
-    while (!(node instanceof ErrorNode)) {
-      final Token sym = scanner.getSym();
-      if (sym.getType() == TIMES) {
-        scanner.processToken();
-        node = new BinaryOperationNode(node, BinaryOperationNodeType.TIMES, parseFactor());
-      } else if (sym.getType() == DIVIDE) {
-        scanner.processToken();
-        node = new BinaryOperationNode(node, BinaryOperationNodeType.DIVIDE, parseFactor());
-      } else {
-        // at least one factor was found which is valid for this grammar
-        break;
-      }
-    }
-    return node;
+  private Token expect(@NotNull final TokenType type, @NotNull final String expectedConstruct)
+      throws ParserException {
+    final Token sym = tokenStream.getSym();
+    if (sym.getType() != type) {
+      throw error(expectedConstruct);
+    }
+    tokenStream.processToken();
+    return sym;
   }
 
   /**
-   * Tries to parse a factor according to the grammar: factor = ident | intern_procedure_call |
-   * number | "(" expression ")". This method then returns the syntax tree for this factor.
+   * Skips the current token if it is the given keyword.
    *
-   * @return syntax tree for this factor
+   * @return the skipped token
+   * @throws ParserException if the current token is something else
    */
   @NotNull
-  Expression parseFactor() {
-    final IdentNode identifier = parseIdentifier();
-    if (identifier != null) {
-      final ParameterListNode parameters = parseActualParameters();
-
-      /*
-       * Parse intern procedure call
-       */
-      if (parameters != null) {
-        // Finds the procedure lazily after the whole file was parsed.
-        // This avoids evaluating the tree `parameters` multiple times and directly here.
-        return new ProcedureCallNode(
-            new ProcedureDescriptionProxy(
-                identifier.getIdentifier(), parameters, symbolTable, identifier.getPosition()),
-            parameters,
-            identifier.getPosition());
-      }
-
-      /*
-       * Parse a variable access
-       */
-      final VariableDescription var =
-          (VariableDescription) symbolTable.find(identifier.getIdentifier(), (Type[]) null);
-
-      if (var == null) {
-        return new ErrorNode(String.format("Reference to unknown variable %s", identifier));
-      }
-      return new VariableAccessNode(var, identifier.getPosition());
-    }
-
-    /*
-     * Parse a number
-     */
-    Expression node = parseNumber();
-    if (!(node instanceof ErrorNode)) {
-      return node;
-    }
-
-    /*
-     * Parse an expression
-     */
-    if (scanner.getSym().getType() != L_PAREN) {
-      return new ErrorNode(generateErrorMessage("'('"));
-    }
-    scanner.processToken();
-
-    node = parseExpression();
-    if (scanner.getSym().getType() != R_PAREN) {
-      return new ErrorNode(generateErrorMessage("')'"));
-    }
-    scanner.processToken();
-
-    return node; // whether the above parseExpression() was successful
+  private Token expectKeyword(
+      @NotNull final Keyword keyword, @NotNull final String expectedConstruct)
+      throws ParserException {
+    final Token sym = tokenStream.getSym();
+    if (!isKeyword(keyword)) {
+      throw error(expectedConstruct);
+    }
+    tokenStream.processToken();
+    return sym;
   }
 
   /**
-   * Checks the underlying token iterator for a single number.
+   * Creates a syntax error with the expected construct. The actual value is derived from the
+   * current token of the token stream.
    *
-   * @return whether a single NUMBER token comes next
+   * @param expectedConstruct a String that describes what should have been there
+   * @return an exception whose message can be used as an output for users
    */
   @NotNull
-  Expression parseNumber() {
-    final Token sym = scanner.getSym();
-    final Position pos = sym.getPosition();
-    if (sym.getType() == NUMBER) {
-      ConstantNode<Long> node;
-      if (sym instanceof NumberToken) {
-        node = new ConstantNode<>(Type.INT, ((NumberToken) sym).getNumber(), pos);
-      } else {
-        node = new ConstantNode<>(Type.INT, scanner.getNum(), pos);
-      }
-      scanner.processToken();
-      return node;
-    } else {
-      return new ErrorNode(generateErrorMessage("number literal"));
-    }
+  private ParserException error(@NotNull final String expectedConstruct) {
+    final Token sym = tokenStream.getSym();
+    return new ParserException(
+        String.format(ERROR_TEMPLATE, sym, expectedConstruct), sym.getPosition());
   }
 
-  /**
-   * Checks whether the next token is an IDENT token and returns the identifier if this is the case.
-   * If the token is not an IDENT token, null is returned.
-   *
-   * @return an identifier of a single IDENT token that comes next
-   */
-  @Nullable
-  IdentNode parseIdentifier() {
-    // this method does not return a Node yet as it does not know enough context
-    // this could be a declaration, a variable or a procedure, for instance
-    final Token sym = scanner.getSym();
-    if (sym.getType() == IDENT) {
-      String identifier;
-      if (sym instanceof IdentToken) {
-        identifier = ((IdentToken) sym).getIdent();
-      } else {
-        identifier = scanner.getId();
+  /** Stores the position of a method body that was skipped during the first pass. */
+  private static class DeferredMethodBody {
+    @NotNull private final ActualProcedureDescription procedureDescription;
+    /** index of the opening brace of the body */
+    private final int start;
+    /** index of the first token after the closing brace of the body */
+    private final int end;
+    /** the first error in the body; only set after parse() found one */
+    @Nullable private volatile ParserException error;
+
+    DeferredMethodBody(
+        @NotNull final ActualProcedureDescription procedureDescription,
+        final int start,
+        final int end) {
+      this.procedureDescription = procedureDescription;
+      this.start = start;
+      this.end = end;
+    }
+
+    /**
+     * Builds the body with a new Parser that stores all local variables in the procedure's own
+     * symbol table. Errors are turned into ErrorNodes and remembered, so that they can be
+     * reported in declaration order. They are recorded on the procedure as well, as a lazy body is
+     * parsed after the class was returned.
+     */
+    @NotNull
+    Statement parse(@NotNull final TokenBuffer buffer, final boolean shareExpressions) {
+      final AstBuilder bodyBuilder =
+          new AstBuilder(procedureDescription.getSymbols(), shareExpressions);
+      final Parser parser = new Parser(new TokenBufferStream(buffer, start, end), bodyBuilder);
+      try {
+        parser.parseMethodBody();
+      } catch (@NotNull final ParserException e) {
+        error = e;
+        procedureDescription.setSyntaxError(e.getMessage());
+        return new ErrorNode(e.getMessage(), e.getPosition());
       }
-      scanner.processToken();
-      return new IdentNode(identifier, sym.getPosition());
-    } else {
-      return null;
+      final Statement statements = bodyBuilder.getStatements();
+      assert statements != null; // the grammar requires at least one statement
+      return statements;
     }
   }
-
-  /**
-   * Creates an error message with the expected symbol. The actual value is derived from the current
-   * token of the scanner.
-   *
-   * @param expectedConstruct a String that describes what should have been there
-   * @return a string that can be used as an output for users
-   */
-  @NotNull
-  private String generateErrorMessage(@NotNull final String expectedConstruct) {
-    final String template = "%s was found, but %s was expected.";
-    return String.format(template, scanner.getSym(), expectedConstruct);
-  }
 }
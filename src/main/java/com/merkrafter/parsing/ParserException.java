@@ -1,22 +1,36 @@
 package com.merkrafter.parsing;
 
+import com.merkrafter.lexing.Position;
 import org.jetbrains.annotations.NotNull;
 
 /****
- * This class indicates an error during the parsing.
- * It is intended to supersede the ErrorNode system.
+ * This class indicates an error during the parsing: either a syntax error or a declaration that
+ * was rejected by a ParseListener. The Parser stops at the first one.
  *
  * @since v0.4.0
  * @author merkrafter
  ***************************************************************/
 public class ParserException extends Exception {
+  // ATTRIBUTES
+  // ==============================================================
+  @NotNull private final Position position;
+
   // CONSTRUCTORS
   // ==============================================================
 
   /****
-   * Creates a new ParserException by setting a message.
+   * Creates a new ParserException by setting a message and the position of the error.
    ***************************************************************/
-  public ParserException(@NotNull final String message) {
+  public ParserException(@NotNull final String message, @NotNull final Position position) {
     super(message);
+    this.position = position;
+  }
+
+  // GETTER
+  // ==============================================================
+
+  @NotNull
+  public Position getPosition() {
+    return position;
   }
 }
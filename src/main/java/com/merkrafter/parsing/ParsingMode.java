@@ -0,0 +1,33 @@
+package com.merkrafter.parsing;
+
+import org.jetbrains.annotations.NotNull;
+
+/****
+ * This enum lists the ways a Parser can handle the bodies of methods.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+public enum ParsingMode {
+  // CONSTANTS
+  // ==============================================================
+  /** Parse each method body as soon as it is encountered. */
+  SEQUENTIAL,
+  /**
+   * Skip the method bodies first and parse all of them in parallel after the class header and
+   * all method heads are known.
+   */
+  PARALLEL,
+  /**
+   * Skip the method bodies and parse each of them when its entry point is requested for the first
+   * time. Errors inside a body are therefore not reported before the body is actually used.
+   */
+  LAZY;
+
+  /** @return the lowercase name of this enum item */
+  @NotNull
+  @Override
+  public String toString() {
+    return name().toLowerCase();
+  }
+}
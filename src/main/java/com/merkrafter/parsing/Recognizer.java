@@ -0,0 +1,95 @@
+package com.merkrafter.parsing;
+
+import com.merkrafter.lexing.Position;
+import com.merkrafter.lexing.TokenStream;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/****
+ * This class checks whether tokens form a grammatical JavaSST program without building anything.
+ * It runs the grammar of the Parser, hence it accepts and rejects the same inputs and reports the
+ * same first syntax error. As the events are reported to a listener that ignores them, no AST
+ * nodes, descriptions or symbol tables are created. Therefore, references to unknown variables,
+ * duplicate declarations or type errors are not detected.
+ * <p>
+ * Everything that is read can be reported to another ParseListener instead. This allows
+ * consumers to process a program while it is read, using only memory for the nesting of the
+ * current construct.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+public class Recognizer {
+  // CONSTANTS
+  // ==============================================================
+  /** This listener ignores all events. */
+  private static final ParseListener NO_LISTENER = new ParseListener() {};
+
+  // ATTRIBUTES
+  // ==============================================================
+  /** reads the grammar and reports to the listener of this recognizer */
+  @NotNull private final Parser parser;
+
+  /** the first error that was found by recognize() */
+  @Nullable private String error;
+
+  @Nullable private Position errorPosition;
+
+  // CONSTRUCTORS
+  // ==============================================================
+
+  /****
+   * Creates a new Recognizer based on a stream that provides tokens, a Scanner for instance.
+   ***************************************************************/
+  public Recognizer(@NotNull final TokenStream tokenStream) {
+    this(tokenStream, NO_LISTENER);
+  }
+
+  /****
+   * Creates a new Recognizer that reports everything it reads to the given listener.
+   ***************************************************************/
+  public Recognizer(@NotNull final TokenStream tokenStream, @NotNull final ParseListener listener) {
+    parser = new Parser(tokenStream, listener);
+  }
+
+  // GETTER
+  // ==============================================================
+
+  /**
+   * Returns the first error that was found by recognize(). It is the error the Parser reports.
+   *
+   * @return the error message or null if the input is grammatical
+   */
+  @Nullable
+  public String getError() {
+    return error;
+  }
+
+  /** @return the position of the first error or null if the input is grammatical */
+  @Nullable
+  public Position getErrorPosition() {
+    return errorPosition;
+  }
+
+  // METHODS
+  // ==============================================================
+  // public methods
+  // --------------------------------------------------------------
+
+  /**
+   * Checks whether the tokens given by the underlying token stream form a JavaSST class. The
+   * first error can be retrieved with getError() and getErrorPosition() afterwards.
+   *
+   * @return whether the input is grammatical and the listener did not reject a declaration
+   */
+  public boolean recognize() {
+    try {
+      parser.parseProgram();
+    } catch (@NotNull final ParserException e) {
+      error = e.getMessage();
+      errorPosition = e.getPosition();
+      return false;
+    }
+    return true;
+  }
+}
@@ -3,6 +3,7 @@ package com.merkrafter.representation;
 import com.merkrafter.lexing.Position;
 import com.merkrafter.representation.ast.Statement;
 import java.util.List;
+import java.util.function.Supplier;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -17,9 +18,20 @@ public class ActualProcedureDescription extends ObjectDescription implements Pro
   // ==============================================================
   @NotNull private final Type returnType;
   @NotNull private final List<VariableDescription> paramList;
+  /** the types of the parameters; null where the parameter list contains null */
+  @NotNull private final Type[] signature;
+  /** whether signature contains no null entries */
+  private final boolean concreteSignature;
+  private final int signatureHash;
   @NotNull private final SymbolTable symbols;
   @Nullable private Statement statements;
+  /** If this is set, it provides the statements on the first call of getEntryPoint. */
+  @Nullable private Supplier<Statement> statementsSupplier;
+  /** the first syntax error in the body if it was parsed on its own; null otherwise */
+  @Nullable private String syntaxError;
   @NotNull private final Position position;
+  /** the number of parameters and local variables; -1 until they were resolved */
+  private int frameSize = -1;
 
   // CONSTRUCTORS
   // ==============================================================
@@ -38,6 +50,15 @@ public class ActualProcedureDescription extends ObjectDescription implements Pro
     super(name);
     this.returnType = returnType;
     this.paramList = paramList;
+    this.signature = new Type[paramList.size()];
+    int i = 0;
+    boolean concrete = true;
+    for (final VariableDescription param : paramList) {
+      signature[i++] = param != null ? param.getType() : null;
+      concrete &= param != null;
+    }
+    this.concreteSignature = concrete;
+    this.signatureHash = hashSignature(signature);
     this.symbols = new SymbolTable(enclosingSymbolTable);
     this.position = position;
   }
@@ -78,23 +99,91 @@ public class ActualProcedureDescription extends ObjectDescription implements Pro
     return returnType;
   }
 
-  /** @return the first statement of this procedure */
+  /**
+   * Returns the first statement of this procedure. If the statements are provided lazily, they are
+   * created during the first call of this method.
+   *
+   * @return the first statement of this procedure
+   */
   @Nullable
   @Override
-  public Statement getEntryPoint() {
+  public synchronized Statement getEntryPoint() {
+    if (statementsSupplier != null) {
+      statements = statementsSupplier.get();
+      statementsSupplier = null;
+    }
     return statements;
   }
 
+  /**
+   * Returns the first syntax error in the body of this procedure. It is only known here if the body
+   * was parsed apart from the rest of the class. A body that is provided lazily is parsed by this
+   * method.
+   *
+   * @return the error message or null if the body is grammatical
+   */
+  @Nullable
+  public synchronized String getSyntaxError() {
+    getEntryPoint();
+    return syntaxError;
+  }
+
   @NotNull
   @Override
   public Position getPosition() {
     return position;
   }
 
+  /** @return the number of parameters and local variables or -1 if they were not resolved yet */
+  public int getFrameSize() {
+    return frameSize;
+  }
+
+  /** @return the types of the parameters in order; must not be modified */
+  @NotNull
+  Type[] getParamTypes() {
+    return signature;
+  }
+
+  /** @return a hash of the parameter types that is equal to hashSignature of matching arguments */
+  int getSignatureHash() {
+    return signatureHash;
+  }
+
+  /**
+   * Returns whether all parameters of this procedure have a type. Only then, getSignatureHash can
+   * be compared to hashSignature of arguments instead of comparing the types one by one.
+   */
+  boolean hasConcreteSignature() {
+    return concreteSignature;
+  }
+
   // SETTER
   // ==============================================================
-  public void setEntrypoint(@NotNull final Statement statement) {
+  public synchronized void setEntrypoint(@NotNull final Statement statement) {
     this.statements = statement;
+    this.statementsSupplier = null;
+  }
+
+  /**
+   * Sets a supplier that creates the statements of this procedure when they are needed for the
+   * first time. This allows parsing the procedure's body lazily.
+   *
+   * @param statementsSupplier creates the first statement of this procedure
+   */
+  public synchronized void setEntrypoint(@NotNull final Supplier<Statement> statementsSupplier) {
+    this.statements = null;
+    this.statementsSupplier = statementsSupplier;
+  }
+
+  /**
+   * Records a syntax error in the body of this procedure, which was parsed on its own. The checks
+   * of the class report only this error then, like a parser that reads the whole class at once.
+   *
+   * @param syntaxError the message of the first syntax error in the body
+   */
+  public synchronized void setSyntaxError(@NotNull final String syntaxError) {
+    this.syntaxError = syntaxError;
   }
 
   // METHODS
@@ -102,6 +191,72 @@ public class ActualProcedureDescription extends ObjectDescription implements Pro
   // public methods
   // --------------------------------------------------------------
 
+  /**
+   * Numbers the parameters and local variables of this procedure and annotates all variable
+   * accesses in its body with the scope depth and slot of their variables. The variables of the
+   * enclosing scopes must have been numbered before.
+   */
+  public void resolveVariables() {
+    frameSize = symbols.assignSlots();
+    final Statement entryPoint = getEntryPoint();
+    if (entryPoint != null) {
+      entryPoint.resolveVariables(symbols.getNestingLevel());
+    }
+  }
+
+  /**
+   * Resolves all procedure calls in the body of this procedure.
+   *
+   * @param resolver the resolver of the class this procedure is declared in
+   */
+  public void resolveProcedureCalls(@NotNull final CallResolver resolver) {
+    final Statement entryPoint = getEntryPoint();
+    if (entryPoint != null) {
+      entryPoint.resolveProcedureCalls(resolver);
+    }
+  }
+
+  /**
+   * Returns whether this procedure can be called with arguments of the given types. This is the
+   * same comparison as equals does on the parameter lists, but without the need for a prototype.
+   * Null entries in types are ignored.
+   *
+   * @param types the types of the arguments in order
+   * @return whether the parameters of this procedure have the given types
+   */
+  public boolean hasSignature(@NotNull final Type... types) {
+    int i = 0;
+    for (final Type type : types) {
+      if (type == null) {
+        continue;
+      }
+      if (i == signature.length || (signature[i] != null && signature[i] != type)) {
+        return false;
+      }
+      i++;
+    }
+    return i == signature.length;
+  }
+
+  /**
+   * Computes a hash of the given types that depends on their order and number. Null entries are
+   * ignored just as hasSignature does.
+   *
+   * @param types the types of the arguments or parameters of a procedure
+   * @return a hash that is equal for all signatures with the same types in the same order
+   */
+  static int hashSignature(@NotNull final Type... types) {
+    int hash = 1;
+    int arity = 0;
+    for (final Type type : types) {
+      if (type != null) {
+        hash = 31 * hash + type.ordinal();
+        arity++;
+      }
+    }
+    return 31 * hash + arity;
+  }
+
   /**
    * Returns whether this ProcedureDescription is equal to o. For this to happen, o must be a
    * ProcedureDescription as well. Also, both must have the same name and their parameter lists must
@@ -122,7 +277,10 @@ public class ActualProcedureDescription extends ObjectDescription implements Pro
     if (!super.equals(o)) {
       return false;
     }
-    final ProcedureDescription that = (ProcedureDescription) o;
+    final ActualProcedureDescription that = (ActualProcedureDescription) o;
+    if (concreteSignature && that.concreteSignature && signatureHash != that.signatureHash) {
+      return false;
+    }
     final int numParams = getParamList().size();
     final List<VariableDescription> paramList = that.getParamList();
     if (paramList == null || numParams != paramList.size()) {
@@ -142,10 +300,15 @@ public class ActualProcedureDescription extends ObjectDescription implements Pro
     return true;
   }
 
-  /** @return an identifier unique in the whole AST */
+  /**
+   * Parameters without a description match any type in equals, hence only their number is included
+   * besides the name.
+   *
+   * @return a hash of the name and the number of parameters
+   */
   @Override
-  public int getID() {
-    return hashCode();
+  public int hashCode() {
+    return 31 * super.hashCode() + signature.length;
   }
 
   /** @return dot/graphviz declarations of this component */
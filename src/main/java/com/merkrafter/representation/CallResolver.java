@@ -0,0 +1,134 @@
+package com.merkrafter.representation;
+
+import com.merkrafter.lexing.Position;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/****
+ * This class resolves the procedure calls of a class after it was parsed. Calls with the same name
+ * and argument types resolve to the same procedure, so each distinct signature is searched in the
+ * symbol tables only once. This assumes that all calls are resolved against the scopes of a single
+ * class, as procedures can only be declared there. Calls that are not declared in the class are
+ * looked up in a ProcedureIndex of the other classes of the program, if there is one.
+ * <p>
+ * Calls that can not be resolved are recorded as diagnostics.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+public class CallResolver {
+  // ATTRIBUTES
+  // ==============================================================
+  /** maps signatures to the procedures they resolve to; unresolvable signatures map to null */
+  @NotNull private final Map<Signature, ProcedureDescription> cache;
+
+  @NotNull private final List<String> diagnostics;
+  /** the procedures of the other classes of the program; null if a single class is compiled */
+  @Nullable private final ProcedureIndex procedureIndex;
+
+  // CONSTRUCTORS
+  // ==============================================================
+
+  /****
+   * Creates a new CallResolver with an empty cache.
+   ***************************************************************/
+  public CallResolver() {
+    this(null);
+  }
+
+  /****
+   * Creates a new CallResolver with an empty cache that links calls to procedures of other classes
+   * via the given index.
+   ***************************************************************/
+  public CallResolver(@Nullable final ProcedureIndex procedureIndex) {
+    cache = new HashMap<>();
+    diagnostics = new LinkedList<>();
+    this.procedureIndex = procedureIndex;
+  }
+
+  // GETTER
+  // ==============================================================
+
+  /** @return messages for all calls that could not be resolved, in the order they were found */
+  @NotNull
+  public List<String> getDiagnostics() {
+    return diagnostics;
+  }
+
+  // METHODS
+  // ==============================================================
+  // public methods
+  // --------------------------------------------------------------
+
+  /**
+   * Finds the procedure a call refers to. Procedures of the calling class take precedence over
+   * procedures of other classes.
+   *
+   * @param symbolTable the scope of the call
+   * @param name the name of the called procedure
+   * @param signature the types of the arguments
+   * @param position the position of the call, used for diagnostics
+   * @return the called procedure or null if there is no matching procedure
+   */
+  @Nullable
+  public ProcedureDescription resolve(
+      @NotNull final SymbolTable symbolTable,
+      @NotNull final String name,
+      @NotNull final Type[] signature,
+      @NotNull final Position position) {
+    final Signature key = new Signature(name, signature);
+    ProcedureDescription procedure = cache.get(key);
+    if (procedure == null && !cache.containsKey(key)) {
+      procedure = symbolTable.findProcedure(name, signature);
+      if (procedure == null && procedureIndex != null) {
+        procedure = procedureIndex.find(name, signature);
+      }
+      cache.put(key, procedure);
+    }
+    if (procedure == null) {
+      diagnostics.add(
+          String.format(
+              "%s: Call to unknown procedure %s%s",
+              position, name, Arrays.toString(signature).replace('[', '(').replace(']', ')')));
+    }
+    return procedure;
+  }
+
+  // private classes
+  // --------------------------------------------------------------
+
+  /** The name of a called procedure and the types of its arguments. */
+  private static final class Signature {
+    @NotNull private final String name;
+    @NotNull private final Type[] types;
+    private final int hash;
+
+    private Signature(@NotNull final String name, @NotNull final Type[] types) {
+      this.name = name;
+      this.types = types;
+      hash = 31 * name.hashCode() + ActualProcedureDescription.hashSignature(types);
+    }
+
+    @Override
+    public boolean equals(@Nullable final Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof Signature)) {
+        return false;
+      }
+      final Signature that = (Signature) other;
+      return hash == that.hash && name.equals(that.name) && Arrays.equals(types, that.types);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
@@ -13,6 +13,8 @@ public class ClassDescription extends ObjectDescription {
   // ATTRIBUTES
   // ==============================================================
   @NotNull private final SymbolTable symbolTable;
+  /** the number of fields of this class; -1 until they were resolved */
+  private int fieldCount = -1;
 
   // CONSTRUCTORS
   // ==============================================================
@@ -34,19 +36,47 @@ public class ClassDescription extends ObjectDescription {
     return symbolTable;
   }
 
-  // SETTER
-  // ==============================================================
-
-  /** @return an identifier unique in the whole AST */
-  @Override
-  public int getID() {
-    return 0;
+  /** @return the number of fields of this class or -1 if they were not resolved yet */
+  public int getFieldCount() {
+    return fieldCount;
   }
 
+  // METHODS
+  // ==============================================================
+  // public methods
+  // --------------------------------------------------------------
+
   /** @return dot/graphviz declarations of this component's children */
   @NotNull
   @Override
   public String getDotRepresentation() {
     return "";
   }
+
+  /**
+   * Numbers the fields of this class and resolves the variable accesses in all of its
+   * procedures. Afterwards, each access knows how many scopes it has to go outwards and which slot
+   * of that scope it uses, hence the variables can be stored in arrays instead of maps.
+   */
+  public void resolveVariables() {
+    fieldCount = symbolTable.assignSlots();
+    for (final ObjectDescription description : symbolTable.getDescriptions()) {
+      if (description instanceof ActualProcedureDescription) {
+        ((ActualProcedureDescription) description).resolveVariables();
+      }
+    }
+  }
+
+  /**
+   * Resolves the procedure calls in all procedures of this class.
+   *
+   * @param resolver collects the calls that can not be resolved
+   */
+  public void resolveProcedureCalls(@NotNull final CallResolver resolver) {
+    for (final ObjectDescription description : symbolTable.getDescriptions()) {
+      if (description instanceof ActualProcedureDescription) {
+        ((ActualProcedureDescription) description).resolveProcedureCalls(resolver);
+      }
+    }
+  }
 }
@@ -0,0 +1,132 @@
+package com.merkrafter.representation;
+
+import java.util.Arrays;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/****
+ * This class is an immutable hash array mapped trie that maps int hashes to the ObjectDescriptions
+ * with this hash. Adding a description creates a new trie that shares all unchanged nodes with the
+ * old one, hence this takes O(log n) time and the old trie stays valid.
+ * <p>
+ * Each node consumes five bits of the hash. A bitmap tells which of the 32 possible children are
+ * present, so that the children can be stored in an array of exactly that size. The leaves hold
+ * all descriptions with the same full hash; callers have to filter them.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+final class HashTrie {
+  // CONSTANTS
+  // ==============================================================
+  private static final int BITS_PER_LEVEL = 5;
+  private static final int LEVEL_MASK = (1 << BITS_PER_LEVEL) - 1;
+
+  static final HashTrie EMPTY = new HashTrie(0, new Object[0]);
+
+  // ATTRIBUTES
+  // ==============================================================
+  private final int bitmap;
+  /** either HashTries or Leafs, in the order of their bits in bitmap */
+  @NotNull private final Object[] children;
+
+  // CONSTRUCTORS
+  // ==============================================================
+
+  private HashTrie(final int bitmap, @NotNull final Object[] children) {
+    this.bitmap = bitmap;
+    this.children = children;
+  }
+
+  // METHODS
+  // ==============================================================
+  // package-private methods
+  // --------------------------------------------------------------
+
+  /**
+   * Returns the descriptions with the given hash.
+   *
+   * @param hash the hash to look for
+   * @return the descriptions in insertion order or null if there are none; must not be modified
+   */
+  @Nullable
+  ObjectDescription[] get(final int hash) {
+    HashTrie node = this;
+    for (int shift = 0; ; shift += BITS_PER_LEVEL) {
+      final int bit = 1 << ((hash >>> shift) & LEVEL_MASK);
+      if ((node.bitmap & bit) == 0) {
+        return null;
+      }
+      final Object child = node.children[Integer.bitCount(node.bitmap & (bit - 1))];
+      if (child instanceof Leaf) {
+        final Leaf leaf = (Leaf) child;
+        return leaf.hash == hash ? leaf.descriptions : null;
+      }
+      node = (HashTrie) child;
+    }
+  }
+
+  /**
+   * Returns a new trie that additionally maps the hash to the given description. This trie is not
+   * changed.
+   *
+   * @param hash the hash of the description
+   * @param description the description to add after all descriptions with the same hash
+   * @return a trie that contains the description
+   */
+  @NotNull
+  HashTrie with(final int hash, @NotNull final ObjectDescription description) {
+    return with(hash, description, 0);
+  }
+
+  // private methods
+  // --------------------------------------------------------------
+
+  @NotNull
+  private HashTrie with(
+      final int hash, @NotNull final ObjectDescription description, final int shift) {
+    final int bit = 1 << ((hash >>> shift) & LEVEL_MASK);
+    final int position = Integer.bitCount(bitmap & (bit - 1));
+    if ((bitmap & bit) == 0) {
+      final Object[] newChildren = new Object[children.length + 1];
+      System.arraycopy(children, 0, newChildren, 0, position);
+      newChildren[position] = new Leaf(hash, new ObjectDescription[] {description});
+      System.arraycopy(children, position, newChildren, position + 1, children.length - position);
+      return new HashTrie(bitmap | bit, newChildren);
+    }
+
+    final Object child = children[position];
+    final Object newChild;
+    if (child instanceof HashTrie) {
+      newChild = ((HashTrie) child).with(hash, description, shift + BITS_PER_LEVEL);
+    } else {
+      final Leaf leaf = (Leaf) child;
+      if (leaf.hash == hash) {
+        final ObjectDescription[] descriptions =
+            Arrays.copyOf(leaf.descriptions, leaf.descriptions.length + 1);
+        descriptions[leaf.descriptions.length] = description;
+        newChild = new Leaf(hash, descriptions);
+      } else {
+        // different hashes are separated at the latest by the two bits of the level at shift 30
+        final int leafBit = 1 << ((leaf.hash >>> (shift + BITS_PER_LEVEL)) & LEVEL_MASK);
+        newChild =
+            new HashTrie(leafBit, new Object[] {leaf})
+                .with(hash, description, shift + BITS_PER_LEVEL);
+      }
+    }
+    final Object[] newChildren = children.clone();
+    newChildren[position] = newChild;
+    return new HashTrie(bitmap, newChildren);
+  }
+
+  /** All descriptions with the same full hash. */
+  private static final class Leaf {
+    private final int hash;
+    @NotNull private final ObjectDescription[] descriptions;
+
+    private Leaf(final int hash, @NotNull final ObjectDescription[] descriptions) {
+      this.hash = hash;
+      this.descriptions = descriptions;
+    }
+  }
+}
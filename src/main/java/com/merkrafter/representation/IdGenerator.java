@@ -0,0 +1,40 @@
+package com.merkrafter.representation;
+
+/****
+ * This class hands out the identifiers of AST nodes and ObjectDescriptions. Each class numbers its
+ * nodes and descriptions with its own generator after its calls were linked, see
+ * ClassNode::numberNodes. Hence, the identifiers of a class are dense and an analysis can store
+ * data per node in an array of size getCount() instead of a map. As the numbering follows the
+ * structure of the class, the identifiers only depend on the program, which keeps the dot output
+ * stable in every parsing mode. The identifiers start at 1, as 0 marks nodes that were not
+ * numbered yet.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+public final class IdGenerator {
+  // CONSTANTS
+  // ==============================================================
+  /** the identifier of nodes and descriptions that were not numbered yet */
+  public static final int UNNUMBERED = 0;
+
+  // ATTRIBUTES
+  // ==============================================================
+  /** the identifier that is handed out next */
+  private int count = UNNUMBERED + 1;
+
+  // METHODS
+  // ==============================================================
+  // public methods
+  // --------------------------------------------------------------
+
+  /** @return an identifier that was not handed out by this generator before */
+  public int next() {
+    return count++;
+  }
+
+  /** @return an upper bound of all identifiers handed out so far, i.e. the size of an array */
+  public int getCount() {
+    return count;
+  }
+}
@@ -15,6 +15,8 @@ public abstract class ObjectDescription implements GraphicalComponent {
   // ATTRIBUTES
   // ==============================================================
   @NotNull private final String name;
+  /** identifies this description in the whole AST once its class is numbered; see IdGenerator */
+  private int id;
 
   // CONSTRUCTORS
   // ==============================================================
@@ -39,6 +41,17 @@ public abstract class ObjectDescription implements GraphicalComponent {
     return name;
   }
 
+  /** @return an identifier unique in the whole AST */
+  @Override
+  public int getID() {
+    return id;
+  }
+
+  @Override
+  public void setID(final int id) {
+    this.id = id;
+  }
+
   // METHODS
   // ==============================================================
   // public methods
@@ -62,4 +75,15 @@ public abstract class ObjectDescription implements GraphicalComponent {
     final ObjectDescription that = (ObjectDescription) other;
     return Objects.equals(getName(), that.getName());
   }
+
+  /**
+   * Only depends on the name, like equals. Subclasses that compare more than the name may include
+   * more, as long as equal descriptions still have equal hashes.
+   *
+   * @return the hash of the name, which the String caches
+   */
+  @Override
+  public int hashCode() {
+    return name.hashCode();
+  }
 }
@@ -1,9 +1,10 @@
 package com.merkrafter.representation;
 
 import com.merkrafter.lexing.Position;
+import com.merkrafter.representation.ast.Expression;
 import com.merkrafter.representation.ast.ParameterListNode;
+import com.merkrafter.representation.ast.ProcedureCallNode;
 import com.merkrafter.representation.ast.Statement;
-import java.util.Arrays;
 import java.util.List;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -13,6 +14,12 @@ import org.jetbrains.annotations.Nullable;
  * It solves the following problem that procedures can be used before they are assigned in the
  * source code and therefore the evaluation of SymbolTable::find must be done after the whole file
  * was parsed.
+ * <p>
+ * Usually, a CallResolver resolves all proxies of a class in one pass after parsing. This binds
+ * each proxy once and for all to the called procedure or, if there is none, to a description of
+ * the unknown procedure, and the ProcedureCallNodes replace their proxies by that binding. Hence,
+ * no proxy is consulted after the resolution. If a proxy is used before, it looks the procedure up
+ * in its symbol table on every use without remembering the result.
  *
  * @since v0.3.0
  * @author merkrafter
@@ -25,10 +32,11 @@ public class ProcedureDescriptionProxy implements ProcedureDescription {
 
   @NotNull private final String name;
   @NotNull private final ParameterListNode parameters;
-  @Nullable private ProcedureDescription procedureDescription;
   @NotNull private final Position position;
-  /** this is managed by the findProcedureDescription method */
-  private Type[] signature;
+  /** the description this proxy is bound to by resolve(); null before */
+  @Nullable private volatile ProcedureDescription binding;
+  /** identifies this description in the whole AST once its class is numbered; see IdGenerator */
+  private int id;
 
   // CONSTRUCTORS
   // ==============================================================
@@ -51,59 +59,35 @@ public class ProcedureDescriptionProxy implements ProcedureDescription {
   // GETTER
   // ==============================================================
 
-  /** @return the symbols of the underlying procedure if it exists or null otherwise */
+  /** @return the symbols of the underlying procedure if it exists or an empty table otherwise */
   @NotNull
   @Override
   public SymbolTable getSymbols() {
-    findProcedureDescription();
-    // it is possible that the procedure is not in symbolTable
-    if (procedureDescription != null) {
-      return procedureDescription.getSymbols();
-    }
-    return new SymbolTable();
+    return getTarget().getSymbols();
   }
 
   @NotNull
   @Override
   public String getName() {
-    findProcedureDescription();
-    // it is possible that the procedure is not in symbolTable
-    if (procedureDescription != null) {
-      return procedureDescription.getName();
-    }
-    return name;
+    return getTarget().getName();
   }
 
   @Nullable
   @Override
   public List<VariableDescription> getParamList() {
-    findProcedureDescription();
-    // it is possible that the procedure is not in symbolTable
-    if (procedureDescription != null) {
-      return procedureDescription.getParamList();
-    }
-    return null;
+    return getTarget().getParamList();
   }
 
   @Nullable
   @Override
   public Type getReturnType() {
-    findProcedureDescription();
-    // it is possible that the procedure is not in symbolTable
-    if (procedureDescription != null) {
-      return procedureDescription.getReturnType();
-    }
-    return null;
+    return getTarget().getReturnType();
   }
 
   @Nullable
   @Override
   public Statement getEntryPoint() {
-    findProcedureDescription();
-    if (procedureDescription != null) {
-      return procedureDescription.getEntryPoint();
-    }
-    return null;
+    return getTarget().getEntryPoint();
   }
 
   @NotNull
@@ -114,40 +98,152 @@ public class ProcedureDescriptionProxy implements ProcedureDescription {
 
   // METHODS
   // ==============================================================
-  // package-private methods
+  // public methods
   // --------------------------------------------------------------
 
   /**
-   * Evaluates the types from the ParameterListNode and attempts to find the procedure in
-   * symbolTable. If it could be found, procedureDescription is not null afterwards.
+   * Resolves this proxy with the given resolver and binds it to the result. The arguments must
+   * have been resolved before, as their types make up the signature. Later calls return the same
+   * binding.
+   *
+   * @param resolver the resolver of the class this call is located in
+   * @return the called procedure or a description of the unknown procedure if there is none
    */
-  void findProcedureDescription() {
-    if (procedureDescription == null) {
-      if (parameters.getParameters().isEmpty()) {
-        signature = new Type[0];
-      }
-      if (signature == null) {
-        signature = new Type[parameters.getParameters().size()];
-        Arrays.setAll(signature, i -> parameters.getParameters().get(i).getReturnedType());
+  @NotNull
+  public ProcedureDescription resolve(@NotNull final CallResolver resolver) {
+    ProcedureDescription procedure = binding;
+    if (procedure == null) {
+      // no procedure matches an argument without type; its call was reported already
+      procedure =
+          hasUnknownArgument()
+              ? new UnknownProcedure()
+              : bind(resolver.resolve(symbolTable, name, getSignature(), position));
+      binding = procedure;
+    }
+    return procedure;
+  }
+
+  // private methods
+  // --------------------------------------------------------------
+
+  /** @return the binding if this proxy was resolved or the procedure found in symbolTable */
+  @NotNull
+  private ProcedureDescription getTarget() {
+    final ProcedureDescription procedure = binding;
+    if (procedure != null) {
+      return procedure;
+    }
+    return bind(symbolTable.findProcedure(name, getSignature()));
+  }
+
+  /** @return the given procedure or a description of the unknown procedure if it is null */
+  @NotNull
+  private ProcedureDescription bind(@Nullable final ProcedureDescription procedure) {
+    if (procedure != null) {
+      return procedure;
+    }
+    return new UnknownProcedure();
+  }
+
+  /** @return whether an argument of this call is a call to an unknown procedure */
+  private boolean hasUnknownArgument() {
+    for (final Expression argument : parameters.getParameters()) {
+      if (argument instanceof ProcedureCallNode
+          && ((ProcedureCallNode) argument).getProcedure().getReturnType() == null) {
+        return true;
       }
-      procedureDescription = (ProcedureDescription) symbolTable.find(name, signature);
     }
+    return false;
+  }
+
+  /** @return the types of the arguments of this call */
+  @NotNull
+  private Type[] getSignature() {
+    final Type[] signature = new Type[parameters.getParameters().size()];
+    int i = 0;
+    for (final Expression argument : parameters.getParameters()) {
+      signature[i++] = argument.getReturnedType();
+    }
+    return signature;
   }
 
   /** @return an identifier unique in the whole AST */
   @Override
   public int getID() {
-    return hashCode();
+    return id;
+  }
+
+  @Override
+  public void setID(final int id) {
+    this.id = id;
   }
 
   /** @return dot/graphviz declarations of this component */
   @NotNull
   @Override
   public String getDotRepresentation() {
-    if (procedureDescription != null) {
-      return procedureDescription.getDotRepresentation();
+    return getTarget().getDotRepresentation();
+  }
+
+  // NESTED CLASSES
+  // ==============================================================
+
+  /****
+   * This class describes a called procedure that does not exist. It has the name, position and
+   * identifier of the proxy, but no symbols, parameters, return type or body.
+   ***************************************************************/
+  private final class UnknownProcedure implements ProcedureDescription {
+    @NotNull
+    @Override
+    public SymbolTable getSymbols() {
+      return new SymbolTable();
+    }
+
+    @NotNull
+    @Override
+    public String getName() {
+      return name;
+    }
+
+    @Nullable
+    @Override
+    public List<VariableDescription> getParamList() {
+      return null;
+    }
+
+    @Nullable
+    @Override
+    public Type getReturnType() {
+      return null;
+    }
+
+    @Nullable
+    @Override
+    public Statement getEntryPoint() {
+      return null;
+    }
+
+    @NotNull
+    @Override
+    public Position getPosition() {
+      return position;
+    }
+
+    @Override
+    public int getID() {
+      return id;
+    }
+
+    @Override
+    public void setID(final int id) {
+      ProcedureDescriptionProxy.this.id = id;
+    }
+
+    @NotNull
+    @Override
+    public String getDotRepresentation() {
+      return String.format("%d[shape=box,label=\"extern %s\"];", id, name)
+          + System.lineSeparator();
     }
-    return String.format("%d[shape=box,label=\"extern %s\"];", getID(), name)
-        + System.lineSeparator();
   }
 }
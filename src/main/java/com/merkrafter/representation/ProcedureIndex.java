@@ -0,0 +1,169 @@
+package com.merkrafter.representation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/****
+ * This class indexes the procedures of all classes of a program by their names and parameter
+ * types. It links calls to procedures that are declared in other files: Each class registers its
+ * procedures after it was parsed, and once all classes are registered, a CallResolver can look up
+ * the calls it could not resolve in the scopes of the calling class.
+ * <p>
+ * The index is a ConcurrentHashMap, hence classes can be registered and looked up from many
+ * threads at once without a global lock. Lookups never lock at all.
+ * <p>
+ * Procedures of classes that were compiled before can be provided as ProcedureIndexFiles. They are
+ * searched after the registered classes, and each procedure that is found there is decoded once.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+public class ProcedureIndex {
+  // ATTRIBUTES
+  // ==============================================================
+  @NotNull private final Map<Key, ActualProcedureDescription> procedures;
+  /** index files of classes that are not compiled, but whose procedures may be called */
+  @NotNull private final List<ProcedureIndexFile> libraries;
+  /** the procedures that were found in libraries so far */
+  @NotNull private final Map<Key, ActualProcedureDescription> libraryProcedures;
+  /** messages for procedures that were declared in more than one class */
+  @NotNull private final Queue<String> diagnostics;
+
+  // CONSTRUCTORS
+  // ==============================================================
+
+  /****
+   * Creates a new empty ProcedureIndex.
+   ***************************************************************/
+  public ProcedureIndex() {
+    this(Collections.emptyList());
+  }
+
+  /****
+   * Creates a new ProcedureIndex that additionally finds the procedures in the given index files.
+   ***************************************************************/
+  public ProcedureIndex(@NotNull final List<ProcedureIndexFile> libraries) {
+    procedures = new ConcurrentHashMap<>();
+    diagnostics = new ConcurrentLinkedQueue<>();
+    this.libraries = new ArrayList<>(libraries);
+    libraryProcedures = new ConcurrentHashMap<>();
+  }
+
+  // GETTER
+  // ==============================================================
+
+  /** @return the number of procedures of registered classes */
+  public int size() {
+    return procedures.size();
+  }
+
+  /** @return messages for all procedures that are declared in more than one class */
+  @NotNull
+  public List<String> getDiagnostics() {
+    return Arrays.asList(diagnostics.toArray(new String[0]));
+  }
+
+  // METHODS
+  // ==============================================================
+  // public methods
+  // --------------------------------------------------------------
+
+  /**
+   * Adds all procedures of the given class to this index. If another class already registered a
+   * procedure with the same name and parameter types, that one is kept and a diagnostic is
+   * recorded.
+   *
+   * @param classDescription the class whose procedures should be callable from other classes
+   */
+  public void register(@NotNull final ClassDescription classDescription) {
+    for (final ObjectDescription description :
+        classDescription.getSymbolTable().getDescriptions()) {
+      if (description instanceof ActualProcedureDescription) {
+        final ActualProcedureDescription procedure = (ActualProcedureDescription) description;
+        final ActualProcedureDescription existing =
+            procedures.putIfAbsent(
+                new Key(procedure.getName(), procedure.getParamTypes()), procedure);
+        if (existing != null) {
+          diagnostics.add(
+              String.format(
+                  "%s: Procedure %s was already declared at %s",
+                  procedure.getPosition(), procedure.getName(), existing.getPosition()));
+        }
+      }
+    }
+  }
+
+  /**
+   * Searches a procedure with the given name and parameter types in all registered classes and
+   * then in the libraries.
+   *
+   * @param name the name of the procedure to find
+   * @param signature the types of the arguments in order
+   * @return the matching procedure or null if no class declares it
+   */
+  @Nullable
+  public ProcedureDescription find(@NotNull final String name, @NotNull final Type[] signature) {
+    final Key key = new Key(name, signature);
+    final ProcedureDescription procedure = procedures.get(key);
+    if (procedure != null || libraries.isEmpty()) {
+      return procedure;
+    }
+    return libraryProcedures.computeIfAbsent(key, k -> findInLibraries(name, signature));
+  }
+
+  // private methods
+  // --------------------------------------------------------------
+
+  @Nullable
+  private ActualProcedureDescription findInLibraries(
+      @NotNull final String name, @NotNull final Type[] signature) {
+    for (final ProcedureIndexFile library : libraries) {
+      final ActualProcedureDescription procedure = library.find(name, signature);
+      if (procedure != null) {
+        return procedure;
+      }
+    }
+    return null;
+  }
+
+  // private classes
+  // --------------------------------------------------------------
+
+  /** The name of a procedure and the types of its parameters. */
+  private static final class Key {
+    @NotNull private final String name;
+    @NotNull private final Type[] types;
+    private final int hash;
+
+    private Key(@NotNull final String name, @NotNull final Type[] types) {
+      this.name = name;
+      this.types = types;
+      hash = 31 * name.hashCode() + ActualProcedureDescription.hashSignature(types);
+    }
+
+    @Override
+    public boolean equals(@Nullable final Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof Key)) {
+        return false;
+      }
+      final Key that = (Key) other;
+      return hash == that.hash && name.equals(that.name) && Arrays.equals(types, that.types);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
@@ -0,0 +1,277 @@
+package com.merkrafter.representation;
+
+import com.merkrafter.lexing.Position;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/****
+ * This class reads and writes the procedure signatures of compiled classes to a file, so that
+ * calls to these procedures can be linked without parsing their classes again.
+ * <p>
+ * The file is memory-mapped and only the entries that are looked up are decoded. It starts with a
+ * header (magic number, format version, number of entries), followed by a table of (hash, offset)
+ * pairs that is sorted by hash, followed by the entries themselves. The hash is the same as the one
+ * of the ProcedureIndex, i.e. it combines the name and the parameter types. Hence, find is a binary
+ * search in the table followed by a comparison of the few entries with the same hash.
+ * <p>
+ * Each entry consists of the ordinal of the return type, the number of parameters and their type
+ * ordinals as single bytes, the line and column of the declaration, and the UTF-8 encoded name and
+ * file name, each prefixed with its length as a short.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+public class ProcedureIndexFile {
+  // CONSTANTS
+  // ==============================================================
+  /** "MKPI" in ASCII */
+  private static final int MAGIC = 0x4D4B5049;
+  /** must be increased whenever the layout or the order of the Type constants changes */
+  private static final int FORMAT_VERSION = 1;
+
+  private static final int HEADER_SIZE = 3 * Integer.BYTES;
+  private static final int TABLE_ENTRY_SIZE = 2 * Integer.BYTES;
+
+  // ATTRIBUTES
+  // ==============================================================
+  /** the mapped file; only absolute reads are used, hence it can be shared by threads */
+  @NotNull private final ByteBuffer buffer;
+
+  private final int size;
+
+  // CONSTRUCTORS
+  // ==============================================================
+
+  private ProcedureIndexFile(@NotNull final ByteBuffer buffer, final int size) {
+    this.buffer = buffer;
+    this.size = size;
+  }
+
+  // GETTER
+  // ==============================================================
+
+  /** @return the number of procedures in this file */
+  public int size() {
+    return size;
+  }
+
+  // METHODS
+  // ==============================================================
+  // public methods
+  // --------------------------------------------------------------
+
+  /**
+   * Maps the given index file into memory. Its entries are not read until they are looked up.
+   *
+   * @param path the path of a file that was created by write
+   * @return an index over the mapped file
+   * @throws FileNotFoundException if the file does not exist
+   * @throws IOException if the file can not be read or is not a procedure index
+   */
+  @NotNull
+  public static ProcedureIndexFile open(@NotNull final Path path) throws IOException {
+    final ByteBuffer buffer;
+    try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    } catch (NoSuchFileException e) {
+      // report it like a missing input file
+      throw new FileNotFoundException(path + " (No such file or directory)");
+    }
+    if (buffer.capacity() < HEADER_SIZE
+        || buffer.getInt(0) != MAGIC
+        || buffer.getInt(Integer.BYTES) != FORMAT_VERSION) {
+      throw new IOException(path + " is not a procedure index of this compiler version");
+    }
+    final int size = buffer.getInt(2 * Integer.BYTES);
+    if (size < 0 || buffer.capacity() < HEADER_SIZE + (long) size * TABLE_ENTRY_SIZE) {
+      throw new IOException(path + " is truncated");
+    }
+    return new ProcedureIndexFile(buffer, size);
+  }
+
+  /**
+   * Writes the procedures of the given classes to an index file. An existing file is replaced.
+   *
+   * @param path the path of the file to write
+   * @param classes the classes whose procedures should be callable by other programs
+   * @throws IOException if the file can not be written
+   */
+  public static void write(@NotNull final Path path, @NotNull final List<ClassDescription> classes)
+      throws IOException {
+    final List<ActualProcedureDescription> procedures = new ArrayList<>();
+    for (final ClassDescription clazz : classes) {
+      for (final ObjectDescription description : clazz.getSymbolTable().getDescriptions()) {
+        // procedures with untyped parameters can not be called with a concrete signature anyway
+        if (description instanceof ActualProcedureDescription
+            && ((ActualProcedureDescription) description).hasConcreteSignature()) {
+          procedures.add((ActualProcedureDescription) description);
+        }
+      }
+    }
+
+    // the entries in declaration order
+    final ByteArrayOutputStream entryBytes = new ByteArrayOutputStream();
+    final DataOutputStream entries = new DataOutputStream(entryBytes);
+    final long[] table = new long[procedures.size()];
+    final int entriesStart = HEADER_SIZE + procedures.size() * TABLE_ENTRY_SIZE;
+    for (int i = 0; i < procedures.size(); i++) {
+      final ActualProcedureDescription procedure = procedures.get(i);
+      final Type[] paramTypes = procedure.getParamTypes();
+      final int hash = hash(procedure.getName(), paramTypes);
+      // sorting the combined longs sorts by hash first and keeps the declaration order for ties
+      table[i] = ((long) hash << 32) | (entriesStart + entries.size());
+
+      entries.writeByte(procedure.getReturnType().ordinal());
+      entries.writeByte(paramTypes.length);
+      for (final Type type : paramTypes) {
+        entries.writeByte(type.ordinal());
+      }
+      entries.writeLong(procedure.getPosition().getLine());
+      entries.writeInt(procedure.getPosition().getColumn());
+      writeString(entries, procedure.getName());
+      writeString(entries, procedure.getPosition().getFilename());
+    }
+    Arrays.sort(table);
+
+    try (final DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(FORMAT_VERSION);
+      out.writeInt(procedures.size());
+      for (final long tableEntry : table) {
+        out.writeInt((int) (tableEntry >> 32));
+        out.writeInt((int) tableEntry);
+      }
+      entryBytes.writeTo(out);
+    }
+  }
+
+  /**
+   * Searches a procedure with the given name and parameter types in this file.
+   *
+   * @param name the name of the procedure to find
+   * @param signature the types of the arguments in order
+   * @return a description of the procedure without statements or null if there is no such
+   *     procedure
+   */
+  @Nullable
+  public ActualProcedureDescription find(
+      @NotNull final String name, @NotNull final Type[] signature) {
+    for (final Type type : signature) {
+      if (type == null) {
+        return null; // stored procedures always have concrete signatures
+      }
+    }
+    final int hash = hash(name, signature);
+    final byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+    for (int i = firstIndexOf(hash); i < size && hashAt(i) == hash; i++) {
+      final int offset = buffer.getInt(HEADER_SIZE + i * TABLE_ENTRY_SIZE + Integer.BYTES);
+      if (matches(offset, nameBytes, signature)) {
+        return readProcedure(offset);
+      }
+    }
+    return null;
+  }
+
+  // private methods
+  // --------------------------------------------------------------
+
+  private static int hash(@NotNull final String name, @NotNull final Type[] signature) {
+    return 31 * name.hashCode() + ActualProcedureDescription.hashSignature(signature);
+  }
+
+  private int hashAt(final int index) {
+    return buffer.getInt(HEADER_SIZE + index * TABLE_ENTRY_SIZE);
+  }
+
+  /** @return the index of the first table entry with the given hash or a greater one */
+  private int firstIndexOf(final int hash) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (hashAt(mid) < hash) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /** Compares an entry with the query without decoding any strings. */
+  private boolean matches(
+      final int offset, @NotNull final byte[] nameBytes, @NotNull final Type[] signature) {
+    final int numParams = buffer.get(offset + 1);
+    if (numParams != signature.length) {
+      return false;
+    }
+    for (int i = 0; i < numParams; i++) {
+      if (buffer.get(offset + 2 + i) != signature[i].ordinal()) {
+        return false;
+      }
+    }
+    final int nameOffset = offset + 2 + numParams + Long.BYTES + Integer.BYTES;
+    if (buffer.getShort(nameOffset) != nameBytes.length) {
+      return false;
+    }
+    for (int i = 0; i < nameBytes.length; i++) {
+      if (buffer.get(nameOffset + Short.BYTES + i) != nameBytes[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @NotNull
+  private ActualProcedureDescription readProcedure(final int offset) {
+    final Type[] types = Type.values();
+    final Type returnType = types[buffer.get(offset)];
+    final int numParams = buffer.get(offset + 1);
+    final List<VariableDescription> params = new ArrayList<>(numParams);
+    for (int i = 0; i < numParams; i++) {
+      final Type type = types[buffer.get(offset + 2 + i)];
+      params.add(new VariableDescription("p" + i, type, type.getDefaultValue(), false));
+    }
+    int position = offset + 2 + numParams;
+    final long line = buffer.getLong(position);
+    final int column = buffer.getInt(position + Long.BYTES);
+    position += Long.BYTES + Integer.BYTES;
+    final String name = readString(position);
+    position += Short.BYTES + buffer.getShort(position);
+    final String filename = readString(position);
+    return new ActualProcedureDescription(
+        returnType, name, params, null, new Position(filename, line, column));
+  }
+
+  @NotNull
+  private String readString(final int offset) {
+    final byte[] bytes = new byte[buffer.getShort(offset)];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = buffer.get(offset + Short.BYTES + i);
+    }
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static void writeString(@NotNull final DataOutputStream out, @NotNull final String string)
+      throws IOException {
+    final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+    out.writeShort(bytes.length);
+    out.write(bytes);
+  }
+}
@@ -1,7 +1,7 @@
 package com.merkrafter.representation;
 
-import com.merkrafter.lexing.Position;
-import java.util.LinkedList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -11,6 +11,16 @@ import org.jetbrains.annotations.Nullable;
  * The storage is organized in scopes that can be added and removed and that can be thought of as a
  * stack: When an ObjectDescription is accessed, this class searches the current scope first, then
  * the previous one etc.
+ * <p>
+ * The descriptions of a scope are stored in an immutable HashTrie. Variables and other
+ * descriptions are found by the hash of their names. Procedures whose parameters all have a type
+ * are found by a hash of their names and parameter types, hence resolving a call is a single probe
+ * followed by a comparison of the types, no matter how many overloads there are.
+ * <p>
+ * Inserting creates a new version of the scope and publishes it atomically. Readers never lock and
+ * always see a complete version, hence a SymbolTable can be read from multiple threads while it is
+ * filled. The versions stay valid, so snapshot can freeze a scope and all enclosing scopes in
+ * constant time, for instance to analyse procedures in parallel against a fixed class scope.
  *
  * @since v0.3.0
  * @author merkrafter
@@ -18,8 +28,11 @@ import org.jetbrains.annotations.Nullable;
 public class SymbolTable {
   // ATTRIBUTES
   // ==============================================================
-  @NotNull private final List<ObjectDescription> descriptions;
+  /** the current contents of this scope; replaced on every insertion */
+  @NotNull private volatile Version version;
   @Nullable private final SymbolTable enclosingSymbolTable;
+  /** whether this is a snapshot that can not be changed */
+  private final boolean frozen;
 
   // CONSTRUCTORS
   // ==============================================================
@@ -35,15 +48,26 @@ public class SymbolTable {
    * Creates a new empty SymbolTable with the given enclosing SymbolTable.
    ***************************************************************/
   public SymbolTable(@Nullable final SymbolTable enclosingSymbolTable) {
-    descriptions = new LinkedList<>();
+    this(Version.EMPTY, enclosingSymbolTable, false);
+  }
+
+  private SymbolTable(
+      @NotNull final Version version,
+      @Nullable final SymbolTable enclosingSymbolTable,
+      final boolean frozen) {
+    this.version = version;
     this.enclosingSymbolTable = enclosingSymbolTable;
+    this.frozen = frozen;
   }
 
   // GETTER
   // ==============================================================
+  /** @return an unmodifiable view of the descriptions of this scope in declaration order */
   @NotNull
   public List<ObjectDescription> getDescriptions() {
-    return descriptions;
+    final Version current = version;
+    return Collections.unmodifiableList(
+        Arrays.asList(current.descriptions).subList(0, current.size));
   }
 
   // METHODS
@@ -56,18 +80,67 @@ public class SymbolTable {
    *
    * @param objectDescription the ObjectDescription to insert
    * @return whether the insertion was successful
+   * @throws UnsupportedOperationException if this SymbolTable is a snapshot
    */
-  public boolean insert(@NotNull final ObjectDescription objectDescription) {
-    for (final ObjectDescription storedObjDesc : descriptions) {
-      if (storedObjDesc.equals(objectDescription)) {
-        return false;
-      }
+  public synchronized boolean insert(@NotNull final ObjectDescription objectDescription) {
+    if (frozen) {
+      throw new UnsupportedOperationException("Snapshots of symbol tables can not be changed");
     }
-    // add this element to the end of the description list
-    descriptions.add(objectDescription);
+    final Version current = version;
+    if (current.findEqual(objectDescription) != null) {
+      return false;
+    }
+    version = current.with(objectDescription);
     return true;
   }
 
+  /**
+   * Numbers the variables of this scope densely in declaration order, starting at 0. Afterwards,
+   * each VariableDescription knows its slot and the nesting level of this scope. Enclosing scopes
+   * are not numbered.
+   *
+   * @return the number of variables in this scope, i.e. the size of a frame that stores them
+   */
+  public int assignSlots() {
+    final int level = getNestingLevel();
+    final Version current = version;
+    int slot = 0;
+    for (int i = 0; i < current.size; i++) {
+      if (current.descriptions[i] instanceof VariableDescription) {
+        ((VariableDescription) current.descriptions[i]).setSlot(level, slot++);
+      }
+    }
+    return slot;
+  }
+
+  /** @return the number of enclosing tables; 0 for the outermost scope */
+  public int getNestingLevel() {
+    int level = 0;
+    SymbolTable table = enclosingSymbolTable;
+    while (table != null) {
+      table = table.enclosingSymbolTable;
+      level++;
+    }
+    return level;
+  }
+
+  /**
+   * Returns an immutable view of the current state of this SymbolTable and all enclosing tables.
+   * Later insertions into this table are not visible in the snapshot. This does not copy any
+   * descriptions.
+   *
+   * @return a SymbolTable that can not be changed
+   */
+  @NotNull
+  public SymbolTable snapshot() {
+    if (frozen) {
+      return this;
+    }
+    final SymbolTable enclosingSnapshot =
+        enclosingSymbolTable == null ? null : enclosingSymbolTable.snapshot();
+    return new SymbolTable(version, enclosingSnapshot, true);
+  }
+
   /**
    * Searches this SymbolTable for an ObjectDescription with the given prototype and returns it. If
    * no such ObjectDescription is inside this SymbolTable, null is returned. If this symbol table
@@ -78,16 +151,13 @@ public class SymbolTable {
    */
   @Nullable
   public ObjectDescription find(@NotNull final ObjectDescription prototype) {
-    for (final ObjectDescription storedObjDesc : descriptions) {
-      if (storedObjDesc.equals(prototype)) {
+    for (SymbolTable table = this; table != null; table = table.enclosingSymbolTable) {
+      final ObjectDescription storedObjDesc = table.version.findEqual(prototype);
+      if (storedObjDesc != null) {
         return storedObjDesc;
       }
     }
-    if (enclosingSymbolTable == null) {
-      return null;
-    } else {
-      return enclosingSymbolTable.find(prototype);
-    }
+    return null;
   }
 
   /**
@@ -102,22 +172,173 @@ public class SymbolTable {
    */
   @Nullable
   public ObjectDescription find(@NotNull final String name, @Nullable final Type... signature) {
-    ObjectDescription prototype;
     if (signature == null) { // if signature.length == 0 it is a parameterless procedure
-      // this is a variable; only name is really relevant
-      prototype = new VariableDescription(name, Type.VOID, 0, false);
-    } else {
-      // this is a procedure; only name and list of parameter types are relevant
-      final List<VariableDescription> paramList = new LinkedList<>();
-      for (final Type type : signature) {
-        // for the parameters only the types are relevant
-        if (type != null) {
-          paramList.add(new VariableDescription("", type, 0, false));
+      return findVariable(name);
+    }
+    return (ObjectDescription) findProcedure(name, signature);
+  }
+
+  /**
+   * Searches this SymbolTable and its enclosing tables for a variable with the given name. Unlike
+   * the prototype based find, this does not allocate any objects.
+   *
+   * @param name the name of the variable to find
+   * @return the innermost variable with the given name or null if there is no such variable
+   */
+  @Nullable
+  public VariableDescription findVariable(@NotNull final String name) {
+    final int hash = name.hashCode();
+    for (SymbolTable table = this; table != null; table = table.enclosingSymbolTable) {
+      final ObjectDescription[] candidates = table.version.trie.get(hash);
+      if (candidates != null) {
+        for (final ObjectDescription candidate : candidates) {
+          if (candidate.getClass() == VariableDescription.class
+              && candidate.getName().equals(name)) {
+            return (VariableDescription) candidate;
+          }
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Searches this SymbolTable and its enclosing tables for a procedure with the given name that
+   * takes parameters of the given types. Unlike the prototype based find, this does not allocate
+   * any objects.
+   *
+   * @param name the name of the procedure to find
+   * @param signature the types of the arguments in order; null entries are ignored
+   * @return the innermost matching procedure or null if there is no such procedure
+   */
+  @Nullable
+  public ProcedureDescription findProcedure(
+      @NotNull final String name, @NotNull final Type... signature) {
+    final int nameHash = name.hashCode();
+    final int procedureHash =
+        hashProcedure(nameHash, ActualProcedureDescription.hashSignature(signature));
+    for (SymbolTable table = this; table != null; table = table.enclosingSymbolTable) {
+      final HashTrie trie = table.version.trie;
+      // procedures with typed parameters are stored under the procedure hash, others by name
+      ProcedureDescription procedure = findProcedureIn(trie.get(procedureHash), name, signature);
+      if (procedure == null) {
+        procedure = findProcedureIn(trie.get(nameHash), name, signature);
+      }
+      if (procedure != null) {
+        return procedure;
+      }
+    }
+    return null;
+  }
+
+  // private methods
+  // --------------------------------------------------------------
+
+  @Nullable
+  private static ProcedureDescription findProcedureIn(
+      @Nullable final ObjectDescription[] candidates,
+      @NotNull final String name,
+      @NotNull final Type[] signature) {
+    if (candidates != null) {
+      for (final ObjectDescription candidate : candidates) {
+        if (candidate.getClass() == ActualProcedureDescription.class
+            && candidate.getName().equals(name)
+            && ((ActualProcedureDescription) candidate).hasSignature(signature)) {
+          return (ProcedureDescription) candidate;
+        }
+      }
+    }
+    return null;
+  }
+
+  private static int hashProcedure(final int nameHash, final int signatureHash) {
+    return 31 * nameHash + signatureHash;
+  }
+
+  /** @return the hash the given description is stored under */
+  private static int hash(@NotNull final ObjectDescription objectDescription) {
+    final int nameHash = objectDescription.getName().hashCode();
+    if (isIndexedBySignature(objectDescription)) {
+      return hashProcedure(
+          nameHash, ((ActualProcedureDescription) objectDescription).getSignatureHash());
+    }
+    return nameHash;
+  }
+
+  private static boolean isIndexedBySignature(@NotNull final ObjectDescription objectDescription) {
+    return objectDescription.getClass() == ActualProcedureDescription.class
+        && ((ActualProcedureDescription) objectDescription).hasConcreteSignature();
+  }
+
+  // private classes
+  // --------------------------------------------------------------
+
+  /**
+   * An immutable state of a scope. The declaration order is kept in an array that is shared by
+   * successive versions: A new version only writes behind the size of its predecessor and the array
+   * is copied when it is full. Since only the latest version of a table that is not frozen is
+   * extended, older versions never see these writes.
+   */
+  private static final class Version {
+    private static final Version EMPTY = new Version(HashTrie.EMPTY, new ObjectDescription[0], 0);
+
+    @NotNull private final HashTrie trie;
+    @NotNull private final ObjectDescription[] descriptions;
+    private final int size;
+
+    private Version(
+        @NotNull final HashTrie trie,
+        @NotNull final ObjectDescription[] descriptions,
+        final int size) {
+      this.trie = trie;
+      this.descriptions = descriptions;
+      this.size = size;
+    }
+
+    @NotNull
+    private Version with(@NotNull final ObjectDescription objectDescription) {
+      ObjectDescription[] newDescriptions = descriptions;
+      if (size == descriptions.length) {
+        newDescriptions = Arrays.copyOf(descriptions, Math.max(4, 2 * size));
+      }
+      newDescriptions[size] = objectDescription;
+      return new Version(
+          trie.with(hash(objectDescription), objectDescription), newDescriptions, size + 1);
+    }
+
+    /** Returns a stored description that is equal to the prototype. */
+    @Nullable
+    private ObjectDescription findEqual(@NotNull final ObjectDescription prototype) {
+      if (prototype.getClass() == ActualProcedureDescription.class
+          && !isIndexedBySignature(prototype)) {
+        // untyped parameters may be equal to any signature, so all procedures must be compared
+        for (int i = 0; i < size; i++) {
+          if (descriptions[i].equals(prototype)) {
+            return descriptions[i];
+          }
         }
+        return null;
       }
-      final Position dummyPosition = new Position("", 0, 0);
-      prototype = new ActualProcedureDescription(Type.VOID, name, paramList, null, dummyPosition);
+      ObjectDescription storedObjDesc = findEqualIn(trie.get(hash(prototype)), prototype);
+      if (storedObjDesc == null && isIndexedBySignature(prototype)) {
+        // stored procedures with untyped parameters are found by their names only
+        storedObjDesc = findEqualIn(trie.get(prototype.getName().hashCode()), prototype);
+      }
+      return storedObjDesc;
+    }
+
+    @Nullable
+    private static ObjectDescription findEqualIn(
+        @Nullable final ObjectDescription[] candidates,
+        @NotNull final ObjectDescription prototype) {
+      if (candidates != null) {
+        for (final ObjectDescription storedObjDesc : candidates) {
+          if (storedObjDesc.equals(prototype)) {
+            return storedObjDesc;
+          }
+        }
+      }
+      return null;
     }
-    return find(prototype);
   }
 }
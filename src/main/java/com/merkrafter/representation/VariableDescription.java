@@ -19,6 +19,10 @@ public class VariableDescription extends ObjectDescription {
   @NotNull private final Type type;
   @NotNull private Object value;
   private final boolean constant;
+  /** the nesting level of the scope that declares this variable; -1 until slots are assigned */
+  private int scopeLevel = -1;
+  /** the index of this variable among the variables of its scope; -1 until slots are assigned */
+  private int slot = -1;
 
   // CONSTRUCTORS
   // ==============================================================
@@ -54,9 +58,30 @@ public class VariableDescription extends ObjectDescription {
     return constant;
   }
 
+  /** @return the nesting level of the scope that declares this variable or -1 if unknown */
+  public int getScopeLevel() {
+    return scopeLevel;
+  }
+
+  /** @return the index of this variable in the storage of its scope or -1 if unknown */
+  public int getSlot() {
+    return slot;
+  }
+
   // SETTER
   // ==============================================================
 
+  /**
+   * Sets where this variable is stored. This is done by SymbolTable.assignSlots.
+   *
+   * @param scopeLevel the nesting level of the scope that declares this variable
+   * @param slot the index of this variable among the variables of its scope
+   */
+  void setSlot(final int scopeLevel, final int slot) {
+    this.scopeLevel = scopeLevel;
+    this.slot = slot;
+  }
+
   /**
    * Try setting the value of this variable and return whether this was successful. It even does
    * even return true when the value was not changed. This method fails when this variable is marked
@@ -106,12 +131,6 @@ public class VariableDescription extends ObjectDescription {
     return Objects.equals(getName(), that.getName());
   }
 
-  /** @return an identifier unique in the whole AST */
-  @Override
-  public int getID() {
-    return hashCode();
-  }
-
   /** @return dot/graphviz declarations of this component's children */
   @NotNull
   @Override
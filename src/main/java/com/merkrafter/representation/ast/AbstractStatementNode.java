@@ -1,8 +1,6 @@
 package com.merkrafter.representation.ast;
 
 import com.merkrafter.representation.Type;
-import java.util.LinkedList;
-import java.util.List;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -11,6 +9,7 @@ import org.jetbrains.annotations.Nullable;
  * may be made of.
  * <p>
  * A Statement actually is a linked list of multiple statements that are executed in sequence.
+ * Blocks of several statements are represented by a StatementSequence instead.
  *
  * @since v0.3.0
  * @author merkrafter
@@ -20,6 +19,8 @@ public abstract class AbstractStatementNode implements Statement {
   // ==============================================================
   /** Next sequential instruction in the represented program. */
   @Nullable private Statement next;
+  /** identifies this node in the whole AST once its class is numbered; see IdGenerator */
+  private int id;
 
   // CONSTRUCTORS
   // ==============================================================
@@ -50,66 +51,71 @@ public abstract class AbstractStatementNode implements Statement {
     this.next = next;
   }
 
-  /**
-   * This is a utility method that can be used by nodes to check their children for errors.
-   *
-   * @param nodes child node(s) that should be tested
-   * @return a list of all errors that can be found in this subtree
-   */
-  @NotNull
-  static List<String> collectErrorsFrom(final AbstractSyntaxTree... nodes) {
-    final List<String> errors = new LinkedList<>();
-    for (final AbstractSyntaxTree node : nodes) {
-      if (node != null) {
-        errors.addAll(node.getAllErrors());
-      }
-    }
-    return errors;
-  }
-
   @Override
   public abstract boolean equals(Object other);
 
+  @Override
+  public abstract int hashCode();
+
   /** @return an identifier unique in the whole AST */
   @Override
   public int getID() {
-    return hashCode();
+    return id;
   }
 
-  /** @return dot/graphviz declarations of this component's next statement */
-  @NotNull
   @Override
-  public String getDotRepresentation() {
-    if (getNext() == null) {
-      return "";
-    }
-    return getNext().getDotRepresentation();
+  public void setID(final int id) {
+    this.id = id;
   }
 
-  /** @return whether there is a return statement in this statement sequence */
+  /**
+   * Returns whether there is a return statement in this statement sequence, that is whether it
+   * always returns.
+   */
   @Override
   public boolean hasReturnStatement() {
-    if (getNext() == null) {
-      return false;
-    }
-    return getNext().hasReturnStatement();
+    return new FlowAnalysis().getFlow(this).alwaysReturns();
   }
 
-  /** @return the type of the next statement in this sequence */
+  /**
+   * Returns whether this statement sequence can legally occur in a procedure with the given type.
+   */
   @Override
   public boolean isCompatibleToType(@NotNull final Type type) {
-    if (getNext() == null) {
-      return type == Type.VOID;
-    }
-    return getNext().isCompatibleToType(type);
+    return new FlowAnalysis().getFlow(this).isCompatibleToType(type);
+  }
+
+  // package-private methods
+  // --------------------------------------------------------------
+
+  /**
+   * Returns whether the flow of the sequence that starts with this statement depends on the
+   * statements after it. If not, this class must override hasReturnStatement and
+   * isCompatibleToType, which the flow analysis then asks for the results of the whole sequence.
+   */
+  boolean dependsOnNext() {
+    return true;
   }
 
+  /**
+   * Returns the flow of the sequence that starts with this statement, if the flow of the following
+   * statements is already known. The flows of sequences nested in this statement are provided by
+   * the analysis.
+   *
+   * @param next the flow of the statements after this one
+   * @param analysis the analysis that asks for the flow
+   * @return the flow of this statement sequence
+   */
   @NotNull
-  @Override
-  public List<String> getTypingErrors() {
-    if (getNext() == null) {
-      return new LinkedList<>();
+  FlowAnalysis.Flow precede(
+      @NotNull final FlowAnalysis.Flow next, @NotNull final FlowAnalysis analysis) {
+    return next;
+  }
+
+  /** Appends the edge from this statement to its next statement if there is one. */
+  void appendEdgeToNext(@NotNull final StringBuilder dotRepr) {
+    if (getNext() != null) {
+      DotWriter.appendEdge(dotRepr, getID(), getNext().getID());
     }
-    return getNext().getTypingErrors();
   }
 }
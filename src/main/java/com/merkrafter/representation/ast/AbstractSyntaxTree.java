@@ -1,7 +1,11 @@
 package com.merkrafter.representation.ast;
 
+import com.merkrafter.representation.Type;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /****
  * This interface provides a unified abstraction over both structural nodes that help during the
@@ -16,13 +20,101 @@ public interface AbstractSyntaxTree {
   // public methods
   // --------------------------------------------------------------
 
-  /** @return a list of all errors, both semantic and syntactical ones. */
+  /**
+   * Returns the errors of this subtree. Type errors are only included for a whole class. For
+   * statements, this includes the errors of the following statements of the sequence.
+   *
+   * @return a list of all errors, both semantic and syntactical ones.
+   */
+  @NotNull
+  default List<String> getAllErrors() {
+    final List<String> errors = new ArrayList<>();
+    collectErrors(errors, null);
+    return errors;
+  }
+
+  /**
+   * Returns the type errors of this subtree. For statements, this includes the errors of the
+   * following statements of the sequence.
+   *
+   * @return a list of all type errors
+   */
+  @NotNull
+  default List<String> getTypingErrors() {
+    final List<String> typingErrors = new ArrayList<>();
+    collectErrors(new ArrayList<>(), typingErrors);
+    return typingErrors;
+  }
+
+  /**
+   * Adds the errors of this node and its children to the given lists. The whole tree is checked in
+   * a single traversal that creates no intermediate lists. Both lists may be the same. For
+   * statements, this includes the errors of the following statements of the sequence.
+   *
+   * @param errors the list to add syntactical and semantic errors to
+   * @param typingErrors the list to add type errors to; null if types should not be checked
+   */
+  default void collectErrors(
+      @NotNull final List<String> errors, @Nullable final List<String> typingErrors) {
+    AstWalker.walk(this, new ErrorCollector(errors, typingErrors));
+  }
+
+  /**
+   * Adds the errors of this node only, not those of its children. This is called after the
+   * children were checked.
+   *
+   * @param errors the list to add syntactical and semantic errors to
+   * @param typingErrors the list to add type errors to; null if types should not be checked
+   */
+  default void checkNode(
+      @NotNull final List<String> errors, @Nullable final List<String> typingErrors) {}
+
+  /**
+   * Returns the direct children of this node in the order they are evaluated. The statement that
+   * follows a statement is not its child.
+   *
+   * @return the children of this node; empty for leaves
+   */
   @NotNull
-  List<String> getAllErrors();
+  default List<? extends AbstractSyntaxTree> getChildren() {
+    return Collections.emptyList();
+  }
+
+  /**
+   * Appends the dot/graphviz declaration of this node and of the edges to its children and its next
+   * statement. The children declare themselves.
+   *
+   * @param dotRepr the builder to append to
+   */
+  default void appendDotDeclarations(@NotNull final StringBuilder dotRepr) {}
+
+  /**
+   * Returns the identifier of this node. Identifiers are handed out densely when the class of the
+   * node is numbered, hence they can index arrays that store data per node. Before, it is
+   * IdGenerator.UNNUMBERED.
+   *
+   * @return an identifier unique in the whole AST
+   */
+  int getID();
+
+  /**
+   * Sets the identifier of this node. This is done when its class is numbered.
+   *
+   * @param id an identifier unique in the whole AST
+   */
+  void setID(int id);
 
   /**
    * @param other the object to compare with
    * @return whether the subtree indicated by this node is equal to another tree
    */
   boolean equals(Object other);
+
+  /**
+   * Returns a hash that is consistent with equals, so that trees can be used as keys of hash maps.
+   * Nodes compute it once on creation from the hashes of their children.
+   *
+   * @return a hash of the subtree indicated by this node
+   */
+  int hashCode();
 }
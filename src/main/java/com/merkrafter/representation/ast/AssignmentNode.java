@@ -1,8 +1,10 @@
 package com.merkrafter.representation.ast;
 
 import com.merkrafter.lexing.Position;
+import java.util.Arrays;
 import java.util.List;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /****
  * This AST node represents the assignment of a value to a variable.
@@ -15,6 +17,8 @@ public class AssignmentNode extends AbstractStatementNode {
   // ==============================================================
   @NotNull private final VariableAccessNode variable;
   @NotNull private final Expression value;
+  /** the structural hash of this subtree; see hashCode */
+  private final int hash;
 
   // CONSTRUCTORS
   // ==============================================================
@@ -28,22 +32,45 @@ public class AssignmentNode extends AbstractStatementNode {
       @NotNull final VariableAccessNode variable, @NotNull final Expression value) {
     this.variable = variable;
     this.value = value;
+    hash = 31 * variable.hashCode() + value.hashCode();
   }
 
   // GETTER
   // ==============================================================
 
-  /** @return a list of all errors, both semantic and syntactical ones. */
+  /** @return the variable that is assigned */
   @NotNull
+  VariableAccessNode getVariable() {
+    return variable;
+  }
+
+  /** @return the value that is assigned */
+  @NotNull
+  Expression getValue() {
+    return value;
+  }
+
+  /** @return the variable and the value */
+  @NotNull
+  @Override
+  public List<? extends AbstractSyntaxTree> getChildren() {
+    return Arrays.asList(variable, value);
+  }
+
+  /** Checks whether the variable may be assigned and whether the types fit together. */
   @Override
-  public List<String> getAllErrors() {
-    final List<String> errors = collectErrorsFrom(variable, value, getNext());
+  public void checkNode(
+      @NotNull final List<String> errors, @Nullable final List<String> typingErrors) {
     if (variable.isConstant()) {
       errors.add(
           String.format(
               "%s: Can not assign a value to a constant after initialization", getPosition()));
     }
-    return errors;
+    if (typingErrors != null && !variable.getReturnedType().equals(value.getReturnedType())) {
+      typingErrors.add(
+          String.format(
+              "%s: Type mismatch in assignment to %s", getPosition(), variable.getName()));
+    }
   }
 
   @NotNull
@@ -62,50 +89,22 @@ public class AssignmentNode extends AbstractStatementNode {
       return false;
     }
     final AssignmentNode other = (AssignmentNode) obj;
-    return variable.equals(other.variable) && value.equals(other.value);
+    return hash == other.hash && variable.equals(other.variable) && value.equals(other.value);
   }
 
-  /** @return dot/graphviz declarations of this component's children */
-  @NotNull
+  /** @return a hash of the structure of this subtree that was computed on creation */
   @Override
-  public String getDotRepresentation() {
-    // define next statement
-    final StringBuilder dotRepr = new StringBuilder(super.getDotRepresentation());
-    dotRepr.append(System.lineSeparator());
-
-    // define children
-    dotRepr.append(String.format("%d[label=%s];", variable.hashCode(), variable.getName()));
-    dotRepr.append(System.lineSeparator());
-    dotRepr.append(value.getDotRepresentation());
-    dotRepr.append(System.lineSeparator());
-
-    // define this node
-    dotRepr.append(String.format("%d[label=%s];", getID(), "ASSIGN"));
-    dotRepr.append(System.lineSeparator());
-
-    // define links
-    if (getNext() != null) {
-      dotRepr.append(String.format("%d -> %d;", getID(), getNext().getID()));
-      dotRepr.append(System.lineSeparator());
-    }
-    dotRepr.append(String.format("%d -> %d;", getID(), variable.hashCode()));
-    dotRepr.append(System.lineSeparator());
-    dotRepr.append(String.format("%d -> %d;", getID(), value.getID()));
-    dotRepr.append(System.lineSeparator());
-
-    return dotRepr.toString();
+  public int hashCode() {
+    return hash;
   }
 
-  @NotNull
+  /** Declares this node and the edges to its variable, its value and the next statement. */
   @Override
-  public List<String> getTypingErrors() {
-    final List<String> errors = super.getTypingErrors();
-    errors.addAll(value.getTypingErrors());
-    if (!variable.getReturnedType().equals(value.getReturnedType())) {
-      errors.add(
-          String.format(
-              "%s: Type mismatch in assignment to %s", getPosition(), variable.getName()));
-    }
-    return errors;
+  public void appendDotDeclarations(@NotNull final StringBuilder dotRepr) {
+    dotRepr.append(String.format("%d[label=%s];", getID(), "ASSIGN"));
+    dotRepr.append(System.lineSeparator());
+    appendEdgeToNext(dotRepr);
+    DotWriter.appendEdge(dotRepr, getID(), variable.getID());
+    DotWriter.appendEdge(dotRepr, getID(), value.getID());
   }
 }
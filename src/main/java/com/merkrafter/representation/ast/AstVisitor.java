@@ -0,0 +1,37 @@
+package com.merkrafter.representation.ast;
+
+import org.jetbrains.annotations.NotNull;
+
+/****
+ * A visitor is called by an AstWalker for every node of a syntax tree, once before and once after
+ * the children of that node are visited. Hence, a pass can work in pre-order (enter), in post-order
+ * (leave) or both. Passes only need to handle the node types they are interested in; the walker
+ * takes care of the structure of the tree.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+public interface AstVisitor {
+  // METHODS
+  // ==============================================================
+  // public methods
+  // --------------------------------------------------------------
+
+  /**
+   * Is called before the children of the given node are visited.
+   *
+   * @param node the node that is visited
+   * @return whether the children of the node should be visited; leave is not called otherwise
+   */
+  default boolean enter(@NotNull final AbstractSyntaxTree node) {
+    return true;
+  }
+
+  /**
+   * Is called after all children of the given node were visited, but before the statement that
+   * follows it in its sequence.
+   *
+   * @param node the node that is visited
+   */
+  default void leave(@NotNull final AbstractSyntaxTree node) {}
+}
@@ -0,0 +1,88 @@
+package com.merkrafter.representation.ast;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/****
+ * This class traverses syntax trees depth-first and calls an AstVisitor for every node. The
+ * children of a node are those returned by AbstractSyntaxTree::getChildren; the statement after a
+ * statement is not its child, but visited after it was left.
+ * <p>
+ * The traversal does not recurse. Instead, the nodes whose children are being visited are kept on
+ * an explicit stack. The statements of a sequence replace each other on that stack, hence its size
+ * only depends on how deeply the nodes are nested, not on the length of statement sequences.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+public final class AstWalker {
+  // CONSTRUCTORS
+  // ==============================================================
+
+  private AstWalker() {}
+
+  // METHODS
+  // ==============================================================
+  // public methods
+  // --------------------------------------------------------------
+
+  /**
+   * Visits the given tree with the given visitor. If root is a statement, the statements that
+   * follow it are visited as well.
+   *
+   * @param root the node to start the traversal at
+   * @param visitor the visitor that is called for every node
+   */
+  public static void walk(
+      @NotNull final AbstractSyntaxTree root, @NotNull final AstVisitor visitor) {
+    final Deque<Frame> stack = new ArrayDeque<>();
+    AbstractSyntaxTree node = root;
+    while (true) {
+      if (node != null) {
+        if (visitor.enter(node)) {
+          stack.push(new Frame(node));
+          node = null;
+        } else {
+          node = nextOf(node);
+        }
+      } else if (stack.isEmpty()) {
+        return;
+      } else {
+        final Frame frame = stack.peek();
+        if (frame.children.hasNext()) {
+          node = frame.children.next();
+        } else {
+          stack.pop();
+          visitor.leave(frame.node);
+          node = nextOf(frame.node);
+        }
+      }
+    }
+  }
+
+  // private methods
+  // --------------------------------------------------------------
+
+  /** @return the statement after the given node or null if there is none */
+  @Nullable
+  private static AbstractSyntaxTree nextOf(@NotNull final AbstractSyntaxTree node) {
+    return node instanceof Statement ? ((Statement) node).getNext() : null;
+  }
+
+  // private classes
+  // --------------------------------------------------------------
+
+  /** A node whose children are being visited and the children that were not visited yet. */
+  private static final class Frame {
+    @NotNull private final AbstractSyntaxTree node;
+    @NotNull private final Iterator<? extends AbstractSyntaxTree> children;
+
+    private Frame(@NotNull final AbstractSyntaxTree node) {
+      this.node = node;
+      children = node.getChildren().iterator();
+    }
+  }
+}
@@ -1,12 +1,11 @@
 package com.merkrafter.representation.ast;
 
-import static com.merkrafter.representation.ast.AbstractStatementNode.collectErrorsFrom;
-
 import com.merkrafter.lexing.Position;
 import com.merkrafter.representation.Type;
-import java.util.LinkedList;
+import java.util.Arrays;
 import java.util.List;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /****
  * This AST node represents a binary operation. It therefore has two child nodes.
@@ -21,6 +20,12 @@ public class BinaryOperationNode implements Expression {
   @NotNull private final Expression rightOperand;
 
   @NotNull private final BinaryOperationNodeType binOpType;
+  /** only depends on binOpType, hence it is determined once on creation */
+  @NotNull private final Type returnedType;
+  /** identifies this node in the whole AST once its class is numbered; see IdGenerator */
+  private int id;
+  /** the structural hash of this subtree; see hashCode */
+  private final int hash;
 
   // CONSTRUCTORS
   // ==============================================================
@@ -36,6 +41,8 @@ public class BinaryOperationNode implements Expression {
     this.leftOperand = leftOperand;
     this.rightOperand = rightOperand;
     this.binOpType = binOpType;
+    returnedType = typeOf(binOpType);
+    hash = 31 * (31 * binOpType.ordinal() + leftOperand.hashCode()) + rightOperand.hashCode();
   }
 
   // GETTER
@@ -49,53 +56,47 @@ public class BinaryOperationNode implements Expression {
   @NotNull
   @Override
   public Type getReturnedType() {
-    // TODO regularly check this method
-    /* since javac can not see that a switch statement covers all enum items the return BOOLEAN
-    at the bottom in necessary */
-    switch (binOpType) {
-      case PLUS:
-      case MINUS:
-      case TIMES:
-      case DIVIDE:
-        return Type.INT;
-        /*
-        break;
-        case LOWER:
-        case LOWER_EQUAL:
-        case EQUAL:
-        case GREATER_EQUAL:
-        case GREATER:
-            return Type.BOOLEAN;
-         */
-    }
-    return Type.BOOLEAN;
+    return returnedType;
   }
 
+  /** @return the operation that is applied to the operands */
   @NotNull
+  BinaryOperationNodeType getBinOpType() {
+    return binOpType;
+  }
+
+  /** @return both operands */
+  @NotNull
+  @Override
+  public List<? extends AbstractSyntaxTree> getChildren() {
+    return Arrays.asList(leftOperand, rightOperand);
+  }
+
+  /** Checks whether the types of both operands fit together. */
   @Override
-  public List<String> getTypingErrors() {
-    final List<String> errors = new LinkedList<>();
-    errors.addAll(leftOperand.getTypingErrors());
-    errors.addAll(rightOperand.getTypingErrors());
-    if (!leftOperand.getReturnedType().equals(rightOperand.getReturnedType())) {
-      errors.add(
+  public void checkNode(
+      @NotNull final List<String> errors, @Nullable final List<String> typingErrors) {
+    if (typingErrors == null) {
+      return;
+    }
+    final Type leftType = leftOperand.getReturnedType();
+    final Type rightType = rightOperand.getReturnedType();
+    if (!leftType.equals(rightType)) {
+      typingErrors.add(
           String.format(
               "%s: Type mismatch in expression: %s and %s",
-              leftOperand.getPosition(),
-              leftOperand.getReturnedType(),
-              rightOperand.getReturnedType()));
+              leftOperand.getPosition(), leftType, rightType));
     }
-    if (leftOperand.getReturnedType().equals(Type.VOID)) {
-      errors.add(
+    if (leftType.equals(Type.VOID)) {
+      typingErrors.add(
           String.format(
               "%s: Type mismatch: void must not occur in expression", leftOperand.getPosition()));
     }
-    if (rightOperand.getReturnedType().equals(Type.VOID)) {
-      errors.add(
+    if (rightType.equals(Type.VOID)) {
+      typingErrors.add(
           String.format(
               "%s: Type mismatch: void must not occur in expression", rightOperand.getPosition()));
     }
-    return errors;
   }
 
   /**
@@ -109,13 +110,6 @@ public class BinaryOperationNode implements Expression {
     return leftOperand.getPosition();
   }
 
-  /** @return a list of all errors, both semantic and syntactical ones. */
-  @NotNull
-  @Override
-  public List<String> getAllErrors() {
-    return collectErrorsFrom(leftOperand, rightOperand);
-  }
-
   /**
    * Two BinaryOperationNodes are considered equal if their expressions and op types are non-null
    * and are equal to each other respectively.
@@ -126,41 +120,65 @@ public class BinaryOperationNode implements Expression {
       return false;
     }
     final BinaryOperationNode other = (BinaryOperationNode) obj;
-    return binOpType == other.binOpType
+    return hash == other.hash
+        && binOpType == other.binOpType
         && leftOperand.equals(other.leftOperand)
         && rightOperand.equals(other.rightOperand);
   }
 
+  /** @return a hash of the structure of this subtree that was computed on creation */
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
   /** @return an identifier unique in the whole AST */
   @Override
   public int getID() {
-    return hashCode();
+    return id;
   }
 
-  /** @return dot/graphviz declarations of this component's children */
-  @NotNull
   @Override
-  public String getDotRepresentation() {
-    final StringBuilder dotRepr = new StringBuilder();
-
-    // define children
-    dotRepr.append(leftOperand.getDotRepresentation());
-    dotRepr.append(System.lineSeparator());
-    dotRepr.append(rightOperand.getDotRepresentation());
-    dotRepr.append(System.lineSeparator());
+  public void setID(final int id) {
+    this.id = id;
+  }
 
-    // define this
+  /** Declares this node and the edges to both operands. */
+  @Override
+  public void appendDotDeclarations(@NotNull final StringBuilder dotRepr) {
     dotRepr.append(
         String.format(
             "%d[label=\"BINOP%s%s\"];", getID(), System.lineSeparator(), binOpType.name()));
     dotRepr.append(System.lineSeparator());
+    DotWriter.appendEdge(dotRepr, getID(), leftOperand.getID());
+    DotWriter.appendEdge(dotRepr, getID(), rightOperand.getID());
+  }
 
-    // define links
-    dotRepr.append(String.format("%d -> %d;", getID(), leftOperand.getID()));
-    dotRepr.append(System.lineSeparator());
-    dotRepr.append(String.format("%d -> %d;", getID(), rightOperand.getID()));
-    dotRepr.append(System.lineSeparator());
+  // private methods
+  // --------------------------------------------------------------
 
-    return dotRepr.toString();
+  /** @return the type of the result of an operation of the given type */
+  @NotNull
+  private static Type typeOf(@NotNull final BinaryOperationNodeType binOpType) {
+    // TODO regularly check this method
+    /* since javac can not see that a switch statement covers all enum items the return BOOLEAN
+    at the bottom in necessary */
+    switch (binOpType) {
+      case PLUS:
+      case MINUS:
+      case TIMES:
+      case DIVIDE:
+        return Type.INT;
+        /*
+        break;
+        case LOWER:
+        case LOWER_EQUAL:
+        case EQUAL:
+        case GREATER_EQUAL:
+        case GREATER:
+            return Type.BOOLEAN;
+         */
+    }
+    return Type.BOOLEAN;
   }
 }
@@ -0,0 +1,181 @@
+package com.merkrafter.representation.ast;
+
+import java.util.Arrays;
+import org.jetbrains.annotations.NotNull;
+
+/****
+ * This class solves dataflow problems whose facts are sets of small integers, like the slots of
+ * the variables of a procedure. Sets are bit vectors stored in long arrays. Each block of a control
+ * flow graph transfers the facts at its start to the facts at its end by the gen/kill scheme:
+ * <code>out = gen | (in &amp; ~kill)</code>. The facts that flow into a block are combined with the
+ * meet operator, which is union for "may" and intersection for "must" problems.
+ * <p>
+ * The solver iterates a worklist of the blocks whose input changed until a fixed point is reached.
+ * Initially, the blocks are visited in the order of their creation, which already follows the
+ * control flow of structured programs, so loops need only a few extra visits.
+ * <p>
+ * For backward problems, "in" and "out" refer to the direction of the analysis; the solver
+ * exchanges predecessors and successors and starts at the exit block.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+public final class BitVectorDataflow {
+  // ATTRIBUTES
+  // ==============================================================
+  @NotNull private final ControlFlowGraph graph;
+  @NotNull private final Direction direction;
+  @NotNull private final Meet meet;
+  /** the number of longs per set */
+  private final int words;
+
+  @NotNull private final long[][] gen;
+  @NotNull private final long[][] kill;
+
+  // CONSTRUCTORS
+  // ==============================================================
+
+  /****
+   * Creates a new problem on the given graph whose sets hold the given number of bits. Initially,
+   * no block generates or kills any bit.
+   ***************************************************************/
+  public BitVectorDataflow(
+      @NotNull final ControlFlowGraph graph,
+      final int bits,
+      @NotNull final Direction direction,
+      @NotNull final Meet meet) {
+    this.graph = graph;
+    this.direction = direction;
+    this.meet = meet;
+    words = (bits + Long.SIZE - 1) / Long.SIZE;
+    gen = new long[graph.size()][words];
+    kill = new long[graph.size()][words];
+  }
+
+  // GETTER
+  // ==============================================================
+
+  /** @return the number of longs that a set of this problem consists of */
+  public int getWords() {
+    return words;
+  }
+
+  // METHODS
+  // ==============================================================
+  // public methods
+  // --------------------------------------------------------------
+
+  /**
+   * Declares that the given block sets the given bit. Calls for the same block and bit override
+   * each other, so they must be made in the order of the items of the block.
+   */
+  public void gen(final int block, final int bit) {
+    gen[block][bit / Long.SIZE] |= 1L << bit;
+    kill[block][bit / Long.SIZE] &= ~(1L << bit);
+  }
+
+  /** Declares that the given block clears the given bit. */
+  public void kill(final int block, final int bit) {
+    kill[block][bit / Long.SIZE] |= 1L << bit;
+    gen[block][bit / Long.SIZE] &= ~(1L << bit);
+  }
+
+  /**
+   * Computes the facts at the start of each block, in the direction of the analysis.
+   *
+   * @param boundary the facts at the start of the entry block, or at the end of the exit block
+   *     for backward problems
+   * @return the facts at the start of each block, indexed by the block
+   */
+  @NotNull
+  public long[][] solve(@NotNull final long[] boundary) {
+    final int size = graph.size();
+    final boolean forward = direction == Direction.FORWARD;
+    final int start = forward ? ControlFlowGraph.ENTRY : graph.getExit();
+
+    final long[][] in = new long[size][words];
+    final long[][] out = new long[size][];
+    for (int block = 0; block < size; block++) {
+      // the facts of blocks that were not visited yet must not weaken the meet
+      out[block] = new long[words];
+      if (meet == Meet.INTERSECTION) {
+        Arrays.fill(out[block], -1L);
+      }
+    }
+
+    final int[] worklist = new int[size];
+    final boolean[] listed = new boolean[size];
+    int head = 0;
+    int count = size;
+    for (int i = 0; i < size; i++) {
+      worklist[i] = forward ? i : size - 1 - i;
+      listed[i] = true;
+    }
+
+    final long[] facts = new long[words];
+    while (count > 0) {
+      final int block = worklist[head];
+      head = (head + 1) % size;
+      count--;
+      listed[block] = false;
+
+      // meet the facts that flow into the block
+      final int[] sources = forward ? graph.getPredecessors(block) : graph.getSuccessors(block);
+      if (block == start) {
+        System.arraycopy(boundary, 0, facts, 0, words);
+      } else if (sources.length == 0) {
+        // there is no path to an unreachable block, hence every fact holds on all of them
+        Arrays.fill(facts, meet == Meet.INTERSECTION ? -1L : 0L);
+      } else {
+        System.arraycopy(out[sources[0]], 0, facts, 0, words);
+      }
+      for (final int source : sources) {
+        final long[] sourceFacts = out[source];
+        for (int word = 0; word < words; word++) {
+          if (meet == Meet.UNION) {
+            facts[word] |= sourceFacts[word];
+          } else {
+            facts[word] &= sourceFacts[word];
+          }
+        }
+      }
+      System.arraycopy(facts, 0, in[block], 0, words);
+
+      // transfer them to the end of the block
+      boolean changed = false;
+      for (int word = 0; word < words; word++) {
+        final long result = gen[block][word] | facts[word] & ~kill[block][word];
+        changed |= result != out[block][word];
+        out[block][word] = result;
+      }
+      if (changed) {
+        final int[] targets = forward ? graph.getSuccessors(block) : graph.getPredecessors(block);
+        for (final int target : targets) {
+          if (!listed[target]) {
+            listed[target] = true;
+            worklist[(head + count) % size] = target;
+            count++;
+          }
+        }
+      }
+    }
+    return in;
+  }
+
+  // public classes
+  // --------------------------------------------------------------
+
+  /** The direction in which facts flow through the graph. */
+  public enum Direction {
+    FORWARD,
+    BACKWARD
+  }
+
+  /** The operator that combines the facts that flow into a block from several others. */
+  public enum Meet {
+    /** a fact holds if it holds on any path; for "may" problems */
+    UNION,
+    /** a fact holds if it holds on all paths; for "must" problems */
+    INTERSECTION
+  }
+}
@@ -0,0 +1,36 @@
+package com.merkrafter.representation.ast;
+
+import com.merkrafter.representation.CallResolver;
+import org.jetbrains.annotations.NotNull;
+
+/****
+ * This visitor resolves all procedure calls with a CallResolver. Calls are resolved after their
+ * arguments, as the types of the arguments are needed to find the procedure.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+final class CallResolvingVisitor implements AstVisitor {
+  // ATTRIBUTES
+  // ==============================================================
+  @NotNull private final CallResolver resolver;
+
+  // CONSTRUCTORS
+  // ==============================================================
+
+  CallResolvingVisitor(@NotNull final CallResolver resolver) {
+    this.resolver = resolver;
+  }
+
+  // METHODS
+  // ==============================================================
+  // public methods
+  // --------------------------------------------------------------
+
+  @Override
+  public void leave(@NotNull final AbstractSyntaxTree node) {
+    if (node instanceof ProcedureCallNode) {
+      ((ProcedureCallNode) node).resolve(resolver);
+    }
+  }
+}
@@ -1,16 +1,25 @@
 package com.merkrafter.representation.ast;
 
-import static com.merkrafter.representation.ast.AbstractStatementNode.collectErrorsFrom;
-
 import com.merkrafter.lexing.Position;
+import com.merkrafter.representation.ActualProcedureDescription;
+import com.merkrafter.representation.CallResolver;
 import com.merkrafter.representation.ClassDescription;
+import com.merkrafter.representation.IdGenerator;
 import com.merkrafter.representation.ObjectDescription;
 import com.merkrafter.representation.ProcedureDescription;
+import com.merkrafter.representation.ProcedureIndex;
+import com.merkrafter.representation.SymbolTable;
 import com.merkrafter.representation.Type;
 import com.merkrafter.representation.graphical.GraphicalComponent;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /****
  * This node represents a class definition and is kind of an entry point for the whole program.
@@ -22,6 +31,8 @@ public class ClassNode implements AbstractSyntaxTree, GraphicalComponent {
   // ATTRIBUTES
   // ==============================================================
   @NotNull private final ClassDescription classDescription;
+  /** identifies this node in the whole AST once its class is numbered; see IdGenerator */
+  private int id;
 
   // CONSTRUCTORS
   // ==============================================================
@@ -47,10 +58,31 @@ public class ClassNode implements AbstractSyntaxTree, GraphicalComponent {
     return getClassDescription().getSymbolTable().getDescriptions();
   }
 
-  /** @return the hashCode of this GraphicalClassNode */
+  /** @return the first statements of all procedures of this class */
+  @NotNull
+  @Override
+  public List<? extends AbstractSyntaxTree> getChildren() {
+    final List<Statement> entryPoints = new ArrayList<>();
+    for (final ObjectDescription obj : getDefinedObjects()) {
+      if (obj instanceof ProcedureDescription) {
+        final Statement entryPoint = ((ProcedureDescription) obj).getEntryPoint();
+        if (entryPoint != null) {
+          entryPoints.add(entryPoint);
+        }
+      }
+    }
+    return entryPoints;
+  }
+
+  /** @return an identifier unique in the whole AST */
   @Override
   public int getID() {
-    return hashCode();
+    return id;
+  }
+
+  @Override
+  public void setID(final int id) {
+    this.id = id;
   }
 
   // METHODS
@@ -58,22 +90,169 @@ public class ClassNode implements AbstractSyntaxTree, GraphicalComponent {
   // public methods
   // --------------------------------------------------------------
 
-  /** @return a list of all errors, both semantic and syntactical ones. */
+  /**
+   * Assigns a slot to every field, parameter and local variable of this class and annotates each
+   * variable access with the scope depth and slot of its variable.
+   */
+  public void resolveVariables() {
+    classDescription.resolveVariables();
+  }
+
+  /**
+   * Resolves all procedure calls of this class in a single pass, so that later phases do not need
+   * to search the symbol tables again.
+   *
+   * @return messages for all calls that could not be resolved
+   */
   @NotNull
-  @Override
-  public List<String> getAllErrors() {
-    final List<String> errors = new LinkedList<>();
-    errors.addAll(getErrorsFromProcedures());
-    errors.addAll(getErrorsFromExpressions());
-    return errors;
+  public List<String> resolveProcedureCalls() {
+    return resolveProcedureCalls(null);
   }
 
+  /**
+   * Resolves all procedure calls of this class in a single pass. Calls to procedures that are not
+   * declared in this class are linked to the procedures of other classes in the given index.
+   *
+   * @param procedureIndex the procedures of all classes of the program or null
+   * @return messages for all calls that could not be resolved
+   */
   @NotNull
-  private List<String> getErrorsFromExpressions() {
-    final List<String> errors = new LinkedList<>();
+  public List<String> resolveProcedureCalls(@Nullable final ProcedureIndex procedureIndex) {
+    final CallResolver resolver = new CallResolver(procedureIndex);
+    classDescription.resolveProcedureCalls(resolver);
+    return resolver.getDiagnostics();
+  }
+
+  /**
+   * Numbers this node, the descriptions of this class and of its procedures and then the nodes of
+   * the procedure bodies in pre-order. As calls are replaced by the procedures they resolve to,
+   * this should be done after resolveProcedureCalls. Nodes that are shared by several expressions
+   * are numbered once.
+   *
+   * @return an upper bound of all identifiers, i.e. the size of an array indexed by them
+   */
+  public int numberNodes() {
+    final IdGenerator ids = new IdGenerator();
+    setID(ids.next());
+    classDescription.setID(ids.next());
+    final List<ObjectDescription> descriptions = getDefinedObjects();
+    for (final ObjectDescription obj : descriptions) {
+      obj.setID(ids.next());
+    }
+    for (final ObjectDescription obj : descriptions) {
+      if (obj instanceof ProcedureDescription) {
+        final SymbolTable scope = ((ProcedureDescription) obj).getSymbols();
+        for (final ObjectDescription local : scope.getDescriptions()) {
+          local.setID(ids.next());
+        }
+      }
+    }
+    final Set<AbstractSyntaxTree> numbered = Collections.newSetFromMap(new IdentityHashMap<>());
+    AstWalker.walk(
+        this,
+        new AstVisitor() {
+          @Override
+          public boolean enter(@NotNull final AbstractSyntaxTree node) {
+            if (node == ClassNode.this) {
+              return true;
+            }
+            // a shared node was numbered together with its children before
+            if (!numbered.add(node)) {
+              return false;
+            }
+            node.setID(ids.next());
+            return true;
+          }
+        });
+    return ids.getCount();
+  }
+
+  /**
+   * Returns the first syntax error in the procedure bodies of this class in declaration order.
+   * Bodies are only checked for syntax errors here if they were parsed apart from the class, and
+   * bodies that are parsed lazily are parsed by this method.
+   *
+   * @return the error message or null if all bodies are grammatical
+   */
+  @Nullable
+  public String getSyntaxError() {
+    for (final ObjectDescription obj : getDefinedObjects()) {
+      if (obj instanceof ActualProcedureDescription) {
+        final String syntaxError = ((ActualProcedureDescription) obj).getSyntaxError();
+        if (syntaxError != null) {
+          return syntaxError;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Adds all errors of the procedures and fields of this class, both semantic and syntactical. The
+   * errors of a whole class always include the type errors; they are added to errors if
+   * typingErrors is null. If a procedure body contains a syntax error, it is the only error, like
+   * in a class whose bodies are parsed together with it.
+   */
+  @Override
+  public void collectErrors(
+      @NotNull final List<String> errors, @Nullable final List<String> typingErrors) {
+    final String syntaxError = getSyntaxError();
+    if (syntaxError != null) {
+      errors.add(syntaxError);
+      return;
+    }
+    final List<String> typeErrorSink = typingErrors != null ? typingErrors : errors;
+    for (final ObjectDescription obj : getClassDescription().getSymbolTable().getDescriptions()) {
+      if (obj instanceof ProcedureDescription) {
+        collectErrorsFromProcedure((ProcedureDescription) obj, errors, typeErrorSink);
+      }
+    }
     for (final ObjectDescription obj : getClassDescription().getSymbolTable().getDescriptions()) {
       if (obj instanceof Expression) {
-        errors.addAll(((Expression) obj).getTypingErrors());
+        ((Expression) obj).collectErrors(errors, typeErrorSink);
+      }
+    }
+  }
+
+  /**
+   * Returns the same errors as getAllErrors, but checks the procedures in parallel on the given
+   * pool. The checks of a procedure only read the class-level state, hence they are independent of
+   * each other. They run against a snapshot of the class scope, so bodies that are parsed lazily
+   * meanwhile can not change what is checked. The errors of each procedure are collected in a list
+   * of their own and merged in declaration order afterwards, so the result does not depend on the
+   * scheduling.
+   *
+   * @param pool the pool to run the checks on; its parallelism bounds the number of threads
+   * @return a list of all errors, both semantic and syntactical ones
+   */
+  @NotNull
+  public List<String> getAllErrors(@NotNull final ForkJoinPool pool) {
+    final String syntaxError = getSyntaxError();
+    if (syntaxError != null) {
+      return new ArrayList<>(Collections.singletonList(syntaxError));
+    }
+    final List<ObjectDescription> descriptions =
+        getClassDescription().getSymbolTable().snapshot().getDescriptions();
+    final List<ForkJoinTask<List<String>>> tasks = new ArrayList<>();
+    for (final ObjectDescription obj : descriptions) {
+      if (obj instanceof ProcedureDescription) {
+        tasks.add(
+            pool.submit(
+                () -> {
+                  final List<String> procedureErrors = new ArrayList<>();
+                  collectErrorsFromProcedure(
+                      (ProcedureDescription) obj, procedureErrors, procedureErrors);
+                  return procedureErrors;
+                }));
+      }
+    }
+    final List<String> errors = new ArrayList<>();
+    for (final ForkJoinTask<List<String>> task : tasks) {
+      errors.addAll(task.join());
+    }
+    for (final ObjectDescription obj : descriptions) {
+      if (obj instanceof Expression) {
+        ((Expression) obj).collectErrors(errors, errors);
       }
     }
     return errors;
@@ -92,14 +271,25 @@ public class ClassNode implements AbstractSyntaxTree, GraphicalComponent {
     return classDescription.equals(other.classDescription);
   }
 
+  /** @return the hash of the class description */
+  @Override
+  public int hashCode() {
+    return classDescription.hashCode();
+  }
+
   /**
    * Writing this String to a .dot file and compiling it with the dot command will draw the AST.
+   * If this class was not numbered yet, it is numbered first, as the nodes could not be told apart
+   * otherwise.
    *
    * @return a dot/graphviz representation of this AST
    */
   @NotNull
   @Override
   public String getDotRepresentation() {
+    if (getID() == IdGenerator.UNNUMBERED) {
+      numberNodes();
+    }
     final ClassDescription clazz = getClassDescription();
     final List<ObjectDescription> descriptions = getDefinedObjects();
 
@@ -128,29 +318,22 @@ public class ClassNode implements AbstractSyntaxTree, GraphicalComponent {
     return dotRepr.toString();
   }
 
-  @NotNull
-  private List<String> getErrorsFromProcedures() {
-    final List<String> errors = new LinkedList<>();
-    for (final ObjectDescription obj : getClassDescription().getSymbolTable().getDescriptions()) {
-      if (obj instanceof ProcedureDescription) {
-        errors.addAll(findErrorsInProcedure((ProcedureDescription) obj));
-      }
-    }
-    return errors;
-  }
-
-  @NotNull
-  private static List<String> findErrorsInProcedure(@NotNull final ProcedureDescription proc) {
-    final List<String> errors = new LinkedList<>();
+  private static void collectErrorsFromProcedure(
+      @NotNull final ProcedureDescription proc,
+      @NotNull final List<String> errors,
+      @NotNull final List<String> typingErrors) {
     final Type returnType = proc.getReturnType();
     final Statement stmt = proc.getEntryPoint();
-    if (stmt == null || returnType == null || !stmt.isCompatibleToType(returnType)) {
+    if (stmt == null
+        || returnType == null
+        || !new FlowAnalysis().getFlow(stmt).isCompatibleToType(returnType)) {
       errors.add(
           String.format(
               "%s: Return type mismatch in procedure %s", proc.getPosition(), proc.getName()));
     }
-    errors.addAll(collectErrorsFrom(proc.getEntryPoint()));
-    errors.addAll(proc.getEntryPoint().getTypingErrors());
-    return errors;
+    if (stmt != null) {
+      stmt.collectErrors(errors, typingErrors);
+      new DefiniteAssignment(proc).collectErrors(errors);
+    }
   }
 }
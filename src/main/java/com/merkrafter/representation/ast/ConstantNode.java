@@ -2,8 +2,6 @@ package com.merkrafter.representation.ast;
 
 import com.merkrafter.lexing.Position;
 import com.merkrafter.representation.Type;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Objects;
 import org.jetbrains.annotations.NotNull;
 
@@ -21,6 +19,10 @@ public class ConstantNode<T> implements Expression {
   @NotNull private final Type type;
   @NotNull private final T value;
   @NotNull private final Position position;
+  /** identifies this node in the whole AST once its class is numbered; see IdGenerator */
+  private int id;
+  /** the structural hash of this subtree; see hashCode */
+  private final int hash;
 
   // CONSTRUCTORS
   // ==============================================================
@@ -35,6 +37,7 @@ public class ConstantNode<T> implements Expression {
     this.type = type;
     this.value = value;
     this.position = position;
+    hash = 31 * type.ordinal() + value.hashCode();
   }
 
   // GETTER
@@ -57,13 +60,6 @@ public class ConstantNode<T> implements Expression {
     return position;
   }
 
-  /** @return empty list */
-  @NotNull
-  @Override
-  public List<String> getTypingErrors() {
-    return new LinkedList<>();
-  }
-
   /**
    * Returns the value stored by this constant node.
    *
@@ -95,26 +91,32 @@ public class ConstantNode<T> implements Expression {
       return false;
     }
     final ConstantNode<?> that = (ConstantNode<?>) o;
-    return type == that.type && Objects.equals(getValue(), that.getValue());
+    return hash == that.hash && type == that.type && Objects.equals(getValue(), that.getValue());
   }
 
-  /** @return an empty list */
-  @NotNull
+  /** @return a hash of the structure of this subtree that was computed on creation */
   @Override
-  public List<String> getAllErrors() {
-    return new LinkedList<>();
+  public int hashCode() {
+    return hash;
   }
 
   /** @return an identifier unique in the whole AST */
   @Override
   public int getID() {
-    return hashCode();
+    return id;
+  }
+
+  @Override
+  public void setID(final int id) {
+    this.id = id;
   }
 
-  /** @return dot/graphviz declarations of this component's children */
+  /** Declares this node with its type and value. */
   @Override
-  public String getDotRepresentation() {
-    return String.format(
-        "%d[label=\"%s%s%s\"];", getID(), type.name(), System.lineSeparator(), value.toString());
+  public void appendDotDeclarations(@NotNull final StringBuilder dotRepr) {
+    dotRepr.append(
+        String.format(
+            "%d[label=\"%s%s%s\"];", getID(), type.name(), System.lineSeparator(), value));
+    dotRepr.append(System.lineSeparator());
   }
 }
@@ -0,0 +1,183 @@
+package com.merkrafter.representation.ast;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/****
+ * This class represents the control flow of a procedure body as a graph of basic blocks. A block is
+ * a sequence of items that are executed one after the other without any branches in between. The
+ * items are the AST nodes that are evaluated, in the order of their evaluation:
+ * <ul>
+ *   <li>an AssignmentNode evaluates its value and writes the variable afterwards,</li>
+ *   <li>an Expression is evaluated for its value or side effects; this is the case for the
+ *   conditions of if and while statements, the values of return statements and procedure calls
+ *   that are statements.</li>
+ * </ul>
+ * Only the children of an item have to be visited; the statements after it are items of their own.
+ * <p>
+ * Blocks are numbered densely in the order they were created. The first block is the entry of the
+ * procedure, and the exit block is an empty block that all return statements and the end of the
+ * body lead to. Statements after a return statement are placed in blocks that can not be reached
+ * from the entry.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+public final class ControlFlowGraph {
+  // CONSTANTS
+  // ==============================================================
+  /** the index of the entry block */
+  public static final int ENTRY = 0;
+
+  // ATTRIBUTES
+  // ==============================================================
+  @NotNull private final List<List<AbstractSyntaxTree>> items = new ArrayList<>();
+  @NotNull private final List<int[]> successors = new ArrayList<>();
+  @NotNull private final List<int[]> predecessors = new ArrayList<>();
+  private final int exit;
+  /** the blocks that end with a return statement; only used during construction */
+  @NotNull private final List<Integer> returningBlocks = new ArrayList<>();
+
+  // CONSTRUCTORS
+  // ==============================================================
+
+  /****
+   * Creates the control flow graph of the sequence that starts with the given statement.
+   ***************************************************************/
+  public ControlFlowGraph(@Nullable final Statement body) {
+    final int entry = newBlock();
+    final int end = body == null ? entry : append(body, entry);
+    exit = newBlock();
+    addEdge(end, exit);
+    for (final int returning : returningBlocks) {
+      addEdge(returning, exit);
+    }
+    returningBlocks.clear();
+  }
+
+  // GETTER
+  // ==============================================================
+
+  /** @return the number of blocks */
+  public int size() {
+    return items.size();
+  }
+
+  /** @return the index of the exit block */
+  public int getExit() {
+    return exit;
+  }
+
+  /** @return the items of the given block in the order of their evaluation */
+  @NotNull
+  public List<AbstractSyntaxTree> getItems(final int block) {
+    return Collections.unmodifiableList(items.get(block));
+  }
+
+  /** @return the indices of the blocks that can be executed right after the given one */
+  @NotNull
+  public int[] getSuccessors(final int block) {
+    return successors.get(block);
+  }
+
+  /** @return the indices of the blocks that can be executed right before the given one */
+  @NotNull
+  public int[] getPredecessors(final int block) {
+    return predecessors.get(block);
+  }
+
+  // METHODS
+  // ==============================================================
+  // private methods
+  // --------------------------------------------------------------
+
+  /**
+   * Appends the given statements to the graph, starting in the given block.
+   *
+   * @return the block in which control continues after the statements
+   */
+  private int append(@NotNull final Statement first, final int start) {
+    int current = start;
+    for (Statement statement = first; statement != null; statement = statement.getNext()) {
+      current = appendStatement(statement, current);
+    }
+    return current;
+  }
+
+  /** @return the block in which control continues after the given statement */
+  private int appendStatement(@NotNull final Statement statement, final int current) {
+    if (statement instanceof StatementSequence) {
+      final StatementSequence sequence = (StatementSequence) statement;
+      int block = current;
+      for (int i = 0; i < sequence.size(); i++) {
+        block = appendStatement(sequence.get(i), block);
+      }
+      return block;
+    }
+    if (statement instanceof AssignmentNode || statement instanceof ProcedureCallNode) {
+      items.get(current).add(statement);
+      return current;
+    }
+    if (statement instanceof ReturnNode) {
+      final List<? extends AbstractSyntaxTree> value = statement.getChildren();
+      if (!value.isEmpty()) {
+        items.get(current).add(value.get(0));
+      }
+      returningBlocks.add(current);
+      // statements after a return statement are not reachable
+      return newBlock();
+    }
+    if (statement instanceof IfElseNode) {
+      final List<? extends AbstractSyntaxTree> children = statement.getChildren();
+      final IfNode ifNode = (IfNode) children.get(0);
+      items.get(current).add(ifNode.getChildren().get(0));
+      final int ifBlock = newBlock();
+      addEdge(current, ifBlock);
+      final int ifEnd = append(ifNode.getBranch(), ifBlock);
+      final int elseBlock = newBlock();
+      addEdge(current, elseBlock);
+      final int elseEnd = append((Statement) children.get(1), elseBlock);
+      final int join = newBlock();
+      addEdge(ifEnd, join);
+      addEdge(elseEnd, join);
+      return join;
+    }
+    if (statement instanceof WhileNode) {
+      final List<? extends AbstractSyntaxTree> children = statement.getChildren();
+      final int header = newBlock();
+      addEdge(current, header);
+      items.get(header).add(children.get(0));
+      final int body = newBlock();
+      addEdge(header, body);
+      addEdge(append((Statement) children.get(1), body), header);
+      final int after = newBlock();
+      addEdge(header, after);
+      return after;
+    }
+    // errors do not evaluate anything
+    return current;
+  }
+
+  private int newBlock() {
+    items.add(new ArrayList<>());
+    successors.add(new int[0]);
+    predecessors.add(new int[0]);
+    return items.size() - 1;
+  }
+
+  private void addEdge(final int from, final int to) {
+    successors.set(from, append(successors.get(from), to));
+    predecessors.set(to, append(predecessors.get(to), from));
+  }
+
+  @NotNull
+  private static int[] append(@NotNull final int[] array, final int value) {
+    final int[] result = new int[array.length + 1];
+    System.arraycopy(array, 0, result, 0, array.length);
+    result[array.length] = value;
+    return result;
+  }
+}
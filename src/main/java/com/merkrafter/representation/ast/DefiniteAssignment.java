@@ -0,0 +1,158 @@
+package com.merkrafter.representation.ast;
+
+import com.merkrafter.representation.ProcedureDescription;
+import com.merkrafter.representation.SymbolTable;
+import com.merkrafter.representation.VariableDescription;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import org.jetbrains.annotations.NotNull;
+
+/****
+ * This class checks that the local variables of a procedure are assigned before they are read. A
+ * variable is definitely assigned at a point of the procedure if it was assigned on every path
+ * from the start of the procedure to that point. Parameters are assigned by the caller, and fields
+ * are initialized with default values, hence only local variables are checked.
+ * <p>
+ * The bits of the sets are the slots of the parameters and local variables, which number them
+ * densely in declaration order. As the checks run before the compiler resolves the variables, the
+ * analysis assigns the slots of the procedure scope itself; resolving them later on results in the
+ * same slots. The analysis is a forward "must" problem on the control flow graph of the procedure
+ * body: each block generates the variables it assigns, and the sets of assigned
+ * variables are intersected where control flow joins.
+ * <p>
+ * A variable access that is shared by several expressions is reported at most once, at the
+ * position of its first occurrence.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+public final class DefiniteAssignment {
+  // ATTRIBUTES
+  // ==============================================================
+  @NotNull private final ProcedureDescription procedure;
+  /** the nesting level of the procedure scope; variables of other scopes are not checked */
+  private int level;
+  /** the accesses that were reported already */
+  @NotNull private final Set<VariableAccessNode> reported =
+      Collections.newSetFromMap(new IdentityHashMap<>());
+
+  // CONSTRUCTORS
+  // ==============================================================
+
+  /****
+   * Creates a new analysis of the given procedure.
+   ***************************************************************/
+  public DefiniteAssignment(@NotNull final ProcedureDescription procedure) {
+    this.procedure = procedure;
+  }
+
+  // METHODS
+  // ==============================================================
+  // public methods
+  // --------------------------------------------------------------
+
+  /** Adds an error for each read of a local variable that might not have been assigned before. */
+  public void collectErrors(@NotNull final List<String> errors) {
+    // the locals of lazily parsed bodies are declared when the body is parsed
+    final Statement body = procedure.getEntryPoint();
+    if (body == null) {
+      return;
+    }
+    reported.clear();
+    final SymbolTable scope = procedure.getSymbols();
+    level = scope.getNestingLevel();
+    final int variables = scope.assignSlots();
+    if (variables == 0) {
+      return;
+    }
+
+    final ControlFlowGraph graph = new ControlFlowGraph(body);
+    final BitVectorDataflow dataflow =
+        new BitVectorDataflow(
+            graph,
+            variables,
+            BitVectorDataflow.Direction.FORWARD,
+            BitVectorDataflow.Meet.INTERSECTION);
+    for (int block = 0; block < graph.size(); block++) {
+      for (final AbstractSyntaxTree item : graph.getItems(block)) {
+        if (item instanceof AssignmentNode) {
+          final int bit = bitOf(((AssignmentNode) item).getVariable().getVariableDescription());
+          if (bit >= 0) {
+            dataflow.gen(block, bit);
+          }
+        }
+      }
+    }
+    final long[] parameters = new long[dataflow.getWords()];
+    for (final VariableDescription parameter : procedure.getParamList()) {
+      final int bit = parameter == null ? -1 : bitOf(parameter);
+      if (bit >= 0) {
+        set(parameters, bit);
+      }
+    }
+
+    final long[][] assignedAtStart = dataflow.solve(parameters);
+    for (int block = 0; block < graph.size(); block++) {
+      final long[] assigned = assignedAtStart[block];
+      for (final AbstractSyntaxTree item : graph.getItems(block)) {
+        if (item instanceof AssignmentNode) {
+          final AssignmentNode assignment = (AssignmentNode) item;
+          checkReads(assignment.getValue(), assigned, errors);
+          final int bit = bitOf(assignment.getVariable().getVariableDescription());
+          if (bit >= 0) {
+            set(assigned, bit);
+          }
+        } else {
+          checkReads(item, assigned, errors);
+        }
+      }
+    }
+  }
+
+  // private methods
+  // --------------------------------------------------------------
+
+  /**
+   * Adds an error for each variable read in the given expression that is not in the assigned set.
+   * The statements after the expression are not visited.
+   */
+  private void checkReads(
+      @NotNull final AbstractSyntaxTree expression,
+      @NotNull final long[] assigned,
+      @NotNull final List<String> errors) {
+    final Deque<AbstractSyntaxTree> pending = new ArrayDeque<>();
+    pending.push(expression);
+    while (!pending.isEmpty()) {
+      final AbstractSyntaxTree node = pending.pop();
+      if (node instanceof VariableAccessNode) {
+        final int bit = bitOf(((VariableAccessNode) node).getVariableDescription());
+        if (bit >= 0
+            && (assigned[bit / Long.SIZE] & 1L << bit) == 0
+            && reported.add((VariableAccessNode) node)) {
+          errors.add(
+              String.format(
+                  "%s: Variable %s might not have been initialized",
+                  ((VariableAccessNode) node).getPosition(),
+                  ((VariableAccessNode) node).getName()));
+        }
+      }
+      final List<? extends AbstractSyntaxTree> children = node.getChildren();
+      for (int i = children.size() - 1; i >= 0; i--) {
+        pending.push(children.get(i));
+      }
+    }
+  }
+
+  /** @return the slot of the given variable or -1 if it is not declared in the procedure */
+  private int bitOf(@NotNull final VariableDescription variable) {
+    return variable.getScopeLevel() == level ? variable.getSlot() : -1;
+  }
+
+  private static void set(@NotNull final long[] set, final int bit) {
+    set[bit / Long.SIZE] |= 1L << bit;
+  }
+}
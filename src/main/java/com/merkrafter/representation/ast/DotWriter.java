@@ -0,0 +1,46 @@
+package com.merkrafter.representation.ast;
+
+import org.jetbrains.annotations.NotNull;
+
+/****
+ * This visitor concatenates the dot/graphviz declarations of all nodes of a tree.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+final class DotWriter implements AstVisitor {
+  // ATTRIBUTES
+  // ==============================================================
+  @NotNull private final StringBuilder dotRepr = new StringBuilder();
+
+  // METHODS
+  // ==============================================================
+  // public methods
+  // --------------------------------------------------------------
+
+  @Override
+  public boolean enter(@NotNull final AbstractSyntaxTree node) {
+    node.appendDotDeclarations(dotRepr);
+    return true;
+  }
+
+  // package-private methods
+  // --------------------------------------------------------------
+
+  /**
+   * @param root the node to start at; if it is a statement, its following statements are included
+   * @return dot/graphviz declarations of all nodes of the tree
+   */
+  @NotNull
+  static String write(@NotNull final AbstractSyntaxTree root) {
+    final DotWriter writer = new DotWriter();
+    AstWalker.walk(root, writer);
+    return writer.dotRepr.toString();
+  }
+
+  /** Appends an edge between the two nodes with the given identifiers. */
+  static void appendEdge(@NotNull final StringBuilder dotRepr, final int from, final int to) {
+    dotRepr.append(String.format("%d -> %d;", from, to));
+    dotRepr.append(System.lineSeparator());
+  }
+}
@@ -0,0 +1,50 @@
+package com.merkrafter.representation.ast;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/****
+ * This visitor checks every node after its children and adds the errors it finds to the given
+ * lists. An expression that is shared by several places of the tree is checked only once, hence
+ * its errors are not repeated.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+final class ErrorCollector implements AstVisitor {
+  // ATTRIBUTES
+  // ==============================================================
+  @NotNull private final List<String> errors;
+  @Nullable private final List<String> typingErrors;
+  /** the expressions that were entered already */
+  @NotNull private final Set<AbstractSyntaxTree> visited =
+      Collections.newSetFromMap(new IdentityHashMap<>());
+
+  // CONSTRUCTORS
+  // ==============================================================
+
+  ErrorCollector(@NotNull final List<String> errors, @Nullable final List<String> typingErrors) {
+    this.errors = errors;
+    this.typingErrors = typingErrors;
+  }
+
+  // METHODS
+  // ==============================================================
+  // public methods
+  // --------------------------------------------------------------
+
+  /** Skips an expression that was checked before, together with its children. */
+  @Override
+  public boolean enter(@NotNull final AbstractSyntaxTree node) {
+    return !(node instanceof Expression) || visited.add(node);
+  }
+
+  @Override
+  public void leave(@NotNull final AbstractSyntaxTree node) {
+    node.checkNode(errors, typingErrors);
+  }
+}
@@ -1,8 +1,8 @@
 package com.merkrafter.representation.ast;
 
 import com.merkrafter.lexing.Position;
+import com.merkrafter.representation.CallResolver;
 import com.merkrafter.representation.Type;
-import java.util.LinkedList;
 import java.util.List;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -21,6 +21,8 @@ public class ErrorNode implements Expression, Statement {
   // ==============================================================
   @NotNull private final String message;
   @NotNull private final Position position;
+  /** identifies this node in the whole AST once its class is numbered; see IdGenerator */
+  private int id;
 
   // CONSTRUCTORS
   // ==============================================================
@@ -61,19 +63,11 @@ public class ErrorNode implements Expression, Statement {
     return Type.VOID;
   }
 
-  @NotNull
-  @Override
-  public List<String> getTypingErrors() {
-    return new LinkedList<>();
-  }
-
-  /** @return a list containing the error message of this node */
-  @NotNull
+  /** Adds the error message of this node. */
   @Override
-  public List<String> getAllErrors() {
-    final List<String> errors = new LinkedList<>();
+  public void checkNode(
+      @NotNull final List<String> errors, @Nullable final List<String> typingErrors) {
     errors.add(message);
-    return errors;
   }
 
   /**
@@ -100,14 +94,26 @@ public class ErrorNode implements Expression, Statement {
   /** @return an identifier unique in the whole AST */
   @Override
   public int getID() {
-    return hashCode();
+    return id;
+  }
+
+  @Override
+  public void setID(final int id) {
+    this.id = id;
   }
 
-  /** @return dot/graphviz declarations of this component's children */
+  /** Declares this node. */
+  @Override
+  public void appendDotDeclarations(@NotNull final StringBuilder dotRepr) {
+    dotRepr.append(String.format("%d[label=\"ERROR\"];", getID()));
+    dotRepr.append(System.lineSeparator());
+  }
+
+  /** @return dot/graphviz declarations of this component */
   @NotNull
   @Override
   public String getDotRepresentation() {
-    return String.format("%d[label=\"ERROR\"]", getID());
+    return Statement.super.getDotRepresentation();
   }
 
   /** @return false */
@@ -127,4 +133,12 @@ public class ErrorNode implements Expression, Statement {
   public boolean hasReturnStatement() {
     return false;
   }
+
+  /** Does nothing as errors do not access variables. */
+  @Override
+  public void resolveVariables(final int level) {}
+
+  /** Does nothing as errors do not call procedures. */
+  @Override
+  public void resolveProcedureCalls(@NotNull final CallResolver resolver) {}
 }
@@ -1,9 +1,9 @@
 package com.merkrafter.representation.ast;
 
 import com.merkrafter.lexing.Locatable;
+import com.merkrafter.representation.CallResolver;
 import com.merkrafter.representation.Type;
 import com.merkrafter.representation.graphical.GraphicalComponent;
-import java.util.List;
 import org.jetbrains.annotations.NotNull;
 
 /****
@@ -22,6 +22,30 @@ public interface Expression extends AbstractSyntaxTree, GraphicalComponent, Loca
   @NotNull
   Type getReturnedType();
 
+  /** @return dot/graphviz declarations of this expression and all its children */
   @NotNull
-  List<String> getTypingErrors();
+  @Override
+  default String getDotRepresentation() {
+    return DotWriter.write(this);
+  }
+
+  /**
+   * Annotates all variable accesses in this expression with the scope depth and slot of their
+   * variables. The slots must have been assigned before.
+   *
+   * @param level the nesting level of the scope the expression is located in
+   */
+  default void resolveVariables(final int level) {
+    AstWalker.walk(this, new VariableResolver(level));
+  }
+
+  /**
+   * Resolves all procedure calls in this expression with the given resolver. Afterwards, the calls
+   * refer to the procedures directly instead of to proxies.
+   *
+   * @param resolver the resolver of the class the expression is located in
+   */
+  default void resolveProcedureCalls(@NotNull final CallResolver resolver) {
+    AstWalker.walk(this, new CallResolvingVisitor(resolver));
+  }
 }
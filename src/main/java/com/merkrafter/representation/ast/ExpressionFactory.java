@@ -0,0 +1,170 @@
+package com.merkrafter.representation.ast;
+
+import com.merkrafter.lexing.Position;
+import com.merkrafter.representation.Type;
+import com.merkrafter.representation.VariableDescription;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/****
+ * This class creates the nodes of expressions. If it shares expressions, it hands out the same
+ * node for structurally equal binary operations, variable accesses and constants (hash-consing).
+ * Procedure calls and errors are never shared, and neither are operations that contain them. Hence,
+ * shared subtrees are free of side effects and the same node may occur in many places of a tree.
+ * Passes can detect common subexpressions by comparing nodes by identity.
+ * <p>
+ * The children of a shared operation are shared as well, so a node is identified by its operation
+ * and the identities of its children, and its hash code is computed once from them. A shared node
+ * keeps the position of the expression it was created for first. Therefore, the checks report the
+ * errors of a shared node only once, at that position.
+ * <p>
+ * Instances are not thread-safe; each parser should use an own one.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+public class ExpressionFactory {
+  // ATTRIBUTES
+  // ==============================================================
+  /** the shared nodes; null if this factory does not share expressions */
+  @Nullable private final Map<Key, Expression> sharedNodes;
+  /** the values of sharedNodes, compared by identity */
+  @NotNull private final Set<Expression> sharedNodeSet =
+      Collections.newSetFromMap(new IdentityHashMap<>());
+
+  // CONSTRUCTORS
+  // ==============================================================
+
+  /****
+   * Creates a new factory that either creates a new node for each call or shares structurally
+   * equal expressions.
+   ***************************************************************/
+  public ExpressionFactory(final boolean shareExpressions) {
+    sharedNodes = shareExpressions ? new HashMap<>() : null;
+  }
+
+  // GETTER
+  // ==============================================================
+
+  /** @return whether structurally equal expressions are represented by the same node */
+  public boolean isSharing() {
+    return sharedNodes != null;
+  }
+
+  // METHODS
+  // ==============================================================
+  // public methods
+  // --------------------------------------------------------------
+
+  /** @return a node that applies the operation to both operands */
+  @NotNull
+  public Expression binaryOperation(
+      @NotNull final Expression leftOperand,
+      @NotNull final BinaryOperationNodeType binOpType,
+      @NotNull final Expression rightOperand) {
+    if (sharedNodes == null || !isShared(leftOperand) || !isShared(rightOperand)) {
+      return new BinaryOperationNode(leftOperand, binOpType, rightOperand);
+    }
+    final Key key = new Key(binOpType, leftOperand, rightOperand);
+    final Expression node = sharedNodes.get(key);
+    if (node != null) {
+      return node;
+    }
+    return share(key, new BinaryOperationNode(leftOperand, binOpType, rightOperand));
+  }
+
+  /** @return a node that accesses the given variable */
+  @NotNull
+  public Expression variableAccess(
+      @NotNull final VariableDescription variable, @NotNull final Position position) {
+    if (sharedNodes == null) {
+      return new VariableAccessNode(variable, position);
+    }
+    final Key key = new Key(variable, null, null);
+    final Expression node = sharedNodes.get(key);
+    if (node != null) {
+      return node;
+    }
+    return share(key, new VariableAccessNode(variable, position));
+  }
+
+  /** @return a node that represents the given constant */
+  @NotNull
+  public <T> Expression constant(
+      @NotNull final Type type, @NotNull final T value, @NotNull final Position position) {
+    if (sharedNodes == null) {
+      return new ConstantNode<>(type, value, position);
+    }
+    final Key key = new Key(type, value, null);
+    final Expression node = sharedNodes.get(key);
+    if (node != null) {
+      return node;
+    }
+    return share(key, new ConstantNode<>(type, value, position));
+  }
+
+  // private methods
+  // --------------------------------------------------------------
+
+  /** @return whether the given node was handed out by this factory as a shared node */
+  private boolean isShared(@NotNull final Expression node) {
+    return sharedNodeSet.contains(node);
+  }
+
+  @NotNull
+  private Expression share(@NotNull final Key key, @NotNull final Expression node) {
+    assert sharedNodes != null;
+    sharedNodes.put(key, node);
+    sharedNodeSet.add(node);
+    return node;
+  }
+
+  // private classes
+  // --------------------------------------------------------------
+
+  /**
+   * Identifies a shared node: an operation with its shared operands, a variable or a type with a
+   * constant value. Operands and variables are compared by identity, constant values by equality.
+   */
+  private static final class Key {
+    @NotNull private final Object head;
+    @Nullable private final Object first;
+    @Nullable private final Object second;
+    private final int hash;
+
+    private Key(
+        @NotNull final Object head, @Nullable final Object first, @Nullable final Object second) {
+      this.head = head;
+      this.first = first;
+      this.second = second;
+      final int firstHash =
+          first instanceof Expression ? System.identityHashCode(first) : Objects.hashCode(first);
+      hash =
+          31 * (31 * System.identityHashCode(head) + firstHash) + System.identityHashCode(second);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(@Nullable final Object obj) {
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      final Key other = (Key) obj;
+      return hash == other.hash
+          && head == other.head
+          && (first == other.first
+              || !(first instanceof Expression) && Objects.equals(first, other.first))
+          && second == other.second;
+    }
+  }
+}
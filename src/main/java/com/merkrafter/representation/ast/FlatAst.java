@@ -0,0 +1,449 @@
+package com.merkrafter.representation.ast;
+
+import com.merkrafter.lexing.Position;
+import com.merkrafter.representation.ProcedureDescription;
+import com.merkrafter.representation.Type;
+import com.merkrafter.representation.VariableDescription;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/****
+ * This class stores syntax trees in a compact form. Instead of being an object, each node is an
+ * index into parallel int arrays that hold its kind, its first child, its next sibling, its
+ * position and a payload. Constants are stored in a long array, and positions, variables,
+ * procedures and error messages are stored once in tables that the other arrays index. Hence, a
+ * node takes 20 bytes instead of an object with a header, references and a boxed value.
+ * <p>
+ * The children of a node are its first child and the siblings of that child. The statements after
+ * a statement are its siblings as well; for instance, the body of a while loop is the chain of
+ * siblings that starts after its condition, and the statements of a StatementSequence are its
+ * children. The nodes are stored in preorder, so a pass that does not care about the structure of
+ * the tree can scan the arrays from start to end.
+ * <p>
+ * toTree converts a stored tree back into AST nodes, such that all existing passes can run on it.
+ * Variable accesses and procedure calls are not resolved in the converted tree. ClassNodes can not
+ * be stored; store the entry points of their procedures instead.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+public final class FlatAst {
+  // CONSTANTS
+  // ==============================================================
+  /** the index of a child, sibling or position that does not exist */
+  public static final int NONE = -1;
+
+  private static final int INITIAL_CAPACITY = 64;
+  private static final Kind[] KINDS = Kind.values();
+  private static final BinaryOperationNodeType[] OPERATIONS = BinaryOperationNodeType.values();
+
+  // ATTRIBUTES
+  // ==============================================================
+  @NotNull private int[] kinds = new int[INITIAL_CAPACITY];
+  @NotNull private int[] firstChildren = new int[INITIAL_CAPACITY];
+  @NotNull private int[] nextSiblings = new int[INITIAL_CAPACITY];
+  /** indices into positionTable */
+  @NotNull private int[] positions = new int[INITIAL_CAPACITY];
+  /**
+   * the operation of binary operations, the index into constants for constants and the index into
+   * objects for variable accesses, procedure calls and errors
+   */
+  @NotNull private int[] payloads = new int[INITIAL_CAPACITY];
+
+  private int size;
+
+  @NotNull private long[] constants = new long[INITIAL_CAPACITY];
+  private int constantCount;
+
+  @NotNull private final ArrayList<Position> positionTable = new ArrayList<>();
+  /** variables, procedures and error messages */
+  @NotNull private final List<Object> objects = new ArrayList<>();
+
+  @NotNull private final Map<Object, Integer> objectIndices = new IdentityHashMap<>();
+
+  // GETTER
+  // ==============================================================
+
+  /** @return the number of nodes stored */
+  public int size() {
+    return size;
+  }
+
+  @NotNull
+  public Kind getKind(final int node) {
+    return KINDS[kinds[node]];
+  }
+
+  /** @return the index of the first child of the given node or NONE if it is a leaf */
+  public int getFirstChild(final int node) {
+    return firstChildren[node];
+  }
+
+  /**
+   * @return the index of the next child of the parent of the given node, or of the statement after
+   *     the given one; NONE if there is none
+   */
+  public int getNextSibling(final int node) {
+    return nextSiblings[node];
+  }
+
+  /** @return the position of the given node or null if the node takes it from its children */
+  @Nullable
+  public Position getPosition(final int node) {
+    return positions[node] == NONE ? null : positionTable.get(positions[node]);
+  }
+
+  /** @return the value of the given constant; 0 or 1 for boolean constants */
+  public long getConstant(final int node) {
+    return constants[payloads[node]];
+  }
+
+  /** @return the operation of the given binary operation */
+  @NotNull
+  public BinaryOperationNodeType getOperation(final int node) {
+    return OPERATIONS[payloads[node]];
+  }
+
+  /** @return the variable of the given variable access */
+  @NotNull
+  public VariableDescription getVariable(final int node) {
+    return (VariableDescription) objects.get(payloads[node]);
+  }
+
+  /** @return the procedure of the given procedure call */
+  @NotNull
+  public ProcedureDescription getProcedure(final int node) {
+    return (ProcedureDescription) objects.get(payloads[node]);
+  }
+
+  /** @return the message of the given error */
+  @NotNull
+  public String getMessage(final int node) {
+    return (String) objects.get(payloads[node]);
+  }
+
+  // METHODS
+  // ==============================================================
+  // public methods
+  // --------------------------------------------------------------
+
+  /**
+   * Stores the given tree after the trees that were stored before. If root is a statement, the
+   * statements that follow it are stored as its siblings.
+   *
+   * @param root the tree to store
+   * @return the index of the root node
+   * @throws IllegalArgumentException if the tree contains nodes that can not be stored
+   */
+  public int add(@NotNull final AbstractSyntaxTree root) {
+    final int index = size;
+    AstWalker.walk(root, new Encoder());
+    return index;
+  }
+
+  /**
+   * Converts a stored tree back into AST nodes. If the root is a statement, its siblings are
+   * converted as well and linked as the statements that follow it.
+   *
+   * @param root an index returned by add
+   * @return a tree that is equal to the one that was stored
+   */
+  @NotNull
+  public AbstractSyntaxTree toTree(final int root) {
+    return getKind(root).isStatement() ? toSequence(root) : toNode(root);
+  }
+
+  /**
+   * Shrinks the arrays to the number of nodes stored. This frees the spare capacity that was
+   * reserved for further calls of add.
+   */
+  public void trimToSize() {
+    kinds = Arrays.copyOf(kinds, size);
+    firstChildren = Arrays.copyOf(firstChildren, size);
+    nextSiblings = Arrays.copyOf(nextSiblings, size);
+    positions = Arrays.copyOf(positions, size);
+    payloads = Arrays.copyOf(payloads, size);
+    constants = Arrays.copyOf(constants, constantCount);
+    positionTable.trimToSize();
+  }
+
+  // private methods
+  // --------------------------------------------------------------
+
+  /** @return the statement at the given index, linked to the nodes of its siblings */
+  @NotNull
+  private Statement toSequence(final int first) {
+    final Statement head = (Statement) toNode(first);
+    Statement last = head;
+    for (int node = nextSiblings[first]; node != NONE; node = nextSiblings[node]) {
+      final Statement statement = (Statement) toNode(node);
+      last.setNext(statement);
+      last = statement;
+    }
+    return head;
+  }
+
+  /** @return the AST node at the given index, without the statements that follow it */
+  @NotNull
+  private AbstractSyntaxTree toNode(final int node) {
+    final int child = firstChildren[node];
+    switch (getKind(node)) {
+      case ASSIGNMENT:
+        return new AssignmentNode(
+            (VariableAccessNode) toNode(child), (Expression) toNode(nextSiblings[child]));
+      case BINARY_OPERATION:
+        return new BinaryOperationNode(
+            (Expression) toNode(child),
+            getOperation(node),
+            (Expression) toNode(nextSiblings[child]));
+      case BOOLEAN_CONSTANT:
+        return new ConstantNode<>(Type.BOOLEAN, getConstant(node) != 0, positionOf(node));
+      case INT_CONSTANT:
+        return new ConstantNode<>(Type.INT, getConstant(node), positionOf(node));
+      case ERROR:
+        return new ErrorNode(getMessage(node), positionOf(node));
+      case IF:
+        return new IfNode(
+            (Expression) toNode(child), toSequence(nextSiblings[child]), positionOf(node));
+      case IF_ELSE:
+        return new IfElseNode((IfNode) toNode(child), toSequence(nextSiblings[child]));
+      case PARAMETER_LIST:
+        {
+          final List<Expression> parameters = new ArrayList<>();
+          for (int parameter = child; parameter != NONE; parameter = nextSiblings[parameter]) {
+            parameters.add((Expression) toNode(parameter));
+          }
+          return new ParameterListNode(parameters);
+        }
+      case PROCEDURE_CALL:
+        return new ProcedureCallNode(
+            getProcedure(node), (ParameterListNode) toNode(child), positionOf(node));
+      case RETURN:
+        return child == NONE
+            ? new ReturnNode(positionOf(node))
+            : new ReturnNode((Expression) toNode(child), positionOf(node));
+      case SEQUENCE:
+        {
+          final List<Statement> statements = new ArrayList<>();
+          for (int statement = child; statement != NONE; statement = nextSiblings[statement]) {
+            statements.add((Statement) toNode(statement));
+          }
+          return new StatementSequence(statements);
+        }
+      case VARIABLE_ACCESS:
+        return new VariableAccessNode(getVariable(node), positionOf(node));
+      case WHILE:
+        return new WhileNode(
+            (Expression) toNode(child), toSequence(nextSiblings[child]), positionOf(node));
+      default:
+        throw new IllegalStateException("unknown kind " + getKind(node));
+    }
+  }
+
+  @NotNull
+  private Position positionOf(final int node) {
+    final Position position = getPosition(node);
+    assert position != null : "nodes with an own position have it stored";
+    return position;
+  }
+
+  /**
+   * Appends a row for the given node, without linking it to its parent or siblings.
+   *
+   * @return the index of the new node
+   */
+  private int append(@NotNull final AbstractSyntaxTree node) {
+    if (node instanceof AssignmentNode) {
+      return append(Kind.ASSIGNMENT, null, 0);
+    }
+    if (node instanceof BinaryOperationNode) {
+      final BinaryOperationNodeType operation = ((BinaryOperationNode) node).getBinOpType();
+      return append(Kind.BINARY_OPERATION, null, operation.ordinal());
+    }
+    if (node instanceof ConstantNode) {
+      final ConstantNode<?> constant = (ConstantNode<?>) node;
+      final Object value = constant.getValue();
+      if (constant.getReturnedType() == Type.INT && value instanceof Long) {
+        return append(Kind.INT_CONSTANT, constant.getPosition(), addConstant((Long) value));
+      }
+      if (constant.getReturnedType() == Type.BOOLEAN && value instanceof Boolean) {
+        final long bit = (Boolean) value ? 1 : 0;
+        return append(Kind.BOOLEAN_CONSTANT, constant.getPosition(), addConstant(bit));
+      }
+      throw new IllegalArgumentException(
+          String.format(
+              "constant %s of type %s can not be stored", value, constant.getReturnedType()));
+    }
+    if (node instanceof ErrorNode) {
+      final ErrorNode error = (ErrorNode) node;
+      return append(Kind.ERROR, error.getPosition(), addObject(error.toString()));
+    }
+    if (node instanceof IfNode) {
+      return append(Kind.IF, ((IfNode) node).getPosition(), 0);
+    }
+    if (node instanceof IfElseNode) {
+      return append(Kind.IF_ELSE, null, 0);
+    }
+    if (node instanceof ParameterListNode) {
+      return append(Kind.PARAMETER_LIST, null, 0);
+    }
+    if (node instanceof ProcedureCallNode) {
+      final ProcedureCallNode call = (ProcedureCallNode) node;
+      return append(Kind.PROCEDURE_CALL, call.getPosition(), addObject(call.getProcedure()));
+    }
+    if (node instanceof ReturnNode) {
+      return append(Kind.RETURN, ((ReturnNode) node).getPosition(), 0);
+    }
+    if (node instanceof StatementSequence) {
+      return append(Kind.SEQUENCE, null, 0);
+    }
+    if (node instanceof VariableAccessNode) {
+      final VariableAccessNode access = (VariableAccessNode) node;
+      return append(
+          Kind.VARIABLE_ACCESS, access.getPosition(), addObject(access.getVariableDescription()));
+    }
+    if (node instanceof WhileNode) {
+      return append(Kind.WHILE, ((WhileNode) node).getPosition(), 0);
+    }
+    throw new IllegalArgumentException(
+        String.format("%s can not be stored", node.getClass().getSimpleName()));
+  }
+
+  private int append(
+      @NotNull final Kind kind, @Nullable final Position position, final int payload) {
+    if (size == kinds.length) {
+      final int capacity = Math.max(2 * size, INITIAL_CAPACITY);
+      kinds = Arrays.copyOf(kinds, capacity);
+      firstChildren = Arrays.copyOf(firstChildren, capacity);
+      nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+      positions = Arrays.copyOf(positions, capacity);
+      payloads = Arrays.copyOf(payloads, capacity);
+    }
+    kinds[size] = kind.ordinal();
+    firstChildren[size] = NONE;
+    nextSiblings[size] = NONE;
+    positions[size] = position == null ? NONE : addPosition(position);
+    payloads[size] = payload;
+    return size++;
+  }
+
+  /** @return the index of the given value in constants */
+  private int addConstant(final long value) {
+    if (constantCount == constants.length) {
+      constants = Arrays.copyOf(constants, Math.max(2 * constantCount, INITIAL_CAPACITY));
+    }
+    constants[constantCount] = value;
+    return constantCount++;
+  }
+
+  /**
+   * Only a position that differs from the previous one is added, as nodes that are stored one after
+   * the other often share their position. Looking up all positions would cost more memory than it
+   * saves.
+   *
+   * @return the index of the given position in positionTable
+   */
+  private int addPosition(@NotNull final Position position) {
+    final int last = positionTable.size() - 1;
+    if (last < 0 || !positionTable.get(last).equals(position)) {
+      positionTable.add(position);
+      return last + 1;
+    }
+    return last;
+  }
+
+  /** @return the index of the given object in objects; the same object is only stored once */
+  private int addObject(@NotNull final Object object) {
+    final Integer index = objectIndices.get(object);
+    if (index != null) {
+      return index;
+    }
+    objectIndices.put(object, objects.size());
+    objects.add(object);
+    return objects.size() - 1;
+  }
+
+  // public classes
+  // --------------------------------------------------------------
+
+  /****
+   * This enum lists the kinds of nodes a FlatAst can store. Each of them corresponds to an AST node
+   * class; constants are split by their type.
+   ***************************************************************/
+  public enum Kind {
+    ASSIGNMENT(true),
+    BINARY_OPERATION(false),
+    BOOLEAN_CONSTANT(false),
+    INT_CONSTANT(false),
+    ERROR(true),
+    IF(false),
+    IF_ELSE(true),
+    PARAMETER_LIST(false),
+    PROCEDURE_CALL(true),
+    RETURN(true),
+    SEQUENCE(true),
+    VARIABLE_ACCESS(false),
+    WHILE(true);
+
+    private final boolean statement;
+
+    Kind(final boolean statement) {
+      this.statement = statement;
+    }
+
+    /** @return whether nodes of this kind can be followed by sibling statements */
+    public boolean isStatement() {
+      return statement;
+    }
+  }
+
+  // private classes
+  // --------------------------------------------------------------
+
+  /** Appends the visited nodes and links each of them to its parent or its previous sibling. */
+  private final class Encoder implements AstVisitor {
+    /** the nodes whose children are being appended, innermost last */
+    @NotNull private int[] parents = new int[INITIAL_CAPACITY];
+    /** the last child appended to each of the parents; NONE if there is none yet */
+    @NotNull private int[] lastChildren = new int[INITIAL_CAPACITY];
+
+    private int depth;
+    /** the last statement of the sequence that starts at the root */
+    private int lastRoot = NONE;
+
+    @Override
+    public boolean enter(@NotNull final AbstractSyntaxTree node) {
+      final int index = append(node);
+      final int previous = depth == 0 ? lastRoot : lastChildren[depth - 1];
+      if (previous != NONE) {
+        nextSiblings[previous] = index;
+      } else if (depth > 0) {
+        firstChildren[parents[depth - 1]] = index;
+      }
+      if (depth == 0) {
+        lastRoot = index;
+      } else {
+        lastChildren[depth - 1] = index;
+      }
+
+      if (depth == parents.length) {
+        parents = Arrays.copyOf(parents, 2 * depth);
+        lastChildren = Arrays.copyOf(lastChildren, 2 * depth);
+      }
+      parents[depth] = index;
+      lastChildren[depth] = NONE;
+      depth++;
+      return true;
+    }
+
+    @Override
+    public void leave(@NotNull final AbstractSyntaxTree node) {
+      depth--;
+    }
+  }
+}
@@ -0,0 +1,175 @@
+package com.merkrafter.representation.ast;
+
+import com.merkrafter.representation.Type;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.jetbrains.annotations.NotNull;
+
+/****
+ * This class analyses how control flows through statement sequences with respect to return
+ * statements. For each sequence, it computes whether it always returns, whether it may fall
+ * through to its end, and the set of return types of procedures it can legally occur in.
+ * <p>
+ * The flow of a sequence is computed from its end to its start, as the flow of a statement depends
+ * on the flow of the statements after it. A statement that contains sequences, like a while loop,
+ * asks the analysis for their flows. Each result is cached for the statement the sequence starts
+ * with, hence every statement is analysed only once, no matter how deeply control flow is nested.
+ * <p>
+ * The results are not updated if the analysed trees are changed; use a new instance instead.
+ * Instances are not thread-safe.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+public final class FlowAnalysis {
+  // ATTRIBUTES
+  // ==============================================================
+  /** the flows of the sequences that start with the key statements */
+  @NotNull private final Map<Statement, Flow> flows = new IdentityHashMap<>();
+
+  // METHODS
+  // ==============================================================
+  // public methods
+  // --------------------------------------------------------------
+
+  /**
+   * Returns the flow of the sequence that starts with the given statement. The sequence is walked
+   * in a loop, hence long sequences need no deep recursion.
+   *
+   * @param first the first statement of the sequence
+   * @return the flow of the statement and all statements that follow it
+   */
+  @NotNull
+  public Flow getFlow(@NotNull final Statement first) {
+    final List<Statement> statements = new ArrayList<>();
+    Statement statement = first;
+    while (statement != null && !flows.containsKey(statement)) {
+      statements.add(statement);
+      statement = statement.getNext();
+    }
+    Flow flow = statement == null ? Flow.END : flows.get(statement);
+    for (int i = statements.size() - 1; i >= 0; i--) {
+      flow = precede(statements.get(i), flow);
+      flows.put(statements.get(i), flow);
+    }
+    return flow;
+  }
+
+  // package-private methods
+  // --------------------------------------------------------------
+
+  /**
+   * @param statement a statement whose next statements are not taken into account
+   * @param next the flow of the statements that are executed after the given one
+   * @return the flow of the given statement followed by the next statements
+   */
+  @NotNull
+  Flow precede(@NotNull final Statement statement, @NotNull final Flow next) {
+    if (statement instanceof AbstractStatementNode
+        && ((AbstractStatementNode) statement).dependsOnNext()) {
+      return ((AbstractStatementNode) statement).precede(next, this);
+    }
+    // other statements, like return statements, determine the flow regardless of the next ones
+    return Flow.of(statement);
+  }
+
+  // public classes
+  // --------------------------------------------------------------
+
+  /****
+   * This class describes how control flows through a statement sequence. It is immutable.
+   ***************************************************************/
+  public static final class Flow {
+    // CONSTANTS
+    // ==============================================================
+    private static final Type[] TYPES = Type.values();
+    private static final int ALL_TYPES = (1 << TYPES.length) - 1;
+
+    /** the flow after the last statement of a sequence, which is only valid in void procedures */
+    static final Flow END = new Flow(typeMask(Type.VOID), false);
+
+    // ATTRIBUTES
+    // ==============================================================
+    /** a bit for each type whose ordinal is the index of the bit */
+    private final int compatibleTypes;
+
+    private final boolean alwaysReturns;
+
+    // CONSTRUCTORS
+    // ==============================================================
+
+    Flow(final int compatibleTypes, final boolean alwaysReturns) {
+      this.compatibleTypes = compatibleTypes;
+      this.alwaysReturns = alwaysReturns;
+    }
+
+    /**
+     * @return the flow of a statement sequence that is not known to the analysis, which is asked
+     *     for its results
+     */
+    @NotNull
+    static Flow of(@NotNull final Statement statement) {
+      int compatibleTypes = 0;
+      for (final Type type : TYPES) {
+        if (statement.isCompatibleToType(type)) {
+          compatibleTypes |= typeMask(type);
+        }
+      }
+      return new Flow(compatibleTypes, statement.hasReturnStatement());
+    }
+
+    // GETTER
+    // ==============================================================
+
+    /** @return whether every path through the sequence ends with a return statement */
+    public boolean alwaysReturns() {
+      return alwaysReturns;
+    }
+
+    /** @return whether there is a path through the sequence that reaches its end */
+    public boolean mayFallThrough() {
+      return !alwaysReturns;
+    }
+
+    /** @return whether the sequence can legally occur in a procedure with the given type */
+    public boolean isCompatibleToType(@NotNull final Type type) {
+      return (compatibleTypes & typeMask(type)) != 0;
+    }
+
+    /** @return the return types of the procedures the sequence can legally occur in */
+    @NotNull
+    public Set<Type> getCompatibleTypes() {
+      final Set<Type> types = EnumSet.noneOf(Type.class);
+      for (final Type type : TYPES) {
+        if (isCompatibleToType(type)) {
+          types.add(type);
+        }
+      }
+      return types;
+    }
+
+    /** @return the bits of the types the sequence is compatible to */
+    int getTypeMask() {
+      return compatibleTypes;
+    }
+
+    /**
+     * @return the bits of the types for which the sequence does not conflict with other
+     *     statements; these are all types if it does not always return
+     */
+    int getTypesWithoutConflict() {
+      return alwaysReturns ? compatibleTypes : ALL_TYPES;
+    }
+
+    // private methods
+    // --------------------------------------------------------------
+
+    private static int typeMask(@NotNull final Type type) {
+      return 1 << type.ordinal();
+    }
+  }
+}
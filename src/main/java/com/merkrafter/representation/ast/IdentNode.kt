@@ -1,14 +1,21 @@
 package com.merkrafter.representation.ast
 
 import com.merkrafter.lexing.Position
-import org.jetbrains.annotations.NotNull
-import java.util.LinkedList
 
 data class IdentNode(val identifier: String, val position: Position) : AbstractSyntaxTree {
     /**
-     * @return an empty list
+     * identifies this node in the whole AST once its class is numbered; see IdGenerator
      */
-    override fun getAllErrors(): @NotNull MutableList<String> {
-        return LinkedList<String>()
+    private var id = 0
+
+    /**
+     * @return an identifier unique in the whole AST
+     */
+    override fun getID(): Int {
+        return id
+    }
+
+    override fun setID(id: Int) {
+        this.id = id
     }
-}
\ No newline at end of file
+}
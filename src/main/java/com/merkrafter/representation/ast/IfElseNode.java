@@ -1,8 +1,7 @@
 package com.merkrafter.representation.ast;
 
 import com.merkrafter.lexing.Position;
-import com.merkrafter.representation.Type;
-import java.util.LinkedList;
+import java.util.Arrays;
 import java.util.List;
 import org.jetbrains.annotations.NotNull;
 
@@ -18,6 +17,8 @@ public class IfElseNode extends AbstractStatementNode {
   // ==============================================================
   @NotNull private final IfNode ifBranch;
   @NotNull private final Statement elseBranch;
+  /** the structural hash of this subtree; see hashCode */
+  private final int hash;
 
   // CONSTRUCTORS
   // ==============================================================
@@ -30,6 +31,7 @@ public class IfElseNode extends AbstractStatementNode {
   public IfElseNode(@NotNull final IfNode ifBranch, @NotNull final Statement elseBranch) {
     this.ifBranch = ifBranch;
     this.elseBranch = elseBranch;
+    hash = 31 * ifBranch.hashCode() + elseBranch.hashCode();
   }
 
   // GETTER
@@ -41,11 +43,11 @@ public class IfElseNode extends AbstractStatementNode {
     return ifBranch.getPosition();
   }
 
-  /** @return a list of all errors, both semantic and syntactical ones. */
+  /** @return the if branch and the first statement of the else branch */
   @NotNull
   @Override
-  public List<String> getAllErrors() {
-    return collectErrorsFrom(ifBranch, elseBranch, getNext());
+  public List<? extends AbstractSyntaxTree> getChildren() {
+    return Arrays.asList(ifBranch, elseBranch);
   }
 
   /**
@@ -58,70 +60,45 @@ public class IfElseNode extends AbstractStatementNode {
       return false;
     }
     final IfElseNode other = (IfElseNode) obj;
-    return elseBranch.equals(other.elseBranch) && ifBranch.equals(other.ifBranch);
+    return hash == other.hash
+        && elseBranch.equals(other.elseBranch)
+        && ifBranch.equals(other.ifBranch);
   }
 
-  /** @return dot/graphviz declarations of this component's children */
-  @NotNull
+  /** @return a hash of the structure of this subtree that was computed on creation */
   @Override
-  public String getDotRepresentation() {
-    final StringBuilder dotRepr = new StringBuilder(super.getDotRepresentation());
-    dotRepr.append(System.lineSeparator());
-
-    // define children
-    dotRepr.append(ifBranch.getDotRepresentation());
-    dotRepr.append(System.lineSeparator());
-    dotRepr.append(elseBranch.getDotRepresentation());
-    dotRepr.append(System.lineSeparator());
-
-    // define this
-    dotRepr.append(String.format("%d[label=%s];", getID(), "IF_ELSE"));
-    dotRepr.append(System.lineSeparator());
-
-    // define links
-    if (getNext() != null) {
-      dotRepr.append(String.format("%d -> %d;", getID(), getNext().getID()));
-      dotRepr.append(System.lineSeparator());
-    }
-    dotRepr.append(String.format("%d -> %d;", getID(), ifBranch.hashCode()));
-    dotRepr.append(System.lineSeparator());
-    dotRepr.append(String.format("%d -> %d;", getID(), elseBranch.getID()));
-    dotRepr.append(System.lineSeparator());
-
-    return dotRepr.toString();
+  public int hashCode() {
+    return hash;
   }
 
-  /** @return whether there is a return statement in this statement sequence */
+  /** Declares this node and the edges to the next statement and both branches. */
   @Override
-  public boolean hasReturnStatement() {
-    return super.hasReturnStatement()
-        || ifBranch.hasReturnStatement() && elseBranch.hasReturnStatement();
+  public void appendDotDeclarations(@NotNull final StringBuilder dotRepr) {
+    dotRepr.append(String.format("%d[label=%s];", getID(), "IF_ELSE"));
+    dotRepr.append(System.lineSeparator());
+    appendEdgeToNext(dotRepr);
+    DotWriter.appendEdge(dotRepr, getID(), ifBranch.getID());
+    DotWriter.appendEdge(dotRepr, getID(), elseBranch.getID());
   }
 
   /**
-   * Returns whether this given return type is compatible with the next statements in this sequence
-   * or with both branches of this IfElseNode.
+   * Returns the flow of this IfElseNode and the next statements in this sequence. It is compatible
+   * to a type if the next statements and both branches do not conflict with it, or if both
+   * branches return it and the next statements do not conflict with it. It always returns if both
+   * branches or the next statements do.
    */
-  @Override
-  public boolean isCompatibleToType(@NotNull Type type) {
-    final boolean afterCorrect = super.isCompatibleToType(type);
-    final boolean afterNoConflict = afterCorrect || !super.hasReturnStatement();
-    final boolean ifBranchCorrect = ifBranch.hasReturnType(type);
-    final boolean elseBranchCorrect = elseBranch.isCompatibleToType(type);
-    final boolean ifBranchNoConflict = ifBranchCorrect || !ifBranch.hasReturnStatement();
-    final boolean elseBranchNoConflict = elseBranchCorrect || !elseBranch.hasReturnStatement();
-
-    return afterCorrect && ifBranchNoConflict && elseBranchNoConflict
-        || ifBranchCorrect && elseBranchCorrect && afterNoConflict;
-  }
-
   @NotNull
   @Override
-  public List<String> getTypingErrors() {
-    final List<String> errors = new LinkedList<>();
-    errors.addAll(super.getTypingErrors());
-    errors.addAll(ifBranch.getTypingErrors());
-    errors.addAll(elseBranch.getTypingErrors());
-    return errors;
+  FlowAnalysis.Flow precede(
+      @NotNull final FlowAnalysis.Flow next, @NotNull final FlowAnalysis analysis) {
+    final FlowAnalysis.Flow ifFlow = analysis.getFlow(ifBranch.getBranch());
+    final FlowAnalysis.Flow elseFlow = analysis.getFlow(elseBranch);
+    final int branchesNoConflict =
+        ifFlow.getTypesWithoutConflict() & elseFlow.getTypesWithoutConflict();
+    final int branchesCorrect = ifFlow.getTypeMask() & elseFlow.getTypeMask();
+    return new FlowAnalysis.Flow(
+        next.getTypeMask() & branchesNoConflict
+            | branchesCorrect & next.getTypesWithoutConflict(),
+        next.alwaysReturns() || ifFlow.alwaysReturns() && elseFlow.alwaysReturns());
   }
 }
@@ -1,12 +1,12 @@
 package com.merkrafter.representation.ast;
 
-import static com.merkrafter.representation.ast.AbstractStatementNode.collectErrorsFrom;
-
 import com.merkrafter.lexing.Locatable;
 import com.merkrafter.lexing.Position;
 import com.merkrafter.representation.Type;
+import java.util.Arrays;
 import java.util.List;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /****
  * This AST node represents an if statement.
@@ -20,6 +20,10 @@ public class IfNode implements AbstractSyntaxTree, Locatable {
   @NotNull private final Expression condition;
   @NotNull private final Statement ifBranch;
   @NotNull private final Position position;
+  /** identifies this node in the whole AST once its class is numbered; see IdGenerator */
+  private int id;
+  /** the structural hash of this subtree; see hashCode */
+  private final int hash;
 
   // CONSTRUCTORS
   // ==============================================================
@@ -36,6 +40,7 @@ public class IfNode implements AbstractSyntaxTree, Locatable {
     this.condition = condition;
     this.ifBranch = ifBranch;
     this.position = position;
+    hash = 31 * condition.hashCode() + ifBranch.hashCode();
   }
 
   // GETTER
@@ -47,11 +52,29 @@ public class IfNode implements AbstractSyntaxTree, Locatable {
     return position;
   }
 
-  /** @return a list of all errors, both semantic and syntactical ones. */
+  /** @return the first statement of the branch */
+  @NotNull
+  Statement getBranch() {
+    return ifBranch;
+  }
+
+  /** @return the condition and the first statement of the branch */
   @NotNull
   @Override
-  public List<String> getAllErrors() {
-    return collectErrorsFrom(condition, ifBranch);
+  public List<? extends AbstractSyntaxTree> getChildren() {
+    return Arrays.asList(condition, ifBranch);
+  }
+
+  /** Checks whether the condition evaluates to a boolean. */
+  @Override
+  public void checkNode(
+      @NotNull final List<String> errors, @Nullable final List<String> typingErrors) {
+    if (typingErrors != null && !condition.getReturnedType().equals(Type.BOOLEAN)) {
+      typingErrors.add(
+          String.format(
+              "%s: Condition does not evaluate to boolean in if statement",
+              condition.getPosition()));
+    }
   }
 
   /**
@@ -64,49 +87,35 @@ public class IfNode implements AbstractSyntaxTree, Locatable {
       return false;
     }
     final IfNode other = (IfNode) obj;
-    return condition.equals(other.condition) && ifBranch.equals(other.ifBranch);
+    return hash == other.hash
+        && condition.equals(other.condition)
+        && ifBranch.equals(other.ifBranch);
   }
 
-  @NotNull
-  String getDotRepresentation() {
-    final StringBuilder dotRepr = new StringBuilder();
-
-    // define children
-    dotRepr.append(condition.getDotRepresentation());
-    dotRepr.append(System.lineSeparator());
-    dotRepr.append(ifBranch.getDotRepresentation());
-    dotRepr.append(System.lineSeparator());
-
-    // define this
-    dotRepr.append(String.format("%d[label=\"IF\"];", hashCode()));
-    dotRepr.append(System.lineSeparator());
-
-    // define links
-    dotRepr.append(String.format("%d -> %d;", hashCode(), condition.getID()));
-    dotRepr.append(System.lineSeparator());
-    dotRepr.append(String.format("%d -> %d;", hashCode(), ifBranch.getID()));
-    dotRepr.append(System.lineSeparator());
+  /** @return a hash of the structure of this subtree that was computed on creation */
+  @Override
+  public int hashCode() {
+    return hash;
+  }
 
-    // return
-    return dotRepr.toString();
+  /** @return an identifier unique in the whole AST */
+  @Override
+  public int getID() {
+    return id;
   }
 
-  /** @return the type of the if branch */
-  boolean hasReturnType(@NotNull final Type type) {
-    return ifBranch.isCompatibleToType(type);
+  @Override
+  public void setID(final int id) {
+    this.id = id;
   }
 
-  @NotNull
-  public List<String> getTypingErrors() {
-    final List<String> errors = condition.getTypingErrors();
-    if (!condition.getReturnedType().equals(Type.BOOLEAN)) {
-      errors.add(
-          String.format(
-              "%s: Condition does not evaluate to boolean in if statement",
-              condition.getPosition()));
-    }
-    errors.addAll(ifBranch.getTypingErrors());
-    return errors;
+  /** Declares this node and the edges to its condition and its branch. */
+  @Override
+  public void appendDotDeclarations(@NotNull final StringBuilder dotRepr) {
+    dotRepr.append(String.format("%d[label=\"IF\"];", getID()));
+    dotRepr.append(System.lineSeparator());
+    DotWriter.appendEdge(dotRepr, getID(), condition.getID());
+    DotWriter.appendEdge(dotRepr, getID(), ifBranch.getID());
   }
 
   public boolean hasReturnStatement() {
@@ -15,6 +15,10 @@ public class ParameterListNode implements AbstractSyntaxTree {
   // ATTRIBUTES
   // ==============================================================
   @NotNull private final List<Expression> parameters;
+  /** identifies this node in the whole AST once its class is numbered; see IdGenerator */
+  private int id;
+  /** the structural hash of this subtree; see hashCode */
+  private final int hash;
 
   // CONSTRUCTORS
   // ==============================================================
@@ -31,6 +35,7 @@ public class ParameterListNode implements AbstractSyntaxTree {
    ***************************************************************/
   public ParameterListNode(@NotNull final List<Expression> parameters) {
     this.parameters = parameters;
+    hash = parameters.hashCode();
   }
 
   // GETTER
@@ -42,11 +47,22 @@ public class ParameterListNode implements AbstractSyntaxTree {
     return parameters;
   }
 
-  /** @return empty list */
+  /** @return an identifier unique in the whole AST */
+  @Override
+  public int getID() {
+    return id;
+  }
+
+  @Override
+  public void setID(final int id) {
+    this.id = id;
+  }
+
+  /** @return the parameters in order */
   @NotNull
   @Override
-  public List<String> getAllErrors() {
-    return new LinkedList<>();
+  public List<? extends AbstractSyntaxTree> getChildren() {
+    return parameters;
   }
 
   /**
@@ -59,6 +75,12 @@ public class ParameterListNode implements AbstractSyntaxTree {
       return false;
     }
     final ParameterListNode other = (ParameterListNode) obj;
-    return parameters.equals(other.parameters);
+    return hash == other.hash && parameters.equals(other.parameters);
+  }
+
+  /** @return a hash of the parameters that was computed on creation */
+  @Override
+  public int hashCode() {
+    return hash;
   }
 }
@@ -1,11 +1,16 @@
 package com.merkrafter.representation.ast;
 
 import com.merkrafter.lexing.Position;
+import com.merkrafter.representation.CallResolver;
 import com.merkrafter.representation.ProcedureDescription;
+import com.merkrafter.representation.ProcedureDescriptionProxy;
 import com.merkrafter.representation.Type;
-import java.util.LinkedList;
+import com.merkrafter.representation.VariableDescription;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /****
  * This AST node represents the call to a procedure or method in a JavaSST program.
@@ -16,9 +21,14 @@ import org.jetbrains.annotations.NotNull;
 public class ProcedureCallNode extends AbstractStatementNode implements Expression {
   // ATTRIBUTES
   // ==============================================================
-  @NotNull private final ProcedureDescription procedure;
+  /** a ProcedureDescriptionProxy until the calls were resolved; never one afterwards */
+  @NotNull private ProcedureDescription procedure;
+  /** the return type of procedure once it is known; null before */
+  @Nullable private Type returnedType;
   @NotNull private final ParameterListNode args;
   @NotNull private final Position position;
+  /** the structural hash of this subtree; see hashCode */
+  private final int hash;
 
   // CONSTRUCTORS
   // ==============================================================
@@ -34,31 +44,60 @@ public class ProcedureCallNode extends AbstractStatementNode implements Expressi
     this.procedure = procedure;
     this.args = args;
     this.position = position;
+    hash = args.hashCode();
   }
 
   // GETTER
   // ==============================================================
 
+  /** @return the called procedure or a proxy if the calls were not resolved yet */
+  @NotNull
+  public ProcedureDescription getProcedure() {
+    return procedure;
+  }
+
+  @NotNull
+  public ParameterListNode getArgs() {
+    return args;
+  }
+
   /**
-   * After evaluating this node, this is the type that is propagated upwards.
+   * After evaluating this node, this is the type that is propagated upwards. A call to an unknown
+   * procedure returns nothing, like an ErrorNode, as the call itself was reported while resolving.
    *
    * @return the return type of this node
    */
   @NotNull
   @Override
   public Type getReturnedType() {
-    final Type returnedType = procedure.getReturnType();
-    // this can only happen if procedure is an unresolved proxy which should be handled before
-    assert returnedType != null;
-    return returnedType;
+    Type type = returnedType;
+    if (type == null) {
+      // a proxy searches its procedure on every call until it is found, hence cache the result
+      type = procedure.getReturnType();
+      if (type == null) {
+        return Type.VOID;
+      }
+      returnedType = type;
+    }
+    return type;
   }
 
+  /** @return the list of arguments */
   @NotNull
   @Override
-  public List<String> getTypingErrors() {
-    final List<String> errors = new LinkedList<>();
+  public List<? extends AbstractSyntaxTree> getChildren() {
+    return Collections.singletonList(args);
+  }
+
+  /** Checks the arguments against the parameters of the procedure. */
+  @Override
+  public void checkNode(
+      @NotNull final List<String> errors, @Nullable final List<String> typingErrors) {
+    if (typingErrors == null) {
+      return;
+    }
     if (procedure.getParamList() == null) {
-      errors.add(
+      typingErrors.add(
           String.format(
               "%s: Could not verify the arguments in call to unknown procedure %s",
               getPosition(), procedure.getName()));
@@ -67,31 +106,24 @@ public class ProcedureCallNode extends AbstractStatementNode implements Expressi
     // the types of call arguments and formal parameters match, but better check this twice
     // in case something changes in the other parts of the program
     else if (args.getParameters().size() != procedure.getParamList().size()) {
-      errors.add(
+      typingErrors.add(
           String.format(
               "%s: Incorrect number of arguments in call to procedure %s",
               getPosition(), procedure.getName()));
     } else {
-      for (int i = 0; i < args.getParameters().size(); i++) {
-        if (!args.getParameters()
-            .get(i)
-            .getReturnedType()
-            .equals(procedure.getParamList().get(i).getType())) {
-          errors.add(
+      // the lists may be linked lists, hence iterate them instead of accessing them by index
+      final Iterator<VariableDescription> params = procedure.getParamList().iterator();
+      int i = 1;
+      for (final Expression argument : args.getParameters()) {
+        if (!argument.getReturnedType().equals(params.next().getType())) {
+          typingErrors.add(
               String.format(
                   "%s: Type mismatch in arg #%d in call to procedure %s",
-                  args.getParameters().get(i).getPosition(), i + 1, procedure.getName()));
+                  argument.getPosition(), i, procedure.getName()));
         }
+        i++;
       }
     }
-    return errors;
-  }
-
-  /** @return a list of all errors, both semantic and syntactical ones. */
-  @NotNull
-  @Override
-  public List<String> getAllErrors() {
-    return collectErrorsFrom(args, getNext());
   }
 
   /**
@@ -104,31 +136,38 @@ public class ProcedureCallNode extends AbstractStatementNode implements Expressi
       return false;
     }
     final ProcedureCallNode other = (ProcedureCallNode) obj;
-    return procedure.equals(other.procedure) && args.equals(other.args);
+    return hash == other.hash && procedure.equals(other.procedure) && args.equals(other.args);
   }
 
+  /**
+   * The procedure is not included, as resolving the call replaces it.
+   *
+   * @return a hash of the arguments that was computed on creation
+   */
   @Override
-  public int getID() {
-    return procedure.getID();
+  public int hashCode() {
+    return hash;
   }
 
-  /** @return dot/graphviz declarations of this component's children */
-  @NotNull
+  /** Declares this node and the edges to its arguments and the next statement. */
   @Override
-  public String getDotRepresentation() {
-    final StringBuilder dotRepr = new StringBuilder(super.getDotRepresentation());
+  public void appendDotDeclarations(@NotNull final StringBuilder dotRepr) {
+    dotRepr.append(String.format("%d[label=\"%s\"];", getID(), procedure.getName()));
     dotRepr.append(System.lineSeparator());
-
-    // define this node
-    dotRepr.append(String.format("%d[label=\"%s\"];", procedure.getID(), procedure.getName()));
-
-    // define links to next
-    if (getNext() != null) {
-      dotRepr.append(String.format("%d -> %d;", getID(), getNext().getID()));
-      dotRepr.append(System.lineSeparator());
+    for (final Expression argument : args.getParameters()) {
+      DotWriter.appendEdge(dotRepr, getID(), argument.getID());
     }
+    appendEdgeToNext(dotRepr);
+  }
 
-    return dotRepr.toString();
+  /**
+   * Returns the declarations of this call and of the statements after it. Calls are statements as
+   * well as expressions, hence this must be chosen explicitly.
+   */
+  @NotNull
+  @Override
+  public String getDotRepresentation() {
+    return Expression.super.getDotRepresentation();
   }
 
   @NotNull
@@ -136,4 +175,30 @@ public class ProcedureCallNode extends AbstractStatementNode implements Expressi
   public Position getPosition() {
     return position;
   }
+
+  /** Resolves the variables of the arguments and of the statements after this call. */
+  @Override
+  public void resolveVariables(final int level) {
+    Expression.super.resolveVariables(level);
+  }
+
+  /** Resolves this call, its arguments and the calls in the statements after it. */
+  @Override
+  public void resolveProcedureCalls(@NotNull final CallResolver resolver) {
+    Expression.super.resolveProcedureCalls(resolver);
+  }
+
+  // package-private methods
+  // --------------------------------------------------------------
+
+  /**
+   * Resolves this call with the given resolver. The arguments must have been resolved before, as
+   * their types are needed to find the procedure. This node refers to the procedure or, if it is
+   * unknown, to its description directly from now on instead of the proxy.
+   */
+  void resolve(@NotNull final CallResolver resolver) {
+    if (procedure instanceof ProcedureDescriptionProxy) {
+      procedure = ((ProcedureDescriptionProxy) procedure).resolve(resolver);
+    }
+  }
 }
@@ -2,6 +2,7 @@ package com.merkrafter.representation.ast;
 
 import com.merkrafter.lexing.Position;
 import com.merkrafter.representation.Type;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import org.jetbrains.annotations.NotNull;
@@ -18,6 +19,8 @@ public class ReturnNode extends AbstractStatementNode {
   // ==============================================================
   @Nullable private final Expression expression;
   @NotNull private final Position position;
+  /** the structural hash of this subtree; see hashCode */
+  private final int hash;
 
   // CONSTRUCTORS
   // ==============================================================
@@ -35,6 +38,7 @@ public class ReturnNode extends AbstractStatementNode {
   public ReturnNode(@Nullable final Expression expression, @NotNull final Position position) {
     this.expression = expression;
     this.position = position;
+    hash = Objects.hashCode(expression);
   }
 
   // GETTER
@@ -49,11 +53,26 @@ public class ReturnNode extends AbstractStatementNode {
     return expression.getReturnedType();
   }
 
-  /** @return a list of all errors, both semantic and syntactical ones. */
+  /** @return the returned expression if there is one */
   @NotNull
   @Override
-  public List<String> getAllErrors() {
-    return collectErrorsFrom(expression, getNext());
+  public List<? extends AbstractSyntaxTree> getChildren() {
+    if (expression == null) {
+      return Collections.emptyList();
+    }
+    return Collections.singletonList(expression);
+  }
+
+  /** Checks whether the returned expression has a value. */
+  @Override
+  public void checkNode(
+      @NotNull final List<String> errors, @Nullable final List<String> typingErrors) {
+    if (typingErrors != null
+        && expression != null
+        && expression.getReturnedType().equals(Type.VOID)) {
+      typingErrors.add(
+          String.format("%s: Returning void value is not allowed", expression.getPosition()));
+    }
   }
 
   /** Two ReturnNodes are considered equal if their expressions are equal to each other. */
@@ -63,34 +82,30 @@ public class ReturnNode extends AbstractStatementNode {
       return false;
     }
     final ReturnNode other = (ReturnNode) obj;
-    return Objects.equals(expression, other.expression);
+    return hash == other.hash && Objects.equals(expression, other.expression);
   }
 
-  /** @return dot/graphviz declarations of this component's children */
-  @NotNull
+  /** @return a hash of the structure of this subtree that was computed on creation */
   @Override
-  public String getDotRepresentation() {
-    final StringBuilder dotRepr = new StringBuilder(super.getDotRepresentation());
-    dotRepr.append(System.lineSeparator());
+  public int hashCode() {
+    return hash;
+  }
 
-    // define this
+  /** Declares this node and the edges to its expression and the next statement. */
+  @Override
+  public void appendDotDeclarations(@NotNull final StringBuilder dotRepr) {
     dotRepr.append(String.format("%d[label=\"RETURN\"];", getID()));
     dotRepr.append(System.lineSeparator());
-
-    // define child
-    // define links
     if (expression != null) {
-      dotRepr.append(expression.getDotRepresentation());
-      dotRepr.append(System.lineSeparator());
-      dotRepr.append(String.format("%d -> %d;", getID(), expression.getID()));
-      dotRepr.append(System.lineSeparator());
-    }
-    if (getNext() != null) {
-      dotRepr.append(String.format("%d -> %d;", getID(), getNext().getID()));
-      dotRepr.append(System.lineSeparator());
+      DotWriter.appendEdge(dotRepr, getID(), expression.getID());
     }
+    appendEdgeToNext(dotRepr);
+  }
 
-    return dotRepr.toString();
+  /** @return false, as no statement after a return statement is executed */
+  @Override
+  boolean dependsOnNext() {
+    return false;
   }
 
   /** @return true */
@@ -110,17 +125,6 @@ public class ReturnNode extends AbstractStatementNode {
     return getReturnedType().equals(type);
   }
 
-  @NotNull
-  @Override
-  public List<String> getTypingErrors() {
-    final List<String> errors = super.getTypingErrors();
-    if (expression != null && expression.getReturnedType().equals(Type.VOID)) {
-      errors.add(
-          String.format("%s: Returning void value is not allowed", expression.getPosition()));
-    }
-    return errors;
-  }
-
   @NotNull
   @Override
   public Position getPosition() {
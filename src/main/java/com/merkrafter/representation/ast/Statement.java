@@ -1,9 +1,9 @@
 package com.merkrafter.representation.ast;
 
 import com.merkrafter.lexing.Locatable;
+import com.merkrafter.representation.CallResolver;
 import com.merkrafter.representation.Type;
 import com.merkrafter.representation.graphical.GraphicalComponent;
-import java.util.List;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -26,6 +26,13 @@ public interface Statement extends AbstractSyntaxTree, GraphicalComponent, Locat
   /** sets the next statement that comes after this one */
   void setNext(@Nullable Statement next);
 
+  /** @return dot/graphviz declarations of this statement sequence and all its children */
+  @NotNull
+  @Override
+  default String getDotRepresentation() {
+    return DotWriter.write(this);
+  }
+
   /** @return whether there is a return statement in this statement sequence */
   boolean hasReturnStatement();
 
@@ -34,6 +41,23 @@ public interface Statement extends AbstractSyntaxTree, GraphicalComponent, Locat
    */
   boolean isCompatibleToType(@NotNull Type type);
 
-  @NotNull
-  List<String> getTypingErrors();
+  /**
+   * Annotates all variable accesses in this statement sequence with the scope depth and slot of
+   * their variables. The slots must have been assigned before.
+   *
+   * @param level the nesting level of the scope the statements are located in
+   */
+  default void resolveVariables(final int level) {
+    AstWalker.walk(this, new VariableResolver(level));
+  }
+
+  /**
+   * Resolves all procedure calls in this statement sequence with the given resolver. Afterwards,
+   * the calls refer to the procedures directly instead of to proxies.
+   *
+   * @param resolver the resolver of the class the statements are located in
+   */
+  default void resolveProcedureCalls(@NotNull final CallResolver resolver) {
+    AstWalker.walk(this, new CallResolvingVisitor(resolver));
+  }
 }
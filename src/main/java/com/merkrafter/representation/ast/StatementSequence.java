@@ -0,0 +1,130 @@
+package com.merkrafter.representation.ast;
+
+import com.merkrafter.lexing.Position;
+import java.util.Arrays;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/****
+ * This AST node represents a sequence of statements that are executed one after the other, like a
+ * method body or the block of an if or while statement. The statements are stored in an array
+ * instead of being linked to each other, hence they can be accessed by their index and passes
+ * iterate over them in a loop.
+ * <p>
+ * The statements of a sequence must not be linked to following statements; the sequence itself
+ * may be, though. The flow analysis treats the statements of a sequence as if they were linked to
+ * each other and to the statement after the sequence.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+public class StatementSequence extends AbstractStatementNode {
+  // ATTRIBUTES
+  // ==============================================================
+  @NotNull private final Statement[] statements;
+  /** the structural hash of this subtree; see hashCode */
+  private final int hash;
+
+  // CONSTRUCTORS
+  // ==============================================================
+
+  /****
+   * Creates a new StatementSequence from the given statements which must not be empty.
+   ***************************************************************/
+  public StatementSequence(@NotNull final List<? extends Statement> statements) {
+    if (statements.isEmpty()) {
+      throw new IllegalArgumentException("a statement sequence must not be empty");
+    }
+    this.statements = statements.toArray(new Statement[0]);
+    for (final Statement statement : this.statements) {
+      assert statement.getNext() == null : "the statements of a sequence must not be linked";
+    }
+    hash = Arrays.hashCode(this.statements);
+  }
+
+  /**
+   * Creates a node for the given statements. No sequence is created for a single statement, as it
+   * would only add a level of indirection.
+   *
+   * @return null if there are no statements, the statement if there is one, and a sequence else
+   */
+  @Nullable
+  public static Statement of(@NotNull final List<? extends Statement> statements) {
+    switch (statements.size()) {
+      case 0:
+        return null;
+      case 1:
+        return statements.get(0);
+      default:
+        return new StatementSequence(statements);
+    }
+  }
+
+  // GETTER
+  // ==============================================================
+
+  /** @return the position of the first statement */
+  @NotNull
+  @Override
+  public Position getPosition() {
+    return statements[0].getPosition();
+  }
+
+  /** @return the number of statements in this sequence, without the statements after it */
+  public int size() {
+    return statements.length;
+  }
+
+  /** @return the statement at the given index */
+  @NotNull
+  public Statement get(final int index) {
+    return statements[index];
+  }
+
+  /** @return the statements of this sequence in the order they are executed */
+  @NotNull
+  @Override
+  public List<? extends AbstractSyntaxTree> getChildren() {
+    return Arrays.asList(statements);
+  }
+
+  /** Two StatementSequences are considered equal if their statements are equal respectively. */
+  @Override
+  public boolean equals(@Nullable final Object obj) {
+    if (!(obj instanceof StatementSequence)) {
+      return false;
+    }
+    final StatementSequence other = (StatementSequence) obj;
+    return hash == other.hash && Arrays.equals(statements, other.statements);
+  }
+
+  /** @return a hash of the structure of this subtree that was computed on creation */
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  /** Declares this node and the edges to the next statement and all of its statements. */
+  @Override
+  public void appendDotDeclarations(@NotNull final StringBuilder dotRepr) {
+    dotRepr.append(String.format("%d[label=%s];", getID(), "SEQUENCE"));
+    dotRepr.append(System.lineSeparator());
+    appendEdgeToNext(dotRepr);
+    for (final Statement statement : statements) {
+      DotWriter.appendEdge(dotRepr, getID(), statement.getID());
+    }
+  }
+
+  /** @return the flow of the statements of this sequence, followed by the next statements */
+  @NotNull
+  @Override
+  FlowAnalysis.Flow precede(
+      @NotNull final FlowAnalysis.Flow next, @NotNull final FlowAnalysis analysis) {
+    FlowAnalysis.Flow flow = next;
+    for (int i = statements.length - 1; i >= 0; i--) {
+      flow = analysis.precede(statements[i], flow);
+    }
+    return flow;
+  }
+}
@@ -3,8 +3,6 @@ package com.merkrafter.representation.ast;
 import com.merkrafter.lexing.Position;
 import com.merkrafter.representation.Type;
 import com.merkrafter.representation.VariableDescription;
-import java.util.LinkedList;
-import java.util.List;
 import org.jetbrains.annotations.NotNull;
 
 /****
@@ -18,6 +16,12 @@ public class VariableAccessNode implements Expression {
   // ==============================================================
   @NotNull private final VariableDescription variableDescription;
   @NotNull private final Position position;
+  /** identifies this node in the whole AST once its class is numbered; see IdGenerator */
+  private int id;
+  /** how many scopes the variable is declared outside of the access; -1 until resolved */
+  private int depth = -1;
+  /** the structural hash of this subtree; see hashCode */
+  private final int hash;
 
   // CONSTRUCTORS
   // ==============================================================
@@ -29,6 +33,7 @@ public class VariableAccessNode implements Expression {
       @NotNull final VariableDescription variableDescription, @NotNull final Position position) {
     this.variableDescription = variableDescription;
     this.position = position;
+    hash = variableDescription.hashCode();
   }
 
   // GETTER
@@ -45,28 +50,35 @@ public class VariableAccessNode implements Expression {
     return variableDescription.getType();
   }
 
-  /** @return empty list */
-  @NotNull
-  @Override
-  public List<String> getTypingErrors() {
-    return new LinkedList<>();
-  }
-
   /** Returns whether the underlying variable is a constant. */
   boolean isConstant() {
     return variableDescription.isConstant();
   }
 
+  /** @return the variable that is accessed */
+  @NotNull
+  VariableDescription getVariableDescription() {
+    return variableDescription;
+  }
+
   @NotNull
   public String getName() {
     return variableDescription.getName();
   }
 
-  /** @return empty list */
-  @NotNull
-  @Override
-  public List<String> getAllErrors() {
-    return new LinkedList<>();
+  /**
+   * Returns how many scopes have to be left from the location of this access to reach the scope of
+   * the variable: 0 for parameters and local variables, 1 for fields of the class.
+   *
+   * @return the scope depth or -1 if this access was not resolved yet
+   */
+  public int getDepth() {
+    return depth;
+  }
+
+  /** @return the index of the variable in the storage of its scope or -1 if unknown */
+  public int getSlot() {
+    return variableDescription.getSlot();
   }
 
   /**
@@ -79,20 +91,38 @@ public class VariableAccessNode implements Expression {
       return false;
     }
     final VariableAccessNode other = (VariableAccessNode) obj;
-    return variableDescription.equals(other.variableDescription);
+    return hash == other.hash && variableDescription.equals(other.variableDescription);
+  }
+
+  /** @return a hash of the structure of this subtree that was computed on creation */
+  @Override
+  public int hashCode() {
+    return hash;
   }
 
   /** @return an identifier unique in the whole AST */
   @Override
   public int getID() {
-    return hashCode();
+    return id;
   }
 
-  /** @return dot/graphviz declarations of this component's children */
-  @NotNull
   @Override
-  public String getDotRepresentation() {
-    return String.format("%d[label=\"VAR%s%s\"];", getID(), System.lineSeparator(), getName());
+  public void setID(final int id) {
+    this.id = id;
+  }
+
+  /** Declares this node with the name of the variable. */
+  @Override
+  public void appendDotDeclarations(@NotNull final StringBuilder dotRepr) {
+    dotRepr.append(
+        String.format("%d[label=\"VAR%s%s\"];", getID(), System.lineSeparator(), getName()));
+    dotRepr.append(System.lineSeparator());
+  }
+
+  /** Computes the scope depth from the nesting level of the variable's scope. */
+  void resolve(final int level) {
+    final int scopeLevel = variableDescription.getScopeLevel();
+    depth = scopeLevel < 0 ? -1 : level - scopeLevel;
   }
 
   @NotNull
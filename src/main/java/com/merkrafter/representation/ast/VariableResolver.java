@@ -0,0 +1,36 @@
+package com.merkrafter.representation.ast;
+
+import org.jetbrains.annotations.NotNull;
+
+/****
+ * This visitor annotates all variable accesses with the scope depth of their variables.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+final class VariableResolver implements AstVisitor {
+  // ATTRIBUTES
+  // ==============================================================
+  /** the nesting level of the scope the visited nodes are located in */
+  private final int level;
+
+  // CONSTRUCTORS
+  // ==============================================================
+
+  VariableResolver(final int level) {
+    this.level = level;
+  }
+
+  // METHODS
+  // ==============================================================
+  // public methods
+  // --------------------------------------------------------------
+
+  @Override
+  public boolean enter(@NotNull final AbstractSyntaxTree node) {
+    if (node instanceof VariableAccessNode) {
+      ((VariableAccessNode) node).resolve(level);
+    }
+    return true;
+  }
+}
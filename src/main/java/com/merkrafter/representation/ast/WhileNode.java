@@ -2,8 +2,10 @@ package com.merkrafter.representation.ast;
 
 import com.merkrafter.lexing.Position;
 import com.merkrafter.representation.Type;
+import java.util.Arrays;
 import java.util.List;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /****
  * This AST node represents a while construct. It is very similar to the IfNode but can not
@@ -18,6 +20,8 @@ public class WhileNode extends AbstractStatementNode {
   @NotNull private final Expression condition;
   @NotNull private final Statement loopBody;
   @NotNull private final Position position;
+  /** the structural hash of this subtree; see hashCode */
+  private final int hash;
 
   // CONSTRUCTORS
   // ==============================================================
@@ -34,6 +38,7 @@ public class WhileNode extends AbstractStatementNode {
     this.condition = condition;
     this.loopBody = loopBody;
     this.position = position;
+    hash = 31 * condition.hashCode() + loopBody.hashCode();
   }
 
   // GETTER
@@ -45,11 +50,23 @@ public class WhileNode extends AbstractStatementNode {
     return position;
   }
 
-  /** @return a list of all errors, both semantic and syntactical ones. */
+  /** @return the condition and the first statement of the loop body */
   @NotNull
   @Override
-  public List<String> getAllErrors() {
-    return collectErrorsFrom(condition, loopBody, getNext());
+  public List<? extends AbstractSyntaxTree> getChildren() {
+    return Arrays.asList(condition, loopBody);
+  }
+
+  /** Checks whether the condition evaluates to a boolean. */
+  @Override
+  public void checkNode(
+      @NotNull final List<String> errors, @Nullable final List<String> typingErrors) {
+    if (typingErrors != null && !condition.getReturnedType().equals(Type.BOOLEAN)) {
+      typingErrors.add(
+          String.format(
+              "%s: Condition does not evaluate to boolean in if statement",
+              condition.getPosition()));
+    }
   }
 
   /**
@@ -62,65 +79,40 @@ public class WhileNode extends AbstractStatementNode {
       return false;
     }
     final WhileNode other = (WhileNode) obj;
-    return condition.equals(other.condition) && loopBody.equals(other.loopBody);
+    return hash == other.hash
+        && condition.equals(other.condition)
+        && loopBody.equals(other.loopBody);
   }
 
-  /** @return dot/graphviz declarations of this component's children */
-  @NotNull
+  /** @return a hash of the structure of this subtree that was computed on creation */
   @Override
-  public String getDotRepresentation() {
-    final StringBuilder dotRepr = new StringBuilder(super.getDotRepresentation());
-    dotRepr.append(System.lineSeparator());
-
-    // define children
-    dotRepr.append(condition.getDotRepresentation());
-    dotRepr.append(System.lineSeparator());
-    dotRepr.append(loopBody.getDotRepresentation());
-    dotRepr.append(System.lineSeparator());
-
-    // define this
-    dotRepr.append(String.format("%d[label=%s];", getID(), "WHILE"));
-    dotRepr.append(System.lineSeparator());
-
-    // define links
-    dotRepr.append(String.format("%d -> %d;", getID(), condition.getID()));
-    dotRepr.append(System.lineSeparator());
-    if (getNext() != null) {
-      dotRepr.append(String.format("%d -> %d;", getID(), getNext().getID()));
-      dotRepr.append(System.lineSeparator());
-    }
-    dotRepr.append(String.format("%d -> %d;", getID(), loopBody.getID()));
-    dotRepr.append(System.lineSeparator());
-
-    // return
-    return dotRepr.toString();
+  public int hashCode() {
+    return hash;
   }
 
-  @NotNull
+  /** Declares this node and the edges to its condition, the next statement and its loop body. */
   @Override
-  public List<String> getTypingErrors() {
-    final List<String> errors = super.getTypingErrors();
-    errors.addAll(condition.getTypingErrors());
-    if (!condition.getReturnedType().equals(Type.BOOLEAN)) {
-      errors.add(
-          String.format(
-              "%s: Condition does not evaluate to boolean in if statement",
-              condition.getPosition()));
-    }
-    errors.addAll(loopBody.getTypingErrors());
-    return errors;
+  public void appendDotDeclarations(@NotNull final StringBuilder dotRepr) {
+    dotRepr.append(String.format("%d[label=%s];", getID(), "WHILE"));
+    dotRepr.append(System.lineSeparator());
+    DotWriter.appendEdge(dotRepr, getID(), condition.getID());
+    appendEdgeToNext(dotRepr);
+    DotWriter.appendEdge(dotRepr, getID(), loopBody.getID());
   }
 
   /** @return whether statements inside AND after the loop comply */
+  @NotNull
   @Override
-  public boolean isCompatibleToType(final @NotNull Type type) {
+  FlowAnalysis.Flow precede(
+      @NotNull final FlowAnalysis.Flow next, @NotNull final FlowAnalysis analysis) {
     /*
      * As it is not certain that the loop body will be executed, the next statements after the
      * loop must comply either way.
      * If the loop body does not comply, this could mean it lacks a return statement (which
      * would be okay) or has a return statement with an incompatible type, which must be caught.
      */
-    return super.isCompatibleToType(type)
-        && (loopBody.isCompatibleToType(type) || !loopBody.hasReturnStatement());
+    final FlowAnalysis.Flow body = analysis.getFlow(loopBody);
+    return new FlowAnalysis.Flow(
+        next.getTypeMask() & body.getTypesWithoutConflict(), next.alwaysReturns());
   }
 }
@@ -19,6 +19,13 @@ public interface GraphicalComponent {
   /** @return an identifier unique in the whole AST */
   int getID();
 
+  /**
+   * Sets the identifier of this component. This is done when its class is numbered.
+   *
+   * @param id an identifier unique in the whole AST
+   */
+  void setID(int id);
+
   /** @return dot/graphviz declarations of this component's children */
   String getDotRepresentation();
 }
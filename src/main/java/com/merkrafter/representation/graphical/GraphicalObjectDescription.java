@@ -13,6 +13,8 @@ public class GraphicalObjectDescription implements GraphicalComponent {
   // ATTRIBUTES
   // ==============================================================
   private final ObjectDescription objectDescription;
+  /** identifies this component in the whole AST once its class is numbered; see IdGenerator */
+  private int id;
 
   // CONSTRUCTORS
   // ==============================================================
@@ -32,7 +34,12 @@ public class GraphicalObjectDescription implements GraphicalComponent {
   /** @return an identifier unique in the whole AST */
   @Override
   public int getID() {
-    return hashCode();
+    return id;
+  }
+
+  @Override
+  public void setID(final int id) {
+    this.id = id;
   }
 
   /** @return the dot/graphviz declaration of this component */
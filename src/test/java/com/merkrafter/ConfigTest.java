@@ -5,6 +5,8 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import com.merkrafter.config.CompilerStage;
 import com.merkrafter.config.Config;
+import com.merkrafter.parsing.ParsingMode;
+import java.util.Arrays;
 import net.sourceforge.argparse4j.inf.ArgumentParserException;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
@@ -38,6 +40,66 @@ class ConfigTest {
     assertEquals(expectedVerbosity, actualConfig.isVerbose());
   }
 
+  /**
+   * The fromArgs method should accept multiple input files and keep their order. The first one
+   * should still be available as the input file.
+   *
+   * @throws ArgumentParserException if the arguments can not be parsed; should not happen
+   */
+  @Test
+  void parseMultipleInputFiles() throws ArgumentParserException {
+    final String[] args = fromString("A.java B.java C.java --verbose");
+    final Config actualConfig = Config.fromArgs(args);
+
+    assertEquals("A.java", actualConfig.getInputFile());
+    assertEquals(Arrays.asList("A.java", "B.java", "C.java"), actualConfig.getInputFiles());
+    assertTrue(actualConfig.isVerbose());
+  }
+
+  /**
+   * The fromArgs method should collect all libraries in order and the index file to write. Without
+   * these options, there should be no libraries and no index file.
+   *
+   * @throws ArgumentParserException if the arguments can not be parsed; should not happen
+   */
+  @Test
+  void parseIndexOptions() throws ArgumentParserException {
+    final Config actualConfig =
+        Config.fromArgs(fromString("A.java -L x.mkpi --library y.mkpi --write-index a.mkpi"));
+    final Config defaultConfig = Config.fromArgs(fromString("A.java"));
+
+    assertEquals(Arrays.asList("x.mkpi", "y.mkpi"), actualConfig.getLibraries());
+    assertEquals("a.mkpi", actualConfig.getIndexFile());
+    assertTrue(defaultConfig.getLibraries().isEmpty());
+    assertNull(defaultConfig.getIndexFile());
+  }
+
+  /**
+   * The number of threads should be read from both the short and the long option, default to 1
+   * and be at least 1.
+   *
+   * @throws ArgumentParserException if the valid arguments can not be parsed; should not happen
+   */
+  @Test
+  void parseThreads() throws ArgumentParserException {
+    assertEquals(1, Config.fromArgs(fromString("A.java")).getThreads());
+    assertEquals(4, Config.fromArgs(fromString("A.java -j 4")).getThreads());
+    assertEquals(8, Config.fromArgs(fromString("--threads 8 A.java")).getThreads());
+    assertThrows(ArgumentParserException.class, () -> Config.fromArgs(fromString("A.java -j 0")));
+  }
+
+  /**
+   * The fromArgs method should detect whether expressions should be shared, which is off by
+   * default.
+   *
+   * @throws ArgumentParserException if the arguments can not be parsed; should not happen
+   */
+  @Test
+  void parseShareExpressions() throws ArgumentParserException {
+    assertFalse(Config.fromArgs(fromString("A.java")).isSharingExpressions());
+    assertTrue(Config.fromArgs(fromString("A.java --share-expressions")).isSharingExpressions());
+  }
+
   /**
    * The fromArgs method should be able to detect the verbosity flag being set, independent of
    * whether the long or short argument was used or whether it was specified before or after the
@@ -143,6 +205,23 @@ class ConfigTest {
     assertEquals(expectedStage, actualConfig.getStage());
   }
 
+  /**
+   * The fromArgs method should be able to extract the compiler stage "syntax_checking" while
+   * ignoring the case.
+   *
+   * @throws ArgumentParserException if the arguments can not be parsed; should not happen
+   */
+  @ParameterizedTest
+  @ValueSource(strings = {"syntax_checking", "SYNTAX_CHECKING", "Syntax_Checking"})
+  void skipAfterSyntaxChecking(final String spelling) throws ArgumentParserException {
+    final String[] args = fromString(String.format("--skip-after %s Test.java", spelling));
+    final Config actualConfig = Config.fromArgs(args);
+
+    final CompilerStage expectedStage = CompilerStage.SYNTAX_CHECKING;
+
+    assertEquals(expectedStage, actualConfig.getStage());
+  }
+
   /**
    * The fromArgs method should set the latest compiler stage correctly when it is not specified
    * explicitly.
@@ -180,4 +259,31 @@ class ConfigTest {
     assertEquals(expectedInputFilename, actualConfig.getInputFile());
     assertEquals(expectedGraphical, actualConfig.isGraphical());
   }
+
+  /**
+   * The fromArgs method should be able to detect the parallel parsing mode, independent of the
+   * capitalization.
+   *
+   * @throws ArgumentParserException if the arguments can not be parsed; should not happen
+   */
+  @ParameterizedTest
+  @ValueSource(strings = {"parallel", "PARALLEL", "Parallel"})
+  void parseParallelParsingMode(@NotNull final String spelling) throws ArgumentParserException {
+    final String[] args = fromString(String.format("--parsing-mode %s Test.java", spelling));
+    final Config actualConfig = Config.fromArgs(args);
+
+    assertEquals(ParsingMode.PARALLEL, actualConfig.getParsingMode());
+  }
+
+  /**
+   * The fromArgs method should parse method bodies sequentially when no parsing mode is given.
+   *
+   * @throws ArgumentParserException if the arguments can not be parsed; should not happen
+   */
+  @Test
+  void defaultParsingMode() throws ArgumentParserException {
+    final Config actualConfig = Config.fromArgs(fromString("Test.java"));
+
+    assertEquals(ParsingMode.SEQUENTIAL, actualConfig.getParsingMode());
+  }
 }
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 import com.merkrafter.config.CompilerStage;
 import com.merkrafter.config.Config;
+import com.merkrafter.parsing.ParsingMode;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
@@ -159,6 +160,39 @@ class MerkompilerRunTest {
     }
   }
 
+  /**
+   * This test case runs the lexer and recognizer on the correct file(s) given by ValueSource. As
+   * there are no syntax errors, nothing should be written to stderr.
+   *
+   * @param baseFileName is used to find the source file name
+   * @throws ArgumentParserException if the arguments in the test case are misconfigured (should not
+   *     happen)
+   * @throws IOException if there is a read/write error in the input file
+   */
+  @ParameterizedTest
+  @ValueSource(strings = "SmokeClass")
+  void syntaxCheckCorrectClass(@NotNull final String baseFileName)
+      throws ArgumentParserException, IOException {
+    final PrintStream originalErr = System.err;
+    try { // will reset System.err in case of crashes
+      final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+      final File inputFile = getFileFromResource(baseFileName + INPUT_FILE_SUFFIX);
+      System.setErr(new PrintStream(output));
+
+      final Config config =
+          Config.fromArgs(
+              String.format(
+                  "--skip-after %s %s",
+                  CompilerStage.SYNTAX_CHECKING.toString(), inputFile.getAbsolutePath()));
+      Merkompiler.run(config);
+
+      assertTrue(output.toString().trim().isEmpty());
+    } finally {
+      System.setErr(originalErr); // reset System.err even in case of crashes
+    }
+  }
+
   public File[] getFaultyFiles() {
     final File errorCaseFolder = getFileFromResource("error_cases");
     assert errorCaseFolder.isDirectory();
@@ -203,6 +237,125 @@ class MerkompilerRunTest {
     }
   }
 
+  /**
+   * Calls to procedures that are declared nowhere should be reported while linking the classes.
+   *
+   * @throws ArgumentParserException if the arguments in the test case are misconfigured (should not
+   *     happen)
+   * @throws IOException if there is a read/write error in the input file
+   */
+  @ParameterizedTest
+  @ValueSource(strings = "UndefinedProcedure")
+  void parseReportsUnresolvedCalls(@NotNull final String baseFileName)
+      throws ArgumentParserException, IOException {
+    final PrintStream originalErr = System.err;
+    try { // will reset System.err in case of crashes
+      final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+      final File inputFile = getFileFromResource("error_cases/" + baseFileName + INPUT_FILE_SUFFIX);
+      System.setErr(new PrintStream(output));
+
+      final Config config =
+          Config.fromArgs(
+              String.format(
+                  "--skip-after %s %s",
+                  CompilerStage.PARSING.toString(), inputFile.getAbsolutePath()));
+      Merkompiler.run(config);
+
+      assertTrue(output.toString().contains("Call to unknown procedure println(INT)"));
+    } finally {
+      System.setErr(originalErr); // reset System.err even in case of crashes
+    }
+  }
+
+  /**
+   * A class with calls that could not be linked should not be checked any further, as the types of
+   * these calls are unknown. Hence, only the calls themselves should be reported.
+   *
+   * @throws ArgumentParserException if the arguments in the test case are misconfigured (should not
+   *     happen)
+   * @throws IOException if there is a read/write error in the input file
+   */
+  @ParameterizedTest
+  @ValueSource(strings = "UndefinedProcedureInExpression")
+  void parseSkipsChecksOfUnlinkedClass(@NotNull final String baseFileName)
+      throws ArgumentParserException, IOException {
+    final PrintStream originalErr = System.err;
+    try { // will reset System.err in case of crashes
+      final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+      final File inputFile = getFileFromResource("error_cases/" + baseFileName + INPUT_FILE_SUFFIX);
+      System.setErr(new PrintStream(output));
+
+      final Config config =
+          Config.fromArgs(
+              String.format(
+                  "--skip-after %s %s",
+                  CompilerStage.PARSING.toString(), inputFile.getAbsolutePath()));
+      Merkompiler.run(config);
+
+      final String[] messages = output.toString().trim().split("\\R");
+      assertEquals(2, messages.length);
+      for (final String message : messages) {
+        assertTrue(message.contains("Call to unknown procedure g(INT)"), message);
+      }
+    } finally {
+      System.setErr(originalErr); // reset System.err even in case of crashes
+    }
+  }
+
+  /**
+   * A syntax error in a procedure body should be reported the same way, no matter whether the body
+   * is parsed together with the class or lazily on first use.
+   *
+   * @throws ArgumentParserException if the arguments in the test case are misconfigured (should not
+   *     happen)
+   * @throws IOException if there is a read/write error in the input file
+   */
+  @ParameterizedTest
+  @ValueSource(strings = {"SyntaxErrorInProcedureBody", "MissingSemicolonInProcedure"})
+  void parseLazilyReportsSameErrors(@NotNull final String baseFileName)
+      throws ArgumentParserException, IOException {
+    final File inputFile = getFileFromResource("error_cases/" + baseFileName + INPUT_FILE_SUFFIX);
+
+    final String sequentialErrors = runParser(inputFile, ParsingMode.SEQUENTIAL);
+    final String lazyErrors = runParser(inputFile, ParsingMode.LAZY);
+
+    assertFalse(sequentialErrors.isEmpty());
+    assertEquals(sequentialErrors, lazyErrors);
+  }
+
+  /**
+   * Runs the compiler up to the parsing stage on the given file and returns what it writes to
+   * stderr.
+   *
+   * @param inputFile the file to compile
+   * @param mode how method bodies are parsed
+   * @return the error messages
+   * @throws ArgumentParserException if the arguments are misconfigured (should not happen)
+   * @throws IOException if there is a read/write error in the input file
+   */
+  @NotNull
+  private static String runParser(@NotNull final File inputFile, @NotNull final ParsingMode mode)
+      throws ArgumentParserException, IOException {
+    final PrintStream originalErr = System.err;
+    try { // will reset System.err in case of crashes
+      final ByteArrayOutputStream output = new ByteArrayOutputStream();
+      System.setErr(new PrintStream(output));
+
+      final Config config =
+          Config.fromArgs(
+              String.format(
+                  "--skip-after %s --parsing-mode %s %s",
+                  CompilerStage.PARSING.toString(), mode.toString(), inputFile.getAbsolutePath()));
+      Merkompiler.run(config);
+
+      return output.toString().trim();
+    } finally {
+      System.setErr(originalErr); // reset System.err even in case of crashes
+    }
+  }
+
   /**
    * Reads the given file using this class's class loader, checks for its existence and finally
    * returns it.
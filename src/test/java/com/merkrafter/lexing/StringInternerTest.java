@@ -0,0 +1,87 @@
+package com.merkrafter.lexing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+class StringInternerTest {
+
+  /** Equal characters from different sources should result in the same String. */
+  @Test
+  void internEqualIdentifiers() {
+    final String first = StringInterner.intern(new StringBuilder("result"));
+    final String second = StringInterner.intern(new StringBuilder("res").append("ult"));
+
+    assertEquals("result", first);
+    assertSame(first, second);
+  }
+
+  /** Identifiers of different scanners should share their Strings. */
+  @Test
+  void shareIdentifiersBetweenScanners() {
+    final IdentToken first = (IdentToken) scanFirst("counter = 1;");
+    final IdentToken second = (IdentToken) scanFirst("counter + 2");
+
+    assertSame(first.getIdent(), second.getIdent());
+  }
+
+  /**
+   * The interned Strings should always have the requested contents, even if many different names
+   * compete for the slots or are longer than interned names can be.
+   */
+  @Test
+  void keepContentsWhenSlotsAreReplaced() {
+    final StringBuilder longName = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      longName.append('a');
+    }
+    assertEquals(longName.toString(), StringInterner.intern(longName));
+    for (int i = 0; i < 100_000; i++) {
+      final String name = "v" + i;
+      assertEquals(name, StringInterner.intern(new StringBuilder(name)));
+    }
+  }
+
+  /** Interning from many threads at once should always return Strings with correct contents. */
+  @Test
+  void internConcurrently() throws InterruptedException, ExecutionException {
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<Boolean>> futures = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        futures.add(
+            executor.submit(
+                () -> {
+                  for (int i = 0; i < 50_000; i++) {
+                    final String name = "x" + (i % 5000);
+                    if (!name.equals(StringInterner.intern(new StringBuilder(name)))) {
+                      return false;
+                    }
+                  }
+                  return true;
+                }));
+      }
+      for (final Future<Boolean> future : futures) {
+        assertTrue(future.get());
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @NotNull
+  private static Token scanFirst(@NotNull final String program) {
+    final StringIteratorTestUtility stringIterator = new StringIteratorTestUtility();
+    stringIterator.setString(program);
+    final Scanner scanner = new Scanner(stringIterator);
+    scanner.processToken();
+    return scanner.getSym();
+  }
+}
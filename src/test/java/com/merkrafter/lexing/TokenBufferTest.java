@@ -0,0 +1,110 @@
+package com.merkrafter.lexing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TokenBufferTest {
+
+  /** A TokenBuffer should return tokens that are equal to the ones it was created from. */
+  @Test
+  void bufferReturnsEqualTokens() {
+    final List<Token> expected = scan("class A { int x; public void m(int y) { x = y + 42; } }");
+
+    final TokenBuffer buffer = new TokenBuffer(expected);
+
+    assertEquals(expected.size(), buffer.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.get(i), buffer.get(i));
+      assertEquals(expected.get(i).getType(), buffer.getType(i));
+    }
+  }
+
+  /** A TokenBuffer created from a stream should contain all tokens of that stream. */
+  @Test
+  void bufferFromTokenStream() {
+    final String program = "class A { int x; }";
+    final StringIteratorTestUtility stringIterator = new StringIteratorTestUtility();
+    stringIterator.setString(program);
+
+    final TokenBuffer buffer = TokenBuffer.fromTokenStream(new Scanner(stringIterator));
+
+    assertEquals(scan(program), toList(buffer));
+  }
+
+  /** A TokenBuffer should append an EOF token if the given tokens do not end with one. */
+  @Test
+  void bufferAppendsEOF() {
+    final TokenBuffer buffer =
+        new TokenBuffer(Arrays.asList(new IdentToken("a", "", 1, 1), new NumberToken(5, "", 1, 3)));
+
+    assertEquals(3, buffer.size());
+    assertEquals(TokenType.EOF, buffer.getType(2));
+  }
+
+  /** A TokenBuffer should find the matching brace for each properly nested brace. */
+  @Test
+  void bufferFindsMatchingBraces() {
+    // the braces are at the indices 2 to 6
+    final TokenBuffer buffer = new TokenBuffer(scan("class A { { } } }"));
+
+    assertEquals(5, buffer.getMatchingBrace(2));
+    assertEquals(4, buffer.getMatchingBrace(3));
+    assertEquals(2, buffer.getMatchingBrace(5));
+    assertEquals(-1, buffer.getMatchingBrace(6));
+    assertEquals(-1, buffer.getMatchingBrace(0));
+  }
+
+  /** A TokenBufferStream should replay a range and emit EOF tokens afterwards. */
+  @Test
+  void streamReplaysRange() {
+    final TokenBuffer buffer = new TokenBuffer(scan("a b c d"));
+    final TokenBufferStream stream = new TokenBufferStream(buffer, 1, 3);
+
+    stream.processToken();
+    assertEquals(buffer.get(1), stream.getSym());
+    stream.processToken();
+    assertEquals(buffer.get(2), stream.getSym());
+    stream.processToken();
+    assertEquals(TokenType.EOF, stream.getSym().getType());
+    stream.processToken();
+    assertEquals(TokenType.EOF, stream.getSym().getType());
+  }
+
+  /** An IteratorTokenStream should emit EOF tokens after the iterator ends. */
+  @Test
+  void iteratorStreamAppendsEOF() {
+    final Token token = new IdentToken("a", "", 1, 1);
+    final TokenStream stream = new IteratorTokenStream(Arrays.asList(token).iterator());
+
+    stream.processToken();
+    assertEquals(token, stream.getSym());
+    stream.processToken();
+    assertEquals(TokenType.EOF, stream.getSym().getType());
+    stream.processToken();
+    assertEquals(TokenType.EOF, stream.getSym().getType());
+  }
+
+  private static List<Token> scan(final String program) {
+    final StringIteratorTestUtility stringIterator = new StringIteratorTestUtility();
+    stringIterator.setString(program);
+    final Scanner scanner = new Scanner(stringIterator);
+    final List<Token> tokens = new ArrayList<>();
+    do {
+      scanner.processToken();
+      tokens.add(scanner.getSym());
+    } while (scanner.getSym().getType() != TokenType.EOF);
+    return tokens;
+  }
+
+  private static List<Token> toList(final TokenBuffer buffer) {
+    final List<Token> tokens = new ArrayList<>();
+    for (int i = 0; i < buffer.size(); i++) {
+      tokens.add(buffer.get(i));
+    }
+    return tokens;
+  }
+}
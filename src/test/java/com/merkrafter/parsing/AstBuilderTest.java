@@ -0,0 +1,210 @@
+package com.merkrafter.parsing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.merkrafter.lexing.Position;
+import com.merkrafter.lexing.Scanner;
+import com.merkrafter.lexing.StringIteratorTestUtility;
+import com.merkrafter.representation.ObjectDescription;
+import com.merkrafter.representation.ProcedureDescription;
+import com.merkrafter.representation.Type;
+import com.merkrafter.representation.ast.AbstractSyntaxTree;
+import com.merkrafter.representation.ast.BinaryOperationNodeType;
+import com.merkrafter.representation.ast.ClassNode;
+import com.merkrafter.representation.ast.ErrorNode;
+import com.merkrafter.representation.ast.Statement;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * The test cases of this class verify that building an AST from parse events yields the same
+ * results as the Parser and that the events arrive in the documented order.
+ */
+class AstBuilderTest {
+
+  /** The AstBuilder should build the same classes and find the same errors as the Parser. */
+  @ParameterizedTest
+  @MethodSource("com.merkrafter.parsing.ParsingModeTest#getSourceFiles")
+  void builderAgreesWithParser(@NotNull final File sourceFile) throws IOException {
+    final String program = String.join("\n", Files.readAllLines(sourceFile.toPath()));
+
+    final AbstractSyntaxTree expectedAST = new Parser(createScanner(program)).parse();
+    final AstBuilder builder = new AstBuilder();
+    new Recognizer(createScanner(program), builder).recognize();
+    final AbstractSyntaxTree actualAST = builder.getAbstractSyntaxTree();
+
+    assertEquals(expectedAST instanceof ClassNode, actualAST instanceof ClassNode);
+    if (expectedAST instanceof ClassNode) {
+      final List<ObjectDescription> expected =
+          ((ClassNode) expectedAST).getClassDescription().getSymbolTable().getDescriptions();
+      final List<ObjectDescription> actual =
+          ((ClassNode) actualAST).getClassDescription().getSymbolTable().getDescriptions();
+      assertEquals(expected, actual);
+      for (int i = 0; i < expected.size(); i++) {
+        if (expected.get(i) instanceof ProcedureDescription) {
+          // procedure calls are not comparable, hence only the first statements are compared
+          final Statement expectedStatement =
+              ((ProcedureDescription) expected.get(i)).getEntryPoint();
+          final Statement actualStatement =
+              ((ProcedureDescription) actual.get(i)).getEntryPoint();
+          assertNotNull(expectedStatement);
+          assertNotNull(actualStatement);
+          assertEquals(expectedStatement.getClass(), actualStatement.getClass());
+          assertEquals(expectedStatement.getPosition(), actualStatement.getPosition());
+        }
+      }
+      assertEquals(expectedAST.getAllErrors(), actualAST.getAllErrors());
+    }
+  }
+
+  /** A variable that is declared twice should result in an ErrorNode. */
+  @Test
+  void duplicateDeclaration() {
+    final AstBuilder builder = new AstBuilder();
+    new Recognizer(
+            createScanner("class A { int x; int x; public void m() { x = 1; } }"), builder)
+        .recognize();
+
+    assertTrue(builder.getAbstractSyntaxTree() instanceof ErrorNode);
+  }
+
+  /**
+   * The Recognizer should emit events for statements after their expressions and for expressions
+   * in postfix order.
+   */
+  @Test
+  void eventOrder() {
+    final List<String> events = new ArrayList<>();
+    final ParseListener listener =
+        new ParseListener() {
+          @Override
+          public void enterClass(@NotNull final String name, @NotNull final Position position) {
+            events.add("enterClass " + name);
+          }
+
+          @Override
+          public void exitClass() {
+            events.add("exitClass");
+          }
+
+          @Override
+          public void variableDeclaration(
+              @NotNull final Type type,
+              @NotNull final String name,
+              @NotNull final Position position) {
+            events.add("variable " + name);
+          }
+
+          @Override
+          public void enterMethod(
+              @NotNull final Type returnType,
+              @NotNull final String name,
+              @NotNull final Position position) {
+            events.add("enterMethod " + name);
+          }
+
+          @Override
+          public void parameter(
+              @NotNull final Type type,
+              @NotNull final String name,
+              @NotNull final Position position) {
+            events.add("parameter " + name);
+          }
+
+          @Override
+          public void exitMethod() {
+            events.add("exitMethod");
+          }
+
+          @Override
+          public void assignment(
+              @NotNull final String variable, @NotNull final Position position) {
+            events.add("assignment " + variable);
+          }
+
+          @Override
+          public void enterWhile(@NotNull final Position position) {
+            events.add("enterWhile");
+          }
+
+          @Override
+          public void exitWhile() {
+            events.add("exitWhile");
+          }
+
+          @Override
+          public void returnStatement(final boolean hasValue, @NotNull final Position position) {
+            events.add("return " + hasValue);
+          }
+
+          @Override
+          public void number(final long value, @NotNull final Position position) {
+            events.add(String.valueOf(value));
+          }
+
+          @Override
+          public void variable(@NotNull final String name, @NotNull final Position position) {
+            events.add(name);
+          }
+
+          @Override
+          public void procedureCall(
+              @NotNull final String name, final int arguments, @NotNull final Position position) {
+            events.add(name + "/" + arguments);
+          }
+
+          @Override
+          public void binaryOperation(@NotNull final BinaryOperationNodeType type) {
+            events.add(type.name());
+          }
+        };
+
+    final boolean success =
+        new Recognizer(
+                createScanner(
+                    "class A { int x; public int m(int a) {"
+                        + " while (x < a) { x = 1 + 2 * m(x); } return x; } }"),
+                listener)
+            .recognize();
+
+    assertTrue(success);
+    assertEquals(
+        Arrays.asList(
+            "enterClass A",
+            "variable x",
+            "enterMethod m",
+            "parameter a",
+            "enterWhile",
+            "x",
+            "a",
+            "LOWER",
+            "1",
+            "2",
+            "x",
+            "m/1",
+            "TIMES",
+            "PLUS",
+            "assignment x",
+            "exitWhile",
+            "x",
+            "return true",
+            "exitMethod",
+            "exitClass"),
+        events);
+  }
+
+  @NotNull
+  private static Scanner createScanner(@NotNull final String program) {
+    final StringIteratorTestUtility stringIterator = new StringIteratorTestUtility();
+    stringIterator.setString(program);
+    return new Scanner(stringIterator);
+  }
+}
@@ -23,24 +23,21 @@ class ParserBuildingIntegrationTest {
 
   private Scanner scanner;
 
-  /** Subject under test */
-  private Parser parser;
-
   @BeforeEach
   void setUp() {
     stringIterator = new StringIteratorTestUtility();
     scanner = new Scanner(stringIterator);
-    parser = new Parser(scanner);
   }
 
   /** The generated AST should reflect the operator precedence of multiplication over addition. */
   @Test
-  void multiplicationBeforeAddition() {
+  void multiplicationBeforeAddition() throws ParserException {
     final String program = "5+3*8";
     stringIterator.setString(program);
     scanner = new Scanner(stringIterator);
     scanner.setFilename(""); // avoid setting it to null
-    parser = new Parser(scanner);
+    final AstBuilder builder = new AstBuilder();
+    final Parser parser = new Parser(scanner, builder);
     final Expression multTree =
         new BinaryOperationNode(
             new ConstantNode<>(INT, 3L, p),
@@ -50,7 +47,8 @@ class ParserBuildingIntegrationTest {
         new BinaryOperationNode(
             new ConstantNode<>(INT, 5L, p), BinaryOperationNodeType.PLUS, multTree);
 
-    final AbstractSyntaxTree actualAST = parser.parseExpression();
+    parser.parseExpression();
+    final AbstractSyntaxTree actualAST = builder.getExpression();
 
     assertEquals(expectedAST, actualAST);
   }
@@ -6,10 +6,9 @@ import com.merkrafter.lexing.*;
 import com.merkrafter.representation.SymbolTable;
 import com.merkrafter.representation.Type;
 import com.merkrafter.representation.VariableDescription;
-import com.merkrafter.representation.ast.AbstractSyntaxTree;
 import com.merkrafter.representation.ast.ConstantNode;
-import com.merkrafter.representation.ast.ErrorNode;
-import com.merkrafter.representation.ast.ParameterListNode;
+import com.merkrafter.representation.ast.Expression;
+import com.merkrafter.representation.ast.Statement;
 import java.util.Arrays;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
@@ -41,12 +40,12 @@ class ParserTest {
               new Token(TokenType.R_BRACE, "", 1, 1)
             });
     final Parser parser = new Parser(scanner);
-    assertTrue(parser.parseClass().getAllErrors().isEmpty());
+    assertDoesNotThrow(parser::parseClass);
   }
 
   /** The parser should accept a single "{int {@value #VAR_IDENT};}" as a class body. */
   @Test
-  void parseClassBody() throws ParserException {
+  void parseClassBody() {
     final Scanner scanner =
         new TestScanner(
             new Token[] {
@@ -57,12 +56,12 @@ class ParserTest {
               new Token(TokenType.R_BRACE, "", 1, 1)
             });
     final Parser parser = new Parser(scanner);
-    assertTrue(parser.parseClassBody());
+    assertDoesNotThrow(parser::parseClassBody);
   }
 
   /** The parser should accept a single "int {@value #VAR_IDENT}" as a declaration. */
   @Test
-  void parseDeclarations() throws ParserException {
+  void parseDeclarations() {
     final Scanner scanner =
         new TestScanner(
             new Token[] {
@@ -71,7 +70,7 @@ class ParserTest {
               new Token(TokenType.SEMICOLON, "", 1, 1)
             });
     final Parser parser = new Parser(scanner);
-    assertTrue(parser.parseDeclarations());
+    assertDoesNotThrow(parser::parseDeclarations);
   }
 
   /**
@@ -82,7 +81,7 @@ class ParserTest {
   @EnumSource(
       value = Keyword.class,
       names = {"VOID", "INT"})
-  void parseMethodDeclaration(@NotNull final Keyword methodType) throws ParserException {
+  void parseMethodDeclaration(@NotNull final Keyword methodType) {
     final Scanner scanner =
         new TestScanner(
             new Token[] {
@@ -100,7 +99,7 @@ class ParserTest {
               new Token(TokenType.R_BRACE, "", 1, 1)
             });
     final Parser parser = new Parser(scanner);
-    assertTrue(parser.parseMethodDeclaration());
+    assertDoesNotThrow(parser::parseMethodDeclaration);
   }
 
   /** The parser should accept simple method heads without any formal parameters. */
@@ -119,7 +118,7 @@ class ParserTest {
               new Token(TokenType.R_PAREN, "", 1, 1)
             });
     final Parser parser = new Parser(scanner);
-    assertNotNull(parser.parseMethodHead());
+    assertDoesNotThrow(parser::parseMethodHead);
   }
 
   /** The parser should accept "void" and "int" as method types. */
@@ -127,7 +126,7 @@ class ParserTest {
   @EnumSource(
       value = Keyword.class,
       names = {"VOID", "INT"})
-  void parseMethodType(@NotNull final Keyword keyword) {
+  void parseMethodType(@NotNull final Keyword keyword) throws ParserException {
     final Scanner scanner = new TestScanner(new Token[] {new KeywordToken(keyword, "", 1, 1)});
     final Parser parser = new Parser(scanner);
     assertNotNull(parser.parseMethodType());
@@ -145,7 +144,7 @@ class ParserTest {
               new Token(TokenType.R_PAREN, "", 1, 1)
             });
     final Parser parser = new Parser(scanner);
-    assertNotNull(parser.parseFormalParameters());
+    assertDoesNotThrow(parser::parseFormalParameters);
   }
 
   /** The parser should accept a single "int {@value #VAR_IDENT} as a fp_section. */
@@ -157,12 +156,12 @@ class ParserTest {
               new KeywordToken(Keyword.INT, "", 1, 1), new IdentToken(VAR_IDENT, "", 1, 1)
             });
     final Parser parser = new Parser(scanner);
-    assertNotNull(parser.parseFpSection());
+    assertDoesNotThrow(parser::parseFpSection);
   }
 
   /** The parser should accept a method body with only one return statement. */
   @Test
-  void parseMethodBody() throws ParserException {
+  void parseMethodBody() {
     final Scanner scanner =
         new TestScanner(
             new Token[] {
@@ -173,12 +172,12 @@ class ParserTest {
               new Token(TokenType.R_BRACE, "", 1, 1)
             });
     final Parser parser = new Parser(scanner);
-    assertFalse(parser.parseMethodBody() instanceof ErrorNode);
+    assertDoesNotThrow(parser::parseMethodBody);
   }
 
   /** The parser should accept a single "int {@value #VAR_IDENT}" as a local declaration. */
   @Test
-  void parseLocalDeclaration() throws ParserException {
+  void parseLocalDeclaration() {
     final Scanner scanner =
         new TestScanner(
             new Token[] {
@@ -187,7 +186,7 @@ class ParserTest {
               new Token(TokenType.SEMICOLON, "", 1, 1)
             });
     final Parser parser = new Parser(scanner);
-    assertTrue(parser.parseLocalDeclaration());
+    assertDoesNotThrow(parser::parseLocalDeclaration);
   }
 
   /**
@@ -197,10 +196,10 @@ class ParserTest {
    */
   @ParameterizedTest
   @MethodSource("com.merkrafter.parsing.ParserTestDataProvider#statements")
-  void parseStatementSequence(@NotNull final ParserTestDataProvider.TokenWrapper inputTokens) {
+  void parseStatementSequence(@NotNull final ParserTestDataProvider.TokenWrapper inputTokens)
+      throws ParserException {
     final Scanner scanner = new TestScanner(inputTokens.getTokens());
-    final Parser parser = new Parser(scanner, ParserTestDataProvider.TEST_SYMBOLS);
-    assertTrue(parser.parseStatementSequence().getAllErrors().isEmpty());
+    assertTrue(buildStatements(scanner, Parser::parseStatementSequence).getAllErrors().isEmpty());
   }
 
   /**
@@ -210,16 +209,16 @@ class ParserTest {
    */
   @ParameterizedTest
   @MethodSource("com.merkrafter.parsing.ParserTestDataProvider#statements")
-  void parseStatement(@NotNull final ParserTestDataProvider.TokenWrapper inputTokens) {
+  void parseStatement(@NotNull final ParserTestDataProvider.TokenWrapper inputTokens)
+      throws ParserException {
     final Scanner scanner = new TestScanner(inputTokens.getTokens());
-    final Parser parser = new Parser(scanner, ParserTestDataProvider.TEST_SYMBOLS);
-    final AbstractSyntaxTree node = parser.parseStatement();
+    final Statement node = buildStatements(scanner, Parser::parseStatement);
     assertTrue(node.getAllErrors().isEmpty());
   }
 
   /** The parser should accept a single "int" as a type. */
   @Test
-  void parseType() {
+  void parseType() throws ParserException {
     final Scanner scanner = new TestScanner(new Token[] {new KeywordToken(Keyword.INT, "", 1, 1)});
     final Parser parser = new Parser(scanner);
     assertNotNull(parser.parseType());
@@ -232,10 +231,10 @@ class ParserTest {
    */
   @ParameterizedTest
   @MethodSource("com.merkrafter.parsing.ParserTestDataProvider#assignments")
-  void parseAssignment(@NotNull final ParserTestDataProvider.TokenWrapper inputTokens) {
+  void parseAssignment(@NotNull final ParserTestDataProvider.TokenWrapper inputTokens)
+      throws ParserException {
     final Scanner scanner = new TestScanner(inputTokens.getTokens());
-    final Parser parser = new Parser(scanner, ParserTestDataProvider.TEST_SYMBOLS);
-    final AbstractSyntaxTree astUnderTest = parser.parseAssignment();
+    final Statement astUnderTest = buildStatements(scanner, Parser::parseAssignment);
     assertTrue(astUnderTest.getAllErrors().isEmpty());
   }
 
@@ -250,7 +249,7 @@ class ParserTest {
   void parseFaultyAssignment(@NotNull final ParserTestDataProvider.TokenWrapper inputTokens) {
     final Scanner scanner = new TestScanner(inputTokens.getTokens());
     final Parser parser = new Parser(scanner);
-    assertFalse(parser.parseAssignment().getAllErrors().isEmpty());
+    assertThrows(ParserException.class, parser::parseAssignment);
   }
 
   /**
@@ -260,10 +259,10 @@ class ParserTest {
    */
   @ParameterizedTest
   @MethodSource("com.merkrafter.parsing.ParserTestDataProvider#ifConstructs")
-  void parseIfStatement(@NotNull final ParserTestDataProvider.TokenWrapper inputTokens) {
+  void parseIfStatement(@NotNull final ParserTestDataProvider.TokenWrapper inputTokens)
+      throws ParserException {
     final Scanner scanner = new TestScanner(inputTokens.getTokens());
-    final Parser parser = new Parser(scanner, ParserTestDataProvider.TEST_SYMBOLS);
-    final AbstractSyntaxTree node = parser.parseIfStatement();
+    final Statement node = buildStatements(scanner, Parser::parseIfStatement);
     assertTrue(node.getAllErrors().isEmpty());
   }
 
@@ -274,10 +273,10 @@ class ParserTest {
    */
   @ParameterizedTest
   @MethodSource("com.merkrafter.parsing.ParserTestDataProvider#whileLoops")
-  void parseWhileStatement(@NotNull final ParserTestDataProvider.TokenWrapper inputTokens) {
+  void parseWhileStatement(@NotNull final ParserTestDataProvider.TokenWrapper inputTokens)
+      throws ParserException {
     final Scanner scanner = new TestScanner(inputTokens.getTokens());
-    final Parser parser = new Parser(scanner, ParserTestDataProvider.TEST_SYMBOLS);
-    assertTrue(parser.parseWhileStatement().getAllErrors().isEmpty());
+    assertTrue(buildStatements(scanner, Parser::parseWhileStatement).getAllErrors().isEmpty());
   }
 
   /**
@@ -287,10 +286,10 @@ class ParserTest {
    */
   @ParameterizedTest
   @MethodSource("com.merkrafter.parsing.ParserTestDataProvider#returnStatements")
-  void parseReturnStatement(@NotNull final ParserTestDataProvider.TokenWrapper inputTokens) {
+  void parseReturnStatement(@NotNull final ParserTestDataProvider.TokenWrapper inputTokens)
+      throws ParserException {
     final Scanner scanner = new TestScanner(inputTokens.getTokens());
-    final Parser parser = new Parser(scanner, ParserTestDataProvider.TEST_SYMBOLS);
-    assertTrue(parser.parseReturnStatement().getAllErrors().isEmpty());
+    assertTrue(buildStatements(scanner, Parser::parseReturnStatement).getAllErrors().isEmpty());
   }
 
   /** The parser must not accept a single return statement (without semicolon). */
@@ -299,21 +298,19 @@ class ParserTest {
     final Scanner scanner =
         new TestScanner(new Token[] {new KeywordToken(Keyword.RETURN, "", 1, 1)});
     final Parser parser = new Parser(scanner);
-    assertFalse(parser.parseReturnStatement().getAllErrors().isEmpty());
+    assertThrows(ParserException.class, parser::parseReturnStatement);
   }
 
   /** The parser should accept a single pair of parentheses as actual parameters. */
   @Test
-  void parseEmptyActualParameters() {
+  void parseEmptyActualParameters() throws ParserException {
     final Scanner scanner =
         new TestScanner(
             new Token[] {
               new Token(TokenType.L_PAREN, "", 0, 0), new Token(TokenType.R_PAREN, "", 0, 0)
             });
     final Parser parser = new Parser(scanner);
-    final ParameterListNode parameters = parser.parseActualParameters();
-    assertNotNull(parameters);
-    assertTrue(parameters.getParameters().isEmpty());
+    assertEquals(0, parser.parseActualParameters());
   }
 
   /**
@@ -323,10 +320,10 @@ class ParserTest {
    */
   @ParameterizedTest
   @MethodSource("com.merkrafter.parsing.ParserTestDataProvider#expressions")
-  void parseExpression(@NotNull final ParserTestDataProvider.TokenWrapper inputTokens) {
+  void parseExpression(@NotNull final ParserTestDataProvider.TokenWrapper inputTokens)
+      throws ParserException {
     final Scanner scanner = new TestScanner(inputTokens.getTokens());
-    final Parser parser = new Parser(scanner, ParserTestDataProvider.TEST_SYMBOLS);
-    assertTrue(parser.parseExpression().getAllErrors().isEmpty());
+    assertTrue(buildExpression(scanner, Parser::parseExpression).getAllErrors().isEmpty());
   }
 
   /**
@@ -336,10 +333,11 @@ class ParserTest {
    */
   @ParameterizedTest
   @MethodSource("com.merkrafter.parsing.ParserTestDataProvider#simpleExpressions")
-  void parseSimpleExpression(@NotNull final ParserTestDataProvider.TokenWrapper inputTokens) {
+  void parseSimpleExpression(@NotNull final ParserTestDataProvider.TokenWrapper inputTokens)
+      throws ParserException {
     final Scanner scanner = new TestScanner(inputTokens.getTokens());
-    final Parser parser = new Parser(scanner, ParserTestDataProvider.TEST_SYMBOLS);
-    assertTrue(parser.parseSimpleExpression().getAllErrors().isEmpty());
+    assertTrue(
+        buildExpression(scanner, Parser::parseSimpleExpression).getAllErrors().isEmpty());
   }
 
   /** The parser should accept a single multiplication/division as a term. */
@@ -347,7 +345,7 @@ class ParserTest {
   @EnumSource(
       value = TokenType.class,
       names = {"TIMES", "DIVIDE"})
-  void parseTerm(@NotNull final TokenType tokenType) {
+  void parseTerm(@NotNull final TokenType tokenType) throws ParserException {
     final Scanner scanner =
         new TestScanner(
             new Token[] {
@@ -355,13 +353,12 @@ class ParserTest {
               new Token(tokenType, "", 0, 0),
               new Token(TokenType.NUMBER, "", 0, 0)
             });
-    final Parser parser = new Parser(scanner, ParserTestDataProvider.TEST_SYMBOLS);
-    assertTrue(parser.parseTerm().getAllErrors().isEmpty());
+    assertTrue(buildExpression(scanner, Parser::parseTerm).getAllErrors().isEmpty());
   }
 
   /** The parser should accept an intern procedure call without arguments as a factor. */
   @Test
-  void parseInternProcedureCallWithoutArgsAsFactor() {
+  void parseInternProcedureCallWithoutArgsAsFactor() throws ParserException {
     final Scanner scanner =
         new TestScanner(
             new Token[] {
@@ -369,8 +366,7 @@ class ParserTest {
               new Token(TokenType.L_PAREN, "", 0, 0),
               new Token(TokenType.R_PAREN, "", 0, 0)
             });
-    final Parser parser = new Parser(scanner);
-    assertTrue(parser.parseFactor().getAllErrors().isEmpty());
+    assertTrue(buildExpression(scanner, Parser::parseFactor).getAllErrors().isEmpty());
   }
 
   /**
@@ -381,17 +377,20 @@ class ParserTest {
   @EnumSource(
       value = TokenType.class,
       names = {"NUMBER", "IDENT"})
-  void parseInternProcedureCallWithOneArgAsFactor(@NotNull final TokenType tokenType) {
+  void parseInternProcedureCallWithOneArgAsFactor(@NotNull final TokenType tokenType)
+      throws ParserException {
     final Scanner scanner =
         new TestScanner(
             new Token[] {
               new Token(TokenType.IDENT, "", 0, 0),
               new Token(TokenType.L_PAREN, "", 0, 0),
-              new Token(tokenType, "", 0, 0),
+              // the argument must be a known variable
+              tokenType == TokenType.IDENT
+                  ? new IdentToken("a", "", 0, 0)
+                  : new Token(tokenType, "", 0, 0),
               new Token(TokenType.R_PAREN, "", 0, 0)
             });
-    final Parser parser = new Parser(scanner);
-    assertTrue(parser.parseFactor().getAllErrors().isEmpty());
+    assertTrue(buildExpression(scanner, Parser::parseFactor).getAllErrors().isEmpty());
   }
 
   /**
@@ -399,7 +398,7 @@ class ParserTest {
    * and an identifier) as a factor.
    */
   @Test
-  void parseInternProcedureCallWithTwoArgsAsFactor() {
+  void parseInternProcedureCallWithTwoArgsAsFactor() throws ParserException {
     final Scanner scanner =
         new TestScanner(
             new Token[] {
@@ -407,11 +406,10 @@ class ParserTest {
               new Token(TokenType.L_PAREN, "", 0, 0),
               new Token(TokenType.NUMBER, "", 0, 0),
               new Token(TokenType.COMMA, "", 0, 0),
-              new Token(TokenType.IDENT, "", 0, 0),
+              new IdentToken("b", "", 0, 0),
               new Token(TokenType.R_PAREN, "", 0, 0)
             });
-    final Parser parser = new Parser(scanner, ParserTestDataProvider.TEST_SYMBOLS);
-    assertTrue(parser.parseFactor().getAllErrors().isEmpty());
+    assertTrue(buildExpression(scanner, Parser::parseFactor).getAllErrors().isEmpty());
   }
 
   /**
@@ -422,7 +420,7 @@ class ParserTest {
   @EnumSource(
       value = TokenType.class,
       names = {"PLUS", "MINUS", "TIMES", "DIVIDE"})
-  void parseBinOpExpressionAsFactor(@NotNull final TokenType binOp) {
+  void parseBinOpExpressionAsFactor(@NotNull final TokenType binOp) throws ParserException {
     final Scanner scanner =
         new TestScanner(
             new Token[] {
@@ -432,8 +430,7 @@ class ParserTest {
               new IdentToken("a", "", 0, 0),
               new Token(TokenType.R_PAREN, "", 0, 0)
             });
-    final Parser parser = new Parser(scanner, ParserTestDataProvider.TEST_SYMBOLS);
-    final AbstractSyntaxTree node = parser.parseFactor();
+    final Expression node = buildExpression(scanner, Parser::parseFactor);
     assertTrue(node.getAllErrors().isEmpty());
   }
 
@@ -442,7 +439,7 @@ class ParserTest {
    * between) as a factor.
    */
   @Test
-  void parseSimpleExpressionWithIdentAsFactor() {
+  void parseSimpleExpressionWithIdentAsFactor() throws ParserException {
     final Scanner scanner =
         new TestScanner(
             new Token[] {
@@ -450,8 +447,7 @@ class ParserTest {
               new IdentToken("a", "", 0, 0),
               new Token(TokenType.R_PAREN, "", 0, 0)
             });
-    final Parser parser = new Parser(scanner, ParserTestDataProvider.TEST_SYMBOLS);
-    assertTrue(parser.parseFactor().getAllErrors().isEmpty());
+    assertTrue(buildExpression(scanner, Parser::parseFactor).getAllErrors().isEmpty());
   }
 
   /**
@@ -459,7 +455,7 @@ class ParserTest {
    * between) as a factor.
    */
   @Test
-  void parseSimpleExpressionWithNumberAsFactor() {
+  void parseSimpleExpressionWithNumberAsFactor() throws ParserException {
     final Scanner scanner =
         new TestScanner(
             new Token[] {
@@ -467,33 +463,29 @@ class ParserTest {
               new NumberToken(5, "", 0, 0),
               new Token(TokenType.R_PAREN, "", 0, 0)
             });
-    final Parser parser = new Parser(scanner);
-    assertTrue(parser.parseFactor().getAllErrors().isEmpty());
+    assertTrue(buildExpression(scanner, Parser::parseFactor).getAllErrors().isEmpty());
   }
 
   /** The parser should accept a single identifier as a factor. */
   @Test
-  void parseIdentifierAsFactor() {
+  void parseIdentifierAsFactor() throws ParserException {
     final Scanner scanner = new TestScanner(new Token[] {new IdentToken("a", "", 0, 0)});
-    final Parser parser = new Parser(scanner, ParserTestDataProvider.TEST_SYMBOLS);
-    assertTrue(parser.parseFactor().getAllErrors().isEmpty());
+    assertTrue(buildExpression(scanner, Parser::parseFactor).getAllErrors().isEmpty());
   }
 
   /** The parser should accept a single number as a factor. */
   @Test
-  void parseNumberAsFactor() {
+  void parseNumberAsFactor() throws ParserException {
     final Scanner scanner = new TestScanner(new Token[] {new NumberToken(0, "", 0, 0)});
-    final Parser parser = new Parser(scanner);
-    assertTrue(parser.parseFactor().getAllErrors().isEmpty());
+    assertTrue(buildExpression(scanner, Parser::parseFactor).getAllErrors().isEmpty());
   }
 
   /** The parser should accept a single number. */
   @Test
-  void parseNumber() {
+  void parseNumber() throws ParserException {
     final long number = 5;
     final Scanner scanner = new TestScanner(new Token[] {new NumberToken(number, "", 0, 0)});
-    final Parser parser = new Parser(scanner);
-    assertTrue(parser.parseNumber() instanceof ConstantNode);
+    assertTrue(buildExpression(scanner, Parser::parseNumber) instanceof ConstantNode);
   }
 
   /** The parser should not accept another token when expecting a number. */
@@ -505,12 +497,12 @@ class ParserTest {
   void tryParseNoNumber(@NotNull final TokenType tokenType) {
     final Scanner scanner = new TestScanner(new Token[] {new Token(tokenType, "", 0, 0)});
     final Parser parser = new Parser(scanner);
-    assertFalse(parser.parseNumber().getAllErrors().isEmpty());
+    assertThrows(ParserException.class, parser::parseNumber);
   }
 
   /** The parser should accept a single identifier. */
   @Test
-  void parseIdentifier() {
+  void parseIdentifier() throws ParserException {
     final Scanner scanner = new TestScanner(new Token[] {new Token(TokenType.IDENT, "", 0, 0)});
     final Parser parser = new Parser(scanner);
     assertNotNull(parser.parseIdentifier());
@@ -525,7 +517,7 @@ class ParserTest {
   void tryParseNoIdentifier(@NotNull final TokenType tokenType) {
     final Scanner scanner = new TestScanner(new Token[] {new Token(tokenType, "", 0, 0)});
     final Parser parser = new Parser(scanner);
-    assertNull(parser.parseIdentifier());
+    assertThrows(ParserException.class, parser::parseIdentifier);
   }
 
   /**
@@ -545,7 +537,8 @@ class ParserTest {
               new IdentToken(name, "", 0, 0),
               new Token(TokenType.SEMICOLON, "", 0, 0)
             });
-    final Parser parser = new Parser(scanner, outerScope);
+    final Parser parser =
+        new Parser(scanner, new AstBuilder(new SymbolTable(outerScope), false));
     assertDoesNotThrow(parser::parseLocalDeclaration);
   }
 
@@ -774,6 +767,36 @@ class ParserTest {
     assertThrows(ParserException.class, parser::parseMethodDeclaration);
   }
 
+  /** Builds the statements that the rule reads in the scope of the test symbols. */
+  @NotNull
+  private static Statement buildStatements(@NotNull final Scanner scanner, @NotNull final Rule rule)
+      throws ParserException {
+    final AstBuilder builder =
+        new AstBuilder(new SymbolTable(ParserTestDataProvider.TEST_SYMBOLS), false);
+    rule.parse(new Parser(scanner, builder));
+    final Statement statements = builder.getStatements();
+    assertNotNull(statements);
+    return statements;
+  }
+
+  /** Builds the expression that the rule reads in the scope of the test symbols. */
+  @NotNull
+  private static Expression buildExpression(
+      @NotNull final Scanner scanner, @NotNull final Rule rule) throws ParserException {
+    final AstBuilder builder =
+        new AstBuilder(new SymbolTable(ParserTestDataProvider.TEST_SYMBOLS), false);
+    rule.parse(new Parser(scanner, builder));
+    final Expression expression = builder.getExpression();
+    assertNotNull(expression);
+    return expression;
+  }
+
+  /** A rule of the grammar that a Parser reads. */
+  @FunctionalInterface
+  private interface Rule {
+    void parse(@NotNull Parser parser) throws ParserException;
+  }
+
   /**
    * This class serves as a mock for scanner and will likely be removed later on when Parsers can
    * accept token iterators.
@@ -0,0 +1,281 @@
+package com.merkrafter.parsing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.merkrafter.lexing.CharTokenizer;
+import com.merkrafter.lexing.IteratorTokenStream;
+import com.merkrafter.lexing.Scanner;
+import com.merkrafter.lexing.StringIteratorTestUtility;
+import com.merkrafter.lexing.TokenBuffer;
+import com.merkrafter.lexing.TokenBufferStream;
+import com.merkrafter.representation.ObjectDescription;
+import com.merkrafter.representation.ProcedureDescription;
+import com.merkrafter.representation.ast.AbstractSyntaxTree;
+import com.merkrafter.representation.ast.ClassNode;
+import com.merkrafter.representation.ast.Statement;
+import com.merkrafter.representation.ast.StatementSequence;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import kotlin.text.StringsKt;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * The test cases of this class verify that all parsing modes produce the same results as the
+ * sequential one.
+ */
+class ParsingModeTest {
+
+  /** @return all JavaSST files under src/test/resources, including the faulty ones */
+  static Stream<File> getSourceFiles() {
+    final File resources = getFileFromResource("error_cases").getParentFile();
+    final File[] errorCases = getFileFromResource("error_cases").listFiles();
+    assert errorCases != null;
+    return Stream.concat(
+        Stream.of(new File(resources, "EmptyClass.java"), new File(resources, "SmokeClass.java")),
+        Arrays.stream(errorCases));
+  }
+
+  /** Parsing a file in parallel should yield the same error messages as parsing it sequentially. */
+  @ParameterizedTest
+  @MethodSource("getSourceFiles")
+  void parallelParsingReportsSameErrors(@NotNull final File sourceFile) throws IOException {
+    final String program = String.join("\n", Files.readAllLines(sourceFile.toPath()));
+
+    final AbstractSyntaxTree sequentialAST = parse(program, ParsingMode.SEQUENTIAL);
+    final AbstractSyntaxTree parallelAST = parse(program, ParsingMode.PARALLEL);
+
+    assertEquals(sequentialAST.getAllErrors(), parallelAST.getAllErrors());
+  }
+
+  /**
+   * An error in a method head should not be reported before an error in the body of an earlier
+   * method, although that body was skipped to be parsed in parallel.
+   */
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "class Test { int x; public void a() { x = ; } public void b(int c, int c) { return; } }",
+        "class Test { int x; public void a() { x = ; } public void 5() { return; } }"
+      })
+  void parallelParsingReportsErrorsInOrder(@NotNull final String program) {
+    final AbstractSyntaxTree sequentialAST = parse(program, ParsingMode.SEQUENTIAL);
+    final AbstractSyntaxTree parallelAST = parse(program, ParsingMode.PARALLEL);
+
+    assertFalse(sequentialAST.getAllErrors().isEmpty());
+    assertEquals(sequentialAST.getAllErrors(), parallelAST.getAllErrors());
+  }
+
+  /** Checking the procedures in parallel should yield the same errors in the same order. */
+  @ParameterizedTest
+  @MethodSource("getSourceFiles")
+  void parallelCheckingReportsSameErrors(@NotNull final File sourceFile) throws IOException {
+    final String program = String.join("\n", Files.readAllLines(sourceFile.toPath()));
+    final AbstractSyntaxTree ast = parse(program, ParsingMode.SEQUENTIAL);
+    if (!(ast instanceof ClassNode)) {
+      return; // the file has syntax errors, hence there are no procedures to check
+    }
+
+    final ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      assertEquals(ast.getAllErrors(), ((ClassNode) ast).getAllErrors(pool));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Sharing equal expressions should find the same number of errors. Their messages may differ, as
+   * shared expressions keep the position of their first occurrence.
+   */
+  @ParameterizedTest
+  @MethodSource("getSourceFiles")
+  void sharedExpressionsReportSameNumberOfErrors(@NotNull final File sourceFile)
+      throws IOException {
+    final String program = String.join("\n", Files.readAllLines(sourceFile.toPath()));
+
+    final AbstractSyntaxTree ast = parse(program, ParsingMode.SEQUENTIAL);
+    final AbstractSyntaxTree sharedAST = parse(program, ParsingMode.SEQUENTIAL, true);
+
+    assertEquals(ast.getAllErrors().size(), sharedAST.getAllErrors().size());
+  }
+
+  /** Equal expressions should be shared within a method body in every parsing mode. */
+  @ParameterizedTest
+  @EnumSource(ParsingMode.class)
+  void shareExpressionsWithinMethodBody(@NotNull final ParsingMode mode) {
+    final String program =
+        "class Test { int x; public int m(int a) { x = (a + 1) * (a + 1); return a + 1; } }";
+
+    final AbstractSyntaxTree ast = parse(program, mode, true);
+
+    assertTrue(ast instanceof ClassNode);
+    assertTrue(ast.getAllErrors().isEmpty());
+    final ProcedureDescription procedure =
+        (ProcedureDescription)
+            ((ClassNode) ast).getClassDescription().getSymbolTable().getDescriptions().get(1);
+    final StatementSequence body = (StatementSequence) procedure.getEntryPoint();
+    assertNotNull(body);
+    final AbstractSyntaxTree product = body.get(0).getChildren().get(1);
+    final Statement ret = body.get(1);
+    assertSame(product.getChildren().get(0), product.getChildren().get(1));
+    assertSame(product.getChildren().get(0), ret.getChildren().get(0));
+  }
+
+  /** Parsing pre-lexed tokens should yield the same error messages as parsing a live Scanner. */
+  @ParameterizedTest
+  @MethodSource("getSourceFiles")
+  void prelexedParsingReportsSameErrors(@NotNull final File sourceFile) throws IOException {
+    final String program = String.join("\n", Files.readAllLines(sourceFile.toPath()));
+    final StringIteratorTestUtility stringIterator = new StringIteratorTestUtility();
+    stringIterator.setString(program);
+    final TokenBuffer buffer = TokenBuffer.fromTokenStream(new Scanner(stringIterator));
+
+    final AbstractSyntaxTree scannerAST = parse(program, ParsingMode.SEQUENTIAL);
+    final AbstractSyntaxTree bufferAST = new Parser(new TokenBufferStream(buffer)).parse();
+
+    assertEquals(scannerAST.getAllErrors(), bufferAST.getAllErrors());
+  }
+
+  /** The Parser should accept the tokens of a CharTokenizer as well. */
+  @Test
+  void parseCharTokenizer() {
+    final String program = "class Test { int x; public int m(int a) { x = a * 2; return x; } }";
+
+    final AbstractSyntaxTree ast =
+        new Parser(new IteratorTokenStream(new CharTokenizer(StringsKt.asSequence(program), "")))
+            .parse();
+
+    assertTrue(ast instanceof ClassNode);
+    assertTrue(ast.getAllErrors().isEmpty());
+  }
+
+  /**
+   * Parsing a class with many methods in parallel should yield the same procedures in the same
+   * order and with the same bodies as parsing it sequentially.
+   */
+  @Test
+  void parallelParsingKeepsDeclarationOrder() {
+    final StringBuilder program = new StringBuilder("class Test { int x; ");
+    for (int i = 0; i < 200; i++) {
+      program.append(
+          String.format(
+              "public int m%d(int a) { int b; b = a * %d; if (b > x) {x = b;} else {b = m%d(x);}"
+                  + " return b + x; }",
+              i, i, (i + 1) % 200));
+    }
+    program.append("}");
+
+    final AbstractSyntaxTree sequentialAST = parse(program.toString(), ParsingMode.SEQUENTIAL);
+    final AbstractSyntaxTree parallelAST = parse(program.toString(), ParsingMode.PARALLEL);
+
+    assertTrue(sequentialAST instanceof ClassNode);
+    assertTrue(parallelAST instanceof ClassNode);
+    assertTrue(parallelAST.getAllErrors().isEmpty());
+    final List<ObjectDescription> expected =
+        ((ClassNode) sequentialAST).getClassDescription().getSymbolTable().getDescriptions();
+    final List<ObjectDescription> actual =
+        ((ClassNode) parallelAST).getClassDescription().getSymbolTable().getDescriptions();
+    assertEquals(expected, actual);
+    for (int i = 0; i < expected.size(); i++) {
+      if (expected.get(i) instanceof ProcedureDescription) {
+        // procedure calls are not comparable, hence only the first statements are compared
+        final StatementSequence expectedBody =
+            (StatementSequence) ((ProcedureDescription) expected.get(i)).getEntryPoint();
+        final StatementSequence actualBody =
+            (StatementSequence) ((ProcedureDescription) actual.get(i)).getEntryPoint();
+        assertNotNull(expectedBody);
+        assertNotNull(actualBody);
+        assertEquals(expectedBody.size(), actualBody.size());
+        assertEquals(expectedBody.get(0), actualBody.get(0));
+      }
+    }
+  }
+
+  /**
+   * Parsing a class lazily should yield the same procedure bodies as parsing it sequentially, once
+   * they are requested.
+   */
+  @ParameterizedTest
+  @MethodSource("getSourceFiles")
+  void lazyParsingYieldsSameBodies(@NotNull final File sourceFile) throws IOException {
+    final String program = String.join("\n", Files.readAllLines(sourceFile.toPath()));
+
+    final AbstractSyntaxTree sequentialAST = parse(program, ParsingMode.SEQUENTIAL);
+    final AbstractSyntaxTree lazyAST = parse(program, ParsingMode.LAZY);
+
+    if (sequentialAST instanceof ClassNode) {
+      assertTrue(lazyAST instanceof ClassNode);
+      final List<ObjectDescription> expected =
+          ((ClassNode) sequentialAST).getClassDescription().getSymbolTable().getDescriptions();
+      final List<ObjectDescription> actual =
+          ((ClassNode) lazyAST).getClassDescription().getSymbolTable().getDescriptions();
+      assertEquals(expected, actual);
+      for (int i = 0; i < expected.size(); i++) {
+        if (expected.get(i) instanceof ProcedureDescription) {
+          // procedure calls are not comparable, hence only the first statements are compared
+          final Statement expectedStatement =
+              ((ProcedureDescription) expected.get(i)).getEntryPoint();
+          final Statement actualStatement =
+              ((ProcedureDescription) actual.get(i)).getEntryPoint();
+          assertNotNull(expectedStatement);
+          assertNotNull(actualStatement);
+          assertEquals(expectedStatement.getClass(), actualStatement.getClass());
+          assertEquals(expectedStatement.getPosition(), actualStatement.getPosition());
+        }
+      }
+      assertEquals(sequentialAST.getAllErrors(), lazyAST.getAllErrors());
+    } else {
+      // syntax errors in method bodies are found when the bodies are used
+      assertFalse(lazyAST.getAllErrors().isEmpty());
+    }
+  }
+
+  /** A syntax error in a method body should not prevent a lazy parser from reading the outline. */
+  @Test
+  void lazyParsingOnlyReadsOutline() {
+    final String program =
+        "class Test { int x; public void a() { x = ; } public int b() { return x; } }";
+
+    final AbstractSyntaxTree ast = parse(program, ParsingMode.LAZY);
+
+    assertTrue(ast instanceof ClassNode);
+    final List<ObjectDescription> descriptions =
+        ((ClassNode) ast).getClassDescription().getSymbolTable().getDescriptions();
+    assertEquals(3, descriptions.size());
+    assertFalse(ast.getAllErrors().isEmpty());
+  }
+
+  @NotNull
+  private static AbstractSyntaxTree parse(
+      @NotNull final String program, @NotNull final ParsingMode mode) {
+    return parse(program, mode, false);
+  }
+
+  @NotNull
+  private static AbstractSyntaxTree parse(
+      @NotNull final String program,
+      @NotNull final ParsingMode mode,
+      final boolean shareExpressions) {
+    final StringIteratorTestUtility stringIterator = new StringIteratorTestUtility();
+    stringIterator.setString(program);
+    return new Parser(new Scanner(stringIterator), mode, shareExpressions).parse();
+  }
+
+  @NotNull
+  private static File getFileFromResource(@NotNull final String fileName) {
+    final URL resource = ParsingModeTest.class.getClassLoader().getResource(fileName);
+    assert resource != null;
+    return new File(resource.getFile());
+  }
+}
@@ -0,0 +1,147 @@
+package com.merkrafter.parsing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.merkrafter.lexing.Position;
+import com.merkrafter.lexing.Scanner;
+import com.merkrafter.lexing.StringIteratorTestUtility;
+import com.merkrafter.representation.ast.AbstractSyntaxTree;
+import com.merkrafter.representation.ast.ErrorNode;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * The test cases of this class verify that the Recognizer accepts and rejects the same inputs as
+ * the Parser, as long as they do not contain semantic errors.
+ */
+class RecognizerTest {
+
+  /**
+   * If the Parser can not build an AST, the Recognizer should reject the input with the same error
+   * message. If the Parser finds no errors at all, the Recognizer should accept the input.
+   */
+  @ParameterizedTest
+  @MethodSource("com.merkrafter.parsing.ParsingModeTest#getSourceFiles")
+  void recognizerAgreesWithParser(@NotNull final File sourceFile) throws IOException {
+    final String program = String.join("\n", Files.readAllLines(sourceFile.toPath()));
+    assertAgreement(program);
+  }
+
+  /** The Recognizer should accept grammatical programs, even if they contain semantic errors. */
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "class A {}",
+        "class A { final int c = 4; int x; public void m(int a, int b) { x = a; } }",
+        "class A { public int m() { while (1 < 2) { m(); } if (x == y) { return; } else { return"
+            + " (1 + 2) * f(3, 4) / z; } } }",
+        "class A { public void m() { unknown = 1; undefined(unknown); } }"
+      })
+  void acceptGrammaticalPrograms(@NotNull final String program) {
+    final Recognizer recognizer = new Recognizer(createScanner(program));
+
+    assertTrue(recognizer.recognize());
+    assertNull(recognizer.getError());
+    assertNull(recognizer.getErrorPosition());
+  }
+
+  /** The Recognizer should reject ungrammatical programs like the Parser does. */
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "",
+        "class",
+        "class A",
+        "class A { int x; public void m() { x = 1 } }",
+        "class A { int x; public void m() { } }",
+        "class A { int x; public void m() { if (x > 1) { x = 1; } } }",
+        "class A { int x; public void m() { while x > 1 { x = 1; } } }",
+        "class A { int x; public void m() { x = (x + 1; } }",
+        "class A { int x; public void m() { x = 1; } } }",
+        "class A { int x; public m() { x = 1; } }"
+      })
+  void rejectUngrammaticalPrograms(@NotNull final String program) {
+    final Recognizer recognizer = new Recognizer(createScanner(program));
+
+    assertFalse(recognizer.recognize());
+    assertNotNull(recognizer.getError());
+    assertNotNull(recognizer.getErrorPosition());
+    assertAgreement(program);
+  }
+
+  /**
+   * The Recognizer should report the first syntax error at the token where the grammar is
+   * violated.
+   */
+  @Test
+  void reportFirstErrorPosition() {
+    final Recognizer recognizer =
+        new Recognizer(createScanner("class A { int x; public void m() { x = 1 } }"));
+
+    assertFalse(recognizer.recognize());
+    assertEquals(new Position("", 1, 42), recognizer.getErrorPosition());
+    assertEquals("(1,42): R_BRACE was found, but ';' was expected.", recognizer.getError());
+  }
+
+  /** The Recognizer should reject programs with faulty operands like the Parser does. */
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "class A { int x; public void m() { x = x + ; } }",
+        "class A { int x; public void m() { x = x * ; } }",
+        "class A { int x; public void m() { while (x == ) { x = 1; } } }",
+        "class A { final int c = ; public void m() { return; } }"
+      })
+  void rejectFaultyOperands(@NotNull final String program) {
+    final Recognizer recognizer = new Recognizer(createScanner(program));
+    final AbstractSyntaxTree ast = new Parser(createScanner(program)).parse();
+
+    assertFalse(recognizer.recognize());
+    assertEquals(ast.getAllErrors().get(0), recognizer.getError());
+  }
+
+  /**
+   * The Recognizer should reject incomplete constructs like the Parser does, even if they are
+   * followed by complete ones.
+   */
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "class A { int x; public void m() { x = 2; x = 1 } }",
+        "class A { int x; public void m() { x = 2; if (x > 1) { x = 1; } } }",
+        "class A { final int c = 1 int x; public void m() { x = 1; } }",
+        "class A { int x; public void m() { x = f(x; } }"
+      })
+  void rejectIncompleteConstructs(@NotNull final String program) {
+    final Recognizer recognizer = new Recognizer(createScanner(program));
+
+    assertFalse(recognizer.recognize());
+    assertAgreement(program);
+  }
+
+  private static void assertAgreement(@NotNull final String program) {
+    final AbstractSyntaxTree ast = new Parser(createScanner(program)).parse();
+    final Recognizer recognizer = new Recognizer(createScanner(program));
+    final boolean accepted = recognizer.recognize();
+
+    if (ast instanceof ErrorNode) {
+      assertFalse(accepted);
+      assertEquals(ast.getAllErrors().get(0), recognizer.getError());
+    } else if (ast.getAllErrors().isEmpty()) {
+      assertTrue(accepted);
+    }
+  }
+
+  @NotNull
+  private static Scanner createScanner(@NotNull final String program) {
+    final StringIteratorTestUtility stringIterator = new StringIteratorTestUtility();
+    stringIterator.setString(program);
+    return new Scanner(stringIterator);
+  }
+}
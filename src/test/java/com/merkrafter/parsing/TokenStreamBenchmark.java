@@ -0,0 +1,89 @@
+package com.merkrafter.parsing;
+
+import com.merkrafter.lexing.CharTokenizer;
+import com.merkrafter.lexing.IteratorTokenStream;
+import com.merkrafter.lexing.Scanner;
+import com.merkrafter.lexing.StringIteratorTestUtility;
+import com.merkrafter.lexing.TokenBuffer;
+import com.merkrafter.lexing.TokenBufferStream;
+import java.util.function.Supplier;
+import kotlin.text.StringsKt;
+import org.jetbrains.annotations.NotNull;
+
+/****
+ * This benchmark compares parsing the tokens of the different TokenStream implementations.
+ * It is not run as part of the test suite; start its main method manually instead. The optional
+ * first argument is the number of methods of the generated program.
+ * <p>
+ * The live Scanner interleaves lexing and parsing, hence comparing its time to the sum of lexing
+ * into a TokenBuffer and parsing that buffer shows the cost of going through the buffer.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+public class TokenStreamBenchmark {
+  // CONSTANTS
+  // ==============================================================
+  private static final int WARMUP_ROUNDS = 20;
+  private static final int MEASURED_ROUNDS = 20;
+
+  // METHODS
+  // ==============================================================
+  // public methods
+  // --------------------------------------------------------------
+
+  public static void main(@NotNull final String[] args) {
+    final int methods = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+    final String program = generateProgram(methods);
+    final TokenBuffer buffer = TokenBuffer.fromTokenStream(newScanner(program));
+    System.out.printf("%d methods, %d tokens%n", methods, buffer.size());
+
+    measure("Scanner (lexing and parsing)", () -> new Parser(newScanner(program)).parse());
+    measure(
+        "CharTokenizer (lexing and parsing)",
+        () ->
+            new Parser(
+                    new IteratorTokenStream(new CharTokenizer(StringsKt.asSequence(program), "")))
+                .parse());
+    measure(
+        "Recognizer (lexing and syntax checking)",
+        () -> new Recognizer(newScanner(program)).recognize());
+    measure("TokenBuffer (lexing only)", () -> TokenBuffer.fromTokenStream(newScanner(program)));
+    measure("TokenBuffer (parsing only)", () -> new Parser(new TokenBufferStream(buffer)).parse());
+  }
+
+  // private methods
+  // --------------------------------------------------------------
+
+  private static void measure(@NotNull final String name, @NotNull final Supplier<?> task) {
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      task.get();
+    }
+    final long start = System.nanoTime();
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      task.get();
+    }
+    final double millis = (System.nanoTime() - start) / 1e6 / MEASURED_ROUNDS;
+    System.out.printf("%-40s %10.3f ms%n", name, millis);
+  }
+
+  @NotNull
+  private static Scanner newScanner(@NotNull final String program) {
+    final StringIteratorTestUtility stringIterator = new StringIteratorTestUtility();
+    stringIterator.setString(program);
+    return new Scanner(stringIterator);
+  }
+
+  @NotNull
+  private static String generateProgram(final int methods) {
+    final StringBuilder program = new StringBuilder("class Benchmark { int x; ");
+    for (int i = 0; i < methods; i++) {
+      program.append(
+          String.format(
+              "public int m%d(int a) { int b; b = a * %d; if (b > x) {x = b;} else {b = m%d(x);}"
+                  + " while (b > 0) {b = b - 1;} return b + x; }",
+              i, i, (i + 1) % methods));
+    }
+    return program.append("}").toString();
+  }
+}
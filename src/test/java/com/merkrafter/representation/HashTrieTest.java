@@ -0,0 +1,68 @@
+package com.merkrafter.representation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class HashTrieTest {
+
+  /** Adding to a trie should not change it and the new trie should contain the old entries. */
+  @Test
+  void withKeepsOldVersion() {
+    final VariableDescription a = new VariableDescription("a", Type.INT, 0, false);
+    final VariableDescription b = new VariableDescription("b", Type.INT, 0, false);
+    final HashTrie first = HashTrie.EMPTY.with(1, a);
+    final HashTrie second = first.with(2, b);
+
+    assertNull(HashTrie.EMPTY.get(1));
+    assertArrayEquals(new ObjectDescription[] {a}, first.get(1));
+    assertNull(first.get(2));
+    assertArrayEquals(new ObjectDescription[] {a}, second.get(1));
+    assertArrayEquals(new ObjectDescription[] {b}, second.get(2));
+  }
+
+  /** Descriptions with the same hash should be returned in insertion order. */
+  @Test
+  void sameHash() {
+    final VariableDescription a = new VariableDescription("a", Type.INT, 0, false);
+    final VariableDescription b = new VariableDescription("b", Type.INT, 0, false);
+    final HashTrie trie = HashTrie.EMPTY.with(42, a).with(42, b);
+
+    assertArrayEquals(new ObjectDescription[] {a, b}, trie.get(42));
+  }
+
+  /** Hashes that only differ in their highest bits should be stored on the deepest level. */
+  @Test
+  void hashesDifferingInHighestBits() {
+    final int[] hashes = {0, 1 << 30, 1 << 31, 3 << 30, 7};
+    HashTrie trie = HashTrie.EMPTY;
+    for (int i = 0; i < hashes.length; i++) {
+      trie = trie.with(hashes[i], new VariableDescription("v" + i, Type.INT, 0, false));
+    }
+    for (int i = 0; i < hashes.length; i++) {
+      final ObjectDescription[] descriptions = trie.get(hashes[i]);
+      assertNotNull(descriptions);
+      assertEquals(1, descriptions.length);
+      assertEquals("v" + i, descriptions[0].getName());
+    }
+    assertNull(trie.get(1 << 29));
+  }
+
+  /** Many random hashes should all be found. */
+  @Test
+  void manyHashes() {
+    final Random random = new Random(0);
+    final int[] hashes = new int[10_000];
+    HashTrie trie = HashTrie.EMPTY;
+    for (int i = 0; i < hashes.length; i++) {
+      hashes[i] = random.nextInt();
+      trie = trie.with(hashes[i], new VariableDescription("v" + i, Type.INT, 0, false));
+    }
+    for (int i = 0; i < hashes.length; i++) {
+      final ObjectDescription[] descriptions = trie.get(hashes[i]);
+      assertNotNull(descriptions);
+      assertEquals("v" + i, descriptions[descriptions.length - 1].getName());
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package com.merkrafter.representation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.merkrafter.lexing.Scanner;
+import com.merkrafter.lexing.StringIteratorTestUtility;
+import com.merkrafter.parsing.Parser;
+import com.merkrafter.parsing.ParsingMode;
+import com.merkrafter.representation.ast.AbstractSyntaxTree;
+import com.merkrafter.representation.ast.AstVisitor;
+import com.merkrafter.representation.ast.AstWalker;
+import com.merkrafter.representation.ast.ClassNode;
+import java.util.HashSet;
+import java.util.Set;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+class IdGeneratorTest {
+
+  private static final String PROGRAM =
+      "class A { int x; public int f(int a) { if (a > x) { x = a; } else { x = 0; }"
+          + " while (x > 0) { x = x - 1; } return f(x) + 1; } }";
+
+  /** A generator should hand out consecutive identifiers from 1 on, as 0 marks unnumbered nodes. */
+  @Test
+  void consecutiveIdentifiers() {
+    final IdGenerator ids = new IdGenerator();
+
+    assertEquals(IdGenerator.UNNUMBERED + 1, ids.next());
+    assertEquals(IdGenerator.UNNUMBERED + 2, ids.next());
+    assertEquals(IdGenerator.UNNUMBERED + 3, ids.getCount());
+  }
+
+  /** The nodes and descriptions of a numbered class should have distinct, dense identifiers. */
+  @Test
+  void denseIdentifiers() {
+    final ClassNode classNode = parse(PROGRAM, ParsingMode.SEQUENTIAL);
+    final int count = classNode.numberNodes();
+
+    final Set<Integer> identifiers = new HashSet<>();
+    assertTrue(identifiers.add(classNode.getID()));
+    assertTrue(identifiers.add(classNode.getClassDescription().getID()));
+    for (final ObjectDescription obj :
+        classNode.getClassDescription().getSymbolTable().getDescriptions()) {
+      assertTrue(identifiers.add(obj.getID()));
+    }
+    AstWalker.walk(
+        classNode,
+        new AstVisitor() {
+          @Override
+          public boolean enter(@NotNull final AbstractSyntaxTree node) {
+            if (node != classNode) {
+              assertTrue(identifiers.add(node.getID()));
+            }
+            return true;
+          }
+        });
+
+    for (final int id : identifiers) {
+      assertTrue(id > IdGenerator.UNNUMBERED && id < count);
+    }
+  }
+
+  /** The dot output of a class that was not numbered before should number it. */
+  @Test
+  void numberOnDemand() {
+    final ClassNode numbered = parse(PROGRAM, ParsingMode.SEQUENTIAL);
+    numbered.numberNodes();
+    final ClassNode unnumbered = parse(PROGRAM, ParsingMode.SEQUENTIAL);
+    assertEquals(IdGenerator.UNNUMBERED, unnumbered.getID());
+
+    assertEquals(numbered.getDotRepresentation(), unnumbered.getDotRepresentation());
+    assertNotEquals(IdGenerator.UNNUMBERED, unnumbered.getID());
+  }
+
+  /** The same program should result in the same dot output in every parsing mode. */
+  @Test
+  void deterministicDotRepresentation() {
+    final ClassNode first = parse(PROGRAM, ParsingMode.SEQUENTIAL);
+    first.numberNodes();
+    final ClassNode second = parse(PROGRAM, ParsingMode.PARALLEL);
+    second.numberNodes();
+
+    assertEquals(first.getDotRepresentation(), second.getDotRepresentation());
+  }
+
+  private static ClassNode parse(final String program, final ParsingMode mode) {
+    final StringIteratorTestUtility stringIterator = new StringIteratorTestUtility();
+    stringIterator.setString(program);
+    final AbstractSyntaxTree ast = new Parser(new Scanner(stringIterator), mode).parse();
+    assertTrue(ast instanceof ClassNode);
+    return (ClassNode) ast;
+  }
+}
@@ -0,0 +1,146 @@
+package com.merkrafter.representation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.merkrafter.lexing.Position;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ProcedureIndexFileTest {
+  /** Temporary directory for the index files */
+  @SuppressWarnings("unused")
+  @TempDir
+  Path tempDir; // access must NOT be private; otherwise JUnit could not create it
+
+  /** Procedures should be found with their return types and positions after a round trip. */
+  @Test
+  void findWrittenProcedures() throws IOException {
+    final ClassDescription first = new ClassDescription("A", null);
+    final ClassDescription second = new ClassDescription("B", null);
+    procedure(first, Type.INT, "f", Type.INT);
+    procedure(first, Type.VOID, "f", Type.INT, Type.BOOLEAN);
+    procedure(second, Type.BOOLEAN, "gr\u00f6\u00dfer", Type.INT, Type.INT);
+    procedure(second, Type.VOID, "g");
+    final Path path = tempDir.resolve("A.mkpi");
+
+    ProcedureIndexFile.write(path, Arrays.asList(first, second));
+    final ProcedureIndexFile indexFile = ProcedureIndexFile.open(path);
+
+    assertEquals(4, indexFile.size());
+    final ActualProcedureDescription f = indexFile.find("f", new Type[] {Type.INT});
+    assertNotNull(f);
+    assertEquals("f", f.getName());
+    assertEquals(Type.INT, f.getReturnType());
+    assertEquals(new Position("A.java", 3, 7), f.getPosition());
+    assertNull(f.getEntryPoint());
+    final ActualProcedureDescription overload =
+        indexFile.find("f", new Type[] {Type.INT, Type.BOOLEAN});
+    assertNotNull(overload);
+    assertEquals(Type.VOID, overload.getReturnType());
+    assertTrue(overload.hasSignature(Type.INT, Type.BOOLEAN));
+    final ActualProcedureDescription nonAscii =
+        indexFile.find("gr\u00f6\u00dfer", new Type[] {Type.INT, Type.INT});
+    assertNotNull(nonAscii);
+    assertEquals(Type.BOOLEAN, nonAscii.getReturnType());
+    assertNotNull(indexFile.find("g", new Type[0]));
+  }
+
+  /** Unknown names and signatures should not be found. */
+  @Test
+  void findNothingForOtherSignatures() throws IOException {
+    final ClassDescription clazz = new ClassDescription("A", null);
+    procedure(clazz, Type.INT, "f", Type.INT);
+    final Path path = tempDir.resolve("A.mkpi");
+
+    ProcedureIndexFile.write(path, Collections.singletonList(clazz));
+    final ProcedureIndexFile indexFile = ProcedureIndexFile.open(path);
+
+    assertNull(indexFile.find("f", new Type[0]));
+    assertNull(indexFile.find("f", new Type[] {Type.BOOLEAN}));
+    assertNull(indexFile.find("f", new Type[] {Type.INT, Type.INT}));
+    assertNull(indexFile.find("g", new Type[] {Type.INT}));
+    assertNull(indexFile.find("f", new Type[] {null}));
+  }
+
+  /** Many procedures should all be found by the binary search. */
+  @Test
+  void findManyProcedures() throws IOException {
+    final ClassDescription clazz = new ClassDescription("A", null);
+    final int numProcedures = 1000;
+    for (int i = 0; i < numProcedures; i++) {
+      procedure(clazz, Type.INT, "f" + i, Type.INT);
+    }
+    final Path path = tempDir.resolve("A.mkpi");
+
+    ProcedureIndexFile.write(path, Collections.singletonList(clazz));
+    final ProcedureIndexFile indexFile = ProcedureIndexFile.open(path);
+
+    for (int i = 0; i < numProcedures; i++) {
+      final ActualProcedureDescription procedure =
+          indexFile.find("f" + i, new Type[] {Type.INT});
+      assertNotNull(procedure, "f" + i);
+      assertEquals("f" + i, procedure.getName());
+    }
+  }
+
+  /** A ProcedureIndex should search its libraries after the registered classes. */
+  @Test
+  void linkAgainstLibrary() throws IOException {
+    final ClassDescription library = new ClassDescription("A", null);
+    procedure(library, Type.INT, "f", Type.INT);
+    procedure(library, Type.INT, "g");
+    final Path path = tempDir.resolve("A.mkpi");
+    ProcedureIndexFile.write(path, Collections.singletonList(library));
+    final ClassDescription clazz = new ClassDescription("B", null);
+    final ActualProcedureDescription g = procedure(clazz, Type.INT, "g");
+
+    final ProcedureIndex procedureIndex =
+        new ProcedureIndex(Collections.singletonList(ProcedureIndexFile.open(path)));
+    procedureIndex.register(clazz);
+
+    final ProcedureDescription f = procedureIndex.find("f", new Type[] {Type.INT});
+    assertNotNull(f);
+    assertSame(f, procedureIndex.find("f", new Type[] {Type.INT}));
+    assertSame(g, procedureIndex.find("g", new Type[0]));
+    assertNull(procedureIndex.find("h", new Type[0]));
+  }
+
+  /** Files that were not written by this class should be rejected. */
+  @Test
+  void rejectOtherFiles() throws IOException {
+    final Path path = tempDir.resolve("A.java");
+    Files.write(path, "class A {}".getBytes());
+
+    assertThrows(IOException.class, () -> ProcedureIndexFile.open(path));
+  }
+
+  /** Creates a procedure with parameters of the given types and inserts it into the class. */
+  @NotNull
+  private static ActualProcedureDescription procedure(
+      @NotNull final ClassDescription clazz,
+      @NotNull final Type returnType,
+      @NotNull final String name,
+      @NotNull final Type... paramTypes) {
+    final List<VariableDescription> params = new ArrayList<>(paramTypes.length);
+    for (int i = 0; i < paramTypes.length; i++) {
+      params.add(new VariableDescription("p" + i, paramTypes[i], 0, false));
+    }
+    final ActualProcedureDescription procedure =
+        new ActualProcedureDescription(
+            returnType,
+            name,
+            params,
+            clazz.getSymbolTable(),
+            new Position(clazz.getName() + ".java", 3, 7));
+    assertTrue(clazz.getSymbolTable().insert(procedure));
+    return procedure;
+  }
+}
@@ -0,0 +1,98 @@
+package com.merkrafter.representation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.merkrafter.lexing.Position;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+class ProcedureIndexTest {
+  private final Position p = new Position("", 0, 0); // just a dummy position
+
+  /** Procedures should be found by their names and parameter types only. */
+  @Test
+  void findBySignature() {
+    final ClassDescription clazz = new ClassDescription("A", null);
+    final ActualProcedureDescription f = procedure(clazz, "f", 1);
+    final ActualProcedureDescription g = procedure(clazz, "f", 2);
+    final ProcedureIndex procedureIndex = new ProcedureIndex();
+
+    procedureIndex.register(clazz);
+
+    assertEquals(2, procedureIndex.size());
+    assertSame(f, procedureIndex.find("f", new Type[] {Type.INT}));
+    assertSame(g, procedureIndex.find("f", new Type[] {Type.INT, Type.INT}));
+    assertNull(procedureIndex.find("f", new Type[0]));
+    assertNull(procedureIndex.find("g", new Type[] {Type.INT}));
+    assertTrue(procedureIndex.getDiagnostics().isEmpty());
+  }
+
+  /** A procedure declared in a second class should be reported and not replace the first one. */
+  @Test
+  void reportDuplicateProcedures() {
+    final ClassDescription first = new ClassDescription("A", null);
+    final ClassDescription second = new ClassDescription("B", null);
+    final ActualProcedureDescription f = procedure(first, "f", 1);
+    procedure(second, "f", 1);
+    final ProcedureIndex procedureIndex = new ProcedureIndex();
+
+    procedureIndex.register(first);
+    procedureIndex.register(second);
+
+    assertSame(f, procedureIndex.find("f", new Type[] {Type.INT}));
+    assertEquals(1, procedureIndex.getDiagnostics().size());
+  }
+
+  /** Classes that are registered from multiple threads should all be found afterwards. */
+  @Test
+  void registerConcurrently() throws InterruptedException, ExecutionException {
+    final int numClasses = 1000;
+    final List<ClassDescription> classes = new ArrayList<>(numClasses);
+    for (int i = 0; i < numClasses; i++) {
+      final ClassDescription clazz = new ClassDescription("C" + i, null);
+      procedure(clazz, "f" + i, i % 4);
+      classes.add(clazz);
+    }
+    final ProcedureIndex procedureIndex = new ProcedureIndex();
+
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<?>> futures = new ArrayList<>(numClasses);
+      for (final ClassDescription clazz : classes) {
+        futures.add(executor.submit(() -> procedureIndex.register(clazz)));
+      }
+      for (final Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    assertEquals(numClasses, procedureIndex.size());
+    for (int i = 0; i < numClasses; i++) {
+      final Type[] signature = Collections.nCopies(i % 4, Type.INT).toArray(new Type[0]);
+      assertNotNull(procedureIndex.find("f" + i, signature));
+    }
+  }
+
+  /** Creates a procedure with the given number of int parameters and inserts it into the class. */
+  @NotNull
+  private ActualProcedureDescription procedure(
+      @NotNull final ClassDescription clazz, @NotNull final String name, final int numParams) {
+    final List<VariableDescription> params = new ArrayList<>(numParams);
+    for (int i = 0; i < numParams; i++) {
+      params.add(new VariableDescription("p" + i, Type.INT, 0, false));
+    }
+    final ActualProcedureDescription procedure =
+        new ActualProcedureDescription(Type.VOID, name, params, clazz.getSymbolTable(), p);
+    assertTrue(clazz.getSymbolTable().insert(procedure));
+    return procedure;
+  }
+}
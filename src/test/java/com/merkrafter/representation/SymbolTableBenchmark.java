@@ -0,0 +1,149 @@
+package com.merkrafter.representation;
+
+import com.merkrafter.lexing.Position;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+
+/****
+ * This benchmark measures how inserting into and finding in a SymbolTable scale with the number of
+ * symbols. It is not run as part of the test suite; start its main method manually instead. The
+ * optional first argument is the largest number of symbols to measure.
+ * <p>
+ * Half of the symbols are variables and half are procedures with one parameter. All of them are
+ * inserted into a class scope and then searched from a nested method scope, like the Parser does
+ * for variable references and procedure calls. Afterwards, the same is measured for overloads of a
+ * single procedure name that only differ in the types of their parameters.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+public class SymbolTableBenchmark {
+  // CONSTANTS
+  // ==============================================================
+  private static final int WARMUP_ROUNDS = 5;
+  private static final int MEASURED_ROUNDS = 5;
+  /** overloads have this many int or boolean parameters, hence there are 2^n of them at most */
+  private static final int OVERLOAD_ARITY = 14;
+  private static final int MAX_OVERLOADS = 1 << OVERLOAD_ARITY;
+
+  // METHODS
+  // ==============================================================
+  // public methods
+  // --------------------------------------------------------------
+
+  public static void main(@NotNull final String[] args) {
+    final int maxSymbols = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+    System.out.printf("%10s %15s %15s%n", "symbols", "insert [ms]", "find [ms]");
+    for (int symbols = 10; symbols <= maxSymbols; symbols *= 10) {
+      final List<ObjectDescription> descriptions = createDescriptions(symbols);
+      for (int i = 0; i < WARMUP_ROUNDS; i++) {
+        findAll(insertAll(descriptions), symbols);
+      }
+      long insertNanos = 0;
+      long findNanos = 0;
+      for (int i = 0; i < MEASURED_ROUNDS; i++) {
+        final long start = System.nanoTime();
+        final SymbolTable table = insertAll(descriptions);
+        final long inserted = System.nanoTime();
+        findAll(table, symbols);
+        findNanos += System.nanoTime() - inserted;
+        insertNanos += inserted - start;
+      }
+      System.out.printf(
+          "%10d %15.3f %15.3f%n",
+          symbols, insertNanos / 1e6 / MEASURED_ROUNDS, findNanos / 1e6 / MEASURED_ROUNDS);
+    }
+
+    System.out.printf("%10s %15s %15s%n", "overloads", "insert [ms]", "find [ms]");
+    for (int overloads = 16; overloads <= MAX_OVERLOADS; overloads *= 4) {
+      final List<ObjectDescription> descriptions = createOverloads(overloads);
+      for (int i = 0; i < WARMUP_ROUNDS; i++) {
+        findAllOverloads(insertAll(descriptions), overloads);
+      }
+      long insertNanos = 0;
+      long findNanos = 0;
+      for (int i = 0; i < MEASURED_ROUNDS; i++) {
+        final long start = System.nanoTime();
+        final SymbolTable table = insertAll(descriptions);
+        final long inserted = System.nanoTime();
+        findAllOverloads(table, overloads);
+        findNanos += System.nanoTime() - inserted;
+        insertNanos += inserted - start;
+      }
+      System.out.printf(
+          "%10d %15.3f %15.3f%n",
+          overloads, insertNanos / 1e6 / MEASURED_ROUNDS, findNanos / 1e6 / MEASURED_ROUNDS);
+    }
+  }
+
+  // private methods
+  // --------------------------------------------------------------
+
+  @NotNull
+  private static List<ObjectDescription> createDescriptions(final int symbols) {
+    final Position position = new Position("", 0, 0);
+    final List<ObjectDescription> descriptions = new ArrayList<>(symbols);
+    for (int i = 0; i < symbols / 2; i++) {
+      descriptions.add(new VariableDescription("v" + i, Type.INT, 0, false));
+      final List<VariableDescription> paramList = new LinkedList<>();
+      paramList.add(new VariableDescription("a", Type.INT, 0, false));
+      descriptions.add(
+          new ActualProcedureDescription(Type.INT, "p" + i, paramList, null, position));
+    }
+    return descriptions;
+  }
+
+  @NotNull
+  private static SymbolTable insertAll(@NotNull final List<ObjectDescription> descriptions) {
+    final SymbolTable table = new SymbolTable();
+    for (final ObjectDescription description : descriptions) {
+      table.insert(description);
+    }
+    return table;
+  }
+
+  private static void findAll(@NotNull final SymbolTable classTable, final int symbols) {
+    final SymbolTable methodTable = new SymbolTable(classTable);
+    for (int i = 0; i < symbols / 2; i++) {
+      if (methodTable.findVariable("v" + i) == null
+          || methodTable.findProcedure("p" + i, Type.INT) == null) {
+        throw new IllegalStateException("symbol " + i + " was not found");
+      }
+    }
+  }
+
+  @NotNull
+  private static List<ObjectDescription> createOverloads(final int overloads) {
+    final Position position = new Position("", 0, 0);
+    final List<ObjectDescription> descriptions = new ArrayList<>(overloads);
+    for (int i = 0; i < overloads; i++) {
+      final List<VariableDescription> paramList = new LinkedList<>();
+      for (final Type type : overloadSignature(i)) {
+        paramList.add(new VariableDescription("a" + paramList.size(), type, 0, false));
+      }
+      descriptions.add(new ActualProcedureDescription(Type.INT, "p", paramList, null, position));
+    }
+    return descriptions;
+  }
+
+  private static void findAllOverloads(@NotNull final SymbolTable classTable, final int overloads) {
+    final SymbolTable methodTable = new SymbolTable(classTable);
+    for (int i = 0; i < overloads; i++) {
+      if (methodTable.findProcedure("p", overloadSignature(i)) == null) {
+        throw new IllegalStateException("overload " + i + " was not found");
+      }
+    }
+  }
+
+  /** Encodes i as a sequence of int and boolean types. */
+  @NotNull
+  private static Type[] overloadSignature(final int i) {
+    final Type[] signature = new Type[OVERLOAD_ARITY];
+    for (int bit = 0; bit < OVERLOAD_ARITY; bit++) {
+      signature[bit] = (i & (1 << bit)) != 0 ? Type.BOOLEAN : Type.INT;
+    }
+    return signature;
+  }
+}
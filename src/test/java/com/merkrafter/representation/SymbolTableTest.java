@@ -288,4 +288,196 @@ class SymbolTableTest {
     final ObjectDescription objDesc = symbolTable.find(prototype);
     assertNull(objDesc);
   }
+
+  /**
+   * A variable and a procedure with the same name as well as procedures that only differ in their
+   * parameter lists should be stored side by side and found individually.
+   */
+  @Test
+  void insertDescriptionsWithSameName() {
+    final VariableDescription varDesc = new VariableDescription("a", Type.INT, 5, true);
+    final LinkedList<VariableDescription> paramList = new LinkedList<>();
+    paramList.add(new VariableDescription("x", Type.INT, 0, false));
+    final ObjectDescription procDesc =
+        new ActualProcedureDescription(Type.INT, "a", new LinkedList<>(), null, p);
+    final ObjectDescription overloadedProcDesc =
+        new ActualProcedureDescription(Type.INT, "a", paramList, null, p);
+
+    assertTrue(symbolTable.insert(varDesc));
+    assertTrue(symbolTable.insert(procDesc));
+    assertTrue(symbolTable.insert(overloadedProcDesc));
+
+    assertSame(varDesc, symbolTable.find("a", (Type[]) null));
+    assertSame(procDesc, symbolTable.find("a"));
+    assertSame(overloadedProcDesc, symbolTable.find("a", Type.INT));
+    assertNull(symbolTable.find("a", Type.INT, Type.INT));
+  }
+
+  /** The descriptions should be returned in the order they were inserted and not be modifiable. */
+  @Test
+  void getDescriptionsInDeclarationOrder() {
+    final int numDescriptions = 100;
+    for (int i = numDescriptions; i > 0; i--) {
+      symbolTable.insert(new VariableDescription("v" + i, Type.INT, i, false));
+    }
+    symbolTable.insert(new VariableDescription("v1", Type.INT, 0, false)); // duplicate
+
+    assertEquals(numDescriptions, symbolTable.getDescriptions().size());
+    for (int i = 0; i < numDescriptions; i++) {
+      assertEquals("v" + (numDescriptions - i), symbolTable.getDescriptions().get(i).getName());
+    }
+    assertThrows(
+        UnsupportedOperationException.class,
+        () -> symbolTable.getDescriptions().add(new VariableDescription("w", Type.INT, 0, false)));
+  }
+
+  /** A variable in an inner table should hide a variable with the same name in an outer table. */
+  @Test
+  void findVariableDescriptionInInnermostTable() {
+    final VariableDescription outer = new VariableDescription("a", Type.INT, 5, true);
+    final VariableDescription inner = new VariableDescription("a", Type.INT, 6, false);
+    symbolTable.insert(outer);
+    final SymbolTable innerSymbolTable = new SymbolTable(symbolTable);
+    innerSymbolTable.insert(inner);
+
+    assertSame(inner, innerSymbolTable.find("a", (Type[]) null));
+    assertSame(outer, symbolTable.find("a", (Type[]) null));
+  }
+
+  /** findVariable should only find variables, even if a procedure has the same name. */
+  @Test
+  void findVariableIgnoresProcedures() {
+    final ObjectDescription procDesc =
+        new ActualProcedureDescription(Type.INT, "a", new LinkedList<>(), null, p);
+    symbolTable.insert(procDesc);
+    assertNull(symbolTable.findVariable("a"));
+
+    final VariableDescription varDesc = new VariableDescription("a", Type.INT, 5, true);
+    symbolTable.insert(varDesc);
+    assertSame(varDesc, new SymbolTable(symbolTable).findVariable("a"));
+  }
+
+  /**
+   * findProcedure should compare the types of the parameters in order and ignore variables with
+   * the same name.
+   */
+  @Test
+  void findProcedureBySignature() {
+    final LinkedList<VariableDescription> paramList = new LinkedList<>();
+    paramList.add(new VariableDescription("x", Type.INT, 0, false));
+    paramList.add(new VariableDescription("y", Type.BOOLEAN, true, false));
+    final ActualProcedureDescription procDesc =
+        new ActualProcedureDescription(Type.INT, "a", paramList, null, p);
+    symbolTable.insert(new VariableDescription("a", Type.INT, 5, true));
+    symbolTable.insert(procDesc);
+
+    assertSame(procDesc, symbolTable.findProcedure("a", Type.INT, Type.BOOLEAN));
+    assertSame(procDesc, new SymbolTable(symbolTable).findProcedure("a", Type.INT, Type.BOOLEAN));
+    assertNull(symbolTable.findProcedure("a", Type.BOOLEAN, Type.INT));
+    assertNull(symbolTable.findProcedure("a", Type.INT));
+    assertNull(symbolTable.findProcedure("a"));
+    assertNull(symbolTable.findProcedure("b", Type.INT, Type.BOOLEAN));
+  }
+
+  /** Many overloads of the same name should all be inserted and found by their signatures. */
+  @Test
+  void findManyOverloads() {
+    final int numParams = 8;
+    final ActualProcedureDescription[] overloads = new ActualProcedureDescription[1 << numParams];
+    for (int i = 0; i < overloads.length; i++) {
+      overloads[i] =
+          new ActualProcedureDescription(Type.INT, "f", paramList(signature(i, numParams)), null, p);
+      assertTrue(symbolTable.insert(overloads[i]));
+    }
+    for (int i = 0; i < overloads.length; i++) {
+      assertSame(overloads[i], symbolTable.findProcedure("f", signature(i, numParams)));
+      assertFalse(
+          symbolTable.insert(
+              new ActualProcedureDescription(
+                  Type.VOID, "f", paramList(signature(i, numParams)), null, p)));
+    }
+    assertNull(symbolTable.findProcedure("f", signature(0, numParams + 1)));
+  }
+
+  /** Parameters without a description should match arguments of any type like equals does. */
+  @Test
+  void findProcedureWithUntypedParameter() {
+    final LinkedList<VariableDescription> paramList = new LinkedList<>();
+    paramList.add(null);
+    final ObjectDescription procDesc =
+        new ActualProcedureDescription(Type.INT, "f", paramList, null, p);
+    symbolTable.insert(procDesc);
+
+    assertSame(procDesc, symbolTable.findProcedure("f", Type.INT));
+    assertSame(procDesc, symbolTable.findProcedure("f", Type.BOOLEAN));
+    assertFalse(
+        symbolTable.insert(
+            new ActualProcedureDescription(Type.INT, "f", paramList(Type.INT), null, p)));
+  }
+
+  /** A snapshot should keep its contents while the original table is changed. */
+  @Test
+  void snapshotIsNotChangedByLaterInsertions() {
+    final VariableDescription a = new VariableDescription("a", Type.INT, 1, false);
+    final VariableDescription b = new VariableDescription("b", Type.INT, 2, false);
+    final VariableDescription c = new VariableDescription("c", Type.INT, 3, false);
+    symbolTable.insert(a);
+    final SymbolTable innerSymbolTable = new SymbolTable(symbolTable);
+    innerSymbolTable.insert(b);
+
+    final SymbolTable snapshot = innerSymbolTable.snapshot();
+    symbolTable.insert(c);
+    innerSymbolTable.insert(new VariableDescription("d", Type.INT, 4, false));
+
+    assertSame(a, snapshot.findVariable("a"));
+    assertSame(b, snapshot.findVariable("b"));
+    assertNull(snapshot.findVariable("c"));
+    assertNull(snapshot.findVariable("d"));
+    assertSame(c, innerSymbolTable.findVariable("c"));
+    assertEquals(1, snapshot.getDescriptions().size());
+    assertEquals(2, innerSymbolTable.getDescriptions().size());
+    assertThrows(UnsupportedOperationException.class, () -> snapshot.insert(c));
+  }
+
+  /** Reading from other threads while descriptions are inserted should never miss old entries. */
+  @Test
+  void readWhileInserting() throws InterruptedException {
+    final int numDescriptions = 20_000;
+    final Thread reader =
+        new Thread(
+            () -> {
+              int known = 0;
+              while (known < numDescriptions) {
+                final int size = symbolTable.getDescriptions().size();
+                for (int i = known; i < size; i++) {
+                  assertNotNull(symbolTable.findVariable("v" + i));
+                }
+                known = size;
+              }
+            });
+    final Throwable[] failure = new Throwable[1];
+    reader.setUncaughtExceptionHandler((thread, throwable) -> failure[0] = throwable);
+    reader.start();
+    for (int i = 0; i < numDescriptions; i++) {
+      symbolTable.insert(new VariableDescription("v" + i, Type.INT, i, false));
+    }
+    reader.join();
+    assertNull(failure[0]);
+  }
+
+  private static Type[] signature(final int i, final int numParams) {
+    final Type[] signature = new Type[numParams];
+    for (int bit = 0; bit < numParams; bit++) {
+      signature[bit] = (i & (1 << bit)) != 0 ? Type.BOOLEAN : Type.INT;
+    }
+    return signature;
+  }
+
+  private static LinkedList<VariableDescription> paramList(final Type... types) {
+    final LinkedList<VariableDescription> paramList = new LinkedList<>();
+    for (final Type type : types) {
+      paramList.add(new VariableDescription("p" + paramList.size(), type, 0, false));
+    }
+    return paramList;
+  }
 }
@@ -0,0 +1,145 @@
+package com.merkrafter.representation.ast;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.merkrafter.lexing.Position;
+import com.merkrafter.representation.Type;
+import com.merkrafter.representation.VariableDescription;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+class AstWalkerTest {
+  private final Position p = new Position("", 0, 0); // just a dummy position
+
+  private final VariableDescription x = new VariableDescription("x", Type.INT, 0, false);
+  private final VariableDescription b = new VariableDescription("b", Type.BOOLEAN, false, false);
+
+  /**
+   * Nodes should be entered before and left after their children, and the next statement should
+   * come after the statement was left.
+   */
+  @Test
+  void visitInOrder() {
+    // while (b) { x = 1; } return;
+    final VariableAccessNode condition = new VariableAccessNode(b, p);
+    final VariableAccessNode variable = new VariableAccessNode(x, p);
+    final ConstantNode<Long> value = new ConstantNode<>(Type.INT, 1L, p);
+    final AssignmentNode assignment = new AssignmentNode(variable, value);
+    final WhileNode loop = new WhileNode(condition, assignment, p);
+    final ReturnNode ret = new ReturnNode(p);
+    loop.setNext(ret);
+    // the nodes are not part of a numbered class, hence tell them apart by setting the identifiers
+    int id = 0;
+    for (final AbstractSyntaxTree node :
+        Arrays.asList(loop, condition, assignment, variable, value, ret)) {
+      node.setID(id++);
+    }
+
+    final List<String> events = new ArrayList<>();
+    AstWalker.walk(
+        loop,
+        new AstVisitor() {
+          @Override
+          public boolean enter(@NotNull final AbstractSyntaxTree node) {
+            events.add("enter " + node.getID());
+            return true;
+          }
+
+          @Override
+          public void leave(@NotNull final AbstractSyntaxTree node) {
+            events.add("leave " + node.getID());
+          }
+        });
+
+    assertEquals(
+        Arrays.asList(
+            "enter " + loop.getID(),
+            "enter " + condition.getID(),
+            "leave " + condition.getID(),
+            "enter " + assignment.getID(),
+            "enter " + variable.getID(),
+            "leave " + variable.getID(),
+            "enter " + value.getID(),
+            "leave " + value.getID(),
+            "leave " + assignment.getID(),
+            "leave " + loop.getID(),
+            "enter " + ret.getID(),
+            "leave " + ret.getID()),
+        events);
+  }
+
+  /** If enter returns false, neither the children nor leave should be visited, but the next one. */
+  @Test
+  void skipChildren() {
+    // x = 1; return;
+    final AssignmentNode assignment =
+        new AssignmentNode(new VariableAccessNode(x, p), new ConstantNode<>(Type.INT, 1L, p));
+    final ReturnNode ret = new ReturnNode(p);
+    assignment.setNext(ret);
+
+    final List<AbstractSyntaxTree> visited = new ArrayList<>();
+    AstWalker.walk(
+        assignment,
+        new AstVisitor() {
+          @Override
+          public boolean enter(@NotNull final AbstractSyntaxTree node) {
+            visited.add(node);
+            return false;
+          }
+
+          @Override
+          public void leave(@NotNull final AbstractSyntaxTree node) {
+            fail("leave must not be called");
+          }
+        });
+
+    assertEquals(Arrays.asList(assignment, ret), visited);
+  }
+
+  /** Passes over very long statement sequences should not overflow the stack. */
+  @Test
+  void longSequence() {
+    final int numStatements = 1_000_000;
+    final AssignmentNode first = assignment();
+    AssignmentNode last = first;
+    for (int i = 1; i < numStatements; i++) {
+      final AssignmentNode next = assignment();
+      last.setNext(next);
+      last = next;
+    }
+    last.setNext(new ReturnNode(new VariableAccessNode(x, p), p));
+
+    final int[] visited = {0};
+    AstWalker.walk(
+        first,
+        new AstVisitor() {
+          @Override
+          public boolean enter(@NotNull final AbstractSyntaxTree node) {
+            visited[0]++;
+            return false;
+          }
+        });
+    first.resolveVariables(1);
+
+    assertEquals(numStatements + 1, visited[0]);
+    assertTrue(first.getTypingErrors().isEmpty());
+    assertTrue(first.hasReturnStatement());
+    assertTrue(first.isCompatibleToType(Type.INT));
+    assertFalse(first.isCompatibleToType(Type.VOID));
+    assertFalse(first.getDotRepresentation().isEmpty());
+  }
+
+  /** @return x = x + 1; */
+  @NotNull
+  private AssignmentNode assignment() {
+    return new AssignmentNode(
+        new VariableAccessNode(x, p),
+        new BinaryOperationNode(
+            new VariableAccessNode(x, p),
+            BinaryOperationNodeType.PLUS,
+            new ConstantNode<>(Type.INT, 1L, p)));
+  }
+}
@@ -0,0 +1,96 @@
+package com.merkrafter.representation.ast;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.merkrafter.lexing.Position;
+import com.merkrafter.representation.Type;
+import com.merkrafter.representation.VariableDescription;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+class BitVectorDataflowTest {
+  private final Position p = new Position("", 0, 0); // just a dummy position
+
+  private final VariableDescription x = new VariableDescription("x", Type.INT, 0, false);
+  private final VariableDescription b = new VariableDescription("b", Type.BOOLEAN, false, false);
+
+  // block indices of the loop below
+  private static final int HEADER = 1;
+  private static final int BODY = 2;
+  private static final int AFTER = 3;
+
+  /** A while loop should consist of a header with the condition, the body and the code after it. */
+  @Test
+  void buildLoop() {
+    final ControlFlowGraph graph = loop();
+
+    assertEquals(5, graph.size());
+    assertEquals(4, graph.getExit());
+    assertArrayEquals(new int[] {HEADER}, graph.getSuccessors(ControlFlowGraph.ENTRY));
+    assertArrayEquals(new int[] {BODY, AFTER}, graph.getSuccessors(HEADER));
+    assertArrayEquals(new int[] {ControlFlowGraph.ENTRY, BODY}, graph.getPredecessors(HEADER));
+    assertArrayEquals(new int[] {graph.getExit()}, graph.getSuccessors(AFTER));
+    assertEquals(1, graph.getItems(HEADER).size());
+    assertTrue(graph.getItems(BODY).get(0) instanceof AssignmentNode);
+  }
+
+  /** Facts from the loop body flow back to its header if they may hold, even if killed there. */
+  @Test
+  void solveForwardUnion() {
+    final ControlFlowGraph graph = loop();
+    final BitVectorDataflow dataflow =
+        new BitVectorDataflow(
+            graph, 2, BitVectorDataflow.Direction.FORWARD, BitVectorDataflow.Meet.UNION);
+    dataflow.gen(BODY, 0);
+    dataflow.kill(BODY, 1);
+
+    final long[][] in = dataflow.solve(new long[] {2});
+
+    assertEquals(2, in[ControlFlowGraph.ENTRY][0]);
+    assertEquals(3, in[HEADER][0]);
+    assertEquals(3, in[AFTER][0]);
+  }
+
+  /** Facts from the loop body do not hold after the loop if they must hold. */
+  @Test
+  void solveForwardIntersection() {
+    final ControlFlowGraph graph = loop();
+    final BitVectorDataflow dataflow =
+        new BitVectorDataflow(
+            graph, 2, BitVectorDataflow.Direction.FORWARD, BitVectorDataflow.Meet.INTERSECTION);
+    dataflow.gen(BODY, 0);
+
+    final long[][] in = dataflow.solve(new long[] {2});
+
+    assertEquals(2, in[HEADER][0] & 3);
+    assertEquals(2, in[AFTER][0] & 3);
+    assertEquals(2, in[BODY][0] & 3);
+  }
+
+  /** Backward problems start at the exit and flow against the edges. */
+  @Test
+  void solveBackwardUnion() {
+    final ControlFlowGraph graph = loop();
+    final BitVectorDataflow dataflow =
+        new BitVectorDataflow(
+            graph, 130, BitVectorDataflow.Direction.BACKWARD, BitVectorDataflow.Meet.UNION);
+    dataflow.gen(BODY, 129);
+
+    final long[][] in = dataflow.solve(new long[dataflow.getWords()]);
+
+    assertEquals(3, dataflow.getWords());
+    assertEquals(2, in[HEADER][2]);
+    assertEquals(2, in[ControlFlowGraph.ENTRY][2]);
+    assertEquals(0, in[AFTER][2]);
+  }
+
+  /** @return the graph of while (b) { x = 1; } */
+  @NotNull
+  private ControlFlowGraph loop() {
+    return new ControlFlowGraph(
+        new WhileNode(
+            new VariableAccessNode(b, p),
+            new AssignmentNode(new VariableAccessNode(x, p), new ConstantNode<>(Type.INT, 1L, p)),
+            p));
+  }
+}
@@ -0,0 +1,152 @@
+package com.merkrafter.representation.ast;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.merkrafter.lexing.Scanner;
+import com.merkrafter.lexing.StringIteratorTestUtility;
+import com.merkrafter.parsing.Parser;
+import com.merkrafter.parsing.ParsingMode;
+import com.merkrafter.representation.ObjectDescription;
+import com.merkrafter.representation.ProcedureDescription;
+import com.merkrafter.representation.Type;
+import java.util.ArrayList;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+class DefiniteAssignmentTest {
+
+  /** Parameters, fields and assigned locals may be read. */
+  @Test
+  void readAssignedVariables() {
+    final List<String> errors =
+        check("int x; public int m(int a) { int b; b = a + x; x = b; return b; }");
+
+    assertTrue(errors.isEmpty(), errors.toString());
+  }
+
+  /** A local that is read before any assignment should be reported at the read. */
+  @Test
+  void readBeforeAssignment() {
+    final List<String> errors =
+        check("public int m() { int b; int c; c = b; b = 1; return b + c; }");
+
+    assertEquals(1, errors.size());
+    assertTrue(errors.get(0).contains("Variable b might not have been initialized"));
+  }
+
+  /** A variable must be assigned in both branches of an if statement. */
+  @Test
+  void assignInBranches() {
+    final List<String> both =
+        check(
+            "public int m(int a) { int b; if (a > 0) { b = 1; } else { b = 2; } return b; }");
+    final List<String> one =
+        check(
+            "public int m(int a) { int b; if (a > 0) { b = 1; } else { a = 2; } return b; }");
+
+    assertTrue(both.isEmpty(), both.toString());
+    assertEquals(1, one.size());
+  }
+
+  /** A branch that returns does not reach the statements after the if statement. */
+  @Test
+  void returnInBranch() {
+    final List<String> errors =
+        check(
+            "public int m(int a) { int b; if (a > 0) { b = 1; } else { return 0; } return b; }");
+
+    assertTrue(errors.isEmpty(), errors.toString());
+  }
+
+  /** The body of a loop might not be executed, but it is executed before its next iteration. */
+  @Test
+  void assignInLoop() {
+    final List<String> afterLoop =
+        check("public int m(int a) { int b; while (a > 0) { b = a; a = a - 1; } return b; }");
+    final List<String> inLoop =
+        check(
+            "public void m(int a) { int b; int c;"
+                + " while (a > 0) { if (a > 1) { c = b; } else { c = 0; } b = a; a = a - c; } }");
+
+    assertEquals(1, afterLoop.size());
+    assertEquals(1, inLoop.size());
+    assertTrue(inLoop.get(0).contains("Variable b"));
+  }
+
+  /** Conditions, arguments and return values are reads as well. */
+  @Test
+  void readInConditionsAndCalls() {
+    final List<String> errors =
+        check(
+            "public int m() { int b; int c; int d; while (b > 0) { f(c); } return d; }"
+                + " public void f(int a) { return; }");
+
+    assertEquals(3, errors.size());
+  }
+
+  /** A shared access should be reported once, even if it is read in several places. */
+  @Test
+  void reportSharedAccessOnce() {
+    final String classBody = "public int m() { int b; int c; c = b; c = b; return c; }";
+    final ClassNode shared = parse(classBody, true);
+
+    assertEquals(2, check(parse(classBody, false)).size());
+    assertEquals(1, shared.getAllErrors().size());
+  }
+
+  /** The analysis should number the variables of the procedure by their slots. */
+  @Test
+  void assignSlotsOfProcedure() {
+    final ClassNode clazz = parse("int x; public int m(int a) { int b; b = a + x; return b; }");
+    final ProcedureDescription m =
+        clazz.getClassDescription().getSymbolTable().findProcedure("m", Type.INT);
+    assertNotNull(m);
+
+    check(clazz);
+
+    assertEquals(0, m.getSymbols().findVariable("a").getSlot());
+    assertEquals(1, m.getSymbols().findVariable("b").getSlot());
+    assertEquals(-1, clazz.getClassDescription().getSymbolTable().findVariable("x").getSlot());
+  }
+
+  /** The errors should be part of the errors of the class. */
+  @Test
+  void reportWithClassErrors() {
+    final ClassNode clazz = parse("public int m() { int b; return b; }");
+
+    assertEquals(1, clazz.getAllErrors().size());
+  }
+
+  @NotNull
+  private static List<String> check(@NotNull final String classBody) {
+    return check(parse(classBody));
+  }
+
+  @NotNull
+  private static List<String> check(@NotNull final ClassNode clazz) {
+    final List<String> errors = new ArrayList<>();
+    for (final ObjectDescription description :
+        clazz.getClassDescription().getSymbolTable().getDescriptions()) {
+      if (description instanceof ProcedureDescription) {
+        new DefiniteAssignment((ProcedureDescription) description).collectErrors(errors);
+      }
+    }
+    return errors;
+  }
+
+  @NotNull
+  private static ClassNode parse(@NotNull final String classBody) {
+    return parse(classBody, false);
+  }
+
+  @NotNull
+  private static ClassNode parse(@NotNull final String classBody, final boolean share) {
+    final StringIteratorTestUtility stringIterator = new StringIteratorTestUtility();
+    stringIterator.setString("class A { " + classBody + " }");
+    final AbstractSyntaxTree ast =
+        new Parser(new Scanner(stringIterator), ParsingMode.SEQUENTIAL, share).parse();
+    assertTrue(ast instanceof ClassNode, ast.toString());
+    return (ClassNode) ast;
+  }
+}
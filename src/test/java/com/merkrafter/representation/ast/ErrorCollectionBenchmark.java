@@ -0,0 +1,108 @@
+package com.merkrafter.representation.ast;
+
+import com.merkrafter.lexing.Position;
+import com.merkrafter.representation.ActualProcedureDescription;
+import com.merkrafter.representation.ClassDescription;
+import com.merkrafter.representation.Type;
+import com.merkrafter.representation.VariableDescription;
+import java.util.ArrayList;
+import org.jetbrains.annotations.NotNull;
+
+/****
+ * This benchmark measures how collecting the errors of a class scales with the length of a
+ * statement sequence. It is not run as part of the test suite; start its main method manually
+ * instead. The optional first argument is the largest number of statements to measure.
+ * <p>
+ * The class has a single procedure whose body is a sequence of assignments. In the first case,
+ * all of them are correct; in the second case, each of them assigns a boolean to an int variable
+ * and hence produces an error. Both should take time linear in the number of statements.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+public class ErrorCollectionBenchmark {
+  // CONSTANTS
+  // ==============================================================
+  private static final int WARMUP_ROUNDS = 5;
+  private static final int MEASURED_ROUNDS = 5;
+
+  private static final Position POSITION = new Position("", 0, 0);
+
+  // METHODS
+  // ==============================================================
+  // public methods
+  // --------------------------------------------------------------
+
+  public static void main(@NotNull final String[] args) {
+    final int maxStatements = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+    System.out.printf(
+        "%10s %15s %15s %15s%n", "statements", "correct [ms]", "faulty [ms]", "errors");
+    for (int statements = 1000; statements <= maxStatements; statements *= 10) {
+      final ClassNode correct = createClass(statements, false);
+      final ClassNode faulty = createClass(statements, true);
+      for (int i = 0; i < WARMUP_ROUNDS; i++) {
+        correct.getAllErrors();
+        faulty.getAllErrors();
+      }
+      long correctNanos = 0;
+      long faultyNanos = 0;
+      int errors = 0;
+      for (int i = 0; i < MEASURED_ROUNDS; i++) {
+        final long start = System.nanoTime();
+        correct.getAllErrors();
+        final long middle = System.nanoTime();
+        errors = faulty.getAllErrors().size();
+        faultyNanos += System.nanoTime() - middle;
+        correctNanos += middle - start;
+      }
+      System.out.printf(
+          "%10d %15.3f %15.3f %15d%n",
+          statements,
+          correctNanos / 1e6 / MEASURED_ROUNDS,
+          faultyNanos / 1e6 / MEASURED_ROUNDS,
+          errors);
+    }
+  }
+
+  // private methods
+  // --------------------------------------------------------------
+
+  /**
+   * Creates a class with a procedure that consists of the given number of assignments of the form
+   * <code>x = x + 1</code> or <code>x = b</code> if they should be faulty.
+   */
+  @NotNull
+  private static ClassNode createClass(final int statements, final boolean faulty) {
+    final ClassDescription clazz = new ClassDescription("Benchmark", null);
+    final VariableDescription x = new VariableDescription("x", Type.INT, 0, false);
+    final VariableDescription b = new VariableDescription("b", Type.BOOLEAN, false, false);
+    clazz.getSymbolTable().insert(x);
+    clazz.getSymbolTable().insert(b);
+    final ActualProcedureDescription procedure =
+        new ActualProcedureDescription(
+            Type.VOID, "run", new ArrayList<>(), clazz.getSymbolTable(), POSITION);
+
+    Statement first = null;
+    Statement last = null;
+    for (int i = 0; i < statements; i++) {
+      final Expression value =
+          faulty
+              ? new VariableAccessNode(b, POSITION)
+              : new BinaryOperationNode(
+                  new VariableAccessNode(x, POSITION),
+                  BinaryOperationNodeType.PLUS,
+                  new ConstantNode<>(Type.INT, 1L, POSITION));
+      final Statement statement = new AssignmentNode(new VariableAccessNode(x, POSITION), value);
+      if (last == null) {
+        first = statement;
+      } else {
+        last.setNext(statement);
+      }
+      last = statement;
+    }
+    assert first != null;
+    procedure.setEntrypoint(first);
+    clazz.getSymbolTable().insert(procedure);
+    return new ClassNode(clazz, POSITION);
+  }
+}
@@ -0,0 +1,132 @@
+package com.merkrafter.representation.ast;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.merkrafter.lexing.Position;
+import com.merkrafter.representation.ActualProcedureDescription;
+import com.merkrafter.representation.ClassDescription;
+import com.merkrafter.representation.Type;
+import com.merkrafter.representation.VariableDescription;
+import java.util.ArrayList;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+class ExpressionFactoryTest {
+  private final Position p = new Position("", 0, 0); // just a dummy position
+  private final Position q = new Position("", 1, 0);
+
+  private final VariableDescription a = new VariableDescription("a", Type.INT, 0, false);
+  private final VariableDescription b = new VariableDescription("b", Type.INT, 0, false);
+
+  /** Equal expressions should be represented by the same node if expressions are shared. */
+  @Test
+  void shareEqualExpressions() {
+    final ExpressionFactory factory = new ExpressionFactory(true);
+
+    final Expression first = sumTimesTwo(factory, p);
+    final Expression second = sumTimesTwo(factory, q);
+
+    assertTrue(factory.isSharing());
+    assertSame(first, second);
+    assertEquals(p, second.getPosition());
+  }
+
+  /** Different expressions should still be represented by different nodes. */
+  @Test
+  void distinguishDifferentExpressions() {
+    final ExpressionFactory factory = new ExpressionFactory(true);
+
+    final Expression sum =
+        factory.binaryOperation(
+            factory.variableAccess(a, p),
+            BinaryOperationNodeType.PLUS,
+            factory.variableAccess(b, p));
+    final Expression difference =
+        factory.binaryOperation(
+            factory.variableAccess(a, p),
+            BinaryOperationNodeType.MINUS,
+            factory.variableAccess(b, p));
+    final Expression swapped =
+        factory.binaryOperation(
+            factory.variableAccess(b, p),
+            BinaryOperationNodeType.PLUS,
+            factory.variableAccess(a, p));
+
+    assertNotSame(sum, difference);
+    assertNotSame(sum, swapped);
+    assertNotSame(factory.constant(Type.INT, 1L, p), factory.constant(Type.INT, 2L, p));
+    assertSame(factory.constant(Type.INT, 1L, p), factory.constant(Type.INT, 1L, q));
+  }
+
+  /** Procedure calls have side effects, hence neither they nor operations on them are shared. */
+  @Test
+  void doNotShareProcedureCalls() {
+    final ExpressionFactory factory = new ExpressionFactory(true);
+    final ClassDescription clazz = new ClassDescription("Test", null);
+    final ActualProcedureDescription procedure =
+        new ActualProcedureDescription(Type.INT, "f", new ArrayList<>(), clazz.getSymbolTable(), p);
+
+    final Expression first =
+        factory.binaryOperation(
+            new ProcedureCallNode(procedure, new ParameterListNode(), p),
+            BinaryOperationNodeType.PLUS,
+            factory.variableAccess(a, p));
+    final Expression second =
+        factory.binaryOperation(
+            new ProcedureCallNode(procedure, new ParameterListNode(), p),
+            BinaryOperationNodeType.PLUS,
+            factory.variableAccess(a, p));
+
+    assertNotSame(first, second);
+    assertEquals(first, second);
+  }
+
+  /** Without sharing, every call should create a new node. */
+  @Test
+  void createNewNodesWithoutSharing() {
+    final ExpressionFactory factory = new ExpressionFactory(false);
+
+    final Expression first = sumTimesTwo(factory, p);
+    final Expression second = sumTimesTwo(factory, p);
+
+    assertFalse(factory.isSharing());
+    assertNotSame(first, second);
+    assertEquals(first, second);
+  }
+
+  /** The errors of a shared expression should be reported once, not once per occurrence. */
+  @Test
+  void reportErrorsOfSharedExpressionsOnce() {
+    final ExpressionFactory factory = new ExpressionFactory(true);
+    final Expression mismatch =
+        factory.binaryOperation(
+            factory.variableAccess(a, p),
+            BinaryOperationNodeType.PLUS,
+            factory.constant(Type.BOOLEAN, true, p));
+    final AssignmentNode first = new AssignmentNode(new VariableAccessNode(b, p), mismatch);
+    final AssignmentNode second =
+        new AssignmentNode(
+            new VariableAccessNode(b, q),
+            factory.binaryOperation(
+                factory.variableAccess(a, q),
+                BinaryOperationNodeType.PLUS,
+                factory.constant(Type.BOOLEAN, true, q)));
+    first.setNext(second);
+
+    assertSame(mismatch, second.getValue());
+    assertEquals(1, first.getTypingErrors().size());
+  }
+
+  /** @return (a + b) * 2 */
+  @NotNull
+  private Expression sumTimesTwo(
+      @NotNull final ExpressionFactory factory, @NotNull final Position position) {
+    return factory.binaryOperation(
+        factory.binaryOperation(
+            factory.variableAccess(a, position),
+            BinaryOperationNodeType.PLUS,
+            factory.variableAccess(b, position)),
+        BinaryOperationNodeType.TIMES,
+        factory.constant(Type.INT, 2L, position));
+  }
+}
@@ -0,0 +1,144 @@
+package com.merkrafter.representation.ast;
+
+import com.merkrafter.lexing.Position;
+import com.merkrafter.representation.Type;
+import com.merkrafter.representation.VariableDescription;
+import org.jetbrains.annotations.NotNull;
+
+/****
+ * This benchmark compares the memory usage and the traversal time of AST nodes with a FlatAst. It
+ * is not run as part of the test suite; start its main method manually instead. The optional
+ * argument is the number of statements.
+ * <p>
+ * The program is a sequence of assignments <code>x = x + i</code> in which every statement has a
+ * position of its own, as it would have after parsing. Both traversals sum up the constants.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+public class FlatAstBenchmark {
+  // CONSTANTS
+  // ==============================================================
+  private static final int WARMUP_ROUNDS = 5;
+  private static final int MEASURED_ROUNDS = 5;
+
+  // METHODS
+  // ==============================================================
+  // public methods
+  // --------------------------------------------------------------
+
+  public static void main(@NotNull final String[] args) {
+    final int statements = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+    final long before = usedMemory();
+    Statement first = createSequence(statements);
+    final long treeBytes = usedMemory() - before;
+    final FlatAst flat = new FlatAst();
+    final int root = flat.add(first);
+    flat.trimToSize();
+    final long flatBytes = usedMemory() - before - treeBytes;
+
+    System.out.printf("%d statements, %d nodes%n", statements, flat.size());
+    System.out.printf("%10s %15s %15s %15s%n", "", "bytes", "bytes/node", "time [ms]");
+    System.out.printf(
+        "%10s %15d %15.1f %15.3f%n",
+        "AST nodes", treeBytes, (double) treeBytes / flat.size(), measureTree(first));
+    System.out.printf(
+        "%10s %15d %15.1f %15.3f%n",
+        "FlatAst", flatBytes, (double) flatBytes / flat.size(), measureFlat(flat));
+
+    first = null; // the converted tree should not be counted together with the original one
+    final long beforeConversion = usedMemory();
+    final AbstractSyntaxTree converted = flat.toTree(root);
+    System.out.printf(
+        "converted back with %d bytes and %d errors%n",
+        usedMemory() - beforeConversion, converted.getAllErrors().size());
+  }
+
+  // private methods
+  // --------------------------------------------------------------
+
+  /** @return the average time in milliseconds to sum up the constants of the AST nodes */
+  private static double measureTree(@NotNull final Statement first) {
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      sumTree(first);
+    }
+    final long start = System.nanoTime();
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      sumTree(first);
+    }
+    return (System.nanoTime() - start) / 1e6 / MEASURED_ROUNDS;
+  }
+
+  /** @return the average time in milliseconds to sum up the constants of the flat tree */
+  private static double measureFlat(@NotNull final FlatAst flat) {
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      sumFlat(flat);
+    }
+    final long start = System.nanoTime();
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      sumFlat(flat);
+    }
+    return (System.nanoTime() - start) / 1e6 / MEASURED_ROUNDS;
+  }
+
+  private static long sumTree(@NotNull final Statement first) {
+    final long[] sum = {0};
+    AstWalker.walk(
+        first,
+        new AstVisitor() {
+          @Override
+          public boolean enter(@NotNull final AbstractSyntaxTree node) {
+            if (node instanceof ConstantNode) {
+              sum[0] += (Long) ((ConstantNode<?>) node).getValue();
+            }
+            return true;
+          }
+        });
+    return sum[0];
+  }
+
+  private static long sumFlat(@NotNull final FlatAst flat) {
+    long sum = 0;
+    for (int node = 0; node < flat.size(); node++) {
+      if (flat.getKind(node) == FlatAst.Kind.INT_CONSTANT) {
+        sum += flat.getConstant(node);
+      }
+    }
+    return sum;
+  }
+
+  private static long usedMemory() {
+    final Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  /** @return the first statement of the given number of assignments x = x + i */
+  @NotNull
+  private static Statement createSequence(final int statements) {
+    final VariableDescription x = new VariableDescription("x", Type.INT, 0, false);
+    Statement first = null;
+    Statement last = null;
+    for (int i = 0; i < statements; i++) {
+      final Position position = new Position("Benchmark.java", i, 5);
+      final Statement statement =
+          new AssignmentNode(
+              new VariableAccessNode(x, position),
+              new BinaryOperationNode(
+                  new VariableAccessNode(x, position),
+                  BinaryOperationNodeType.PLUS,
+                  new ConstantNode<>(Type.INT, (long) i, position)));
+      if (last == null) {
+        first = statement;
+      } else {
+        last.setNext(statement);
+      }
+      last = statement;
+    }
+    assert first != null;
+    return first;
+  }
+}
@@ -0,0 +1,181 @@
+package com.merkrafter.representation.ast;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.merkrafter.lexing.Position;
+import com.merkrafter.representation.ActualProcedureDescription;
+import com.merkrafter.representation.ClassDescription;
+import com.merkrafter.representation.Type;
+import com.merkrafter.representation.VariableDescription;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+class FlatAstTest {
+  private final Position p = new Position("", 0, 0); // just a dummy position
+
+  private final ClassDescription clazz = new ClassDescription("Test", null);
+  private final VariableDescription x = new VariableDescription("x", Type.INT, 0, false);
+  private final VariableDescription b = new VariableDescription("b", Type.BOOLEAN, false, false);
+
+  /** The nodes should be stored in preorder and be linked to their first child and next sibling. */
+  @Test
+  void storeInPreorder() {
+    // x = x + 1; return;
+    final AssignmentNode assignment = assignment();
+    assignment.setNext(new ReturnNode(p));
+
+    final FlatAst flat = new FlatAst();
+    final int root = flat.add(assignment);
+
+    assertEquals(0, root);
+    assertEquals(6, flat.size());
+    final List<FlatAst.Kind> kinds = new ArrayList<>();
+    for (int node = 0; node < flat.size(); node++) {
+      kinds.add(flat.getKind(node));
+    }
+    assertEquals(
+        Arrays.asList(
+            FlatAst.Kind.ASSIGNMENT,
+            FlatAst.Kind.VARIABLE_ACCESS,
+            FlatAst.Kind.BINARY_OPERATION,
+            FlatAst.Kind.VARIABLE_ACCESS,
+            FlatAst.Kind.INT_CONSTANT,
+            FlatAst.Kind.RETURN),
+        kinds);
+    assertEquals(1, flat.getFirstChild(0));
+    assertEquals(2, flat.getNextSibling(1));
+    assertEquals(3, flat.getFirstChild(2));
+    assertEquals(4, flat.getNextSibling(3));
+    assertEquals(FlatAst.NONE, flat.getNextSibling(2));
+    assertEquals(5, flat.getNextSibling(0));
+    assertEquals(FlatAst.NONE, flat.getFirstChild(5));
+    assertEquals(BinaryOperationNodeType.PLUS, flat.getOperation(2));
+    assertEquals(1L, flat.getConstant(4));
+    assertSame(x, flat.getVariable(1));
+    assertNull(flat.getPosition(0));
+    assertEquals(p, flat.getPosition(5));
+  }
+
+  /** Converting a stored tree back should result in an equal tree. */
+  @Test
+  void convertBack() {
+    // x = x + 1; while (b) { foo(x, 5); } if (b) { x = x + 1; } else { return; } return x;
+    final ActualProcedureDescription foo =
+        new ActualProcedureDescription(
+            Type.VOID, "foo", new ArrayList<>(), clazz.getSymbolTable(), p);
+    final Statement first =
+        sequence(
+            assignment(),
+            new WhileNode(
+                new VariableAccessNode(b, p),
+                new ProcedureCallNode(
+                    foo,
+                    new ParameterListNode(
+                        Arrays.asList(
+                            new VariableAccessNode(x, p), new ConstantNode<>(Type.INT, 5L, p))),
+                    p),
+                p),
+            new IfElseNode(
+                new IfNode(new VariableAccessNode(b, p), assignment(), p), new ReturnNode(p)),
+            new ReturnNode(new VariableAccessNode(x, p), p));
+
+    final FlatAst flat = new FlatAst();
+    final AbstractSyntaxTree converted = flat.toTree(flat.add(first));
+
+    assertEquals(statements(first), statements(converted));
+    assertTrue(((Statement) converted).hasReturnStatement());
+  }
+
+  /** The existing passes should find the same errors in a converted tree. */
+  @Test
+  void checkConvertedTree() {
+    // x = b; b = true; return 1;
+    final Statement first =
+        sequence(
+            new AssignmentNode(new VariableAccessNode(x, p), new VariableAccessNode(b, p)),
+            new AssignmentNode(
+                new VariableAccessNode(b, p), new ConstantNode<>(Type.BOOLEAN, true, p)),
+            new ReturnNode(new ConstantNode<>(Type.INT, 1L, p), p));
+
+    final FlatAst flat = new FlatAst();
+    final int root = flat.add(first);
+    final AbstractSyntaxTree converted = flat.toTree(root);
+
+    assertEquals(FlatAst.Kind.BOOLEAN_CONSTANT, flat.getKind(5));
+    assertEquals(1L, flat.getConstant(5));
+    assertEquals(first.getTypingErrors(), converted.getTypingErrors());
+    assertEquals(1, converted.getTypingErrors().size());
+  }
+
+  /** Several trees can be stored in the same instance without being linked to each other. */
+  @Test
+  void storeSeveralTrees() {
+    final FlatAst flat = new FlatAst();
+    final int firstRoot = flat.add(assignment());
+    final int secondRoot = flat.add(new ReturnNode(p));
+
+    assertEquals(5, secondRoot);
+    assertEquals(FlatAst.NONE, flat.getNextSibling(firstRoot));
+    assertEquals(Arrays.asList(assignment()), statements(flat.toTree(firstRoot)));
+  }
+
+  /** Very long statement sequences should be stored and converted without recursion. */
+  @Test
+  void longSequence() {
+    final int numStatements = 1_000_000;
+    final AssignmentNode first = assignment();
+    AssignmentNode last = first;
+    for (int i = 1; i < numStatements; i++) {
+      final AssignmentNode next = assignment();
+      last.setNext(next);
+      last = next;
+    }
+
+    final FlatAst flat = new FlatAst();
+    final AbstractSyntaxTree converted = flat.toTree(flat.add(first));
+
+    assertEquals(5 * numStatements, flat.size());
+    assertEquals(numStatements, statements(converted).size());
+  }
+
+  /** Class nodes are not supported. */
+  @Test
+  void rejectClassNode() {
+    final FlatAst flat = new FlatAst();
+    assertThrows(IllegalArgumentException.class, () -> flat.add(new ClassNode(clazz, p)));
+  }
+
+  /** @return x = x + 1; */
+  @NotNull
+  private AssignmentNode assignment() {
+    return new AssignmentNode(
+        new VariableAccessNode(x, p),
+        new BinaryOperationNode(
+            new VariableAccessNode(x, p),
+            BinaryOperationNodeType.PLUS,
+            new ConstantNode<>(Type.INT, 1L, p)));
+  }
+
+  /** Links the given statements and returns the first one. */
+  @NotNull
+  private static Statement sequence(@NotNull final Statement... statements) {
+    for (int i = 1; i < statements.length; i++) {
+      statements[i - 1].setNext(statements[i]);
+    }
+    return statements[0];
+  }
+
+  /** @return the given statement and the ones that follow it */
+  @NotNull
+  private static List<Statement> statements(@Nullable final AbstractSyntaxTree first) {
+    final List<Statement> statements = new ArrayList<>();
+    for (Statement s = (Statement) first; s != null; s = s.getNext()) {
+      statements.add(s);
+    }
+    return statements;
+  }
+}
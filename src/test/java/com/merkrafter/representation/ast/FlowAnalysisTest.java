@@ -0,0 +1,116 @@
+package com.merkrafter.representation.ast;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.merkrafter.lexing.Position;
+import com.merkrafter.representation.Type;
+import com.merkrafter.representation.VariableDescription;
+import java.util.Arrays;
+import java.util.EnumSet;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+class FlowAnalysisTest {
+  private final Position p = new Position("", 0, 0); // just a dummy position
+
+  private final VariableDescription x = new VariableDescription("x", Type.INT, 0, false);
+  private final VariableDescription b = new VariableDescription("b", Type.BOOLEAN, false, false);
+
+  /** A sequence without return statements falls through and is only valid in void procedures. */
+  @Test
+  void fallThrough() {
+    final FlowAnalysis.Flow flow = new FlowAnalysis().getFlow(assignment());
+
+    assertFalse(flow.alwaysReturns());
+    assertTrue(flow.mayFallThrough());
+    assertEquals(EnumSet.of(Type.VOID), flow.getCompatibleTypes());
+  }
+
+  /** A return statement in only one branch should not prevent falling through. */
+  @Test
+  void returnInOneBranch() {
+    // if (b) { return x; } else { x = x + 1; }
+    final Statement ifElse =
+        new IfElseNode(new IfNode(new VariableAccessNode(b, p), ret(), p), assignment());
+
+    final FlowAnalysis.Flow flow = new FlowAnalysis().getFlow(ifElse);
+
+    assertTrue(flow.mayFallThrough());
+    assertTrue(flow.getCompatibleTypes().isEmpty());
+
+    // ... return x;
+    ifElse.setNext(ret());
+    final FlowAnalysis.Flow flowWithReturn = new FlowAnalysis().getFlow(ifElse);
+
+    assertTrue(flowWithReturn.alwaysReturns());
+    assertEquals(EnumSet.of(Type.INT), flowWithReturn.getCompatibleTypes());
+  }
+
+  /** The type of a return statement inside of a loop must match as well. */
+  @Test
+  void returnInLoop() {
+    // while (b) { return b; } return x;
+    final Statement loop = new WhileNode(new VariableAccessNode(b, p), boolReturn(), p);
+    loop.setNext(ret());
+
+    final FlowAnalysis.Flow flow = new FlowAnalysis().getFlow(loop);
+
+    assertTrue(flow.alwaysReturns());
+    assertTrue(flow.getCompatibleTypes().isEmpty());
+    assertEquals(loop.isCompatibleToType(Type.INT), flow.isCompatibleToType(Type.INT));
+  }
+
+  /** The statements of a sequence are analysed together with the statements after it. */
+  @Test
+  void analyseSequences() {
+    // { x = x + 1; return; } x = x + 1;
+    final Statement sequence =
+        new StatementSequence(Arrays.asList(assignment(), new ReturnNode(p)));
+    sequence.setNext(assignment());
+
+    final FlowAnalysis.Flow flow = new FlowAnalysis().getFlow(sequence);
+
+    assertTrue(flow.alwaysReturns());
+    assertEquals(EnumSet.of(Type.VOID), flow.getCompatibleTypes());
+  }
+
+  /**
+   * Each sequence should be analysed only once. A branch that is shared by many nested statements
+   * would take exponential time otherwise.
+   */
+  @Test
+  void analyseSharedBranchesOnce() {
+    Statement statement = ret();
+    for (int i = 0; i < 64; i++) {
+      statement =
+          new IfElseNode(new IfNode(new VariableAccessNode(b, p), statement, p), statement);
+    }
+
+    assertTrue(statement.hasReturnStatement());
+    assertTrue(statement.isCompatibleToType(Type.INT));
+    assertFalse(statement.isCompatibleToType(Type.VOID));
+  }
+
+  /** @return x = x + 1; */
+  @NotNull
+  private AssignmentNode assignment() {
+    return new AssignmentNode(
+        new VariableAccessNode(x, p),
+        new BinaryOperationNode(
+            new VariableAccessNode(x, p),
+            BinaryOperationNodeType.PLUS,
+            new ConstantNode<>(Type.INT, 1L, p)));
+  }
+
+  /** @return return x; */
+  @NotNull
+  private ReturnNode ret() {
+    return new ReturnNode(new VariableAccessNode(x, p), p);
+  }
+
+  /** @return return b; */
+  @NotNull
+  private ReturnNode boolReturn() {
+    return new ReturnNode(new VariableAccessNode(b, p), p);
+  }
+}
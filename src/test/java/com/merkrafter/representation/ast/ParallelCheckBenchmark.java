@@ -0,0 +1,122 @@
+package com.merkrafter.representation.ast;
+
+import com.merkrafter.lexing.Position;
+import com.merkrafter.representation.ActualProcedureDescription;
+import com.merkrafter.representation.ClassDescription;
+import com.merkrafter.representation.Type;
+import com.merkrafter.representation.VariableDescription;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/****
+ * This benchmark measures how checking the procedures of a class scales with the number of
+ * threads. It is not run as part of the test suite; start its main method manually instead. The
+ * optional arguments are the number of procedures and the number of statements per procedure.
+ * <p>
+ * Each procedure consists of assignments, every second of which assigns a boolean to an int
+ * variable and hence produces an error. The first row is the sequential check; the others use a
+ * ForkJoinPool with the given parallelism, up to the number of available cores.
+ *
+ * @since v0.4.0
+ * @author merkrafter
+ ***************************************************************/
+public class ParallelCheckBenchmark {
+  // CONSTANTS
+  // ==============================================================
+  private static final int WARMUP_ROUNDS = 5;
+  private static final int MEASURED_ROUNDS = 5;
+
+  private static final Position POSITION = new Position("", 0, 0);
+
+  // METHODS
+  // ==============================================================
+  // public methods
+  // --------------------------------------------------------------
+
+  public static void main(@NotNull final String[] args) {
+    final int procedures = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+    final int statements = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+    final ClassNode clazz = createClass(procedures, statements);
+    final int errors = clazz.getAllErrors().size();
+
+    System.out.printf(
+        "%d procedures with %d statements, %d errors%n", procedures, statements, errors);
+    System.out.printf("%10s %15s %10s%n", "threads", "time [ms]", "speedup");
+    final double sequentialMillis = measure(clazz, null);
+    System.out.printf("%10s %15.3f %10.2f%n", "-", sequentialMillis, 1.0);
+    final int cores = Runtime.getRuntime().availableProcessors();
+    for (int threads = 1; threads <= cores; threads *= 2) {
+      final ForkJoinPool pool = new ForkJoinPool(threads);
+      final double millis = measure(clazz, pool);
+      pool.shutdown();
+      System.out.printf("%10d %15.3f %10.2f%n", threads, millis, sequentialMillis / millis);
+    }
+  }
+
+  // private methods
+  // --------------------------------------------------------------
+
+  /** @return the average time in milliseconds to check the class; sequentially if pool is null */
+  private static double measure(
+      @NotNull final ClassNode clazz, @Nullable final ForkJoinPool pool) {
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      check(clazz, pool);
+    }
+    final long start = System.nanoTime();
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      check(clazz, pool);
+    }
+    return (System.nanoTime() - start) / 1e6 / MEASURED_ROUNDS;
+  }
+
+  private static void check(@NotNull final ClassNode clazz, @Nullable final ForkJoinPool pool) {
+    if (pool == null) {
+      clazz.getAllErrors();
+    } else {
+      clazz.getAllErrors(pool);
+    }
+  }
+
+  /**
+   * Creates a class with the given number of procedures, each consisting of the given number of
+   * assignments that alternate between <code>x = x + 1</code> and <code>x = b</code>.
+   */
+  @NotNull
+  private static ClassNode createClass(final int procedures, final int statements) {
+    final ClassDescription clazz = new ClassDescription("Benchmark", null);
+    final VariableDescription x = new VariableDescription("x", Type.INT, 0, false);
+    final VariableDescription b = new VariableDescription("b", Type.BOOLEAN, false, false);
+    clazz.getSymbolTable().insert(x);
+    clazz.getSymbolTable().insert(b);
+
+    for (int p = 0; p < procedures; p++) {
+      final ActualProcedureDescription procedure =
+          new ActualProcedureDescription(
+              Type.VOID, "run" + p, new ArrayList<>(), clazz.getSymbolTable(), POSITION);
+      Statement first = null;
+      Statement last = null;
+      for (int i = 0; i < statements; i++) {
+        final Expression value =
+            i % 2 == 1
+                ? new VariableAccessNode(b, POSITION)
+                : new BinaryOperationNode(
+                    new VariableAccessNode(x, POSITION),
+                    BinaryOperationNodeType.PLUS,
+                    new ConstantNode<>(Type.INT, 1L, POSITION));
+        final Statement statement = new AssignmentNode(new VariableAccessNode(x, POSITION), value);
+        if (last == null) {
+          first = statement;
+        } else {
+          last.setNext(statement);
+        }
+        last = statement;
+      }
+      assert first != null;
+      procedure.setEntrypoint(first);
+      clazz.getSymbolTable().insert(procedure);
+    }
+    return new ClassNode(clazz, POSITION);
+  }
+}
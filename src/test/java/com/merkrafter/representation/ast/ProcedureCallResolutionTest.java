@@ -0,0 +1,131 @@
+package com.merkrafter.representation.ast;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.merkrafter.lexing.Scanner;
+import com.merkrafter.lexing.StringIteratorTestUtility;
+import com.merkrafter.parsing.Parser;
+import com.merkrafter.representation.ProcedureDescription;
+import com.merkrafter.representation.ProcedureDescriptionProxy;
+import com.merkrafter.representation.ProcedureIndex;
+import com.merkrafter.representation.Type;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+class ProcedureCallResolutionTest {
+
+  /**
+   * After resolving the calls, they should refer to the declared procedures directly, including
+   * calls that are nested in arguments and calls of procedures declared later on.
+   */
+  @Test
+  void resolveNestedCalls() {
+    final ClassNode classNode =
+        parse(
+            "class A { public void g() { f(f(1)); }"
+                + " public int f(int a) { return a; } }");
+    final ProcedureDescription f =
+        classNode.getClassDescription().getSymbolTable().findProcedure("f", Type.INT);
+    final ProcedureDescription g =
+        classNode.getClassDescription().getSymbolTable().findProcedure("g");
+    assertNotNull(f);
+    assertNotNull(g);
+
+    final List<String> diagnostics = classNode.resolveProcedureCalls();
+
+    assertTrue(diagnostics.isEmpty());
+    final ProcedureCallNode outerCall = (ProcedureCallNode) g.getEntryPoint();
+    final ProcedureCallNode innerCall =
+        (ProcedureCallNode) outerCall.getArgs().getParameters().get(0);
+    assertSame(f, outerCall.getProcedure());
+    assertSame(f, innerCall.getProcedure());
+    assertTrue(classNode.getAllErrors().isEmpty());
+  }
+
+  /** Calls of unknown procedures should be recorded and refer to a description without proxy. */
+  @Test
+  void recordUnresolvedCalls() {
+    final ClassNode classNode =
+        parse("class A { public void g() { h(1); h(2); } public void h() { return; } }");
+    final ProcedureDescription g =
+        classNode.getClassDescription().getSymbolTable().findProcedure("g");
+    assertNotNull(g);
+
+    final List<String> diagnostics = classNode.resolveProcedureCalls();
+
+    assertEquals(2, diagnostics.size());
+    assertTrue(diagnostics.get(0).contains("Call to unknown procedure h(INT)"));
+    final StatementSequence body = (StatementSequence) g.getEntryPoint();
+    assertNotNull(body);
+    final ProcedureDescription procedure = ((ProcedureCallNode) body.get(0)).getProcedure();
+    assertFalse(procedure instanceof ProcedureDescriptionProxy);
+    assertEquals("h", procedure.getName());
+    assertNull(procedure.getParamList());
+  }
+
+  /**
+   * A call to an unknown procedure should have no type instead of crashing the resolution of the
+   * call it is an argument of, and only the unknown procedure should be reported.
+   */
+  @Test
+  void unknownCallAsArgument() {
+    final ClassNode classNode =
+        parse("class A { public int g() { return f(h(1)); } public int f(int a) { return a; } }");
+    final ProcedureDescription g =
+        classNode.getClassDescription().getSymbolTable().findProcedure("g");
+    assertNotNull(g);
+
+    final List<String> diagnostics = classNode.resolveProcedureCalls();
+
+    assertEquals(1, diagnostics.size());
+    assertTrue(diagnostics.get(0).contains("Call to unknown procedure h(INT)"));
+    final ReturnNode ret = (ReturnNode) g.getEntryPoint();
+    assertNotNull(ret);
+    final ProcedureCallNode outerCall = (ProcedureCallNode) ret.getChildren().get(0);
+    final ProcedureCallNode innerCall =
+        (ProcedureCallNode) outerCall.getArgs().getParameters().get(0);
+    assertEquals(Type.VOID, innerCall.getReturnedType());
+    assertNull(outerCall.getProcedure().getParamList());
+  }
+
+  /**
+   * Calls to procedures of other classes should be linked via the index, while procedures of the
+   * calling class take precedence.
+   */
+  @Test
+  void linkCallsAcrossClasses() {
+    final ClassNode caller =
+        parse("class A { public void g() { f(1); h(); } public void h() { return; } }");
+    final ClassNode callee =
+        parse("class B { public int f(int a) { return a; } public void h() { return; } }");
+    final ProcedureIndex procedureIndex = new ProcedureIndex();
+    procedureIndex.register(caller.getClassDescription());
+    procedureIndex.register(callee.getClassDescription());
+
+    final List<String> diagnostics = caller.resolveProcedureCalls(procedureIndex);
+
+    assertTrue(diagnostics.isEmpty());
+    final ProcedureDescription g =
+        caller.getClassDescription().getSymbolTable().findProcedure("g");
+    assertNotNull(g);
+    final StatementSequence body = (StatementSequence) g.getEntryPoint();
+    final ProcedureCallNode fCall = (ProcedureCallNode) body.get(0);
+    final ProcedureCallNode hCall = (ProcedureCallNode) body.get(1);
+    assertSame(
+        callee.getClassDescription().getSymbolTable().findProcedure("f", Type.INT),
+        fCall.getProcedure());
+    assertSame(
+        caller.getClassDescription().getSymbolTable().findProcedure("h"), hCall.getProcedure());
+    assertEquals(1, procedureIndex.getDiagnostics().size());
+  }
+
+  @NotNull
+  private static ClassNode parse(@NotNull final String program) {
+    final StringIteratorTestUtility stringIterator = new StringIteratorTestUtility();
+    stringIterator.setString(program);
+    final AbstractSyntaxTree ast = new Parser(new Scanner(stringIterator)).parse();
+    assertTrue(ast instanceof ClassNode, ast.toString());
+    return (ClassNode) ast;
+  }
+}
@@ -0,0 +1,144 @@
+package com.merkrafter.representation.ast;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.merkrafter.lexing.Position;
+import com.merkrafter.representation.Type;
+import com.merkrafter.representation.VariableDescription;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+class StatementSequenceTest {
+  private final Position p = new Position("", 0, 0); // just a dummy position
+
+  private final VariableDescription x = new VariableDescription("x", Type.INT, 0, false);
+  private final VariableDescription b = new VariableDescription("b", Type.BOOLEAN, false, false);
+
+  /** A sequence should only be created if there are several statements. */
+  @Test
+  void createSequenceOfSeveralStatements() {
+    final Statement assignment = assignment();
+    final Statement ret = new ReturnNode(p);
+
+    assertNull(StatementSequence.of(Collections.emptyList()));
+    assertSame(assignment, StatementSequence.of(Collections.singletonList(assignment)));
+
+    final StatementSequence sequence =
+        (StatementSequence) StatementSequence.of(Arrays.asList(assignment, ret));
+    assertNotNull(sequence);
+    assertEquals(2, sequence.size());
+    assertSame(assignment, sequence.get(0));
+    assertSame(ret, sequence.get(1));
+    assertEquals(Arrays.asList(assignment, ret), sequence.getChildren());
+    assertEquals(assignment.getPosition(), sequence.getPosition());
+    assertThrows(IllegalArgumentException.class, () -> new StatementSequence(new ArrayList<>()));
+  }
+
+  /** A sequence should be checked like the linked statements it consists of. */
+  @Test
+  void checkLikeLinkedStatements() {
+    // x = x + 1; while (b) { return x; } return;
+    final StatementSequence sequence =
+        new StatementSequence(
+            Arrays.asList(
+                assignment(),
+                new WhileNode(
+                    new VariableAccessNode(b, p),
+                    new ReturnNode(new VariableAccessNode(x, p), p),
+                    p),
+                new ReturnNode(p)));
+    final Statement linked =
+        link(
+            assignment(),
+            new WhileNode(
+                new VariableAccessNode(b, p), new ReturnNode(new VariableAccessNode(x, p), p), p),
+            new ReturnNode(p));
+
+    for (final Type type : Type.values()) {
+      assertEquals(linked.isCompatibleToType(type), sequence.isCompatibleToType(type));
+    }
+    assertTrue(sequence.hasReturnStatement());
+    assertFalse(sequence.isCompatibleToType(Type.INT));
+    assertFalse(sequence.isCompatibleToType(Type.VOID));
+  }
+
+  /** The statements after a sequence and inside of nested sequences should be checked as well. */
+  @Test
+  void checkNestedSequences() {
+    // { x = x + 1; { x = x + 1; x = x + 1; } } return x;
+    final StatementSequence inner =
+        new StatementSequence(Arrays.asList(assignment(), assignment()));
+    final StatementSequence outer = new StatementSequence(Arrays.asList(assignment(), inner));
+
+    assertFalse(outer.hasReturnStatement());
+    assertTrue(outer.isCompatibleToType(Type.VOID));
+    assertFalse(outer.isCompatibleToType(Type.INT));
+
+    outer.setNext(new ReturnNode(new VariableAccessNode(x, p), p));
+
+    assertTrue(outer.hasReturnStatement());
+    assertTrue(outer.isCompatibleToType(Type.INT));
+    assertFalse(outer.isCompatibleToType(Type.VOID));
+  }
+
+  /** Sequences with equal statements should be equal and have the same hash. */
+  @Test
+  void equalSequences() {
+    final StatementSequence first = new StatementSequence(Arrays.asList(assignment(), ret()));
+    final StatementSequence second = new StatementSequence(Arrays.asList(assignment(), ret()));
+    final StatementSequence other = new StatementSequence(Arrays.asList(ret(), assignment()));
+
+    assertEquals(first, second);
+    assertEquals(first.hashCode(), second.hashCode());
+    assertNotEquals(first, other);
+  }
+
+  /** Very long sequences should be checked and walked without recursion. */
+  @Test
+  void longSequence() {
+    final int numStatements = 1_000_000;
+    final List<Statement> statements = new ArrayList<>(numStatements);
+    for (int i = 1; i < numStatements; i++) {
+      statements.add(assignment());
+    }
+    statements.add(ret());
+    final StatementSequence sequence = new StatementSequence(statements);
+
+    assertTrue(sequence.hasReturnStatement());
+    assertTrue(sequence.isCompatibleToType(Type.INT));
+    assertTrue(sequence.getTypingErrors().isEmpty());
+
+    final FlatAst flat = new FlatAst();
+    assertEquals(sequence, flat.toTree(flat.add(sequence)));
+  }
+
+  /** @return x = x + 1; */
+  @NotNull
+  private AssignmentNode assignment() {
+    return new AssignmentNode(
+        new VariableAccessNode(x, p),
+        new BinaryOperationNode(
+            new VariableAccessNode(x, p),
+            BinaryOperationNodeType.PLUS,
+            new ConstantNode<>(Type.INT, 1L, p)));
+  }
+
+  /** @return return x; */
+  @NotNull
+  private ReturnNode ret() {
+    return new ReturnNode(new VariableAccessNode(x, p), p);
+  }
+
+  /** Links the given statements and returns the first one. */
+  @NotNull
+  private static Statement link(@NotNull final Statement... statements) {
+    for (int i = 1; i < statements.length; i++) {
+      statements[i - 1].setNext(statements[i]);
+    }
+    return statements[0];
+  }
+}
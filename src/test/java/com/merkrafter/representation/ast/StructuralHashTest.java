@@ -0,0 +1,134 @@
+package com.merkrafter.representation.ast;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.merkrafter.lexing.Position;
+import com.merkrafter.representation.ActualProcedureDescription;
+import com.merkrafter.representation.ClassDescription;
+import com.merkrafter.representation.Type;
+import com.merkrafter.representation.VariableDescription;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The test cases of this class verify that equal trees and descriptions have equal hash codes, such
+ * that they can be used as keys of hash maps.
+ */
+class StructuralHashTest {
+  private final Position p = new Position("", 0, 0); // just a dummy position
+  private final Position q = new Position("", 1, 2);
+
+  private final ClassDescription clazz = new ClassDescription("Test", null);
+  private final VariableDescription x = new VariableDescription("x", Type.INT, 0, false);
+  private final VariableDescription b = new VariableDescription("b", Type.BOOLEAN, false, false);
+
+  /** Trees that were built identically should have the same hash, independent of positions. */
+  @Test
+  void equalTreesHaveEqualHashes() {
+    final Statement first = program(p);
+    final Statement second = program(q);
+
+    assertNotSame(first, second);
+    assertEquals(first, second);
+    assertEquals(first.hashCode(), second.hashCode());
+  }
+
+  /** Equal trees should find each other in hash based collections. */
+  @Test
+  void useTreesAsKeys() {
+    final Map<AbstractSyntaxTree, String> map = new HashMap<>();
+    map.put(program(p), "program");
+    map.put(sum(p), "sum");
+
+    assertEquals("program", map.get(program(q)));
+    assertEquals("sum", map.get(sum(q)));
+    assertNull(map.get(new ConstantNode<>(Type.INT, 2L, p)));
+  }
+
+  /** Trees that differ in a single operation should not be equal. */
+  @Test
+  void differentOperations() {
+    final Expression sum = sum(p);
+    final Expression difference =
+        new BinaryOperationNode(
+            new VariableAccessNode(x, p),
+            BinaryOperationNodeType.MINUS,
+            new ConstantNode<>(Type.INT, 1L, p));
+
+    assertNotEquals(sum, difference);
+    assertNotEquals(sum.hashCode(), difference.hashCode());
+  }
+
+  /** Variables and procedures should have hashes that are consistent with their equals methods. */
+  @Test
+  void equalDescriptionsHaveEqualHashes() {
+    final VariableDescription otherX = new VariableDescription("x", Type.INT, 5, true);
+    final ActualProcedureDescription procedure = procedure(Type.INT);
+    final ActualProcedureDescription sameSignature = procedure(Type.INT);
+    final ActualProcedureDescription otherSignature = procedure(Type.BOOLEAN);
+    final ActualProcedureDescription anySignature =
+        new ActualProcedureDescription(
+            Type.VOID, "f", Arrays.asList(x, null), clazz.getSymbolTable(), p);
+
+    assertEquals(x, otherX);
+    assertEquals(x.hashCode(), otherX.hashCode());
+    assertEquals(procedure, sameSignature);
+    assertEquals(procedure.hashCode(), sameSignature.hashCode());
+    assertNotEquals(procedure, otherSignature);
+    assertEquals(procedure, anySignature);
+    assertEquals(procedure.hashCode(), anySignature.hashCode());
+
+    final Set<ActualProcedureDescription> procedures = new HashSet<>();
+    procedures.add(procedure);
+    assertTrue(procedures.contains(sameSignature));
+    assertFalse(procedures.contains(otherSignature));
+  }
+
+  /** @return f(int x, [type] y) */
+  @NotNull
+  private ActualProcedureDescription procedure(@NotNull final Type type) {
+    return new ActualProcedureDescription(
+        Type.VOID,
+        "f",
+        Arrays.asList(x, new VariableDescription("y", type, 0, false)),
+        clazz.getSymbolTable(),
+        p);
+  }
+
+  /** @return x + 1 */
+  @NotNull
+  private Expression sum(@NotNull final Position position) {
+    return new BinaryOperationNode(
+        new VariableAccessNode(x, position),
+        BinaryOperationNodeType.PLUS,
+        new ConstantNode<>(Type.INT, 1L, position));
+  }
+
+  /** @return while (b) { f(x + 1); } if (b) { x = x + 1; } else { return; } */
+  @NotNull
+  private Statement program(@NotNull final Position position) {
+    final ActualProcedureDescription f =
+        new ActualProcedureDescription(
+            Type.VOID, "f", new ArrayList<>(), clazz.getSymbolTable(), position);
+    final Statement loop =
+        new WhileNode(
+            new VariableAccessNode(b, position),
+            new ProcedureCallNode(
+                f, new ParameterListNode(Arrays.asList(sum(position))), position),
+            position);
+    loop.setNext(
+        new IfElseNode(
+            new IfNode(
+                new VariableAccessNode(b, position),
+                new AssignmentNode(new VariableAccessNode(x, position), sum(position)),
+                position),
+            new ReturnNode(position)));
+    return loop;
+  }
+}
@@ -1,5 +1,6 @@
 package com.merkrafter.representation.ast;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 
 import com.merkrafter.lexing.Position;
@@ -133,4 +134,45 @@ public class TypeCheckTest {
     final List<String> errors = nodeUnderTest.getTypingErrors();
     assertFalse(errors.isEmpty());
   }
+
+  /** Type errors in statements following a procedure call should be found as well. */
+  @Test
+  void testErrorAfterProcedureCall() {
+    // voidFunc(); return voidFunc();
+    final ProcedureCallNode nodeUnderTest =
+        new ProcedureCallNode(voidFunc, new ParameterListNode(new LinkedList<>()), p);
+    nodeUnderTest.setNext(new ReturnNode(voidFuncCall, p));
+
+    final List<String> errors = nodeUnderTest.getTypingErrors();
+    assertFalse(errors.isEmpty());
+  }
+
+  /** The return type of a call should be looked up only once, as a proxy searches it each time. */
+  @Test
+  void testProcedureCallTypeIsCached() {
+    final int[] lookups = {0};
+    final ProcedureDescription intFunc =
+        new ActualProcedureDescription(Type.INT, "intFunc", new LinkedList<>(), null, p) {
+          @NotNull
+          @Override
+          public Type getReturnType() {
+            lookups[0]++;
+            return super.getReturnType();
+          }
+        };
+    final ProcedureCallNode call =
+        new ProcedureCallNode(intFunc, new ParameterListNode(new LinkedList<>()), p);
+    // intFunc() + intFunc() == intFunc()
+    final Expression expression =
+        new BinaryOperationNode(
+            new BinaryOperationNode(call, BinaryOperationNodeType.PLUS, call),
+            BinaryOperationNodeType.EQUAL,
+            call);
+
+    expression.getTypingErrors();
+    expression.getTypingErrors();
+
+    assertEquals(Type.INT, call.getReturnedType());
+    assertEquals(1, lookups[0]);
+  }
 }
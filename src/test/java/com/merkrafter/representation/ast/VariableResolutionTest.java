@@ -0,0 +1,117 @@
+package com.merkrafter.representation.ast;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.merkrafter.lexing.Position;
+import com.merkrafter.representation.ActualProcedureDescription;
+import com.merkrafter.representation.ClassDescription;
+import com.merkrafter.representation.Type;
+import com.merkrafter.representation.VariableDescription;
+import java.util.LinkedList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class VariableResolutionTest {
+
+  private final Position p = new Position("", 0, 0); // just a dummy position
+
+  /**
+   * Fields, parameters and local variables should be numbered densely in declaration order, and
+   * each access should know how many scopes it has to go outwards.
+   */
+  @Test
+  void resolveFieldsParametersAndLocals() {
+    final ClassDescription clazz = new ClassDescription("A", null);
+    final VariableDescription constant = new VariableDescription("c", Type.INT, 1, true);
+    final VariableDescription field = new VariableDescription("x", Type.INT, 0, false);
+    clazz.getSymbolTable().insert(constant);
+    clazz.getSymbolTable().insert(field);
+
+    final VariableDescription param = new VariableDescription("a", Type.INT, 0, false);
+    final List<VariableDescription> paramList = new LinkedList<>();
+    paramList.add(param);
+    final ActualProcedureDescription procedure =
+        new ActualProcedureDescription(Type.VOID, "m", paramList, clazz.getSymbolTable(), p);
+    final VariableDescription local = new VariableDescription("l", Type.INT, 0, false);
+    procedure.getSymbols().insert(param);
+    procedure.getSymbols().insert(local);
+
+    // l = a + c; x = l;
+    final VariableAccessNode localAccess = new VariableAccessNode(local, p);
+    final VariableAccessNode paramAccess = new VariableAccessNode(param, p);
+    final VariableAccessNode constantAccess = new VariableAccessNode(constant, p);
+    final VariableAccessNode fieldAccess = new VariableAccessNode(field, p);
+    final VariableAccessNode secondLocalAccess = new VariableAccessNode(local, p);
+    final Statement first =
+        new AssignmentNode(
+            localAccess,
+            new BinaryOperationNode(paramAccess, BinaryOperationNodeType.PLUS, constantAccess));
+    first.setNext(new AssignmentNode(fieldAccess, secondLocalAccess));
+    procedure.setEntrypoint(first);
+    clazz.getSymbolTable().insert(procedure);
+
+    assertEquals(-1, localAccess.getDepth());
+    clazz.resolveVariables();
+
+    assertEquals(2, clazz.getFieldCount());
+    assertEquals(2, procedure.getFrameSize());
+    assertEquals(0, constant.getSlot());
+    assertEquals(1, field.getSlot());
+    assertEquals(0, param.getSlot());
+    assertEquals(1, local.getSlot());
+
+    assertEquals(0, localAccess.getDepth());
+    assertEquals(0, paramAccess.getDepth());
+    assertEquals(1, constantAccess.getDepth());
+    assertEquals(1, fieldAccess.getDepth());
+    assertEquals(0, secondLocalAccess.getDepth());
+    assertEquals(1, fieldAccess.getSlot());
+    assertEquals(1, secondLocalAccess.getSlot());
+  }
+
+  /** Accesses inside of loops, branches, calls and return statements should be resolved too. */
+  @Test
+  void resolveNestedAccesses() {
+    final ClassDescription clazz = new ClassDescription("A", null);
+    final VariableDescription field = new VariableDescription("x", Type.INT, 0, false);
+    clazz.getSymbolTable().insert(field);
+    final ActualProcedureDescription procedure =
+        new ActualProcedureDescription(
+            Type.INT, "m", new LinkedList<>(), clazz.getSymbolTable(), p);
+
+    final VariableAccessNode inCondition = new VariableAccessNode(field, p);
+    final VariableAccessNode inIf = new VariableAccessNode(field, p);
+    final VariableAccessNode inElse = new VariableAccessNode(field, p);
+    final VariableAccessNode inWhile = new VariableAccessNode(field, p);
+    final VariableAccessNode inReturn = new VariableAccessNode(field, p);
+    final List<Expression> args = new LinkedList<>();
+    args.add(inElse);
+    final ConstantNode<Integer> zero = new ConstantNode<>(Type.INT, 0, p);
+
+    final Statement ifElse =
+        new IfElseNode(
+            new IfNode(
+                new BinaryOperationNode(inCondition, BinaryOperationNodeType.GREATER, zero),
+                new ReturnNode(inIf, p),
+                p),
+            new ProcedureCallNode(procedure, new ParameterListNode(args), p));
+    final Statement loop =
+        new WhileNode(
+            new BinaryOperationNode(inWhile, BinaryOperationNodeType.GREATER, zero),
+            new ReturnNode(new ConstantNode<>(Type.INT, 1, p), p),
+            p);
+    ifElse.setNext(loop);
+    loop.setNext(new ReturnNode(inReturn, p));
+    procedure.setEntrypoint(ifElse);
+    clazz.getSymbolTable().insert(procedure);
+
+    clazz.resolveVariables();
+
+    for (final VariableAccessNode access :
+        new VariableAccessNode[] {inCondition, inIf, inElse, inWhile, inReturn}) {
+      assertEquals(1, access.getDepth());
+      assertEquals(0, access.getSlot());
+    }
+    assertEquals(0, procedure.getFrameSize());
+  }
+}
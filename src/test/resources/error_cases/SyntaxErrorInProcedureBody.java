@@ -0,0 +1,9 @@
+// the operand after + is missing; the procedures after it must not be checked
+class SyntaxErrorInProcedureBody {
+    public int f(int p) {
+        return p +;
+    }
+    public int g() {
+        return x;
+    }
+}
@@ -0,0 +1,11 @@
+// the procedure g is not defined anywhere, but its result is used in expressions
+class UndefinedProcedureInExpression {
+    public int f() {
+        int y;
+        y = g(1) + 1;
+        return h(g(2));
+    }
+    public int h(int a) {
+        return a;
+    }
+}
@@ -0,0 +1,12 @@
+// should not compile
+class UninitializedLocalVariable {
+    public int main(int a) {
+        int b;
+        if (a > 0) {
+            b = a;
+        } else {
+            a = 0;
+        }
+        return b;
+    }
+}